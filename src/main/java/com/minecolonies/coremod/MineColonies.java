@@ -153,6 +153,7 @@ public class MineColonies
         getNetwork().registerMessage(TransferItemsRequestMessage.class, TransferItemsRequestMessage.class, ++id, Side.SERVER);
         getNetwork().registerMessage(MarkBuildingDirtyMessage.class, MarkBuildingDirtyMessage.class, ++id, Side.SERVER);
         getNetwork().registerMessage(ChangeFreeToInteractBlockMessage.class, ChangeFreeToInteractBlockMessage.class, ++id, Side.SERVER);
+        getNetwork().registerMessage(ColonyViewResyncMessage.class, ColonyViewResyncMessage.class, ++id, Side.SERVER);
 
 
         // Schematic transfer messages
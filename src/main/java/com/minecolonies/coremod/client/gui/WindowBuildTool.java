@@ -5,12 +5,14 @@ import com.minecolonies.blockout.controls.Button;
 import com.minecolonies.blockout.views.DropDownList;
 import com.minecolonies.coremod.MineColonies;
 import com.minecolonies.coremod.colony.ColonyManager;
+import com.minecolonies.coremod.colony.SchematicTransfers;
 import com.minecolonies.coremod.colony.Structures;
 import com.minecolonies.coremod.lib.Constants;
 import com.minecolonies.coremod.network.messages.BuildToolPlaceMessage;
 import com.minecolonies.coremod.network.messages.SchematicRequestMessage;
 import com.minecolonies.coremod.network.messages.SchematicSaveMessage;
 import com.minecolonies.coremod.util.BlockUtils;
+import com.minecolonies.coremod.util.ClientStructureWrapper;
 import com.minecolonies.coremod.util.LanguageHandler;
 import com.minecolonies.structures.helpers.Settings;
 import com.minecolonies.structures.helpers.Structure;
@@ -729,7 +731,7 @@ public class WindowBuildTool extends AbstractWindowSkeleton
             Log.getLogger().info("Request To Server for structure " + structureName);
             if (FMLCommonHandler.instance().getMinecraftServerInstance() == null)
             {
-                MineColonies.getNetwork().sendToServer(new SchematicRequestMessage(structureName.toString()));
+                MineColonies.getNetwork().sendToServer(new SchematicRequestMessage(structureName.toString(), SchematicTransfers.getFirstMissingChunk(SchematicTransfers.SERVER, md5)));
                 return;
             }
             else
@@ -769,8 +771,18 @@ public class WindowBuildTool extends AbstractWindowSkeleton
                 final InputStream stream = Structure.getStream(structureName.toString());
                 if (stream != null)
                 {
-                    Log.getLogger().info("BuilderTool: sending schematic " + structureName + "(md5:" + md5 + ") to the server");
-                    MineColonies.getNetwork().sendToServer(new SchematicSaveMessage(Structure.getStreamAsByteArray(stream)));
+                    final SchematicTransfers.Chunks chunks = SchematicTransfers.split(Structure.getStreamAsByteArray(stream));
+                    if (chunks == null || chunks.getSize() > SchematicTransfers.MAX_UPLOAD_SIZE)
+                    {
+                        ClientStructureWrapper.sendMessageSchematicTooBig(SchematicTransfers.MAX_UPLOAD_SIZE);
+                        return;
+                    }
+
+                    Log.getLogger().info("BuilderTool: sending schematic " + structureName + "(md5:" + md5 + ") to the server in " + chunks.getCount() + " chunks");
+                    for (int i = 0; i < chunks.getCount(); i++)
+                    {
+                        MineColonies.getNetwork().sendToServer(new SchematicSaveMessage(serverSideName, chunks, i, 0));
+                    }
                 }
                 else
                 {
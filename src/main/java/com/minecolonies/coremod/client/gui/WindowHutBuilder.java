@@ -8,12 +8,14 @@ import com.minecolonies.blockout.views.ScrollingList;
 import com.minecolonies.blockout.views.SwitchView;
 import com.minecolonies.coremod.MineColonies;
 import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
+import com.minecolonies.coremod.colony.buildings.BuildingBuilder;
 import com.minecolonies.coremod.colony.buildings.utils.BuildingBuilderResource;
 import com.minecolonies.coremod.colony.buildings.views.BuildingBuilderView;
 import com.minecolonies.coremod.lib.Constants;
 import com.minecolonies.coremod.network.messages.MarkBuildingDirtyMessage;
 import com.minecolonies.coremod.network.messages.TransferItemsRequestMessage;
 import com.minecolonies.coremod.util.InventoryUtils;
+import com.minecolonies.coremod.util.LanguageHandler;
 import com.minecolonies.coremod.util.Log;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
@@ -33,6 +35,7 @@ public class WindowHutBuilder extends AbstractWindowWorkerBuilding<BuildingBuild
      */
     private static final String HUT_BUILDER_RESOURCE_SUFFIX        = ":gui/windowhutbuilder.xml";
     private static final String LIST_RESOURCES                     = "resources";
+    private static final String LABEL_PROGRESS                     = "resourcesProgress";
     private static final String PAGE_RESOURCES                     = "resourceActions";
     private static final String VIEW_PAGES                         = "pages";
     private static final String RESOURCE_NAME                      = "resourceName";
@@ -88,6 +91,17 @@ public class WindowHutBuilder extends AbstractWindowWorkerBuilding<BuildingBuild
             }
 
             resources.sort(new BuildingBuilderResource.ResourceComparator());
+
+            final Label progressLabel = findPaneOfTypeByID(LABEL_PROGRESS, Label.class);
+            if (updatedView.getMaterialProgress() < BuildingBuilder.MATERIALS_DONE)
+            {
+                progressLabel.setLabelText(
+                  LanguageHandler.format("com.minecolonies.coremod.gui.workerHuts.resourceListProgress", updatedView.getMaterialProgress()));
+            }
+            else
+            {
+                progressLabel.setLabelText("");
+            }
         }
     }
 
@@ -7,9 +7,11 @@ import com.minecolonies.coremod.colony.jobs.AbstractJob;
 import com.minecolonies.coremod.configuration.Configurations;
 import com.minecolonies.coremod.entity.EntityCitizen;
 import com.minecolonies.coremod.entity.ai.basic.AbstractAISkeleton;
+import com.minecolonies.coremod.network.ViewDelta;
 import com.minecolonies.coremod.util.BlockPosUtil;
 import com.minecolonies.coremod.util.Log;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
 import org.jetbrains.annotations.NotNull;
@@ -104,6 +106,11 @@ public class CitizenData
      */
     private boolean dirty;
 
+    /**
+     * The state of the view of the citizen on the clients.
+     */
+    private final ViewDelta viewDelta = new ViewDelta(CitizenDataView.SECTION_COUNT);
+
     /**
      * Its entitity.
      */
@@ -633,53 +640,76 @@ public class CitizenData
     }
 
     /**
-     * Writes the citizen data to a byte buf for transition.
+     * Writes the citizen data for transition into the view delta of the citizen, which keeps track of the changed sections.
      *
-     * @param buf Buffer to write to.
+     * @return the view delta.
      */
-    public void serializeViewNetworkData(@NotNull final ByteBuf buf)
+    @NotNull
+    public ViewDelta updateViewDelta()
     {
-        ByteBufUtils.writeUTF8String(buf, name);
-        buf.writeBoolean(female);
+        final ByteBuf[] sections = new ByteBuf[CitizenDataView.SECTION_COUNT];
+        for (int i = 0; i < sections.length; i++)
+        {
+            sections[i] = Unpooled.buffer();
+        }
 
-        buf.writeInt(entity != null ? entity.getEntityId() : -1);
+        ByteBufUtils.writeUTF8String(sections[CitizenDataView.SECTION_IDENTITY], name);
+        sections[CitizenDataView.SECTION_IDENTITY].writeBoolean(female);
 
-        buf.writeBoolean(homeBuilding != null);
+        sections[CitizenDataView.SECTION_ENTITY].writeInt(entity != null ? entity.getEntityId() : -1);
+
+        final ByteBuf buildings = sections[CitizenDataView.SECTION_BUILDINGS];
+        buildings.writeBoolean(homeBuilding != null);
         if (homeBuilding != null)
         {
-            BlockPosUtil.writeToByteBuf(buf, homeBuilding.getID());
+            BlockPosUtil.writeToByteBuf(buildings, homeBuilding.getID());
         }
 
-        buf.writeBoolean(workBuilding != null);
+        buildings.writeBoolean(workBuilding != null);
         if (workBuilding != null)
         {
-            BlockPosUtil.writeToByteBuf(buf, workBuilding.getID());
+            BlockPosUtil.writeToByteBuf(buildings, workBuilding.getID());
         }
 
         //  Attributes
-        buf.writeInt(getLevel());
-        buf.writeDouble(getExperience());
+        sections[CitizenDataView.SECTION_EXPERIENCE].writeInt(getLevel());
+        sections[CitizenDataView.SECTION_EXPERIENCE].writeDouble(getExperience());
 
         //If entity is null assume the standard values as health
         if (entity == null)
         {
-            buf.writeFloat(MAX_HEALTH);
-            buf.writeFloat(MAX_HEALTH);
+            sections[CitizenDataView.SECTION_HEALTH].writeFloat(MAX_HEALTH);
+            sections[CitizenDataView.SECTION_HEALTH].writeFloat(MAX_HEALTH);
         }
         else
         {
-            buf.writeFloat(entity.getHealth());
-            buf.writeFloat(entity.getMaxHealth());
+            sections[CitizenDataView.SECTION_HEALTH].writeFloat(entity.getHealth());
+            sections[CitizenDataView.SECTION_HEALTH].writeFloat(entity.getMaxHealth());
         }
 
-        buf.writeInt(getStrength());
-        buf.writeInt(getEndurance());
-        buf.writeInt(getCharisma());
-        buf.writeInt(getIntelligence());
-        buf.writeInt(getDexterity());
-        buf.writeDouble(getSaturation());
+        final ByteBuf skills = sections[CitizenDataView.SECTION_SKILLS];
+        skills.writeInt(getStrength());
+        skills.writeInt(getEndurance());
+        skills.writeInt(getCharisma());
+        skills.writeInt(getIntelligence());
+        skills.writeInt(getDexterity());
+        sections[CitizenDataView.SECTION_SATURATION].writeDouble(getSaturation());
+
+        ByteBufUtils.writeUTF8String(sections[CitizenDataView.SECTION_JOB], (job != null) ? job.getName() : "");
 
-        ByteBufUtils.writeUTF8String(buf, (job != null) ? job.getName() : "");
+        viewDelta.update(sections);
+        return viewDelta;
+    }
+
+    /**
+     * Get the state of the view of the citizen on the clients.
+     *
+     * @return the view delta.
+     */
+    @NotNull
+    public ViewDelta getViewDelta()
+    {
+        return viewDelta;
     }
 
     /**
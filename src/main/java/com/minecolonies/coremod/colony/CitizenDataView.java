@@ -1,5 +1,6 @@
 package com.minecolonies.coremod.colony;
 
+import com.minecolonies.coremod.network.ViewDelta;
 import com.minecolonies.coremod.util.BlockPosUtil;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.util.math.BlockPos;
@@ -15,6 +16,19 @@ import org.jetbrains.annotations.Nullable;
  */
 public class CitizenDataView
 {
+    /**
+     * Sections of the network data, only the changed sections are sent.
+     */
+    static final        int SECTION_IDENTITY   = 0;
+    static final        int SECTION_ENTITY     = 1;
+    static final        int SECTION_BUILDINGS  = 2;
+    static final        int SECTION_EXPERIENCE = 3;
+    static final        int SECTION_HEALTH     = 4;
+    static final        int SECTION_SKILLS     = 5;
+    static final        int SECTION_SATURATION = 6;
+    static final        int SECTION_JOB        = 7;
+    public static final int SECTION_COUNT      = 8;
+
     /**
      * Attributes.
      */
@@ -42,6 +56,11 @@ public class CitizenDataView
      */
     private String job;
 
+    /**
+     * The revision of the view the last message was made for.
+     */
+    private int revision = ViewDelta.NO_REVISION;
+
     /**
      * Working and home position.
      */
@@ -70,6 +89,26 @@ public class CitizenDataView
         return id;
     }
 
+    /**
+     * Get the revision of the view, as of the last message.
+     *
+     * @return the revision.
+     */
+    public int getRevision()
+    {
+        return revision;
+    }
+
+    /**
+     * Set the revision of the view, before a message is applied.
+     *
+     * @param revision the revision after the message.
+     */
+    public void setRevision(final int revision)
+    {
+        this.revision = revision;
+    }
+
     /**
      * Entity Id getter.
      *
@@ -233,31 +272,58 @@ public class CitizenDataView
 
     /**
      * Deserialize the attributes and variables from transition.
+     * Only the sections changed since the last message are sent, the others keep their values.
      *
      * @param buf Byte buffer to deserialize.
      */
     public void deserialize(@NotNull final ByteBuf buf)
     {
-        name = ByteBufUtils.readUTF8String(buf);
-        female = buf.readBoolean();
-        entityId = buf.readInt();
+        final int sections = buf.readInt();
+
+        if (ViewDelta.hasSection(sections, SECTION_IDENTITY))
+        {
+            name = ByteBufUtils.readUTF8String(buf);
+            female = buf.readBoolean();
+        }
+        if (ViewDelta.hasSection(sections, SECTION_ENTITY))
+        {
+            entityId = buf.readInt();
+        }
 
-        homeBuilding = buf.readBoolean() ? BlockPosUtil.readFromByteBuf(buf) : null;
-        workBuilding = buf.readBoolean() ? BlockPosUtil.readFromByteBuf(buf) : null;
+        if (ViewDelta.hasSection(sections, SECTION_BUILDINGS))
+        {
+            homeBuilding = buf.readBoolean() ? BlockPosUtil.readFromByteBuf(buf) : null;
+            workBuilding = buf.readBoolean() ? BlockPosUtil.readFromByteBuf(buf) : null;
+        }
 
         //  Attributes
-        level = buf.readInt();
-        experience = buf.readDouble();
-        health = buf.readFloat();
-        maxHealth = buf.readFloat();
-
-        strength = buf.readInt();
-        endurance = buf.readInt();
-        charisma = buf.readInt();
-        intelligence = buf.readInt();
-        dexterity = buf.readInt();
-        saturation = buf.readDouble();
-
-        job = ByteBufUtils.readUTF8String(buf);
+        if (ViewDelta.hasSection(sections, SECTION_EXPERIENCE))
+        {
+            level = buf.readInt();
+            experience = buf.readDouble();
+        }
+        if (ViewDelta.hasSection(sections, SECTION_HEALTH))
+        {
+            health = buf.readFloat();
+            maxHealth = buf.readFloat();
+        }
+
+        if (ViewDelta.hasSection(sections, SECTION_SKILLS))
+        {
+            strength = buf.readInt();
+            endurance = buf.readInt();
+            charisma = buf.readInt();
+            intelligence = buf.readInt();
+            dexterity = buf.readInt();
+        }
+        if (ViewDelta.hasSection(sections, SECTION_SATURATION))
+        {
+            saturation = buf.readDouble();
+        }
+
+        if (ViewDelta.hasSection(sections, SECTION_JOB))
+        {
+            job = ByteBufUtils.readUTF8String(buf);
+        }
     }
 }
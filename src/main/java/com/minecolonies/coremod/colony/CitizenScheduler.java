@@ -0,0 +1,159 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.configuration.Configurations;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Spreads the work of the citizens of a colony over the ticks.
+ * The staggered work of a citizen, like picking up items, runs every few ticks instead of every tick, and is deferred
+ * to a later tick once the citizens of the colony used up their time budget of the tick.
+ * Colonies without subscribers run at a lower level of detail, their work ais update less often
+ * and the time which passed in between is handed to them, so they get the same amount of work done.
+ * Only accessed from the server thread.
+ */
+public final class CitizenScheduler
+{
+    /**
+     * Ticks between two runs of the staggered work of a citizen at full detail.
+     */
+    private static final int STAGGER_INTERVAL = 4;
+
+    /**
+     * The staggered work of a citizen is not deferred beyond this many intervals, even if the budget is used up.
+     */
+    private static final int MAX_DEFERRED_INTERVALS = 4;
+
+    /**
+     * Nanoseconds per microsecond, the budget is configured in microseconds.
+     */
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    /**
+     * Weight of the last tick in the average tick cost.
+     */
+    private static final double AVERAGE_WEIGHT = 0.05D;
+
+    /**
+     * The colony of the scheduler.
+     */
+    @NotNull
+    private final Colony colony;
+
+    /**
+     * The tick the cost is collected for.
+     */
+    private long currentTick = -1;
+
+    /**
+     * Nanoseconds the citizens spent in the current tick.
+     */
+    private long spentThisTick = 0;
+
+    private double averageTickNanos = 0;
+    private long   maxTickNanos     = 0;
+    private long   deferred         = 0;
+
+    /**
+     * Create the scheduler of a colony.
+     *
+     * @param colony the colony.
+     */
+    public CitizenScheduler(@NotNull final Colony colony)
+    {
+        this.colony = colony;
+    }
+
+    /**
+     * Get the ticks between two updates of the work ais of the citizens.
+     *
+     * @return 1 at full detail, {@link Configurations#distantColonyUpdateInterval} if nobody watches the colony.
+     */
+    public int getAIInterval()
+    {
+        return colony.hasSubscribers() ? 1 : Math.max(1, Configurations.distantColonyUpdateInterval);
+    }
+
+    /**
+     * Get the ticks between two runs of the staggered work of a citizen.
+     *
+     * @return the interval.
+     */
+    public int getStaggerInterval()
+    {
+        return STAGGER_INTERVAL * getAIInterval();
+    }
+
+    /**
+     * Check if the staggered work of a citizen should run this tick.
+     * It is due once the interval passed, unless the budget of this tick is used up,
+     * then it waits for a later tick, but never longer than {@link #MAX_DEFERRED_INTERVALS} intervals.
+     *
+     * @param elapsed the ticks since it ran last.
+     * @return true if it should run.
+     */
+    public boolean isStaggeredWorkDue(final long elapsed)
+    {
+        startTick();
+        final int interval = getStaggerInterval();
+        if (elapsed < interval)
+        {
+            return false;
+        }
+
+        if (elapsed < (long) interval * MAX_DEFERRED_INTERVALS && spentThisTick > Configurations.citizenTickBudget * NANOS_PER_MICRO)
+        {
+            deferred++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Add the time a citizen spent in its update.
+     *
+     * @param nanos the time in nanoseconds.
+     */
+    public void addCost(final long nanos)
+    {
+        startTick();
+        spentThisTick += nanos;
+    }
+
+    /**
+     * Get the tick cost of the citizens of the colony.
+     *
+     * @return a line of text.
+     */
+    @NotNull
+    public String getStatistics()
+    {
+        return String.format("avg %d µs, max %d µs, budget %d µs, %d deferred, %s detail",
+          (long) (averageTickNanos / NANOS_PER_MICRO),
+          maxTickNanos / NANOS_PER_MICRO,
+          Configurations.citizenTickBudget,
+          deferred,
+          getAIInterval() == 1 ? "full" : ("1/" + getAIInterval()));
+    }
+
+    /**
+     * Close the collected tick once the world moved on to the next one.
+     */
+    private void startTick()
+    {
+        final World world = colony.getWorld();
+        final long now = world == null ? 0 : world.getTotalWorldTime();
+        if (now == currentTick)
+        {
+            return;
+        }
+
+        if (currentTick >= 0)
+        {
+            averageTickNanos = averageTickNanos * (1 - AVERAGE_WEIGHT) + spentThisTick * AVERAGE_WEIGHT;
+            maxTickNanos = Math.max(maxTickNanos, spentThisTick);
+        }
+        currentTick = now;
+        spentThisTick = 0;
+    }
+}
@@ -9,11 +9,17 @@ import com.minecolonies.coremod.configuration.Configurations;
 import com.minecolonies.coremod.entity.EntityCitizen;
 import com.minecolonies.coremod.entity.ai.citizen.builder.ConstructionTapeHelper;
 import com.minecolonies.coremod.entity.ai.citizen.farmer.Field;
+import com.minecolonies.coremod.entity.pathfinding.NavigationGraph;
+import com.minecolonies.coremod.entity.pathfinding.PassabilityCache;
+import com.minecolonies.coremod.entity.pathfinding.PathCache;
+import com.minecolonies.coremod.network.ViewDelta;
+import com.minecolonies.coremod.network.ViewSyncStatistics;
 import com.minecolonies.coremod.network.messages.*;
-import com.minecolonies.coremod.permissions.ColonyPermissionEventHandler;
 import com.minecolonies.coremod.tileentities.ScarecrowTileEntity;
 import com.minecolonies.coremod.tileentities.TileEntityColonyBuilding;
 import com.minecolonies.coremod.util.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
@@ -28,13 +34,15 @@ import net.minecraft.stats.StatBase;
 import net.minecraft.stats.StatList;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
-import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.Constants.NBT;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -159,6 +167,9 @@ public class Colony implements IColony
     private       boolean                         isBuildingsDirty  = false;
     private       boolean                         manualHiring      = false;
     private       boolean                         isFieldsDirty     = false;
+    private       boolean                         isSaveDirty       = true;
+    @NotNull
+    private final ViewDelta                       viewDelta         = new ViewDelta(ColonyView.SECTION_COUNT);
     private       String                          name              = "ERROR(Wasn't placed by player)";
     private BlockPos         center;
     //  Administration/permissions
@@ -171,6 +182,48 @@ public class Colony implements IColony
 
     private double overallHappiness = 5;
 
+    /**
+     * Passability information of the colony area, shared by all path jobs in the colony.
+     */
+    @Nullable
+    private PassabilityCache passabilityCache;
+
+    /**
+     * Paths recently computed in the colony, reused for repeated trips.
+     */
+    @NotNull
+    private final PathCache pathCache = new PathCache();
+
+    /**
+     * Navigation graph over the waypoints and buildings of the colony, used to plan long trips.
+     */
+    @NotNull
+    private final NavigationGraph navigationGraph = new NavigationGraph();
+
+    /**
+     * The open delivery requests of the buildings of the colony.
+     */
+    @NotNull
+    private final DeliveryRequestQueue deliveryRequests = new DeliveryRequestQueue(this);
+
+    /**
+     * Spreads the work of the citizens of the colony over the ticks.
+     */
+    @NotNull
+    private final CitizenScheduler citizenScheduler = new CitizenScheduler(this);
+
+    /**
+     * The dropped items and orbs in and around the colony.
+     */
+    @NotNull
+    private final LooseEntityIndex looseEntities = new LooseEntityIndex(this);
+
+    /**
+     * The possible targets of the guards of the colony.
+     */
+    @NotNull
+    private final ThreatIndex threats = new ThreatIndex(this);
+
     /**
      * Constructor for a newly created Colony.
      *
@@ -199,9 +252,6 @@ public class Colony implements IColony
         this.permissions = new Permissions(this);
         this.colonyAchievements = new ArrayList<>();
 
-        // Register a new event handler
-        MinecraftForge.EVENT_BUS.register(new ColonyPermissionEventHandler(this));
-
         for (final String s : Configurations.freeToInteractBlocks)
         {
             final Block block = Block.getBlockFromName(s);
@@ -308,6 +358,7 @@ public class Colony implements IColony
             final BlockPos pos = BlockPosUtil.readFromNBT(blockAtPos, TAG_WAYPOINT);
             final IBlockState state = NBTUtil.readBlockState(blockAtPos);
             wayPoints.put(pos, state);
+            addNavigationNode(pos);
         }
 
         //Statistics
@@ -355,6 +406,7 @@ public class Colony implements IColony
     {
         buildings.put(building.getID(), building);
         building.markDirty();
+        addNavigationNode(building.getLocation());
 
         //  Limit 1 town hall
         if (building instanceof BuildingTownHall && townHall == null)
@@ -651,6 +703,11 @@ public class Colony implements IColony
         }
 
         world = null;
+        if (passabilityCache != null)
+        {
+            passabilityCache.clear();
+        }
+        pathCache.clear();
     }
 
     /**
@@ -676,6 +733,9 @@ public class Colony implements IColony
      */
     private void updateSubscribers()
     {
+        //  The view flags are reset below, remember the changes for the next save
+        markSaveDirtyIfChanged();
+
         // If the world or server is null, don't try to update the subscribers this tick.
         if (world == null || world.getMinecraftServer() == null)
         {
@@ -710,6 +770,9 @@ public class Colony implements IColony
             }
         }
 
+        //  Players which left get the whole views again once they come back
+        oldSubscribers.stream().filter(player -> !subscribers.contains(player)).forEach(player -> forgetSubscriber(player.getUniqueID()));
+
         if (!subscribers.isEmpty())
         {
             //  Determine if any new subscribers were added this pass
@@ -737,7 +800,7 @@ public class Colony implements IColony
             //Fields
             if (!isBuildingsDirty)
             {
-                sendFieldPackets(hasNewSubscribers);
+                sendFieldPackets(oldSubscribers, hasNewSubscribers);
             }
 
             //schematics
@@ -762,14 +825,8 @@ public class Colony implements IColony
     {
         if (isDirty || hasNewSubscribers)
         {
-            for (final EntityPlayerMP player : subscribers)
-            {
-                final boolean isNewSubscriber = !oldSubscribers.contains(player);
-                if (isDirty || isNewSubscriber)
-                {
-                    MineColonies.getNetwork().sendTo(new ColonyViewMessage(this, isNewSubscriber), player);
-                }
-            }
+            viewDelta.update(ColonyView.serializeNetworkData(this));
+            sendDelta(viewDelta, oldSubscribers, revision -> new ColonyViewMessage(this, revision));
         }
     }
 
@@ -803,10 +860,10 @@ public class Colony implements IColony
     {
         if (getWorkManager().isDirty() || hasNewSubscribers)
         {
+            final List<EntityPlayerMP> receivers = getReceivers(oldSubscribers, workManager.isDirty());
             for (final AbstractWorkOrder workOrder : getWorkManager().getWorkOrders().values())
             {
-                subscribers.stream().filter(player -> workManager.isDirty() || !oldSubscribers.contains(player))
-                  .forEach(player -> MineColonies.getNetwork().sendTo(new ColonyViewWorkOrderMessage(this, workOrder), player));
+                sendToAll(receivers, () -> new ColonyViewWorkOrderMessage(this, workOrder));
             }
 
             getWorkManager().setDirty(false);
@@ -827,9 +884,7 @@ public class Colony implements IColony
             {
                 if (citizen.isDirty() || hasNewSubscribers)
                 {
-                    subscribers.stream()
-                      .filter(player -> citizen.isDirty() || !oldSubscribers.contains(player))
-                      .forEach(player -> MineColonies.getNetwork().sendTo(new ColonyViewCitizenViewMessage(this, citizen), player));
+                    sendDelta(citizen.updateViewDelta(), oldSubscribers, revision -> new ColonyViewCitizenViewMessage(this, citizen, revision));
                 }
             }
         }
@@ -849,9 +904,7 @@ public class Colony implements IColony
             {
                 if (building.isDirty() || hasNewSubscribers)
                 {
-                    subscribers.stream()
-                      .filter(player -> building.isDirty() || !oldSubscribers.contains(player))
-                      .forEach(player -> MineColonies.getNetwork().sendTo(new ColonyViewBuildingViewMessage(building), player));
+                    sendBuildingView(building, oldSubscribers);
                 }
             }
         }
@@ -874,9 +927,10 @@ public class Colony implements IColony
     /**
      * Sends packages to update the fields.
      *
+     * @param oldSubscribers    the existing subscribers.
      * @param hasNewSubscribers the new subscribers.
      */
-    private void sendFieldPackets(final boolean hasNewSubscribers)
+    private void sendFieldPackets(@NotNull final Set<EntityPlayerMP> oldSubscribers, final boolean hasNewSubscribers)
     {
         if ((isFieldsDirty && !isBuildingsDirty) || hasNewSubscribers)
         {
@@ -884,12 +938,129 @@ public class Colony implements IColony
             {
                 if (building instanceof BuildingFarmer)
                 {
-                    subscribers.forEach(player -> MineColonies.getNetwork().sendTo(new ColonyViewBuildingViewMessage(building), player));
+                    sendBuildingView(building, oldSubscribers);
                 }
             }
         }
     }
 
+    /**
+     * Sends the view of a building to the subscribers which do not have its current state.
+     *
+     * @param building       the building.
+     * @param oldSubscribers the existing subscribers.
+     */
+    private void sendBuildingView(@NotNull final AbstractBuilding building, @NotNull final Set<EntityPlayerMP> oldSubscribers)
+    {
+        final ByteBuf data = Unpooled.buffer();
+        building.serializeToView(data);
+        ViewSyncStatistics.onSerialized(data.readableBytes());
+
+        building.getViewDelta().update(data);
+        sendDelta(building.getViewDelta(), oldSubscribers, revision -> new ColonyViewBuildingViewMessage(building, data));
+    }
+
+    /**
+     * Sends a view to the subscribers which do not have its current revision.
+     * Subscribers with the same revision share one message, new subscribers get the whole view.
+     *
+     * @param delta          the state of the view, updated to the current state of the view.
+     * @param oldSubscribers the existing subscribers.
+     * @param message        creates the message with the changes since a revision.
+     */
+    private void sendDelta(@NotNull final ViewDelta delta, @NotNull final Set<EntityPlayerMP> oldSubscribers, @NotNull final IntFunction<IMessage> message)
+    {
+        final Map<Integer, List<EntityPlayerMP>> receiversByRevision = new HashMap<>();
+        for (final EntityPlayerMP player : subscribers)
+        {
+            final int revision = oldSubscribers.contains(player) ? delta.getRevision(player.getUniqueID()) : ViewDelta.NO_REVISION;
+            if (revision < delta.getRevision())
+            {
+                receiversByRevision.computeIfAbsent(revision, key -> new ArrayList<>()).add(player);
+            }
+        }
+
+        for (final Map.Entry<Integer, List<EntityPlayerMP>> entry : receiversByRevision.entrySet())
+        {
+            sendToAll(entry.getValue(), () -> message.apply(entry.getKey()));
+            entry.getValue().forEach(player -> delta.setSent(player.getUniqueID()));
+        }
+    }
+
+    /**
+     * Forget what has been sent to a player which is no subscriber anymore.
+     *
+     * @param player the UUID of the player.
+     */
+    private void forgetSubscriber(@NotNull final UUID player)
+    {
+        viewDelta.removeSubscriber(player);
+        citizens.values().forEach(citizen -> citizen.getViewDelta().removeSubscriber(player));
+        buildings.values().forEach(building -> building.getViewDelta().removeSubscriber(player));
+    }
+
+    /**
+     * Send the whole view to a subscriber again, when its client got a message it could not apply.
+     * The player becomes a new subscriber at the next update.
+     *
+     * @param player the player.
+     */
+    public void resyncSubscriber(@NotNull final EntityPlayerMP player)
+    {
+        if (subscribers.remove(player))
+        {
+            forgetSubscriber(player.getUniqueID());
+        }
+    }
+
+    /**
+     * Get the state of the view of the colony on the clients.
+     *
+     * @return the view delta.
+     */
+    @NotNull
+    public ViewDelta getViewDelta()
+    {
+        return viewDelta;
+    }
+
+    /**
+     * Get the subscribers which need an update of a view.
+     *
+     * @param oldSubscribers the existing subscribers.
+     * @param isDirty        whether the view changed, then all subscribers need it, otherwise only the new ones.
+     * @return the subscribers.
+     */
+    @NotNull
+    private List<EntityPlayerMP> getReceivers(@NotNull final Set<EntityPlayerMP> oldSubscribers, final boolean isDirty)
+    {
+        if (isDirty)
+        {
+            return new ArrayList<>(subscribers);
+        }
+        return subscribers.stream().filter(player -> !oldSubscribers.contains(player)).collect(Collectors.toList());
+    }
+
+    /**
+     * Send a view to players, the view is serialized once into a message shared by all of them.
+     *
+     * @param players the players.
+     * @param message creates the message, only called if there is a player to send it to.
+     */
+    private static void sendToAll(@NotNull final List<EntityPlayerMP> players, @NotNull final Supplier<IMessage> message)
+    {
+        if (players.isEmpty())
+        {
+            return;
+        }
+
+        final IMessage sharedMessage = message.get();
+        for (final EntityPlayerMP player : players)
+        {
+            MineColonies.getNetwork().sendTo(sharedMessage, player);
+        }
+    }
+
     /**
      * Get the Work Manager for the Colony.
      *
@@ -985,6 +1156,8 @@ public class Colony implements IColony
 
         if (event.phase == TickEvent.Phase.START)
         {
+            looseEntities.refresh();
+
             //  Detect CitizenData whose EntityCitizen no longer exist in world, and clear the mapping
             //  Consider handing this in an ChunkUnload Event instead?
             citizens.values()
@@ -1113,6 +1286,7 @@ public class Colony implements IColony
                 if (world != null && world.getBlockState(key).getBlock() != (value.getBlock()))
                 {
                     wayPoints.remove(key);
+                    removeNavigationNode(key);
                 }
             }
         }
@@ -1230,6 +1404,36 @@ public class Colony implements IColony
         isDirty = true;
     }
 
+    /**
+     * Marks the colony to be saved if it or any of its parts changed.
+     */
+    private void markSaveDirtyIfChanged()
+    {
+        if (isDirty || isCitizensDirty || isBuildingsDirty || isFieldsDirty || permissions.isDirty() || workManager.isDirty())
+        {
+            isSaveDirty = true;
+        }
+    }
+
+    /**
+     * Checks if the colony changed since it has been saved the last time.
+     *
+     * @return true if it has to be saved.
+     */
+    public boolean isSaveDirty()
+    {
+        markSaveDirtyIfChanged();
+        return isSaveDirty;
+    }
+
+    /**
+     * Marks the colony as saved.
+     */
+    public void clearSaveDirty()
+    {
+        isSaveDirty = false;
+    }
+
     @NotNull
     @Override
     public Permissions getPermissions()
@@ -1245,6 +1449,97 @@ public class Colony implements IColony
                  && BlockPosUtil.getDistanceSquared(center, new BlockPos(pos.getX(), center.getY(), pos.getZ())) <= MathUtils.square(Configurations.workingRangeTownHall);
     }
 
+    /**
+     * Get the passability cache of the colony area, shared by all path jobs in the colony.
+     *
+     * @return the cache.
+     */
+    @NotNull
+    public PassabilityCache getPassabilityCache()
+    {
+        if (passabilityCache == null)
+        {
+            passabilityCache = new PassabilityCache(center, Configurations.workingRangeTownHall);
+        }
+        return passabilityCache;
+    }
+
+    /**
+     * Get the passability cache of the colony without creating it.
+     *
+     * @return the cache or null if no path job used it yet.
+     */
+    @Nullable
+    public PassabilityCache getPassabilityCacheIfPresent()
+    {
+        return passabilityCache;
+    }
+
+    /**
+     * Get the cache of the paths recently computed in the colony.
+     *
+     * @return the cache.
+     */
+    @NotNull
+    public PathCache getPathCache()
+    {
+        return pathCache;
+    }
+
+    /**
+     * Get the open delivery requests of the buildings of the colony.
+     *
+     * @return the queue.
+     */
+    @NotNull
+    public DeliveryRequestQueue getDeliveryRequests()
+    {
+        return deliveryRequests;
+    }
+
+    /**
+     * Get the scheduler of the citizens of the colony.
+     *
+     * @return the scheduler.
+     */
+    @NotNull
+    public CitizenScheduler getCitizenScheduler()
+    {
+        return citizenScheduler;
+    }
+
+    /**
+     * Get the dropped items and orbs in and around the colony.
+     *
+     * @return the index.
+     */
+    @NotNull
+    public LooseEntityIndex getLooseEntities()
+    {
+        return looseEntities;
+    }
+
+    /**
+     * Get the possible targets of the guards of the colony.
+     *
+     * @return the index.
+     */
+    @NotNull
+    public ThreatIndex getThreatIndex()
+    {
+        return threats;
+    }
+
+    /**
+     * Check if any player is subscribed to the colony, as member in the colony or nearby.
+     *
+     * @return true if so.
+     */
+    public boolean hasSubscribers()
+    {
+        return !subscribers.isEmpty();
+    }
+
     @Override
     public long getDistanceSquared(@NotNull final BlockPos pos)
     {
@@ -1626,6 +1921,7 @@ public class Colony implements IColony
     {
         if (buildings.remove(building.getID()) != null)
         {
+            deliveryRequests.withdraw(building.getLocation());
             for (final EntityPlayerMP player : subscribers)
             {
                 MineColonies.getNetwork().sendTo(new ColonyViewRemoveBuildingMessage(this, building.getID()), player);
@@ -1637,6 +1933,8 @@ public class Colony implements IColony
               building.getSchematicName()));
         }
 
+        removeNavigationNode(building.getLocation());
+
         if (building instanceof BuildingTownHall)
         {
             townHall = null;
@@ -1750,6 +2048,7 @@ public class Colony implements IColony
     public void onBuildingUpgradeComplete(@NotNull final AbstractBuilding building, final int level)
     {
         building.onUpgradeComplete(level);
+        workManager.requestMatching();
     }
 
     @NotNull
@@ -1778,6 +2077,42 @@ public class Colony implements IColony
     public void addWayPoint(final BlockPos point, IBlockState block)
     {
         wayPoints.put(point, block);
+        addNavigationNode(point);
+    }
+
+    /**
+     * Adds a waypoint or building entrance to the navigation graph.
+     * Does not read the world, the links are probed when a route is planned.
+     *
+     * @param pos the position of the node.
+     */
+    private void addNavigationNode(@NotNull final BlockPos pos)
+    {
+        navigationGraph.addNode(pos);
+    }
+
+    /**
+     * Removes a node from the navigation graph, unless a building or waypoint is still at its position.
+     *
+     * @param pos the position of the node.
+     */
+    private void removeNavigationNode(@NotNull final BlockPos pos)
+    {
+        if (!wayPoints.containsKey(pos) && !buildings.containsKey(pos))
+        {
+            navigationGraph.removeNode(pos);
+        }
+    }
+
+    /**
+     * Get the navigation graph of the colony.
+     *
+     * @return the graph over the waypoints and buildings.
+     */
+    @NotNull
+    public NavigationGraph getNavigationGraph()
+    {
+        return navigationGraph;
     }
 
     /**
@@ -0,0 +1,209 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.util.Log;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Writes the colony save files on a background thread.
+ * The NBT snapshots are taken on the server thread, compressing them, syncing them to disk
+ * and replacing the old files happens here, so a save never blocks the tick.
+ * Files are replaced by renaming a fully written temporary file, a crash leaves either the old or the new file behind.
+ * Files are written in the order they were queued, a newer snapshot of a file still queued replaces the older one.
+ */
+public final class ColonyDataWriter
+{
+    /**
+     * Seconds the writer thread stays alive without work.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Suffix of the temporary files.
+     */
+    private static final String TMP_SUFFIX = ".tmp";
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    /**
+     * Marks a file to be deleted instead of written.
+     */
+    private static final NBTTagCompound DELETE = new NBTTagCompound();
+
+    /**
+     * The latest snapshot of every file which has not been written yet.
+     */
+    private final Map<File, NBTTagCompound> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The single writer thread, keeps the files in order.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Create a writer.
+     */
+    public ColonyDataWriter()
+    {
+        executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+          runnable -> new Thread(runnable, "Minecolonies Colony Writer"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queue a snapshot to be written to a file.
+     * The snapshot must not be modified after it has been handed over.
+     *
+     * @param file     the file.
+     * @param compound the snapshot.
+     */
+    public void write(@NotNull final File file, @NotNull final NBTTagCompound compound)
+    {
+        queue(file, compound);
+    }
+
+    /**
+     * Queue a file to be deleted, drops a snapshot of it still waiting to be written.
+     *
+     * @param file the file.
+     */
+    public void delete(@NotNull final File file)
+    {
+        queue(file, DELETE);
+    }
+
+    /**
+     * Wait until all queued files are written.
+     * Used before the files are read or copied, and when the server stops.
+     */
+    public void flush()
+    {
+        try
+        {
+            executor.submit(() -> null).get();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            Log.getLogger().warn("Interrupted while waiting for the colony files to be written", e);
+        }
+        catch (final ExecutionException e)
+        {
+            Log.getLogger().error("Exception when waiting for the colony files to be written", e);
+        }
+    }
+
+    /**
+     * Get the amount of files waiting to be written.
+     *
+     * @return the amount.
+     */
+    public int getPendingCount()
+    {
+        return pending.size();
+    }
+
+    /**
+     * Queue a snapshot, only the first snapshot of a file queues a task, later ones replace it.
+     *
+     * @param file     the file.
+     * @param compound the snapshot or {@link #DELETE}.
+     */
+    private void queue(@NotNull final File file, @NotNull final NBTTagCompound compound)
+    {
+        if (pending.put(file, compound) == null)
+        {
+            executor.execute(() -> process(file));
+        }
+    }
+
+    /**
+     * Write or delete the latest snapshot of a file, runs on the writer thread.
+     *
+     * @param file the file.
+     */
+    private void process(@NotNull final File file)
+    {
+        final NBTTagCompound compound = pending.remove(file);
+        if (compound == null)
+        {
+            return;
+        }
+
+        try
+        {
+            if (compound == DELETE)
+            {
+                Files.deleteIfExists(file.toPath());
+                Files.deleteIfExists(getTempFile(file).toPath());
+                return;
+            }
+
+            final long start = System.nanoTime();
+            final int size = writeSafely(file, compound);
+            Log.getLogger().debug(String.format("Wrote %s (%d bytes) in %.2f ms", file.getName(), size, (System.nanoTime() - start) / NANOS_PER_MILLI));
+        }
+        catch (final IOException e)
+        {
+            Log.getLogger().error("Exception when saving " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Compress a snapshot into a temporary file, sync it and move it over the file.
+     *
+     * @param file     the file.
+     * @param compound the snapshot.
+     * @return the size of the file in bytes.
+     * @throws IOException if the file could not be written.
+     */
+    private static int writeSafely(@NotNull final File file, @NotNull final NBTTagCompound compound) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompressedStreamTools.writeCompressed(compound, bytes);
+
+        file.getParentFile().mkdirs();
+        final File tmpFile = getTempFile(file);
+        try (FileOutputStream out = new FileOutputStream(tmpFile))
+        {
+            bytes.writeTo(out);
+            out.getChannel().force(true);
+        }
+
+        try
+        {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final AtomicMoveNotSupportedException e)
+        {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return bytes.size();
+    }
+
+    /**
+     * Get the temporary file a file is written to first.
+     *
+     * @param file the file.
+     * @return the temporary file.
+     */
+    @NotNull
+    private static File getTempFile(@NotNull final File file)
+    {
+        return new File(file.getParentFile(), file.getName() + TMP_SUFFIX);
+    }
+}
@@ -7,6 +7,9 @@ import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
 import com.minecolonies.coremod.colony.permissions.Permissions;
 import com.minecolonies.coremod.configuration.Configurations;
 import com.minecolonies.coremod.entity.EntityCitizen;
+import com.minecolonies.coremod.entity.pathfinding.PassabilityCache;
+import com.minecolonies.coremod.entity.pathfinding.Pathfinding;
+import com.minecolonies.coremod.network.ViewSyncStatistics;
 import com.minecolonies.coremod.util.AchievementUtils;
 import com.minecolonies.coremod.util.LanguageHandler;
 import com.minecolonies.coremod.util.Log;
@@ -27,10 +30,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Singleton class that links colonies to minecraft.
@@ -50,7 +56,17 @@ public final class ColonyManager
     /**
      * The file name pattern of the minecolonies backup.
      */
-    private static final String FILENAME_MINECOLONIES_BACKUP = "colonies-%s.dat";
+    private static final String FILENAME_MINECOLONIES_BACKUP = "colonies-%s.zip";
+
+    /**
+     * The file name pattern of the save file of a single colony.
+     */
+    private static final String FILENAME_COLONY = "colony%d.dat";
+
+    /**
+     * Matches the file names of the save files of single colonies.
+     */
+    private static final String FILENAME_COLONY_REGEX = "colony\\d+\\.dat";
 
     /**
      * The tag of the colonies.
@@ -60,6 +76,25 @@ public final class ColonyManager
      * The tag of the pseudo unique identifier
      */
     private static final String                     TAG_UUID              = "uuid";
+    /**
+     * The tag of the ids of the colonies saved in their own files.
+     */
+    private static final String                     TAG_COLONY_IDS        = "colonyIds";
+
+    /**
+     * Colonies without changes are still saved after this many milliseconds, in case a change has not been flagged.
+     */
+    private static final long   MAX_CLEAN_SAVE_INTERVAL = 5L * 60L * 1000L;
+
+    /**
+     * Taking the snapshots for a save longer than this many milliseconds is logged as a warning.
+     */
+    private static final double SLOW_SAVE_WARNING       = 50D;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI         = 1_000_000D;
 
     /**
      * The damage source used to kill citizens.
@@ -75,11 +110,37 @@ public final class ColonyManager
      */
     @NotNull
     private static final Map<Integer, List<Colony>> coloniesByWorld       = new HashMap<>();
+    /**
+     * The spatial index of the colonies by world.
+     */
+    @NotNull
+    private static final Map<Integer, ColonySpatialIndex<Colony>> colonyIndexByWorld = new HashMap<>();
+    /**
+     * The colonies by the UUID of their owner.
+     */
+    @NotNull
+    private static final Map<UUID, Colony> coloniesByOwner = new HashMap<>();
     /**
      * The list of colony views.
      */
     @NotNull
     private static final ColonyList<ColonyView>     colonyViews           = new ColonyList<>();
+    /**
+     * The spatial index of the colony views by world.
+     */
+    @NotNull
+    private static final Map<Integer, ColonySpatialIndex<ColonyView>> colonyViewIndexByWorld = new HashMap<>();
+
+    /**
+     * Writes the save files in the background.
+     */
+    @NotNull
+    private static final ColonyDataWriter           writer                = new ColonyDataWriter();
+    /**
+     * The time each colony has been saved the last time, by colony id.
+     */
+    @NotNull
+    private static final Map<Integer, Long>         lastColonySaveTimes   = new HashMap<>();
 
     /**
      * A buffer value to be sure to be outside of the colony.
@@ -132,6 +193,7 @@ public final class ColonyManager
         final String colonyName = LanguageHandler.format("com.minecolonies.coremod.gui.townHall.defaultName", player.getDisplayNameString());
         colony.setName(colonyName);
         colony.getPermissions().setPlayerRank(player.getGameProfile().getId(), Permissions.Rank.OWNER, w);
+        coloniesByOwner.put(player.getGameProfile().getId(), colony);
 
         colony.triggerAchievement(ModAchievements.achievementGetSupply);
         colony.triggerAchievement(ModAchievements.achievementTownhall);
@@ -146,6 +208,27 @@ public final class ColonyManager
     private static void addColonyByWorld(Colony colony)
     {
         coloniesByWorld.computeIfAbsent(colony.getDimension(), ArrayList::new).add(colony);
+        colonyIndexByWorld.computeIfAbsent(colony.getDimension(), dimension -> new ColonySpatialIndex<>()).add(colony, Configurations.workingRangeTownHall);
+    }
+
+    /**
+     * Update the owner index when the owner of a colony changed.
+     *
+     * @param colony        the colony.
+     * @param previousOwner the UUID of the previous owner, or null.
+     */
+    public static void onColonyOwnerChanged(@NotNull final Colony colony, @Nullable final UUID previousOwner)
+    {
+        if (previousOwner != null)
+        {
+            coloniesByOwner.remove(previousOwner, colony);
+        }
+
+        final UUID owner = colony.getPermissions().getOwner();
+        if (owner != null)
+        {
+            coloniesByOwner.put(owner, colony);
+        }
     }
 
     /**
@@ -169,6 +252,14 @@ public final class ColonyManager
             Log.getLogger().info("Deleting colony " + id);
             colonies.remove(id);
             coloniesByWorld.get(colony.getDimension()).remove(colony);
+            colonyIndexByWorld.get(colony.getDimension()).remove(colony);
+            coloniesByOwner.values().remove(colony);
+            lastColonySaveTimes.remove(id);
+            if (numWorldsLoaded > 0)
+            {
+                writer.delete(getColonySaveLocation(getSaveDirectory(), id));
+            }
+            markDirty();
             final Set<World> colonyWorlds = new HashSet<>();
             Log.getLogger().info("Removing citizens for " + id);
             for (final CitizenData citizenData : new ArrayList<>(colony.getCitizens().values()))
@@ -266,21 +357,32 @@ public final class ColonyManager
      */
     public static Colony getColony(@NotNull final World w, @NotNull final BlockPos pos)
     {
-        final List<Colony> coloniesInWorld = coloniesByWorld.get(w.provider.getDimension());
-        if (coloniesInWorld == null)
+        final ColonySpatialIndex<Colony> index = colonyIndexByWorld.get(w.provider.getDimension());
+        if (index == null)
         {
             return null;
         }
 
-        for (@NotNull final Colony c : coloniesInWorld)
+        return index.getColonyAt(w, pos);
+    }
+
+    /**
+     * Get the colonies whose working range may contain a coordinate, the exact area still has to be checked.
+     *
+     * @param w   World.
+     * @param pos coordinates.
+     * @return the colonies, not to be modified.
+     */
+    @NotNull
+    public static List<Colony> getColoniesNear(@NotNull final World w, @NotNull final BlockPos pos)
+    {
+        final ColonySpatialIndex<Colony> index = colonyIndexByWorld.get(w.provider.getDimension());
+        if (index == null)
         {
-            if (c.isCoordInColony(w, pos))
-            {
-                return c;
-            }
+            return Collections.emptyList();
         }
 
-        return null;
+        return index.getColoniesNear(pos);
     }
 
     /**
@@ -356,15 +458,13 @@ public final class ColonyManager
      */
     private static ColonyView getColonyView(@NotNull final World w, @NotNull final BlockPos pos)
     {
-        for (@NotNull final ColonyView c : colonyViews)
+        final ColonySpatialIndex<ColonyView> index = colonyViewIndexByWorld.get(w.provider.getDimension());
+        if (index == null)
         {
-            if (c.isCoordInColony(w, pos))
-            {
-                return c;
-            }
+            return null;
         }
 
-        return null;
+        return index.getColonyAt(w, pos);
     }
 
     /**
@@ -394,23 +494,13 @@ public final class ColonyManager
     @Nullable
     public static ColonyView getClosestColonyView(@NotNull final World w, @NotNull final BlockPos pos)
     {
-        @Nullable ColonyView closestColony = null;
-        long closestDist = Long.MAX_VALUE;
-
-        for (@NotNull final ColonyView c : colonyViews)
+        final ColonySpatialIndex<ColonyView> index = colonyViewIndexByWorld.get(w.provider.getDimension());
+        if (index == null)
         {
-            if (c.getDimension() == w.provider.getDimension())
-            {
-                final long dist = c.getDistanceSquared(pos);
-                if (dist < closestDist)
-                {
-                    closestColony = c;
-                    closestDist = dist;
-                }
-            }
+            return null;
         }
 
-        return closestColony;
+        return index.getClosestColony(pos);
     }
 
     /**
@@ -422,23 +512,13 @@ public final class ColonyManager
      */
     public static Colony getClosestColony(@NotNull final World w, @NotNull final BlockPos pos)
     {
-        @Nullable Colony closestColony = null;
-        long closestDist = Long.MAX_VALUE;
-
-        for (@NotNull final Colony c : getColonies(w))
+        final ColonySpatialIndex<Colony> index = colonyIndexByWorld.get(w.provider.getDimension());
+        if (index == null)
         {
-            if (c.getDimension() == w.provider.getDimension())
-            {
-                final long dist = c.getDistanceSquared(pos);
-                if (dist < closestDist)
-                {
-                    closestColony = c;
-                    closestDist = dist;
-                }
-            }
+            return null;
         }
 
-        return closestColony;
+        return index.getClosestColony(pos);
     }
 
     /**
@@ -509,10 +589,12 @@ public final class ColonyManager
             return null;
         }
 
-        return colonies.stream()
-                 .filter(c -> owner.equals(c.getPermissions().getOwner()))
-                 .findFirst()
-                 .orElse(null);
+        final Colony colony = coloniesByOwner.get(owner);
+        if (colony != null && owner.equals(colony.getPermissions().getOwner()))
+        {
+            return colony;
+        }
+        return null;
     }
 
     /**
@@ -535,6 +617,12 @@ public final class ColonyManager
      */
     public static void onServerTick(@NotNull final TickEvent.ServerTickEvent event)
     {
+        if (event.phase == TickEvent.Phase.START)
+        {
+            Pathfinding.onServerTick();
+            ViewSyncStatistics.onServerTick();
+        }
+
         for (@NotNull final Colony c : colonies)
         {
             c.onServerTick(event);
@@ -547,40 +635,84 @@ public final class ColonyManager
     }
 
     /**
-     * Save all the Colonies.
+     * Save the Colonies which changed since they have been saved the last time, each into its own file.
+     * The NBT snapshots are taken here, the files are written by the {@link ColonyDataWriter} in the background.
      */
     private static void saveColonies()
     {
-        @NotNull final NBTTagCompound compound = new NBTTagCompound();
-        writeToNBT(compound);
+        final long start = System.nanoTime();
+        final long now = System.currentTimeMillis();
+        @NotNull final File saveDir = getSaveDirectory();
 
-        @NotNull final File file = getSaveLocation();
-        saveNBTToPath(file, compound);
+        int savedColonies = 0;
+        for (@NotNull final Colony colony : colonies)
+        {
+            final Long lastSaveTime = lastColonySaveTimes.get(colony.getID());
+            if (colony.isSaveDirty() || lastSaveTime == null || now - lastSaveTime > MAX_CLEAN_SAVE_INTERVAL)
+            {
+                @NotNull final NBTTagCompound colonyCompound = new NBTTagCompound();
+                colony.writeToNBT(colonyCompound);
+                writer.write(getColonySaveLocation(saveDir, colony.getID()), colonyCompound);
+
+                colony.clearSaveDirty();
+                lastColonySaveTimes.put(colony.getID(), now);
+                savedColonies++;
+            }
+        }
+
+        //  Queued after the colonies, so it never lists a colony whose file has not been written
+        if (saveNeeded)
+        {
+            @NotNull final NBTTagCompound compound = new NBTTagCompound();
+            writeToNBT(compound);
+            writer.write(new File(saveDir, FILENAME_MINECOLONIES), compound);
+            saveNeeded = false;
+        }
 
-        saveNeeded = false;
+        final double time = (System.nanoTime() - start) / NANOS_PER_MILLI;
+        final String message = String.format("Saved %d of %d colonies in %.2f ms, %d files queued for writing", savedColonies, colonies.size(), time, writer.getPendingCount());
+        if (time > SLOW_SAVE_WARNING)
+        {
+            Log.getLogger().warn(message);
+        }
+        else if (savedColonies > 0)
+        {
+            Log.getLogger().debug(message);
+        }
     }
 
     /**
-     * Write colonies to NBT data for saving.
+     * Write the colony list to NBT data for saving.
+     * The colonies themselves are saved in their own files.
      *
      * @param compound NBT-Tag.
      */
     public static void writeToNBT(@NotNull final NBTTagCompound compound)
     {
-        @NotNull final NBTTagList colonyTagList = new NBTTagList();
+        @NotNull final int[] colonyIds = new int[colonies.size()];
+        int i = 0;
         for (@NotNull final Colony colony : colonies)
         {
-            @NotNull final NBTTagCompound colonyTagCompound = new NBTTagCompound();
-            colony.writeToNBT(colonyTagCompound);
-            colonyTagList.appendTag(colonyTagCompound);
+            colonyIds[i++] = colony.getID();
         }
-        compound.setTag(TAG_COLONIES, colonyTagList);
+        compound.setIntArray(TAG_COLONY_IDS, colonyIds);
         if (serverUUID != null)
         {
             compound.setUniqueId(TAG_UUID, serverUUID);
         }
     }
 
+    /**
+     * Get the directory of the Minecolonies data, in the world/save directory.
+     *
+     * @return the directory.
+     */
+    @NotNull
+    private static File getSaveDirectory()
+    {
+        return new File(DimensionManager.getWorld(0).getSaveHandler().getWorldDirectory(), FILENAME_MINECOLONIES_PATH);
+    }
+
     /**
      * Get save location for Minecolonies data, from the world/save directory.
      *
@@ -589,31 +721,20 @@ public final class ColonyManager
     @NotNull
     private static File getSaveLocation()
     {
-        @NotNull final File saveDir = new File(DimensionManager.getWorld(0).getSaveHandler().getWorldDirectory(), FILENAME_MINECOLONIES_PATH);
-        return new File(saveDir, FILENAME_MINECOLONIES);
+        return new File(getSaveDirectory(), FILENAME_MINECOLONIES);
     }
 
     /**
-     * Save an NBTTagCompound to a file.  Does so in a safe manner using an
-     * intermediate tmp file.
+     * Get the save file of a single colony.
      *
-     * @param file     The destination file to write the data to.
-     * @param compound The NBTTagCompound to write to the file.
+     * @param saveDir the directory of the Minecolonies data.
+     * @param id      the id of the colony.
+     * @return the save file.
      */
-    private static void saveNBTToPath(@Nullable final File file, @NotNull final NBTTagCompound compound)
+    @NotNull
+    private static File getColonySaveLocation(@NotNull final File saveDir, final int id)
     {
-        try
-        {
-            if (file != null)
-            {
-                file.getParentFile().mkdir();
-                CompressedStreamTools.safeWrite(compound, file);
-            }
-        }
-        catch (final IOException exception)
-        {
-            Log.getLogger().error("Exception when saving ColonyManager", exception);
-        }
+        return new File(saveDir, String.format(FILENAME_COLONY, id));
     }
 
     /**
@@ -627,6 +748,7 @@ public final class ColonyManager
         {
             //  Player has left the game, clear the Colony View cache
             colonyViews.clear();
+            colonyViewIndexByWorld.clear();
         }
     }
 
@@ -654,6 +776,8 @@ public final class ColonyManager
         {
             if (numWorldsLoaded == 0)
             {
+                //  Files of a previous session might still be in the writer queue
+                writer.flush();
                 if (!backupColonyData())
                 {
                     MineColonies.getLogger().error("Failed to save " + FILENAME_MINECOLONIES + " backup!");
@@ -690,11 +814,20 @@ public final class ColonyManager
         }
     }
 
+    /**
+     * Copy the colony list and all colony files into a zip file next to them.
+     *
+     * @return true if the backup has been made or there is no data to back up.
+     */
     public static boolean backupColonyData()
     {
-        if (numWorldsLoaded > 0 && saveNeeded)
+        if (numWorldsLoaded > 0)
         {
-            saveColonies();
+            if (saveNeeded)
+            {
+                saveColonies();
+            }
+            writer.flush();
         }
 
         @NotNull final File file = getSaveLocation();
@@ -708,19 +841,41 @@ public final class ColonyManager
             return false;
         }
 
-        try
+        @Nullable final File[] colonyFiles = file.getParentFile().listFiles((dir, name) -> name.matches(FILENAME_COLONY_REGEX));
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(targetFile)))
         {
-            Files.copy(file.toPath(), targetFile.toPath());
+            addToZip(zip, file);
+            if (colonyFiles != null)
+            {
+                for (@NotNull final File colonyFile : colonyFiles)
+                {
+                    addToZip(zip, colonyFile);
+                }
+            }
         }
         catch (IOException e)
         {
-            e.printStackTrace();
+            Log.getLogger().error("Exception when backing up the colonies", e);
             return false;
         }
 
         return targetFile.exists();
     }
 
+    /**
+     * Add a file to a zip file.
+     *
+     * @param zip  the zip file.
+     * @param file the file to add.
+     * @throws IOException if the file could not be read or written.
+     */
+    private static void addToZip(@NotNull final ZipOutputStream zip, @NotNull final File file) throws IOException
+    {
+        zip.putNextEntry(new ZipEntry(file.getName()));
+        Files.copy(file.toPath(), zip);
+        zip.closeEntry();
+    }
+
     /**
      * Load a file and return the data as an NBTTagCompound.
      *
@@ -750,13 +905,34 @@ public final class ColonyManager
      */
     public static void readFromNBT(@NotNull final NBTTagCompound compound)
     {
-        final NBTTagList colonyTags = compound.getTagList(TAG_COLONIES, NBT.TAG_COMPOUND);
-        for (int i = 0; i < colonyTags.tagCount(); ++i)
+        if (compound.hasKey(TAG_COLONIES))
+        {
+            //  Colonies saved all in one file by older versions, they are moved into their own files on the next save
+            final NBTTagList colonyTags = compound.getTagList(TAG_COLONIES, NBT.TAG_COMPOUND);
+            for (int i = 0; i < colonyTags.tagCount(); ++i)
+            {
+                addLoadedColony(Colony.loadColony(colonyTags.getCompoundTagAt(i)));
+            }
+            markDirty();
+        }
+        else
         {
-            @NotNull final Colony colony = Colony.loadColony(colonyTags.getCompoundTagAt(i));
-            colonies.add(colony);
+            @NotNull final File saveDir = getSaveDirectory();
+            final long now = System.currentTimeMillis();
+            for (final int id : compound.getIntArray(TAG_COLONY_IDS))
+            {
+                @Nullable final NBTTagCompound colonyCompound = loadNBTFromPath(getColonySaveLocation(saveDir, id));
+                if (colonyCompound == null)
+                {
+                    Log.getLogger().error(String.format("Missing save file of colony %d", id));
+                    continue;
+                }
 
-            addColonyByWorld(colony);
+                @NotNull final Colony colony = Colony.loadColony(colonyCompound);
+                addLoadedColony(colony);
+                colony.clearSaveDirty();
+                lastColonySaveTimes.put(id, now);
+            }
         }
 
         if (compound.hasUniqueId(TAG_UUID))
@@ -767,6 +943,19 @@ public final class ColonyManager
         Log.getLogger().info(String.format("Loaded %d colonies", colonies.size()));
     }
 
+    /**
+     * Register a colony read from saved data.
+     *
+     * @param colony the colony.
+     */
+    private static void addLoadedColony(@NotNull final Colony colony)
+    {
+        colonies.add(colony);
+
+        addColonyByWorld(colony);
+        onColonyOwnerChanged(colony, null);
+    }
+
     /**
      * Get save location for Minecolonies backup data, from the world/save
      * directory.
@@ -776,8 +965,7 @@ public final class ColonyManager
     @NotNull
     private static File getBackupSaveLocation(Date date)
     {
-        @NotNull final File saveDir = new File(DimensionManager.getWorld(0).getSaveHandler().getWorldDirectory(), FILENAME_MINECOLONIES_PATH);
-        return new File(saveDir, String.format(FILENAME_MINECOLONIES_BACKUP, new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(date)));
+        return new File(getSaveDirectory(), String.format(FILENAME_MINECOLONIES_BACKUP, new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(date)));
     }
 
     /**
@@ -815,6 +1003,25 @@ public final class ColonyManager
         }
     }
 
+    /**
+     * When a chunk unloads, colonies drop the cached information about it.
+     *
+     * @param world  World.
+     * @param chunkX the x coordinate of the chunk.
+     * @param chunkZ the z coordinate of the chunk.
+     */
+    public static void onChunkUnload(@NotNull final World world, final int chunkX, final int chunkZ)
+    {
+        for (@NotNull final Colony c : getColonies(world))
+        {
+            final PassabilityCache passabilityCache = c.getPassabilityCacheIfPresent();
+            if (passabilityCache != null)
+            {
+                passabilityCache.removeChunk(chunkX, chunkZ);
+            }
+        }
+    }
+
     /**
      * When a world unloads, all colonies in that world are informed.
      * Additionally, when the last world is unloaded, delete all colonies.
@@ -833,8 +1040,13 @@ public final class ColonyManager
             --numWorldsLoaded;
             if (numWorldsLoaded == 0)
             {
+                //  The world is saved before it is unloaded, make sure the files are on disk before the data is dropped
+                writer.flush();
+                lastColonySaveTimes.clear();
                 colonies.clear();
                 coloniesByWorld.clear();
+                colonyIndexByWorld.clear();
+                coloniesByOwner.clear();
             }
         }
     }
@@ -857,7 +1069,14 @@ public final class ColonyManager
             colonyViews.add(view);
         }
 
-        return view.handleColonyViewMessage(colonyData, isNewSubscription);
+        final IMessage response = view.handleColonyViewMessage(colonyData, isNewSubscription);
+        if (view.getCenter() != null)
+        {
+            //  The center and dimension are only known once a message was applied, not after a resync request, adding twice is ignored
+            colonyViewIndexByWorld.computeIfAbsent(view.getDimension(), dimension -> new ColonySpatialIndex<>())
+              .add(view, Configurations.workingRangeTownHall);
+        }
+        return response;
     }
 
     /**
@@ -1059,17 +1278,7 @@ public final class ColonyManager
      */
     public static boolean isCoordinateInAnyColony(@NotNull final World world, final BlockPos pos)
     {
-        for (@NotNull final ColonyView c : colonyViews)
-        {
-            if (c.getDimension() == world.provider.getDimension())
-            {
-                final long dist = c.getDistanceSquared(pos);
-                if (dist < (Configurations.workingRangeTownHall + Configurations.townHallPadding + BUFFER))
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
+        final ColonySpatialIndex<ColonyView> index = colonyViewIndexByWorld.get(world.provider.getDimension());
+        return index != null && index.hasColonyCenterWithin(pos, Configurations.workingRangeTownHall + Configurations.townHallPadding + BUFFER);
     }
 }
@@ -1,6 +1,11 @@
 package com.minecolonies.coremod.colony;
 
+import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
+import com.minecolonies.coremod.colony.buildings.BuildingLumberjack;
+import com.minecolonies.coremod.configuration.Configurations;
 import com.minecolonies.coremod.entity.EntityCitizen;
+import com.minecolonies.coremod.entity.ai.citizen.lumberjack.ForestIndex;
+import com.minecolonies.coremod.entity.pathfinding.PassabilityCache;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
@@ -19,8 +24,54 @@ public class ColonyManagerWorldAccess implements IWorldEventListener
     @Override
     public void notifyBlockUpdate(final World worldIn, final BlockPos pos, final IBlockState oldState, final IBlockState newState, final int flags)
     {
-        //Not needed
+        if (worldIn.isRemote || oldState == newState)
+        {
+            return;
+        }
 
+        //  Paths may cross into the range of a neighbour, so every cache holding the block has to forget it
+        Boolean passabilityChanged = null;
+        for (final Colony colony : ColonyManager.getColoniesNear(worldIn, pos))
+        {
+            final PassabilityCache passabilityCache = colony.getPassabilityCacheIfPresent();
+            if (passabilityCache == null || !passabilityCache.covers(pos))
+            {
+                continue;
+            }
+
+            //  Most block changes do not change how the block is walked, only compare once a cache cares
+            if (passabilityChanged == null)
+            {
+                passabilityChanged = PassabilityCache.computeFlags(worldIn, pos, oldState) != PassabilityCache.computeFlags(worldIn, pos, newState);
+            }
+            if (!passabilityChanged)
+            {
+                break;
+            }
+            passabilityCache.invalidate(pos);
+        }
+
+        if (ForestIndex.isLog(oldState) || ForestIndex.isLog(newState))
+        {
+            //  Lumberjacks look for trees beyond the borders of their colony, up to MAX_RANGE from their hut
+            final int maxDistance = Configurations.workingRangeTownHall + ForestIndex.MAX_RANGE;
+            for (final Colony worldColony : ColonyManager.getColonies(worldIn))
+            {
+                final BlockPos center = worldColony.getCenter();
+                if (Math.max(Math.abs(pos.getX() - center.getX()), Math.abs(pos.getZ() - center.getZ())) > maxDistance)
+                {
+                    continue;
+                }
+
+                for (final AbstractBuilding building : worldColony.getBuildings().values())
+                {
+                    if (building instanceof BuildingLumberjack)
+                    {
+                        ((BuildingLumberjack) building).getForest().onBlockChanged(worldIn, pos, oldState, newState);
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,306 @@
+package com.minecolonies.coremod.colony;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Grid index over the colonies of one dimension.
+ * Every colony is registered in all cells its working range touches, so point queries only check the colonies of a single cell,
+ * and by the cell of its center, so closest colony queries only check the cells around the position.
+ *
+ * @param <T> Type of IColony (Colony or ColonyView)
+ */
+public final class ColonySpatialIndex<T extends IColony>
+{
+    /**
+     * Bits to shift a block coordinate by to get the area cell, area cells are 64x64 blocks.
+     */
+    private static final int AREA_CELL_SHIFT = 6;
+
+    /**
+     * Bits to shift a block coordinate by to get the center cell, center cells are 256x256 blocks.
+     */
+    private static final int CENTER_CELL_SHIFT = 8;
+
+    /**
+     * Size of a center cell in blocks.
+     */
+    private static final int CENTER_CELL_SIZE = 1 << CENTER_CELL_SHIFT;
+
+    /**
+     * Rings of center cells searched around a position before falling back to checking all colonies.
+     */
+    private static final int MAX_SEARCH_RINGS = 16;
+
+    /**
+     * Colonies by the area cells their working range touches.
+     */
+    private final Map<Long, List<T>> areaCells = new HashMap<>();
+
+    /**
+     * Colonies by the cell of their center.
+     */
+    private final Map<Long, List<T>> centerCells = new HashMap<>();
+
+    /**
+     * All indexed colonies with the range they were indexed with.
+     */
+    private final Map<T, Integer> colonies = new LinkedHashMap<>();
+
+    /**
+     * Add a colony to the index.
+     *
+     * @param colony the colony.
+     * @param range  the horizontal radius of the area of the colony.
+     */
+    public void add(@NotNull final T colony, final int range)
+    {
+        if (colonies.containsKey(colony))
+        {
+            return;
+        }
+
+        colonies.put(colony, range);
+        final BlockPos center = colony.getCenter();
+        for (int x = (center.getX() - range) >> AREA_CELL_SHIFT; x <= (center.getX() + range) >> AREA_CELL_SHIFT; x++)
+        {
+            for (int z = (center.getZ() - range) >> AREA_CELL_SHIFT; z <= (center.getZ() + range) >> AREA_CELL_SHIFT; z++)
+            {
+                areaCells.computeIfAbsent(getCellKey(x, z), key -> new ArrayList<>()).add(colony);
+            }
+        }
+        centerCells.computeIfAbsent(getCellKey(center.getX() >> CENTER_CELL_SHIFT, center.getZ() >> CENTER_CELL_SHIFT), key -> new ArrayList<>()).add(colony);
+    }
+
+    /**
+     * Remove a colony from the index.
+     *
+     * @param colony the colony.
+     */
+    public void remove(@NotNull final T colony)
+    {
+        final Integer range = colonies.remove(colony);
+        if (range == null)
+        {
+            return;
+        }
+
+        final BlockPos center = colony.getCenter();
+        for (int x = (center.getX() - range) >> AREA_CELL_SHIFT; x <= (center.getX() + range) >> AREA_CELL_SHIFT; x++)
+        {
+            for (int z = (center.getZ() - range) >> AREA_CELL_SHIFT; z <= (center.getZ() + range) >> AREA_CELL_SHIFT; z++)
+            {
+                removeFromCell(areaCells, getCellKey(x, z), colony);
+            }
+        }
+        removeFromCell(centerCells, getCellKey(center.getX() >> CENTER_CELL_SHIFT, center.getZ() >> CENTER_CELL_SHIFT), colony);
+    }
+
+    /**
+     * Get the colony containing a position.
+     *
+     * @param w   the world of the position.
+     * @param pos the position.
+     * @return the colony or null if the position is in no colony.
+     */
+    @Nullable
+    public T getColonyAt(@NotNull final World w, @NotNull final BlockPos pos)
+    {
+        final List<T> cell = areaCells.get(getCellKey(pos.getX() >> AREA_CELL_SHIFT, pos.getZ() >> AREA_CELL_SHIFT));
+        if (cell == null)
+        {
+            return null;
+        }
+
+        for (final T colony : cell)
+        {
+            if (colony.isCoordInColony(w, pos))
+            {
+                return colony;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the colonies whose working range may contain a position, the exact area still has to be checked.
+     *
+     * @param pos the position.
+     * @return the colonies, not to be modified.
+     */
+    @NotNull
+    public List<T> getColoniesNear(@NotNull final BlockPos pos)
+    {
+        final List<T> cell = areaCells.get(getCellKey(pos.getX() >> AREA_CELL_SHIFT, pos.getZ() >> AREA_CELL_SHIFT));
+        return cell == null ? Collections.emptyList() : Collections.unmodifiableList(cell);
+    }
+
+    /**
+     * Get the colony with the center closest to a position.
+     *
+     * @param pos the position.
+     * @return the colony or null if the index is empty.
+     */
+    @Nullable
+    public T getClosestColony(@NotNull final BlockPos pos)
+    {
+        if (colonies.isEmpty())
+        {
+            return null;
+        }
+
+        final int cellX = pos.getX() >> CENTER_CELL_SHIFT;
+        final int cellZ = pos.getZ() >> CENTER_CELL_SHIFT;
+        T closest = null;
+        long closestDistance = Long.MAX_VALUE;
+
+        for (int ring = 0; ring <= MAX_SEARCH_RINGS; ring++)
+        {
+            //  Colonies in this ring or further out are at least (ring - 1) cells away
+            final long minDistance = (long) Math.max(0, ring - 1) * CENTER_CELL_SIZE;
+            if (closest != null && minDistance * minDistance > closestDistance)
+            {
+                return closest;
+            }
+
+            for (final T colony : getRing(cellX, cellZ, ring))
+            {
+                final long distance = colony.getDistanceSquared(pos);
+                if (distance < closestDistance)
+                {
+                    closest = colony;
+                    closestDistance = distance;
+                }
+            }
+        }
+
+        final long searchedDistance = (long) MAX_SEARCH_RINGS * CENTER_CELL_SIZE;
+        if (closest != null && closestDistance <= searchedDistance * searchedDistance)
+        {
+            return closest;
+        }
+
+        //  Nothing close by, the closest colony might be anywhere
+        for (final T colony : colonies.keySet())
+        {
+            final long distance = colony.getDistanceSquared(pos);
+            if (distance < closestDistance)
+            {
+                closest = colony;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Check if the center of any colony is closer to a position than a distance.
+     *
+     * @param pos         the position.
+     * @param maxDistance the squared distance.
+     * @return true if a colony has been found.
+     */
+    public boolean hasColonyCenterWithin(@NotNull final BlockPos pos, final long maxDistance)
+    {
+        final int cellX = pos.getX() >> CENTER_CELL_SHIFT;
+        final int cellZ = pos.getZ() >> CENTER_CELL_SHIFT;
+        final int rings = (int) (Math.sqrt(maxDistance) / CENTER_CELL_SIZE) + 1;
+
+        for (int ring = 0; ring <= rings; ring++)
+        {
+            for (final T colony : getRing(cellX, cellZ, ring))
+            {
+                if (colony.getDistanceSquared(pos) < maxDistance)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get all indexed colonies.
+     *
+     * @return an unmodifiable view of the colonies.
+     */
+    @NotNull
+    public Collection<T> getColonies()
+    {
+        return Collections.unmodifiableSet(colonies.keySet());
+    }
+
+    /**
+     * Drop all colonies from the index.
+     */
+    public void clear()
+    {
+        colonies.clear();
+        areaCells.clear();
+        centerCells.clear();
+    }
+
+    /**
+     * Get the colonies with their center in a square ring of center cells.
+     *
+     * @param cellX the x coordinate of the middle cell.
+     * @param cellZ the z coordinate of the middle cell.
+     * @param ring  the distance of the ring to the middle cell, in cells.
+     * @return the colonies.
+     */
+    @NotNull
+    private List<T> getRing(final int cellX, final int cellZ, final int ring)
+    {
+        final List<T> result = new ArrayList<>();
+        for (int x = cellX - ring; x <= cellX + ring; x++)
+        {
+            //  Only the border of the square, the inside has been checked by the smaller rings
+            final int step = (x == cellX - ring || x == cellX + ring) ? 1 : Math.max(1, 2 * ring);
+            for (int z = cellZ - ring; z <= cellZ + ring; z += step)
+            {
+                final List<T> cell = centerCells.get(getCellKey(x, z));
+                if (cell != null)
+                {
+                    result.addAll(cell);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove a colony from a cell, dropping the cell if it becomes empty.
+     *
+     * @param cells  the cells.
+     * @param key    the key of the cell.
+     * @param colony the colony.
+     */
+    private void removeFromCell(@NotNull final Map<Long, List<T>> cells, final long key, @NotNull final T colony)
+    {
+        final List<T> cell = cells.get(key);
+        if (cell != null)
+        {
+            cell.remove(colony);
+            if (cell.isEmpty())
+            {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Packs cell coordinates into a key.
+     *
+     * @param x the cell x coordinate.
+     * @param z the cell z coordinate.
+     * @return the key.
+     */
+    private static long getCellKey(final int x, final int z)
+    {
+        return ((long) x << Integer.SIZE) | (z & 0xFFFFFFFFL);
+    }
+}
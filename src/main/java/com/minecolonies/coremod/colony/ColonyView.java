@@ -6,11 +6,14 @@ import com.minecolonies.coremod.colony.buildings.BuildingTownHall;
 import com.minecolonies.coremod.colony.permissions.Permissions;
 import com.minecolonies.coremod.colony.workorders.AbstractWorkOrder;
 import com.minecolonies.coremod.configuration.Configurations;
+import com.minecolonies.coremod.network.ViewDelta;
+import com.minecolonies.coremod.network.messages.ColonyViewResyncMessage;
 import com.minecolonies.coremod.network.messages.PermissionsMessage;
 import com.minecolonies.coremod.network.messages.TownHallRenameMessage;
 import com.minecolonies.coremod.util.BlockPosUtil;
 import com.minecolonies.coremod.util.MathUtils;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.block.Block;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
@@ -26,6 +29,18 @@ import java.util.*;
  */
 public final class ColonyView implements IColony
 {
+    /**
+     * Sections of the network data, only the changed sections are sent.
+     */
+    private static final int SECTION_NAME           = 0;
+    private static final int SECTION_LOCATION       = 1;
+    private static final int SECTION_MANUAL_HIRING  = 2;
+    private static final int SECTION_MAX_CITIZENS   = 3;
+    private static final int SECTION_FREE_BLOCKS    = 4;
+    private static final int SECTION_FREE_POSITIONS = 5;
+    private static final int SECTION_HAPPINESS      = 6;
+    public static final  int SECTION_COUNT          = 7;
+
     //  General Attributes
     private final int id;
     private final Map<Integer, WorkOrderView>          workOrders  = new HashMap<>();
@@ -61,6 +76,11 @@ public final class ColonyView implements IColony
 
     private double overallHappiness = 5;
 
+    /**
+     * The revision of the view the last message was made for.
+     */
+    private int revision = ViewDelta.NO_REVISION;
+
     /**
      * Base constructor for a colony.
      *
@@ -84,39 +104,47 @@ public final class ColonyView implements IColony
     }
 
     /**
-     * Populate an NBT compound for a network packet representing a ColonyView.
+     * Serialize the network data of a ColonyView, every section into its own buffer.
+     * The sections are sent through the {@link ViewDelta} of the colony, only when they changed.
      *
-     * @param colony            Colony to write data about.
-     * @param buf               {@link ByteBuf} to write data in.
-     * @param isNewSubScription true if this is a new subscription.
+     * @param colony Colony to write data about.
+     * @return the sections, in order.
      */
-    public static void serializeNetworkData(@NotNull final Colony colony, @NotNull final ByteBuf buf, final boolean isNewSubScription)
+    @NotNull
+    public static ByteBuf[] serializeNetworkData(@NotNull final Colony colony)
     {
+        final ByteBuf[] sections = new ByteBuf[SECTION_COUNT];
+        for (int i = 0; i < SECTION_COUNT; i++)
+        {
+            sections[i] = Unpooled.buffer();
+        }
+
         //  General Attributes
-        ByteBufUtils.writeUTF8String(buf, colony.getName());
-        buf.writeInt(colony.getDimension());
-        BlockPosUtil.writeToByteBuf(buf, colony.getCenter());
-        buf.writeBoolean(colony.isManualHiring());
+        ByteBufUtils.writeUTF8String(sections[SECTION_NAME], colony.getName());
+        sections[SECTION_LOCATION].writeInt(colony.getDimension());
+        BlockPosUtil.writeToByteBuf(sections[SECTION_LOCATION], colony.getCenter());
+        sections[SECTION_MANUAL_HIRING].writeBoolean(colony.isManualHiring());
         //  Citizenry
-        buf.writeInt(colony.getMaxCitizens());
+        sections[SECTION_MAX_CITIZENS].writeInt(colony.getMaxCitizens());
 
         final Set<Block> freeBlocks = colony.getFreeBlocks();
         final Set<BlockPos> freePos = colony.getFreePositions();
 
-        buf.writeInt(freeBlocks.size());
+        sections[SECTION_FREE_BLOCKS].writeInt(freeBlocks.size());
         for (final Block block : freeBlocks)
         {
-            ByteBufUtils.writeUTF8String(buf, block.getRegistryName().toString());
+            ByteBufUtils.writeUTF8String(sections[SECTION_FREE_BLOCKS], block.getRegistryName().toString());
         }
 
-        buf.writeInt(freePos.size());
+        sections[SECTION_FREE_POSITIONS].writeInt(freePos.size());
         for (final BlockPos block : freePos)
         {
-            BlockPosUtil.writeToByteBuf(buf, block);
+            BlockPosUtil.writeToByteBuf(sections[SECTION_FREE_POSITIONS], block);
         }
-        buf.writeDouble(colony.getOverallHappiness());
+        sections[SECTION_HAPPINESS].writeDouble(colony.getOverallHappiness());
 
         //  Citizens are sent as a separate packet
+        return sections;
     }
 
     /**
@@ -353,13 +381,34 @@ public final class ColonyView implements IColony
     @Nullable
     public IMessage handleColonyViewMessage(@NotNull final ByteBuf buf, final boolean isNewSubscription)
     {
+        //  Only the sections changed since the last message are sent, they only apply to the revision they were made for
+        final int newRevision = ViewDelta.readRevision(buf, revision);
+        if (newRevision == ViewDelta.MISMATCH)
+        {
+            return new ColonyViewResyncMessage(id);
+        }
+        revision = newRevision;
+        final int sections = buf.readInt();
+
         //  General Attributes
-        name = ByteBufUtils.readUTF8String(buf);
-        dimensionId = buf.readInt();
-        center = BlockPosUtil.readFromByteBuf(buf);
-        manualHiring = buf.readBoolean();
+        if (ViewDelta.hasSection(sections, SECTION_NAME))
+        {
+            name = ByteBufUtils.readUTF8String(buf);
+        }
+        if (ViewDelta.hasSection(sections, SECTION_LOCATION))
+        {
+            dimensionId = buf.readInt();
+            center = BlockPosUtil.readFromByteBuf(buf);
+        }
+        if (ViewDelta.hasSection(sections, SECTION_MANUAL_HIRING))
+        {
+            manualHiring = buf.readBoolean();
+        }
         //  Citizenry
-        maxCitizens = buf.readInt();
+        if (ViewDelta.hasSection(sections, SECTION_MAX_CITIZENS))
+        {
+            maxCitizens = buf.readInt();
+        }
 
         if (isNewSubscription)
         {
@@ -368,21 +417,30 @@ public final class ColonyView implements IColony
             buildings.clear();
         }
 
-        freePositions = new HashSet<>();
-        freeBlocks = new HashSet<>();
+        if (ViewDelta.hasSection(sections, SECTION_FREE_BLOCKS))
+        {
+            freeBlocks = new HashSet<>();
+            final int blockListSize = buf.readInt();
+            for (int i = 0; i < blockListSize; i++)
+            {
+                freeBlocks.add(Block.getBlockFromName(ByteBufUtils.readUTF8String(buf)));
+            }
+        }
 
-        final int blockListSize = buf.readInt();
-        for (int i = 0; i < blockListSize; i++)
+        if (ViewDelta.hasSection(sections, SECTION_FREE_POSITIONS))
         {
-            freeBlocks.add(Block.getBlockFromName(ByteBufUtils.readUTF8String(buf)));
+            freePositions = new HashSet<>();
+            final int posListSize = buf.readInt();
+            for (int i = 0; i < posListSize; i++)
+            {
+                freePositions.add(BlockPosUtil.readFromByteBuf(buf));
+            }
         }
 
-        final int posListSize = buf.readInt();
-        for (int i = 0; i < posListSize; i++)
+        if (ViewDelta.hasSection(sections, SECTION_HAPPINESS))
         {
-            freePositions.add(BlockPosUtil.readFromByteBuf(buf));
+            this.overallHappiness = buf.readDouble();
         }
-        this.overallHappiness = buf.readDouble();
 
         return null;
     }
@@ -432,9 +490,25 @@ public final class ColonyView implements IColony
     @Nullable
     public IMessage handleColonyViewCitizensMessage(final int id, final ByteBuf buf)
     {
+        final CitizenDataView existingCitizen = citizens.get(id);
+        final int newRevision = ViewDelta.readRevision(buf, existingCitizen == null ? ViewDelta.NO_REVISION : existingCitizen.getRevision());
+        if (newRevision == ViewDelta.MISMATCH)
+        {
+            return new ColonyViewResyncMessage(this.id);
+        }
+
+        if (existingCitizen != null)
+        {
+            //  Only the sections changed since the last message are sent for a known citizen
+            existingCitizen.setRevision(newRevision);
+            existingCitizen.deserialize(buf);
+            return null;
+        }
+
         final CitizenDataView citizen = CitizenData.createCitizenDataView(id, buf);
         if (citizen != null)
         {
+            citizen.setRevision(newRevision);
             citizens.put(citizen.getID(), citizen);
         }
 
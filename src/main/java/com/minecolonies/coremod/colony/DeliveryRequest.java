@@ -0,0 +1,202 @@
+package com.minecolonies.coremod.colony;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A delivery a building requested from the warehouse.
+ * A building has at most one open request, which describes its most urgent need and is updated as its needs change.
+ */
+public final class DeliveryRequest
+{
+    /**
+     * What the building needs, every type has its own priority.
+     * The priority is the time in ticks the colony is given to deliver, so the queue serves the earliest deadline first.
+     */
+    public enum Type
+    {
+        /**
+         * The residents of a home are hungry.
+         */
+        FOOD(1200),
+        /**
+         * A worker can not work without a tool.
+         */
+        TOOL(2400),
+        /**
+         * A worker waits for items.
+         */
+        ITEMS(6000);
+
+        private final int patience;
+
+        Type(final int patience)
+        {
+            this.patience = patience;
+        }
+
+        /**
+         * Get the time the colony is given to deliver.
+         *
+         * @return the time in ticks.
+         */
+        public int getPatience()
+        {
+            return patience;
+        }
+    }
+
+    /**
+     * Value of {@link #assigned} while no deliveryman has taken the request.
+     */
+    private static final long NOT_ASSIGNED = -1;
+
+    /**
+     * The location of the requesting building.
+     */
+    @NotNull
+    private final BlockPos building;
+
+    /**
+     * The tick the building first published the request.
+     */
+    private final long created;
+
+    @NotNull
+    private Type      type;
+    @Nullable
+    private ItemStack stack;
+    private int       quantity;
+
+    /**
+     * The tick a deliveryman took the request, or {@link #NOT_ASSIGNED}.
+     */
+    private long assigned = NOT_ASSIGNED;
+
+    /**
+     * Create a request.
+     *
+     * @param building the location of the requesting building.
+     * @param created  the current tick.
+     * @param type     what the building needs.
+     * @param stack    the first needed item or null.
+     * @param quantity the amount of needed items.
+     */
+    DeliveryRequest(@NotNull final BlockPos building, final long created, @NotNull final Type type, @Nullable final ItemStack stack, final int quantity)
+    {
+        this.building = building;
+        this.created = created;
+        this.type = type;
+        this.stack = stack;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Update the need of the building, the request keeps its age.
+     *
+     * @param type     what the building needs.
+     * @param stack    the first needed item or null.
+     * @param quantity the amount of needed items.
+     */
+    void update(@NotNull final Type type, @Nullable final ItemStack stack, final int quantity)
+    {
+        this.type = type;
+        this.stack = stack;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Get the location of the requesting building.
+     *
+     * @return the location.
+     */
+    @NotNull
+    public BlockPos getBuilding()
+    {
+        return building;
+    }
+
+    /**
+     * Get the tick the request was first published.
+     *
+     * @return the tick.
+     */
+    public long getCreated()
+    {
+        return created;
+    }
+
+    /**
+     * Get the tick the request should be delivered by.
+     *
+     * @return the tick.
+     */
+    public long getDeadline()
+    {
+        return created + type.getPatience();
+    }
+
+    /**
+     * Get what the building needs.
+     *
+     * @return the type.
+     */
+    @NotNull
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * Get the first needed item.
+     *
+     * @return a copy of the stack, or null for food and tools.
+     */
+    @Nullable
+    public ItemStack getStack()
+    {
+        return stack == null ? null : stack.copy();
+    }
+
+    /**
+     * Get the amount of needed items.
+     *
+     * @return the amount.
+     */
+    public int getQuantity()
+    {
+        return quantity;
+    }
+
+    /**
+     * Check if a deliveryman has taken the request.
+     *
+     * @param now     the current tick.
+     * @param timeout the ticks after which a deliveryman which did not deliver is considered lost.
+     * @return true if so.
+     */
+    boolean isAssigned(final long now, final long timeout)
+    {
+        return assigned != NOT_ASSIGNED && now - assigned < timeout;
+    }
+
+    /**
+     * Set that a deliveryman took the request.
+     *
+     * @param now the current tick.
+     */
+    void assign(final long now)
+    {
+        this.assigned = now;
+    }
+
+    /**
+     * Set that the deliveryman gave up the request.
+     */
+    void release()
+    {
+        this.assigned = NOT_ASSIGNED;
+    }
+}
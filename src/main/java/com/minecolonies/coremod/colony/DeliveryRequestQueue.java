@@ -0,0 +1,249 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
+import com.minecolonies.coremod.colony.buildings.BuildingHome;
+import com.minecolonies.coremod.util.InventoryUtils;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The open delivery requests of a colony.
+ * Buildings publish a request whenever their needs change, the warehouses hand the open requests to the deliverymen,
+ * earliest deadline first, and the deliverymen mark them fulfilled once delivered.
+ * Requests are not saved, the buildings publish their needs again after a restart.
+ * Only accessed from the server thread.
+ */
+public final class DeliveryRequestQueue
+{
+    /**
+     * Ticks after which a taken request is offered again, in case the deliveryman got lost.
+     */
+    private static final long ASSIGNMENT_TIMEOUT = 6000;
+
+    /**
+     * Ticks per second, for the statistics.
+     */
+    private static final double TICKS_PER_SECOND = 20D;
+
+    /**
+     * Ticks per minute, for the statistics.
+     */
+    private static final double TICKS_PER_MINUTE = 1200D;
+
+    /**
+     * The colony of the queue.
+     */
+    @NotNull
+    private final Colony colony;
+
+    /**
+     * The open requests by the location of the requesting building.
+     */
+    @NotNull
+    private final Map<BlockPos, DeliveryRequest> requests = new HashMap<>();
+
+    private long published    = 0;
+    private long fulfilled    = 0;
+    private long withdrawn    = 0;
+    private long totalLatency = 0;
+    private long maxLatency   = 0;
+
+    /**
+     * The tick the first request was published, the start of the throughput window.
+     */
+    private long firstPublished = -1;
+
+    /**
+     * Create the queue of a colony.
+     *
+     * @param colony the colony.
+     */
+    public DeliveryRequestQueue(@NotNull final Colony colony)
+    {
+        this.colony = colony;
+    }
+
+    /**
+     * Publish the current needs of a building.
+     * Opens a request, updates the open request of the building or withdraws it if nothing is needed anymore.
+     *
+     * @param building the building.
+     */
+    public void publish(@NotNull final AbstractBuilding building)
+    {
+        final DeliveryRequest.Type type;
+        ItemStack stack = null;
+        int quantity = 1;
+        if (building instanceof BuildingHome && ((BuildingHome) building).isFoodNeeded())
+        {
+            type = DeliveryRequest.Type.FOOD;
+        }
+        else if (!building.getRequiredTool().isEmpty())
+        {
+            type = DeliveryRequest.Type.TOOL;
+        }
+        else if (building.areItemsNeeded())
+        {
+            type = DeliveryRequest.Type.ITEMS;
+            stack = building.getFirstNeededItem();
+            quantity = building.getNeededItems().stream().mapToInt(InventoryUtils::getItemStackSize).sum();
+        }
+        else
+        {
+            withdraw(building.getLocation());
+            return;
+        }
+
+        final DeliveryRequest request = requests.get(building.getLocation());
+        if (request == null)
+        {
+            final long now = getTime();
+            requests.put(building.getLocation(), new DeliveryRequest(building.getLocation(), now, type, stack, quantity));
+            published++;
+            if (firstPublished < 0)
+            {
+                firstPublished = now;
+            }
+        }
+        else
+        {
+            request.update(type, stack, quantity);
+        }
+    }
+
+    /**
+     * Get the requests no deliveryman has taken, earliest deadline first.
+     *
+     * @return a new list of the requests.
+     */
+    @NotNull
+    public List<DeliveryRequest> getOpenRequests()
+    {
+        final long now = getTime();
+        final List<DeliveryRequest> open = new ArrayList<>(requests.size());
+        for (final DeliveryRequest request : requests.values())
+        {
+            if (!request.isAssigned(now, ASSIGNMENT_TIMEOUT))
+            {
+                open.add(request);
+            }
+        }
+        open.sort(Comparator.comparingLong(DeliveryRequest::getDeadline).thenComparingLong(DeliveryRequest::getCreated));
+        return open;
+    }
+
+    /**
+     * Set that a deliveryman took the request of a building.
+     *
+     * @param building the location of the building.
+     */
+    public void assign(@NotNull final BlockPos building)
+    {
+        final DeliveryRequest request = requests.get(building);
+        if (request != null)
+        {
+            request.assign(getTime());
+        }
+    }
+
+    /**
+     * Set that the deliveryman gave up the request of a building, it is offered again.
+     *
+     * @param building the location of the building.
+     */
+    public void release(@NotNull final BlockPos building)
+    {
+        final DeliveryRequest request = requests.get(building);
+        if (request != null)
+        {
+            request.release();
+        }
+    }
+
+    /**
+     * Close the request of a building after it has been delivered.
+     *
+     * @param building the location of the building.
+     */
+    private void fulfill(@NotNull final BlockPos building)
+    {
+        final DeliveryRequest request = requests.remove(building);
+        if (request != null)
+        {
+            final long latency = getTime() - request.getCreated();
+            fulfilled++;
+            totalLatency += latency;
+            maxLatency = Math.max(maxLatency, latency);
+        }
+    }
+
+    /**
+     * Called after a deliveryman delivered to a building.
+     * The request is closed if the building does not need anything anymore, else it is updated and offered again,
+     * like when the chest of the building was full or the delivered tool did not have the right level.
+     * Homes are closed right away, they do not check the delivered food.
+     *
+     * @param building the building.
+     */
+    public void complete(@NotNull final AbstractBuilding building)
+    {
+        if (!(building instanceof BuildingHome) && building.needsAnything())
+        {
+            publish(building);
+            release(building.getLocation());
+            return;
+        }
+        fulfill(building.getLocation());
+    }
+
+    /**
+     * Close the request of a building which does not need a delivery anymore.
+     *
+     * @param building the location of the building.
+     */
+    public void withdraw(@NotNull final BlockPos building)
+    {
+        if (requests.remove(building) != null)
+        {
+            withdrawn++;
+        }
+    }
+
+    /**
+     * Get the request latency and fulfillment throughput of the colony.
+     *
+     * @return a line of text.
+     */
+    @NotNull
+    public String getStatistics()
+    {
+        final long window = firstPublished < 0 ? 0 : getTime() - firstPublished;
+        return String.format("%d open, %d published, %d fulfilled, %d withdrawn, latency avg %.1fs max %.1fs, %.2f fulfilled/min",
+          requests.size(),
+          published,
+          fulfilled,
+          withdrawn,
+          fulfilled == 0 ? 0D : totalLatency / TICKS_PER_SECOND / fulfilled,
+          maxLatency / TICKS_PER_SECOND,
+          window <= 0 ? 0D : fulfilled * TICKS_PER_MINUTE / window);
+    }
+
+    /**
+     * Get the current tick of the colony world.
+     *
+     * @return the tick or 0 if the world is not loaded.
+     */
+    private long getTime()
+    {
+        final World world = colony.getWorld();
+        return world == null ? 0 : world.getTotalWorldTime();
+    }
+}
@@ -0,0 +1,192 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.configuration.Configurations;
+import com.minecolonies.coremod.util.MathUtils;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The dropped items and experience orbs in and around a colony, so citizens do not have to scan the world for them every tick.
+ * Entities are added when they join the world near the colony and dropped again once they died, their chunk unloaded
+ * or the world does not know them under their id anymore.
+ * The items and orbs of the colony are kept in one flat list each, which the queries scan with the current positions,
+ * so a moving entity needs no update.
+ * Only accessed from the server thread.
+ */
+public final class LooseEntityIndex
+{
+    /**
+     * Blocks around the working range of the colony in which entities are tracked as well,
+     * so items which drift into the colony are still found.
+     */
+    private static final int TRACKING_MARGIN = 16;
+
+    /**
+     * The colony of the index.
+     */
+    @NotNull
+    private final Colony colony;
+
+    @NotNull
+    private final List<EntityItem>  items = new ArrayList<>();
+    @NotNull
+    private final List<EntityXPOrb> orbs  = new ArrayList<>();
+
+    /**
+     * The entities in {@link #items} and {@link #orbs}, so an entity which joins twice is tracked once.
+     */
+    @NotNull
+    private final Set<Entity> tracked = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Reused for the chunk checks of {@link #refresh()}.
+     */
+    @NotNull
+    private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+
+    /**
+     * Create the index of a colony.
+     *
+     * @param colony the colony.
+     */
+    public LooseEntityIndex(@NotNull final Colony colony)
+    {
+        this.colony = colony;
+    }
+
+    /**
+     * Track an entity which joined the world, if it is an item or an orb near the colony.
+     *
+     * @param entity the entity.
+     */
+    public void track(@NotNull final Entity entity)
+    {
+        if (!(entity instanceof EntityItem || entity instanceof EntityXPOrb) || entity.world != colony.getWorld()
+              || getHorizontalDistanceSquared(entity.posX, entity.posZ) > MathUtils.square(Configurations.workingRangeTownHall + TRACKING_MARGIN))
+        {
+            return;
+        }
+
+        if (!tracked.add(entity))
+        {
+            return;
+        }
+        if (entity instanceof EntityItem)
+        {
+            items.add((EntityItem) entity);
+        }
+        else
+        {
+            orbs.add((EntityXPOrb) entity);
+        }
+    }
+
+    /**
+     * Drop the entities which died, left the world, whose chunk unloaded or which were replaced, once per tick.
+     */
+    public void refresh()
+    {
+        final World world = colony.getWorld();
+        removeGone(items, world);
+        removeGone(orbs, world);
+    }
+
+    /**
+     * Check if the index holds all items and orbs around an entity, else the world has to be scanned.
+     *
+     * @param entity the entity.
+     * @param reach  the distance around the entity the items and orbs are needed in.
+     * @return true if the index can be used.
+     */
+    public boolean covers(@NotNull final Entity entity, final double reach)
+    {
+        return entity.world == colony.getWorld()
+                 && getHorizontalDistanceSquared(entity.posX, entity.posZ) <= MathUtils.square(Configurations.workingRangeTownHall - reach);
+    }
+
+    /**
+     * Collect the living items in a box.
+     *
+     * @param box the box.
+     * @param out the list to add the items to.
+     */
+    public void getItemsWithin(@NotNull final AxisAlignedBB box, @NotNull final List<EntityItem> out)
+    {
+        collectWithin(items, box, out);
+    }
+
+    /**
+     * Collect the living orbs in a box.
+     *
+     * @param box the box.
+     * @param out the list to add the orbs to.
+     */
+    public void getXPOrbsWithin(@NotNull final AxisAlignedBB box, @NotNull final List<EntityXPOrb> out)
+    {
+        collectWithin(orbs, box, out);
+    }
+
+    /**
+     * Get the amount of tracked entities.
+     *
+     * @return the amount of items and orbs.
+     */
+    public int size()
+    {
+        return items.size() + orbs.size();
+    }
+
+    private static <T extends Entity> void collectWithin(@NotNull final List<T> entities, @NotNull final AxisAlignedBB box, @NotNull final List<T> out)
+    {
+        for (int i = 0; i < entities.size(); i++)
+        {
+            final T entity = entities.get(i);
+            if (!entity.isDead && entity.getEntityBoundingBox().intersectsWith(box))
+            {
+                out.add(entity);
+            }
+        }
+    }
+
+    /**
+     * Remove the entities which are gone, by swapping in the last entity, the order does not matter.
+     */
+    private <T extends Entity> void removeGone(@NotNull final List<T> entities, @Nullable final World world)
+    {
+        int i = 0;
+        while (i < entities.size())
+        {
+            final T entity = entities.get(i);
+            if (entity.isDead || entity.world != world || world.getEntityByID(entity.getEntityId()) != entity
+                  || !world.isBlockLoaded(mutablePos.setPos(entity.posX, entity.posY, entity.posZ)))
+            {
+                tracked.remove(entity);
+                final T last = entities.remove(entities.size() - 1);
+                if (i < entities.size())
+                {
+                    entities.set(i, last);
+                }
+            }
+            else
+            {
+                i++;
+            }
+        }
+    }
+
+    private double getHorizontalDistanceSquared(final double x, final double z)
+    {
+        final BlockPos center = colony.getCenter();
+        final double dx = x - center.getX();
+        final double dz = z - center.getZ();
+        return dx * dx + dz * dz;
+    }
+}
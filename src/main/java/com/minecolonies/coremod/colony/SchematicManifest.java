@@ -0,0 +1,266 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.util.Log;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants.NBT;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * What is known about the schematic files from the last start: modification time, size and MD5 hash by path.
+ * Files whose modification time and size did not change are not read again.
+ * Changed files are hashed while streaming them.
+ */
+final class SchematicManifest
+{
+    private static final String TAG_ENTRIES  = "entries";
+    private static final String TAG_PATH     = "path";
+    private static final String TAG_MODIFIED = "modified";
+    private static final String TAG_SIZE     = "size";
+    private static final String TAG_MD5      = "md5";
+
+    /**
+     * Size of the read buffer while hashing.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The file the manifest is saved to.
+     */
+    @NotNull
+    private final File file;
+
+    /**
+     * The entries by the uri of the schematic file.
+     */
+    @NotNull
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private boolean dirty = false;
+
+    /**
+     * Create an empty manifest.
+     *
+     * @param file the file to save it to.
+     */
+    private SchematicManifest(@NotNull final File file)
+    {
+        this.file = file;
+    }
+
+    /**
+     * Load the manifest from a file, empty if the file does not exist or can not be read.
+     *
+     * @param file the file.
+     * @return the manifest.
+     */
+    @NotNull
+    static SchematicManifest load(@NotNull final File file)
+    {
+        final SchematicManifest manifest = new SchematicManifest(file);
+        if (!file.exists())
+        {
+            return manifest;
+        }
+
+        try
+        {
+            final NBTTagCompound compound = CompressedStreamTools.read(file);
+            if (compound == null)
+            {
+                return manifest;
+            }
+
+            final NBTTagList list = compound.getTagList(TAG_ENTRIES, NBT.TAG_COMPOUND);
+            for (int i = 0; i < list.tagCount(); i++)
+            {
+                final NBTTagCompound entryCompound = list.getCompoundTagAt(i);
+                manifest.entries.put(entryCompound.getString(TAG_PATH), new Entry(entryCompound.getLong(TAG_MODIFIED),
+                                                                                   entryCompound.getLong(TAG_SIZE),
+                                                                                   entryCompound.getString(TAG_MD5)));
+            }
+        }
+        catch (final IOException e)
+        {
+            Log.getLogger().warn("Could not read the schematic manifest " + file + ", all schematics are indexed again", e);
+        }
+        return manifest;
+    }
+
+    /**
+     * Save the manifest if it changed.
+     */
+    void save()
+    {
+        if (!dirty)
+        {
+            return;
+        }
+
+        final NBTTagList list = new NBTTagList();
+        for (final Map.Entry<String, Entry> entry : entries.entrySet())
+        {
+            final NBTTagCompound entryCompound = new NBTTagCompound();
+            entryCompound.setString(TAG_PATH, entry.getKey());
+            entryCompound.setLong(TAG_MODIFIED, entry.getValue().modified);
+            entryCompound.setLong(TAG_SIZE, entry.getValue().size);
+            entryCompound.setString(TAG_MD5, entry.getValue().md5);
+            list.appendTag(entryCompound);
+        }
+
+        final NBTTagCompound compound = new NBTTagCompound();
+        compound.setTag(TAG_ENTRIES, list);
+        try
+        {
+            Files.createDirectories(file.getParentFile().toPath());
+            CompressedStreamTools.safeWrite(compound, file);
+            dirty = false;
+        }
+        catch (final IOException e)
+        {
+            Log.getLogger().warn("Could not save the schematic manifest " + file, e);
+        }
+    }
+
+    /**
+     * Get the entry of a file if the file did not change since.
+     *
+     * @param key        the uri of the file.
+     * @param attributes the current attributes of the file.
+     * @return the entry or null if the file is new or changed.
+     */
+    @Nullable
+    Entry get(@NotNull final String key, @NotNull final BasicFileAttributes attributes)
+    {
+        final Entry entry = entries.get(key);
+        if (entry == null || entry.modified != attributes.lastModifiedTime().toMillis() || entry.size != attributes.size())
+        {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Store the entry of a file.
+     *
+     * @param key   the uri of the file.
+     * @param entry the entry.
+     */
+    void put(@NotNull final String key, @NotNull final Entry entry)
+    {
+        if (!entry.equals(entries.put(key, entry)))
+        {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Drop the entries of the files below a folder which were not seen while walking it.
+     *
+     * @param root the uri of the folder.
+     * @param seen the uris of the files found.
+     */
+    void retainUnder(@NotNull final String root, @NotNull final Set<String> seen)
+    {
+        if (entries.keySet().removeIf(key -> key.startsWith(root) && !seen.contains(key)))
+        {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Read a file once and compute its entry.
+     *
+     * @param path       the file.
+     * @param attributes the attributes of the file.
+     * @return the entry.
+     * @throws IOException if the file can not be read.
+     */
+    @NotNull
+    static Entry index(@NotNull final Path path, @NotNull final BasicFileAttributes attributes) throws IOException
+    {
+        final MessageDigest md;
+        try
+        {
+            md = MessageDigest.getInstance("MD5");
+        }
+        catch (final NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+
+        try (InputStream stream = Files.newInputStream(path))
+        {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = stream.read(buffer)) != -1)
+            {
+                md.update(buffer, 0, read);
+            }
+        }
+        return new Entry(attributes.lastModifiedTime().toMillis(), attributes.size(), DatatypeConverter.printHexBinary(md.digest()));
+    }
+
+    /**
+     * What is known about one schematic file.
+     */
+    static final class Entry
+    {
+        private final long   modified;
+        private final long   size;
+        @NotNull
+        private final String md5;
+
+        private Entry(final long modified, final long size, @NotNull final String md5)
+        {
+            this.modified = modified;
+            this.size = size;
+            this.md5 = md5;
+        }
+
+        /**
+         * Get the MD5 hash of the file.
+         *
+         * @return the hash as upper case hex string.
+         */
+        @NotNull
+        String getMD5()
+        {
+            return md5;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Entry))
+            {
+                return false;
+            }
+            final Entry entry = (Entry) o;
+            return modified == entry.modified && size == entry.size && md5.equals(entry.md5);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(modified, size, md5);
+        }
+    }
+}
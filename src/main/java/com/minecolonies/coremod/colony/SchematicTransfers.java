@@ -0,0 +1,415 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.util.Log;
+import com.minecolonies.structures.helpers.Structure;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends schematics in chunks, so they are not limited by the size of a single packet.
+ * A schematic is compressed once and the compressed bytes are split into chunks, addressed by the MD5 hash of the schematic and their index.
+ * The sending side keeps the chunks of recently sent schematics, the receiving side keeps the chunks of unfinished transfers per sender,
+ * so an interrupted transfer resumes at the first missing chunk. A finished transfer is only accepted if its MD5 hash matches.
+ * Schematics uploaded by players are limited to the size a single packet used to allow.
+ */
+public final class SchematicTransfers
+{
+    /**
+     * Bytes of compressed data per chunk, leaves room for the header within the 32767 bytes of a client packet.
+     */
+    public static final int CHUNK_SIZE = 30_000;
+
+    /**
+     * Chunks sent for one request, the receiver asks for the next window once it got the last chunk of a window.
+     */
+    public static final int WINDOW_SIZE = 8;
+
+    /**
+     * Maximum amount of chunks of a schematic, about 15 MB compressed.
+     */
+    private static final int MAX_CHUNKS = 512;
+
+    /**
+     * Maximum amount of compressed bytes of a schematic.
+     */
+    public static final int MAX_COMPRESSED_SIZE = MAX_CHUNKS * CHUNK_SIZE;
+
+    /**
+     * Maximum amount of compressed bytes of a schematic uploaded by a player, the size of a single client packet.
+     */
+    public static final int MAX_UPLOAD_SIZE = 32_767;
+
+    /**
+     * Maximum amount of uncompressed bytes of a schematic, decompression stops there.
+     */
+    public static final int MAX_SCHEMATIC_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The sender of the schematics which are downloaded from the server.
+     */
+    public static final UUID SERVER = new UUID(0, 0);
+
+    /**
+     * Maximum amount of compressed bytes kept by the sending side.
+     */
+    private static final long MAX_CACHED_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * Maximum amount of unfinished transfers kept for one sender, the oldest one is dropped first.
+     */
+    private static final int MAX_PENDING_PER_SENDER = 4;
+
+    /**
+     * The chunks of the recently sent schematics by MD5 hash, least recently used first.
+     */
+    @NotNull
+    private static final Map<String, Chunks> sent = new LinkedHashMap<>(16, 0.75F, true);
+
+    /**
+     * The unfinished transfers by sender and MD5 hash, oldest first.
+     */
+    @NotNull
+    private static final Map<UUID, Map<String, byte[][]>> pending = new HashMap<>();
+
+    /**
+     * Compresses the schematics which were not sent before, off the server thread.
+     */
+    @NotNull
+    private static final ExecutorService compressor = createCompressor();
+
+    private static long cachedBytes = 0;
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private SchematicTransfers()
+    {
+    }
+
+    /**
+     * Get the chunks of a schematic, compresses it on a worker thread unless it was sent recently.
+     *
+     * @param structureName the name of the schematic, as in schematics/stone/Builder1.
+     * @return the chunks, completes with null if the schematic could not be read.
+     */
+    @NotNull
+    public static CompletableFuture<Chunks> getChunks(@NotNull final String structureName)
+    {
+        final String md5 = Structures.hasMD5(structureName) ? Structures.getMD5(structureName) : null;
+        final Chunks cached = getCached(md5);
+        if (cached != null)
+        {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return CompletableFuture.supplyAsync(() ->
+        {
+            final byte[] data;
+            try (InputStream stream = Structure.getStream(structureName))
+            {
+                if (stream == null)
+                {
+                    return null;
+                }
+                data = Structure.getStreamAsByteArray(stream);
+            }
+            catch (final IOException e)
+            {
+                Log.getLogger().warn("SchematicTransfers: could not read " + structureName, e);
+                return null;
+            }
+
+            final Chunks chunks = split(data);
+            if (chunks != null)
+            {
+                cache(chunks);
+            }
+            return chunks;
+        }, compressor);
+    }
+
+    /**
+     * Compress a schematic and split it into chunks.
+     *
+     * @param data the schematic.
+     * @return the chunks or null if the schematic is empty or too big.
+     */
+    @Nullable
+    public static Chunks split(@NotNull final byte[] data)
+    {
+        final String md5 = Structure.calculateMD5(data);
+        if (md5 == null || data.length == 0)
+        {
+            return null;
+        }
+
+        final byte[] compressed = Structure.compress(data);
+        final int count = (compressed.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (count > MAX_CHUNKS)
+        {
+            Log.getLogger().warn("SchematicTransfers: can not send a schematic of " + compressed.length + " compressed bytes, maximum is " + MAX_CHUNKS * CHUNK_SIZE);
+            return null;
+        }
+
+        final byte[][] chunks = new byte[count][];
+        for (int i = 0; i < count; i++)
+        {
+            chunks[i] = Arrays.copyOfRange(compressed, i * CHUNK_SIZE, Math.min(compressed.length, (i + 1) * CHUNK_SIZE));
+        }
+        return new Chunks(md5, chunks, compressed.length);
+    }
+
+    /**
+     * Store a received chunk.
+     *
+     * @param sender  the player who sent the chunk, {@link #SERVER} for downloads.
+     * @param md5     the MD5 hash of the schematic.
+     * @param index   the index of the chunk.
+     * @param total   the amount of chunks of the schematic.
+     * @param chunk   the compressed data of the chunk.
+     * @param maxSize the maximum amount of compressed bytes of the schematic.
+     * @return the schematic once all chunks arrived and its hash matches, else null.
+     */
+    @Nullable
+    public static byte[] receive(
+                                  @NotNull final UUID sender,
+                                  @NotNull final String md5,
+                                  final int index,
+                                  final int total,
+                                  @NotNull final byte[] chunk,
+                                  final int maxSize)
+    {
+        final byte[] compressed = store(sender, md5, index, total, chunk, maxSize);
+        if (compressed == null)
+        {
+            return null;
+        }
+
+        final byte[] data = Structure.uncompress(compressed, MAX_SCHEMATIC_SIZE);
+        if (data == null)
+        {
+            return null;
+        }
+        if (!md5.equals(Structure.calculateMD5(data)))
+        {
+            Log.getLogger().warn("SchematicTransfers: received schematic does not match its hash " + md5 + ", dropping it");
+            return null;
+        }
+        return data;
+    }
+
+    /**
+     * Store a received chunk and put the chunks together once all of them arrived.
+     *
+     * @return the compressed schematic or null if chunks are missing.
+     */
+    @Nullable
+    private static synchronized byte[] store(
+                                              @NotNull final UUID sender,
+                                              @NotNull final String md5,
+                                              final int index,
+                                              final int total,
+                                              @NotNull final byte[] chunk,
+                                              final int maxSize)
+    {
+        final int maxChunks = Math.min(MAX_CHUNKS, (maxSize + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        if (total <= 0 || total > maxChunks || index < 0 || index >= total || chunk.length > CHUNK_SIZE)
+        {
+            Log.getLogger().warn("SchematicTransfers: dropping invalid chunk " + index + "/" + total + " of " + md5 + " from " + sender);
+            return null;
+        }
+
+        final Map<String, byte[][]> transfers = pending.computeIfAbsent(sender, key -> new LinkedHashMap<>());
+        byte[][] chunks = transfers.get(md5);
+        if (chunks == null || chunks.length != total)
+        {
+            if (chunks == null && transfers.size() >= MAX_PENDING_PER_SENDER)
+            {
+                final Iterator<String> oldest = transfers.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            chunks = new byte[total][];
+            transfers.put(md5, chunks);
+        }
+        chunks[index] = chunk;
+
+        if (getFirstMissing(chunks) < total)
+        {
+            return null;
+        }
+
+        transfers.remove(md5);
+        if (transfers.isEmpty())
+        {
+            pending.remove(sender);
+        }
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream((total - 1) * CHUNK_SIZE + chunks[total - 1].length);
+        for (final byte[] part : chunks)
+        {
+            if (part.length > maxSize - compressed.size())
+            {
+                Log.getLogger().warn("SchematicTransfers: dropping schematic " + md5 + " from " + sender + ", it is bigger than " + maxSize + " bytes");
+                return null;
+            }
+            compressed.write(part, 0, part.length);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Get the first chunk of a schematic which did not arrive yet, to resume a transfer.
+     *
+     * @param sender the sender of the schematic, {@link #SERVER} for downloads.
+     * @param md5    the MD5 hash of the schematic, null if unknown.
+     * @return the index of the chunk, 0 if nothing arrived yet.
+     */
+    public static synchronized int getFirstMissingChunk(@NotNull final UUID sender, @Nullable final String md5)
+    {
+        final Map<String, byte[][]> transfers = pending.get(sender);
+        final byte[][] chunks = md5 == null || transfers == null ? null : transfers.get(md5);
+        return chunks == null ? 0 : getFirstMissing(chunks);
+    }
+
+    /**
+     * Drop the unfinished transfers of a sender, once it left.
+     *
+     * @param sender the sender.
+     */
+    public static synchronized void forget(@NotNull final UUID sender)
+    {
+        pending.remove(sender);
+    }
+
+    /**
+     * Check if a chunk is the last one of the window it was sent in.
+     *
+     * @param index the index of the chunk.
+     * @param first the first chunk of the window.
+     * @param total the amount of chunks of the schematic.
+     * @return true if the next window should be requested.
+     */
+    public static boolean isEndOfWindow(final int index, final int first, final int total)
+    {
+        return index == Math.min(total, first + WINDOW_SIZE) - 1;
+    }
+
+    private static int getFirstMissing(@NotNull final byte[][] chunks)
+    {
+        for (int i = 0; i < chunks.length; i++)
+        {
+            if (chunks[i] == null)
+            {
+                return i;
+            }
+        }
+        return chunks.length;
+    }
+
+    @Nullable
+    private static synchronized Chunks getCached(@Nullable final String md5)
+    {
+        return md5 == null ? null : sent.get(md5);
+    }
+
+    private static synchronized void cache(@NotNull final Chunks chunks)
+    {
+        if (sent.containsKey(chunks.md5))
+        {
+            return;
+        }
+        sent.put(chunks.md5, chunks);
+        cachedBytes += chunks.size;
+
+        final Iterator<Chunks> oldest = sent.values().iterator();
+        while (cachedBytes > MAX_CACHED_BYTES && sent.size() > 1)
+        {
+            cachedBytes -= oldest.next().size;
+            oldest.remove();
+        }
+    }
+
+    @NotNull
+    private static ExecutorService createCompressor()
+    {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable ->
+        {
+            final Thread thread = new Thread(runnable, "Minecolonies Schematic Compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The compressed chunks of a schematic.
+     */
+    public static final class Chunks
+    {
+        @NotNull
+        private final String   md5;
+        @NotNull
+        private final byte[][] data;
+        private final int      size;
+
+        private Chunks(@NotNull final String md5, @NotNull final byte[][] data, final int size)
+        {
+            this.md5 = md5;
+            this.data = data;
+            this.size = size;
+        }
+
+        /**
+         * Get the MD5 hash of the schematic.
+         *
+         * @return the hash.
+         */
+        @NotNull
+        public String getMD5()
+        {
+            return md5;
+        }
+
+        /**
+         * Get the amount of compressed bytes.
+         *
+         * @return the amount.
+         */
+        public int getSize()
+        {
+            return size;
+        }
+
+        /**
+         * Get the amount of chunks.
+         *
+         * @return the amount.
+         */
+        public int getCount()
+        {
+            return data.length;
+        }
+
+        /**
+         * Get the compressed data of a chunk.
+         *
+         * @param index the index of the chunk.
+         * @return the data, not to be modified.
+         */
+        @NotNull
+        public byte[] getChunk(final int index)
+        {
+            return data[index];
+        }
+    }
+}
@@ -4,15 +4,19 @@ import com.minecolonies.coremod.MineColonies;
 import com.minecolonies.coremod.colony.workorders.AbstractWorkOrder;
 import com.minecolonies.coremod.colony.workorders.WorkOrderBuildDecoration;
 import com.minecolonies.coremod.configuration.Configurations;
+import com.minecolonies.coremod.entity.ai.citizen.builder.BillOfMaterials;
 import com.minecolonies.coremod.lib.Constants;
 import com.minecolonies.coremod.util.LanguageHandler;
 import com.minecolonies.coremod.util.Log;
 import com.minecolonies.structures.helpers.Structure;
+import com.minecolonies.structures.helpers.StructureCache;
 import net.minecraft.block.Block;
 import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -21,7 +25,9 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -62,11 +68,6 @@ public final class Structures
      */
     public static final  String                                        SCHEMATICS_SCAN       = "scans";
 
-    /**
-     * Maximum size for a compressed schematic.
-     */
-    private static final int MAX_TOTAL_SIZE = 32_767;
-
     /**
      * Hut/Decoration, Styles, Levels.
      * This is populated on the client side only
@@ -99,6 +100,22 @@ public final class Structures
      */
     private static boolean allowPlayerSchematics = false;
 
+    /**
+     * Name of the file the schematic manifest is saved to.
+     */
+    private static final String MANIFEST_FILE = "schematics.manifest";
+
+    /**
+     * Maximum amount of threads reading schematics at startup.
+     */
+    private static final int MAX_INDEXER_THREADS = 4;
+
+    /**
+     * What is known about the schematic files, null until the first load.
+     */
+    @Nullable
+    private static SchematicManifest manifest = null;
+
     /**
      * Private constructor so Structures objects can't be made.
      */
@@ -108,10 +125,13 @@ public final class Structures
     }
 
     /**
-     * Calls {@link #loadStyleMaps()}.
+     * Drops the parsed structures and bills of materials of the last load and calls {@link #loadStyleMaps()}.
      */
     public static void init()
     {
+        Log.getLogger().debug("Structure cache: " + StructureCache.getStatistics());
+        StructureCache.clear();
+        BillOfMaterials.clearCache();
         loadStyleMaps();
     }
 
@@ -219,12 +239,18 @@ public final class Structures
      * Load all style maps from a certain path.
      * load all the schematics inside the folder path/prefix
      * and add them in the md5Map
+     * Files which did not change since the last start are taken from the manifest,
+     * the others are read on a few threads at once.
      *
      * @param basePath the base path.
      * @param prefix   either schematics, scans, cache
      */
     private static void loadSchematicsForPrefix(@NotNull final Path basePath, @NotNull final String prefix)
     {
+        final SchematicManifest schematicManifest = getManifest();
+        final Map<Path, String> keys = new LinkedHashMap<>();
+        final Map<Path, Future<SchematicManifest.Entry>> indexing = new HashMap<>();
+        final ThreadPoolExecutor pool = createIndexer();
         try (Stream<Path> walk = Files.walk(basePath.resolve(prefix)))
         {
             final Iterator<Path> it = walk.iterator();
@@ -233,57 +259,148 @@ public final class Structures
                 final Path path = it.next();
                 if (path.toString().endsWith(SCHEMATIC_EXTENSION))
                 {
-                    String relativePath = path.toString().substring(basePath.toString().length()).split("\\" + SCHEMATIC_EXTENSION)[0];
-                    if (!SCHEMATICS_SEPARATOR.equals(path.getFileSystem().getSeparator()))
+                    final String key = path.toUri().toString();
+                    final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    keys.put(path, key);
+                    if (schematicManifest.get(key, attributes) == null)
                     {
-                        relativePath = relativePath.replace(path.getFileSystem().getSeparator(), SCHEMATICS_SEPARATOR);
-                    }
-                    if (relativePath.startsWith(SCHEMATICS_SEPARATOR))
-                    {
-                        relativePath = relativePath.substring(1);
+                        indexing.put(path, pool.submit(() -> SchematicManifest.index(path, attributes)));
                     }
+                }
+            }
 
-                    final StructureName structureName = new StructureName(relativePath);
-                    final String md5 = Structure.calculateMD5(Structure.getStream(relativePath));
-                    if (md5 == null)
-                    {
-                        Log.getLogger().error("Structures: " + structureName + " with md5 null.");
-                    }
-                    else if (isSchematicSizeValid(structureName.toString()))
+            for (final Map.Entry<Path, String> file : keys.entrySet())
+            {
+                final Path path = file.getKey();
+                final SchematicManifest.Entry entry;
+                if (indexing.containsKey(path))
+                {
+                    entry = getIndexed(path, indexing.get(path));
+                    if (entry != null)
                     {
-                        md5Map.put(structureName.toString(), md5);
-                        if (MineColonies.isClient())
-                        {
-                            addSchematic(structureName);
-                        }
+                        schematicManifest.put(file.getValue(), entry);
                     }
                 }
+                else
+                {
+                    entry = schematicManifest.get(file.getValue(), Files.readAttributes(path, BasicFileAttributes.class));
+                }
+                addSchematic(getRelativePath(basePath, path), entry);
             }
+
+            schematicManifest.retainUnder(basePath.resolve(prefix).toUri().toString(), new HashSet<>(keys.values()));
+            schematicManifest.save();
         }
         catch (@NotNull IOException e)
         {
             Log.getLogger().warn("loadSchematicsForPrefix: Could not load schematics from " + basePath.resolve(prefix), e);
         }
+        finally
+        {
+            pool.shutdownNow();
+        }
     }
 
     /**
-     * check that a schematic is not too big to be sent.
+     * Get the name of a schematic from its path.
      *
-     * @param structureName name of the structure to check for.
-     * @return True when the schematic is not too big.
+     * @param basePath the base path.
+     * @param path     the path of the schematic.
+     * @return the name, as in schematics/stone/Builder1.
      */
-    private static boolean isSchematicSizeValid(@NotNull final String structureName)
+    @NotNull
+    private static String getRelativePath(@NotNull final Path basePath, @NotNull final Path path)
     {
-        final int maxSize = MAX_TOTAL_SIZE - Integer.SIZE / Byte.SIZE;
-        final byte[] data = Structure.getStreamAsByteArray(Structure.getStream(structureName));
-        final byte[] compressed = Structure.compress(data);
+        String relativePath = path.toString().substring(basePath.toString().length()).split("\\" + SCHEMATIC_EXTENSION)[0];
+        if (!SCHEMATICS_SEPARATOR.equals(path.getFileSystem().getSeparator()))
+        {
+            relativePath = relativePath.replace(path.getFileSystem().getSeparator(), SCHEMATICS_SEPARATOR);
+        }
+        if (relativePath.startsWith(SCHEMATICS_SEPARATOR))
+        {
+            relativePath = relativePath.substring(1);
+        }
+        return relativePath;
+    }
 
-        if (compressed != null && compressed.length > maxSize)
+    /**
+     * Wait for a schematic to be indexed.
+     *
+     * @param path   the path of the schematic.
+     * @param future the indexing task.
+     * @return the entry or null if the schematic could not be read.
+     */
+    @Nullable
+    private static SchematicManifest.Entry getIndexed(@NotNull final Path path, @NotNull final Future<SchematicManifest.Entry> future)
+    {
+        try
         {
-            Log.getLogger().warn("Structure " + structureName + " is " + compressed.length + " bytes when compress, maximum allowed is " + maxSize + " bytes.");
-            return false;
+            return future.get();
         }
-        return true;
+        catch (@NotNull final ExecutionException e)
+        {
+            Log.getLogger().warn("Structures: could not read " + path, e.getCause());
+        }
+        catch (@NotNull final InterruptedException e)
+        {
+            Log.getLogger().warn("Structures: interrupted while reading " + path, e);
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Add a schematic to the md5Map.
+     *
+     * @param relativePath the name of the schematic.
+     * @param entry        what is known about the file, null if it could not be read.
+     */
+    private static void addSchematic(@NotNull final String relativePath, @Nullable final SchematicManifest.Entry entry)
+    {
+        final StructureName structureName = new StructureName(relativePath);
+        if (entry == null)
+        {
+            Log.getLogger().error("Structures: " + structureName + " with md5 null.");
+            return;
+        }
+
+        md5Map.put(structureName.toString(), entry.getMD5());
+        if (MineColonies.isClient())
+        {
+            addSchematic(structureName);
+        }
+    }
+
+    /**
+     * Get the manifest of the schematic files, loads it on first use.
+     *
+     * @return the manifest.
+     */
+    @NotNull
+    private static SchematicManifest getManifest()
+    {
+        if (manifest == null)
+        {
+            manifest = SchematicManifest.load(new File(Loader.instance().getConfigDir().getParentFile(), Constants.MOD_ID + SCHEMATICS_SEPARATOR + MANIFEST_FILE));
+        }
+        return manifest;
+    }
+
+    /**
+     * Create the pool the changed schematics are read on.
+     *
+     * @return the pool.
+     */
+    @NotNull
+    private static ThreadPoolExecutor createIndexer()
+    {
+        final int threads = Math.max(1, Math.min(MAX_INDEXER_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable ->
+        {
+            final Thread thread = new Thread(runnable, "Minecolonies Schematic Indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -0,0 +1,279 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
+import com.minecolonies.coremod.colony.buildings.BuildingGuardTower;
+import com.minecolonies.coremod.configuration.Configurations;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.monster.EntityMob;
+import net.minecraft.entity.monster.EntitySlime;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The possible targets of the guards of a colony: monsters, slimes and players.
+ * The colony area is scanned once every {@link #SCAN_INTERVAL} ticks instead of by every guard on every search,
+ * the threats are bucketed by chunk and ranked by their distance to the closest guard tower.
+ * Guards claim the target they hunt, other guards get claimed targets last, so they spread over the threats.
+ * Only accessed from the server thread.
+ */
+public final class ThreatIndex
+{
+    /**
+     * Ticks between two scans of the colony area.
+     */
+    private static final int SCAN_INTERVAL = 10;
+
+    /**
+     * Blocks around the patrol area of the guards which are scanned as well, guards see that far beyond it.
+     */
+    private static final int SCAN_MARGIN = 64;
+
+    /**
+     * Ticks a claim holds if the guard does not claim again.
+     */
+    private static final int CLAIM_TIMEOUT = 200;
+
+    /**
+     * Bits to shift a block coordinate by to get the chunk coordinate.
+     */
+    private static final int CHUNK_SHIFT = 4;
+
+    /**
+     * Value of {@link #lastScan} before the first scan.
+     */
+    private static final long NEVER = Long.MIN_VALUE;
+
+    /**
+     * The colony of the index.
+     */
+    @NotNull
+    private final Colony colony;
+
+    /**
+     * The threats of the last scan by chunk.
+     */
+    @NotNull
+    private final Map<Long, List<Threat>> threatsByChunk = new HashMap<>();
+
+    /**
+     * The claimed targets.
+     */
+    @NotNull
+    private final Map<Entity, Claim> claims = new HashMap<>();
+
+    private long lastScan    = NEVER;
+    private int  threatCount = 0;
+
+    /**
+     * Create the threat index of a colony.
+     *
+     * @param colony the colony.
+     */
+    public ThreatIndex(@NotNull final Colony colony)
+    {
+        this.colony = colony;
+    }
+
+    /**
+     * Get the threats in a box, scans the colony area first if the last scan is too old.
+     * Threats claimed by other guards come last, otherwise the threats closest to a guard tower come first.
+     *
+     * @param box   the box.
+     * @param guard the citizen id of the asking guard.
+     * @return a new list of the threats.
+     */
+    @NotNull
+    public List<Entity> getThreatsWithin(@NotNull final AxisAlignedBB box, final int guard)
+    {
+        final long now = getTime();
+        if (lastScan == NEVER || now - lastScan >= SCAN_INTERVAL || now < lastScan)
+        {
+            scan(now);
+        }
+
+        //  Threats move between scans, so the chunks next to the box are checked as well
+        final int minX = ((int) Math.floor(box.minX) >> CHUNK_SHIFT) - 1;
+        final int maxX = ((int) Math.floor(box.maxX) >> CHUNK_SHIFT) + 1;
+        final int minZ = ((int) Math.floor(box.minZ) >> CHUNK_SHIFT) - 1;
+        final int maxZ = ((int) Math.floor(box.maxZ) >> CHUNK_SHIFT) + 1;
+
+        final List<Threat> found = new ArrayList<>();
+        for (int x = minX; x <= maxX; x++)
+        {
+            for (int z = minZ; z <= maxZ; z++)
+            {
+                final List<Threat> threats = threatsByChunk.get(getChunkKey(x, z));
+                if (threats == null)
+                {
+                    continue;
+                }
+
+                for (final Threat threat : threats)
+                {
+                    if (!threat.entity.isDead && isInside(threat.entity, box))
+                    {
+                        found.add(threat);
+                    }
+                }
+            }
+        }
+
+        found.sort(Comparator.<Threat>comparingInt(threat -> isClaimedByOther(threat.entity, guard, now) ? 1 : 0)
+                     .thenComparingDouble(threat -> threat.rank));
+
+        final List<Entity> entities = new ArrayList<>(found.size());
+        for (final Threat threat : found)
+        {
+            entities.add(threat.entity);
+        }
+        return entities;
+    }
+
+    /**
+     * Claim a target for a guard, replaces the previous claim of the guard.
+     *
+     * @param entity the target.
+     * @param guard  the citizen id of the guard.
+     */
+    public void claim(@NotNull final Entity entity, final int guard)
+    {
+        claims.values().removeIf(claim -> claim.guard == guard);
+        claims.put(entity, new Claim(guard, getTime()));
+    }
+
+    /**
+     * Get the amount of threats found by the last scan.
+     *
+     * @return the amount.
+     */
+    public int size()
+    {
+        return threatCount;
+    }
+
+    /**
+     * Scan the colony area for threats and rank them.
+     *
+     * @param now the current tick.
+     */
+    private void scan(final long now)
+    {
+        lastScan = now;
+        threatsByChunk.clear();
+        threatCount = 0;
+        claims.entrySet().removeIf(entry -> entry.getKey().isDead || now - entry.getValue().tick >= CLAIM_TIMEOUT);
+
+        final World world = colony.getWorld();
+        if (world == null)
+        {
+            return;
+        }
+
+        final BlockPos center = colony.getCenter();
+        final int range = Configurations.workingRangeTownHall + Configurations.townHallPadding + SCAN_MARGIN;
+        final AxisAlignedBB area = new AxisAlignedBB(center.getX() - range, 0, center.getZ() - range,
+                                                      center.getX() + range, world.getHeight(), center.getZ() + range);
+
+        final List<BlockPos> towers = new ArrayList<>();
+        for (final AbstractBuilding building : colony.getBuildings().values())
+        {
+            if (building instanceof BuildingGuardTower)
+            {
+                towers.add(building.getLocation());
+            }
+        }
+        if (towers.isEmpty())
+        {
+            towers.add(center);
+        }
+
+        for (final EntityLivingBase entity : world.getEntitiesWithinAABB(EntityLivingBase.class, area, ThreatIndex::isThreat))
+        {
+            double rank = Double.MAX_VALUE;
+            for (final BlockPos tower : towers)
+            {
+                rank = Math.min(rank, entity.getDistanceSq(tower));
+            }
+            threatsByChunk.computeIfAbsent(getChunkKey((int) Math.floor(entity.posX) >> CHUNK_SHIFT, (int) Math.floor(entity.posZ) >> CHUNK_SHIFT),
+              key -> new ArrayList<>()).add(new Threat(entity, rank));
+            threatCount++;
+        }
+    }
+
+    private boolean isClaimedByOther(@NotNull final Entity entity, final int guard, final long now)
+    {
+        final Claim claim = claims.get(entity);
+        return claim != null && claim.guard != guard && now - claim.tick < CLAIM_TIMEOUT;
+    }
+
+    private long getTime()
+    {
+        final World world = colony.getWorld();
+        return world == null ? 0 : world.getTotalWorldTime();
+    }
+
+    /**
+     * Check if an entity is something guards attack, players are checked against the permissions when targeted.
+     *
+     * @param entity the entity.
+     * @return true if so.
+     */
+    private static boolean isThreat(@Nullable final Entity entity)
+    {
+        return entity instanceof EntityMob || entity instanceof EntitySlime || entity instanceof EntityPlayer;
+    }
+
+    private static boolean isInside(@NotNull final Entity entity, @NotNull final AxisAlignedBB box)
+    {
+        return entity.posX >= box.minX && entity.posX <= box.maxX
+                 && entity.posY >= box.minY && entity.posY <= box.maxY
+                 && entity.posZ >= box.minZ && entity.posZ <= box.maxZ;
+    }
+
+    private static long getChunkKey(final int x, final int z)
+    {
+        return ((long) x << Integer.SIZE) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A threat found by the last scan.
+     */
+    private static final class Threat
+    {
+        @NotNull
+        private final EntityLivingBase entity;
+
+        /**
+         * Squared distance to the closest guard tower at the time of the scan.
+         */
+        private final double rank;
+
+        private Threat(@NotNull final EntityLivingBase entity, final double rank)
+        {
+            this.entity = entity;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * A guard hunting a target.
+     */
+    private static final class Claim
+    {
+        private final int  guard;
+        private final long tick;
+
+        private Claim(final int guard, final long tick)
+        {
+            this.guard = guard;
+            this.tick = tick;
+        }
+    }
+}
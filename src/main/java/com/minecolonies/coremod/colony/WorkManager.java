@@ -3,6 +3,7 @@ package com.minecolonies.coremod.colony;
 import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
 import com.minecolonies.coremod.colony.workorders.AbstractWorkOrder;
 import com.minecolonies.coremod.colony.workorders.WorkOrderBuild;
+import com.minecolonies.coremod.colony.workorders.WorkOrderMatcher;
 import com.minecolonies.coremod.entity.ai.citizen.builder.ConstructionTapeHelper;
 import com.minecolonies.coremod.util.Log;
 import net.minecraft.nbt.NBTTagCompound;
@@ -24,8 +25,10 @@ import java.util.stream.Collectors;
 public class WorkManager
 {
     private static final String TAG_WORK_ORDERS              = "workOrders";
-    //  Once a second
-    private static final int    WORK_ORDER_FULFILL_INCREMENT = 1 * 20;
+    /**
+     * Ticks between two matching passes without a request, catches the changes nobody requested a pass for.
+     */
+    private static final int    WORK_ORDER_MATCH_FALLBACK    = 30 * 20;
     /**
      * The Colony the workManager takes part of.
      */
@@ -37,6 +40,10 @@ public class WorkManager
      * Checks if there has been changes.
      */
     private       boolean                         dirty          = false;
+    /**
+     * Checks if the orders have to be matched with the builders at the end of the tick.
+     */
+    private       boolean                         matchRequested = true;
 
     /**
      * Constructor, saves reference to the colony.
@@ -67,6 +74,7 @@ public class WorkManager
     {
         final AbstractWorkOrder workOrder = workOrders.get(orderId);
         workOrders.remove(orderId);
+        requestMatching();
         colony.removeWorkOrder(orderId);
         if (workOrder instanceof WorkOrderBuild)
         {
@@ -170,6 +178,16 @@ public class WorkManager
     {
         dirty = true;
         workOrders.values().stream().filter(o -> o != null && o.isClaimedBy(citizen)).forEach(AbstractWorkOrder::clearClaimedBy);
+        requestMatching();
+    }
+
+    /**
+     * Match the unclaimed orders with the idle builders at the end of the tick.
+     * Call this whenever an order or a builder becomes available, or a builder hut changes.
+     */
+    public void requestMatching()
+    {
+        matchRequested = true;
     }
 
     /**
@@ -239,11 +257,12 @@ public class WorkManager
             ConstructionTapeHelper.placeConstructionTape((WorkOrderBuild) order, colony.getWorld());
         }
         workOrders.put(order.getID(), order);
+        requestMatching();
     }
 
     /**
      * Process updates on the World Tick.
-     * Currently, does periodic Work Order cleanup.
+     * Does periodic Work Order cleanup and matches the orders with the builders if requested.
      *
      * @param event {@link net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent}.
      */
@@ -267,11 +286,13 @@ public class WorkManager
                 }
             }
 
-            if ((event.world.getWorldTime() % WORK_ORDER_FULFILL_INCREMENT) == 0)
+            if (matchRequested || (event.world.getWorldTime() % WORK_ORDER_MATCH_FALLBACK) == 0)
             {
-                workOrders.values().stream().filter(o -> !o.isClaimed())
-                  .sorted((first, second) -> second.getPriority() > first.getPriority() ? 1 : (second.getPriority() < first.getPriority() ? -1 : 0))
-                  .forEach(o -> o.attemptToFulfill(colony));
+                matchRequested = false;
+                if (WorkOrderMatcher.match(colony, workOrders.values()) > 0)
+                {
+                    dirty = true;
+                }
             }
         }
     }
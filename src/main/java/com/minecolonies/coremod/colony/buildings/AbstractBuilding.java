@@ -8,6 +8,7 @@ import com.minecolonies.coremod.colony.workorders.WorkOrderBuild;
 import com.minecolonies.coremod.entity.ai.citizen.builder.ConstructionTapeHelper;
 import com.minecolonies.coremod.entity.ai.citizen.deliveryman.EntityAIWorkDeliveryman;
 import com.minecolonies.coremod.entity.ai.item.handling.ItemStorage;
+import com.minecolonies.coremod.network.ViewDelta;
 import com.minecolonies.coremod.tileentities.TileEntityColonyBuilding;
 import com.minecolonies.coremod.util.*;
 import io.netty.buffer.ByteBuf;
@@ -200,6 +201,11 @@ public abstract class AbstractBuilding
      */
     private boolean dirty = false;
 
+    /**
+     * The state of the view of the building on the clients, the view is one section and only resent when it changed.
+     */
+    private final ViewDelta viewDelta = new ViewDelta(1);
+
     /**
      * Constructor for a AbstractBuilding.
      *
@@ -535,6 +541,17 @@ public abstract class AbstractBuilding
         dirty = false;
     }
 
+    /**
+     * Get the state of the view of the building on the clients.
+     *
+     * @return the view delta.
+     */
+    @NotNull
+    public final ViewDelta getViewDelta()
+    {
+        return viewDelta;
+    }
+
     /**
      * Destroys the block.
      * Calls {@link #onDestroyed()}.
@@ -997,7 +1014,11 @@ public abstract class AbstractBuilding
      */
     public void setNeedsShovel(final boolean needsShovel)
     {
-        this.needsShovel = needsShovel;
+        if (this.needsShovel != needsShovel)
+        {
+            this.needsShovel = needsShovel;
+            publishDeliveryRequest();
+        }
     }
 
     /**
@@ -1007,7 +1028,11 @@ public abstract class AbstractBuilding
      */
     public void setNeedsAxe(final boolean needsAxe)
     {
-        this.needsAxe = needsAxe;
+        if (this.needsAxe != needsAxe)
+        {
+            this.needsAxe = needsAxe;
+            publishDeliveryRequest();
+        }
     }
 
     /**
@@ -1017,7 +1042,11 @@ public abstract class AbstractBuilding
      */
     public void setNeedsHoe(final boolean needsHoe)
     {
-        this.needsHoe = needsHoe;
+        if (this.needsHoe != needsHoe)
+        {
+            this.needsHoe = needsHoe;
+            publishDeliveryRequest();
+        }
     }
 
     /**
@@ -1027,7 +1056,11 @@ public abstract class AbstractBuilding
      */
     public void setNeedsPickaxe(final boolean needsPickaxe)
     {
-        this.needsPickaxe = needsPickaxe;
+        if (this.needsPickaxe != needsPickaxe)
+        {
+            this.needsPickaxe = needsPickaxe;
+            publishDeliveryRequest();
+        }
     }
 
     /**
@@ -1037,7 +1070,11 @@ public abstract class AbstractBuilding
      */
     public void setNeedsWeapon(final boolean needsWeapon)
     {
-        this.needsWeapon = needsWeapon;
+        if (this.needsWeapon != needsWeapon)
+        {
+            this.needsWeapon = needsWeapon;
+            publishDeliveryRequest();
+        }
     }
 
     /**
@@ -1050,6 +1087,7 @@ public abstract class AbstractBuilding
         if (stack != null)
         {
             itemsCurrentlyNeeded.add(stack);
+            publishDeliveryRequest();
         }
     }
 
@@ -1084,6 +1122,7 @@ public abstract class AbstractBuilding
     public void clearNeededItems()
     {
         itemsCurrentlyNeeded.clear();
+        publishDeliveryRequest();
     }
 
     /**
@@ -1094,6 +1133,16 @@ public abstract class AbstractBuilding
     public void setItemsCurrentlyNeeded(@NotNull List<ItemStack> newList)
     {
         this.itemsCurrentlyNeeded = new ArrayList<>(newList);
+        publishDeliveryRequest();
+    }
+
+    /**
+     * Publish the current needs of the building to the delivery requests of the colony.
+     * Called whenever the needed items or tools change.
+     */
+    protected void publishDeliveryRequest()
+    {
+        colony.getDeliveryRequests().publish(this);
     }
 
     /**
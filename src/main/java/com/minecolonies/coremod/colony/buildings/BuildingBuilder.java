@@ -46,11 +46,21 @@ public class BuildingBuilder extends AbstractBuildingWorker
      */
     private static final String TAG_RESOURCE_LIST = "resourcesItem";
 
+    /**
+     * Progress of the needed resources when they are complete.
+     */
+    public static final int MATERIALS_DONE = 100;
+
     /**
      * Contains all resources needed for a certain build.
      */
     private HashMap<String, BuildingBuilderResource> neededResources = new HashMap<>();
 
+    /**
+     * Progress of the needed resources in percent, they are collected over several ticks.
+     */
+    private int materialProgress = MATERIALS_DONE;
+
     /**
      * Public constructor of the building, creates an object of the building.
      *
@@ -194,6 +204,7 @@ public class BuildingBuilder extends AbstractBuildingWorker
             buf.writeInt(resource.getAvailable());
             buf.writeInt(resource.getAmount());
         }
+        buf.writeInt(materialProgress);
     }
 
     /**
@@ -304,6 +315,20 @@ public class BuildingBuilder extends AbstractBuildingWorker
         this.markDirty();
     }
 
+    /**
+     * Set the progress of the needed resources.
+     *
+     * @param progress the progress in percent.
+     */
+    public void setMaterialProgress(final int progress)
+    {
+        if (materialProgress != progress)
+        {
+            materialProgress = progress;
+            this.markDirty();
+        }
+    }
+
     /**
      * Resets the needed resources completely.
      */
@@ -122,7 +122,11 @@ public class BuildingHome extends AbstractBuildingHut
      */
     public void setFoodNeeded(final boolean foodNeeded)
     {
-        isFoodNeeded = foodNeeded;
+        if (isFoodNeeded != foodNeeded)
+        {
+            isFoodNeeded = foodNeeded;
+            publishDeliveryRequest();
+        }
     }
 
     /**
@@ -8,6 +8,7 @@ import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.colony.ColonyView;
 import com.minecolonies.coremod.colony.jobs.AbstractJob;
 import com.minecolonies.coremod.colony.jobs.JobLumberjack;
+import com.minecolonies.coremod.entity.ai.citizen.lumberjack.ForestIndex;
 import com.minecolonies.coremod.entity.ai.item.handling.ItemStorage;
 import com.minecolonies.coremod.util.Utils;
 import net.minecraft.init.Blocks;
@@ -44,6 +45,12 @@ public class BuildingLumberjack extends AbstractBuildingWorker
 
     private final Map<ItemStorage, Integer> keepX = new HashMap<>();
 
+    /**
+     * The trees around the hut.
+     */
+    @NotNull
+    private final ForestIndex forest;
+
     /**
      * Public constructor of the building, creates an object of the building.
      *
@@ -53,11 +60,23 @@ public class BuildingLumberjack extends AbstractBuildingWorker
     public BuildingLumberjack(final Colony c, final BlockPos l)
     {
         super(c, l);
+        this.forest = new ForestIndex(l);
 
         final ItemStack stack = new ItemStack(Blocks.SAPLING);
         keepX.put(new ItemStorage(stack.getItem(), stack.getItemDamage(), 0, false), SAPLINGS_TO_KEEP);
     }
 
+    /**
+     * Get the trees around the hut.
+     *
+     * @return the forest index.
+     */
+    @NotNull
+    public ForestIndex getForest()
+    {
+        return forest;
+    }
+
     /**
      * Getter of the schematic name.
      *
@@ -9,6 +9,7 @@ import com.minecolonies.coremod.colony.ColonyView;
 import com.minecolonies.coremod.colony.jobs.AbstractJob;
 import com.minecolonies.coremod.colony.jobs.JobMiner;
 import com.minecolonies.coremod.entity.ai.citizen.miner.Level;
+import com.minecolonies.coremod.entity.ai.citizen.miner.MinePlan;
 import com.minecolonies.coremod.entity.ai.item.handling.ItemStorage;
 import com.minecolonies.coremod.util.BlockPosUtil;
 import com.minecolonies.coremod.util.Utils;
@@ -188,6 +189,10 @@ public class BuildingMiner extends AbstractBuildingWorker
      * True if a ladder is found.
      */
     private boolean foundLadder = false;
+    /**
+     * The cached plan of the shaft, rebuilt from the world.
+     */
+    private final MinePlan minePlan = new MinePlan();
 
     /**
      * Required constructor.
@@ -559,6 +564,17 @@ public class BuildingMiner extends AbstractBuildingWorker
         this.vectorZ = vectorZ;
     }
 
+    /**
+     * Getter of the mine plan.
+     *
+     * @return the plan of the shaft.
+     */
+    @NotNull
+    public MinePlan getMinePlan()
+    {
+        return minePlan;
+    }
+
     /**
      * Getter of the cobbleLocation.
      *
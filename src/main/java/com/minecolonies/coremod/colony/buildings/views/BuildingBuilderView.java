@@ -22,6 +22,11 @@ public class BuildingBuilderView extends AbstractBuildingWorker.View
 {
     private final HashMap<String, BuildingBuilderResource> resources = new HashMap<>();
 
+    /**
+     * Progress of the needed resources in percent.
+     */
+    private int materialProgress;
+
     /**
      * Public constructor of the view, creates an instance of it.
      *
@@ -66,6 +71,7 @@ public class BuildingBuilderView extends AbstractBuildingWorker.View
               new BuildingBuilderResource(itemStack.getItem(), itemStack.getItemDamage(), amountNeeded, amountAvailable);
             resources.put(itemStack.getDisplayName(), resource);
         }
+        materialProgress = buf.readInt();
     }
 
     @NotNull
@@ -92,5 +98,15 @@ public class BuildingBuilderView extends AbstractBuildingWorker.View
     {
         return Collections.unmodifiableMap(resources);
     }
+
+    /**
+     * Getter for the progress of the needed resources, the list is incomplete until it is done.
+     *
+     * @return the progress in percent.
+     */
+    public int getMaterialProgress()
+    {
+        return materialProgress;
+    }
 }
 
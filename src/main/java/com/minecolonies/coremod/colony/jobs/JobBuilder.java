@@ -161,6 +161,10 @@ public class JobBuilder extends AbstractJobStructure
     {
         if (order == null)
         {
+            if (workOrderId != 0 && getColony() != null)
+            {
+                getColony().getWorkManager().requestMatching();
+            }
             workOrderId = 0;
             resetNeededItems();
         }
@@ -1,6 +1,7 @@
 package com.minecolonies.coremod.colony.permissions;
 
 import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.ColonyManager;
 import com.minecolonies.coremod.network.PacketUtils;
 import com.minecolonies.coremod.util.AchievementUtils;
 import com.minecolonies.coremod.util.Utils;
@@ -439,7 +440,8 @@ public class Permissions implements IPermissions
      */
     public boolean setOwner(final EntityPlayer player)
     {
-        players.remove(getOwner());
+        final UUID previousOwner = getOwner();
+        players.remove(previousOwner);
 
         ownerName = player.getName();
         ownerUUID = player.getUniqueID();
@@ -447,6 +449,7 @@ public class Permissions implements IPermissions
         players.put(ownerUUID, new Player(ownerUUID, player.getName(), Rank.OWNER));
 
         markDirty();
+        ColonyManager.onColonyOwnerChanged(colony, previousOwner);
         return true;
     }
 
@@ -1,11 +1,9 @@
 package com.minecolonies.coremod.colony.workorders;
 
-import com.minecolonies.coremod.colony.CitizenData;
 import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.colony.Structures;
 import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
 import com.minecolonies.coremod.colony.buildings.BuildingBuilder;
-import com.minecolonies.coremod.colony.jobs.JobBuilder;
 import com.minecolonies.coremod.util.BlockPosUtil;
 import com.minecolonies.coremod.util.LanguageHandler;
 import com.minecolonies.coremod.util.Log;
@@ -13,6 +11,8 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
+
 /**
  * Represents one building order to complete.
  * Has his own structure for the building.
@@ -196,56 +196,14 @@ public class WorkOrderBuild extends AbstractWorkOrder
     }
 
     /**
-     * Attempt to fulfill the Work Order.
-     * Override this with an implementation for the Work Order to find a Citizen to perform the job
-     * <p>
-     * finds the first suitable builder for this job.
+     * Attempt to fulfill the Work Order on its own, the work manager matches all orders at once instead.
      *
-     * @param colony The colony that owns the Work Order.
+     * @param colony The colony that owns the Work Order
      */
     @Override
     public void attemptToFulfill(@NotNull final Colony colony)
     {
-        boolean sendMessage = true;
-        boolean hasBuilder = false;
-
-        for (@NotNull final CitizenData citizen : colony.getCitizens().values())
-        {
-            final JobBuilder job = citizen.getJob(JobBuilder.class);
-
-            if (job == null || citizen.getWorkBuilding() == null)
-            {
-                continue;
-            }
-
-            hasBuilder = true;
-
-            final int builderLevel = citizen.getWorkBuilding().getBuildingLevel();
-
-            // don't send a message if we have a valid worker that is busy.
-            if (canBuildHut(builderLevel, citizen, colony))
-            {
-                sendMessage = false;
-            }
-
-            if (job.hasWorkOrder())
-            {
-                continue;
-            }
-
-            //  A Build WorkOrder may be fulfilled by a Builder as long as any ONE of the following is true:
-            //  - The Builder's Work AbstractBuilding is built
-            //  - OR the WorkOrder is for the Builder's Work AbstractBuilding
-            //  - OR the WorkOrder is for the TownHall
-            if (canBuildHut(builderLevel, citizen, colony))
-            {
-                job.setWorkOrder(this);
-                this.setClaimedBy(citizen);
-                return;
-            }
-        }
-
-        sendBuilderMessage(colony, hasBuilder, sendMessage);
+        WorkOrderMatcher.match(colony, Collections.singletonList(this));
     }
 
     @NotNull
@@ -262,19 +220,27 @@ public class WorkOrderBuild extends AbstractWorkOrder
     }
 
     /**
-     * Checks if a builder may accept this workOrder.
+     * Checks if a builder with a hut of a level may accept this workOrder.
+     * Builders may also always build their own hut.
      *
      * @param builderLevel the builder level.
+     * @param colony       the colony of the work order.
      * @return true if he is able to.
      */
-    private boolean canBuildHut(final int builderLevel, @NotNull final CitizenData citizen, @NotNull final Colony colony)
+    boolean canBeBuiltAtLevel(final int builderLevel, @NotNull final Colony colony)
     {
         return builderLevel >= upgradeLevel || builderLevel == BuildingBuilder.MAX_BUILDING_LEVEL
-                 || (citizen.getWorkBuilding() != null && citizen.getWorkBuilding().getID().equals(buildingLocation))
                  || isLocationTownhall(colony, buildingLocation);
     }
 
-    private void sendBuilderMessage(@NotNull final Colony colony, final boolean hasBuilder, final boolean sendMessage)
+    /**
+     * Tell the players why no builder took this work order, once.
+     *
+     * @param colony      the colony of the work order.
+     * @param hasBuilder  true if the colony has builders.
+     * @param sendMessage true if none of them has a hut of a high enough level.
+     */
+    void sendBuilderMessage(@NotNull final Colony colony, final boolean hasBuilder, final boolean sendMessage)
     {
         if (hasSentMessageForThisWorkOrder)
         {
@@ -0,0 +1,181 @@
+package com.minecolonies.coremod.colony.workorders;
+
+import com.minecolonies.coremod.colony.CitizenData;
+import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.buildings.AbstractBuildingWorker;
+import com.minecolonies.coremod.colony.buildings.BuildingBuilder;
+import com.minecolonies.coremod.colony.jobs.JobBuilder;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Assigns the unclaimed build orders of a colony to its idle builders in one pass.
+ * The idle builders are indexed by the level of their hut, the orders are taken from a heap, highest priority first,
+ * and every order gets the least capable idle builder which can build it, so the better builders stay free for the bigger upgrades.
+ */
+public final class WorkOrderMatcher
+{
+    /**
+     * Highest priority first, the oldest order first within the same priority.
+     */
+    private static final Comparator<AbstractWorkOrder> PRIORITY_ORDER = (first, second) ->
+    {
+        final int priority = Integer.compare(second.getPriority(), first.getPriority());
+        return priority == 0 ? Integer.compare(first.getID(), second.getID()) : priority;
+    };
+
+    /**
+     * Private constructor to hide the implicit public one.
+     */
+    private WorkOrderMatcher()
+    {
+    }
+
+    /**
+     * Assign the unclaimed orders to the idle builders of the colony.
+     * Orders no builder can take tell the players why, once per order.
+     * Orders which are not build orders are asked to fulfill themselves.
+     *
+     * @param colony the colony.
+     * @param orders the work orders of the colony.
+     * @return the amount of assigned build orders.
+     */
+    public static int match(@NotNull final Colony colony, @NotNull final Collection<? extends AbstractWorkOrder> orders)
+    {
+        final PriorityQueue<WorkOrderBuild> open = new PriorityQueue<>(PRIORITY_ORDER);
+        final List<AbstractWorkOrder> others = new ArrayList<>();
+        for (final AbstractWorkOrder order : orders)
+        {
+            if (order.isClaimed())
+            {
+                continue;
+            }
+
+            if (order instanceof WorkOrderBuild)
+            {
+                open.add((WorkOrderBuild) order);
+            }
+            else
+            {
+                others.add(order);
+            }
+        }
+        others.sort(PRIORITY_ORDER);
+        others.forEach(order -> order.attemptToFulfill(colony));
+
+        if (open.isEmpty())
+        {
+            return 0;
+        }
+
+        final BuilderIndex builders = new BuilderIndex(colony);
+        int assigned = 0;
+        while (!open.isEmpty())
+        {
+            final WorkOrderBuild order = open.poll();
+            final CitizenData builder = builders.take(order, colony);
+            if (builder == null)
+            {
+                order.sendBuilderMessage(colony, builders.hasBuilder(), !builders.anyCanBuild(order, colony));
+                continue;
+            }
+
+            final JobBuilder job = builder.getJob(JobBuilder.class);
+            if (job != null)
+            {
+                job.setWorkOrder(order);
+                order.setClaimedBy(builder);
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * The builders of a colony, the idle ones by the level and location of their hut.
+     */
+    private static final class BuilderIndex
+    {
+        @NotNull
+        private final TreeMap<Integer, Deque<CitizenData>> idleByLevel = new TreeMap<>();
+        @NotNull
+        private final Map<BlockPos, CitizenData>           idleByHut   = new HashMap<>();
+        @NotNull
+        private final Set<BlockPos>                        huts        = new HashSet<>();
+
+        /**
+         * The highest hut level of all builders, busy or not, -1 without builders.
+         */
+        private int maxLevel = -1;
+
+        private BuilderIndex(@NotNull final Colony colony)
+        {
+            for (final CitizenData citizen : colony.getCitizens().values())
+            {
+                final JobBuilder job = citizen.getJob(JobBuilder.class);
+                final AbstractBuildingWorker hut = citizen.getWorkBuilding();
+                if (job == null || hut == null)
+                {
+                    continue;
+                }
+
+                maxLevel = Math.max(maxLevel, hut.getBuildingLevel());
+                huts.add(hut.getID());
+                if (!job.hasWorkOrder())
+                {
+                    idleByLevel.computeIfAbsent(hut.getBuildingLevel(), level -> new ArrayDeque<>()).add(citizen);
+                    idleByHut.put(hut.getID(), citizen);
+                }
+            }
+        }
+
+        private boolean hasBuilder()
+        {
+            return maxLevel >= 0;
+        }
+
+        /**
+         * Check if any builder, busy or not, could build an order.
+         */
+        private boolean anyCanBuild(@NotNull final WorkOrderBuild order, @NotNull final Colony colony)
+        {
+            return huts.contains(order.getBuildingLocation()) || (hasBuilder() && order.canBeBuiltAtLevel(maxLevel, colony));
+        }
+
+        /**
+         * Take the idle builder which should build an order: the builder of the hut itself,
+         * else the idle builder with the lowest level which can build it.
+         *
+         * @return the builder or null if no idle builder can build it.
+         */
+        @Nullable
+        private CitizenData take(@NotNull final WorkOrderBuild order, @NotNull final Colony colony)
+        {
+            CitizenData builder = idleByHut.get(order.getBuildingLocation());
+            if (builder == null)
+            {
+                final Map.Entry<Integer, Deque<CitizenData>> entry = order.canBeBuiltAtLevel(0, colony)
+                                                                       ? idleByLevel.firstEntry()
+                                                                       : idleByLevel.ceilingEntry(Math.min(order.getUpgradeLevel(), BuildingBuilder.MAX_BUILDING_LEVEL));
+                if (entry == null)
+                {
+                    return null;
+                }
+                builder = entry.getValue().peek();
+            }
+
+            final AbstractBuildingWorker hut = builder.getWorkBuilding();
+            final Deque<CitizenData> sameLevel = idleByLevel.get(hut.getBuildingLevel());
+            sameLevel.remove(builder);
+            if (sameLevel.isEmpty())
+            {
+                idleByLevel.remove(hut.getBuildingLevel());
+            }
+            idleByHut.remove(hut.getID());
+            return builder;
+        }
+    }
+}
@@ -175,6 +175,8 @@ public abstract class AbstractSingleCommand implements ISubCommand
         CHANGE_COLONY_OWNER,
         REFRESH_COLONY,
         HOMETP,
-        MC_BACKUP
+        MC_BACKUP,
+        PATHFINDING,
+        VIEWSYNC
     }
 }
@@ -28,6 +28,8 @@ public class MinecoloniesCommand extends AbstractSplitCommand
         .put(RandomTeleportCommand.DESC, new RandomTeleportCommand(DESC))
         .put(BackupCommand.DESC, new BackupCommand(DESC))
         .put(HomeTeleportCommand.DESC, new HomeTeleportCommand(DESC))
+        .put(PathfindingCommand.DESC, new PathfindingCommand(DESC))
+        .put(ViewSyncCommand.DESC, new ViewSyncCommand(DESC))
         .build();
 
     /**
@@ -0,0 +1,74 @@
+package com.minecolonies.coremod.commands;
+
+import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.ColonyManager;
+import com.minecolonies.coremod.entity.pathfinding.Pathfinding;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+
+import static com.minecolonies.coremod.commands.AbstractSingleCommand.Commands.PATHFINDING;
+
+/**
+ * Shows the state of the path finding scheduler, the statistics per job type and the path cache of every colony.
+ */
+public class PathfindingCommand extends AbstractSingleCommand
+{
+    public static final String DESC                  = "pathfinding";
+    public static final String NO_PERMISSION_MESSAGE = "You do not have permission to see the pathfinding statistics!";
+    public static final String PATH_CACHE_MESSAGE    = "Colony %d path cache: %s";
+
+    /**
+     * Initialize this SubCommand with it's parents.
+     *
+     * @param parents an array of all the parents.
+     */
+    public PathfindingCommand(@NotNull final String... parents)
+    {
+        super(parents);
+    }
+
+    @Override
+    public void execute(@NotNull final MinecraftServer server, @NotNull final ICommandSender sender, @NotNull final String... args) throws CommandException
+    {
+        if (!isPlayerOpped(sender, String.valueOf(PATHFINDING)))
+        {
+            sender.sendMessage(new TextComponentString(NO_PERMISSION_MESSAGE));
+            return;
+        }
+
+        for (final String line : Pathfinding.getStatistics())
+        {
+            sender.sendMessage(new TextComponentString(line));
+        }
+
+        for (final Colony colony : ColonyManager.getColonies())
+        {
+            sender.sendMessage(new TextComponentString(String.format(PATH_CACHE_MESSAGE, colony.getID(), colony.getPathCache().getStatistics())));
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<String> getTabCompletionOptions(
+                                                 @NotNull final MinecraftServer server,
+                                                 @NotNull final ICommandSender sender,
+                                                 @NotNull final String[] args,
+                                                 @Nullable final BlockPos pos)
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isUsernameIndex(@NotNull final String[] args, final int index)
+    {
+        return false;
+    }
+}
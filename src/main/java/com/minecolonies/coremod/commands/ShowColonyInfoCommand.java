@@ -3,6 +3,7 @@ package com.minecolonies.coremod.commands;
 import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.colony.ColonyManager;
 import com.minecolonies.coremod.colony.IColony;
+import com.minecolonies.structures.helpers.StructureCache;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.entity.player.EntityPlayer;
@@ -31,6 +32,9 @@ public class ShowColonyInfoCommand extends AbstractSingleCommand
     private static final String COORDINATES_TEXT           = "§2Coordinates: §f";
     private static final String COORDINATES_XYZ            = "§4x=§f%s §4y=§f%s §4z=§f%s";
     private static final String CITIZENS                   = "§2Citizens: §f";
+    private static final String DELIVERIES                 = "§2Deliveries: §f";
+    private static final String CITIZEN_TICKS              = "§2Citizen ticks: §f";
+    private static final String SCHEMATIC_CACHE            = "§2Schematic cache: §f";
     private static final String NO_COLONY_FOUND_MESSAGE    = "Colony with mayor %s not found.";
     private static final String NO_COLONY_FOUND_MESSAGE_ID = "Colony with ID %d not found.";
 
@@ -117,6 +121,9 @@ public class ShowColonyInfoCommand extends AbstractSingleCommand
         sender.sendMessage(new TextComponentString(MAYOR_TEXT + mayor));
         sender.sendMessage(new TextComponentString(CITIZENS + colony.getCitizens().size() + "/" + colony.getMaxCitizens()));
         sender.sendMessage(new TextComponentString(COORDINATES_TEXT + String.format(COORDINATES_XYZ, position.getX(), position.getY(), position.getZ())));
+        sender.sendMessage(new TextComponentString(DELIVERIES + colony.getDeliveryRequests().getStatistics()));
+        sender.sendMessage(new TextComponentString(CITIZEN_TICKS + colony.getCitizenScheduler().getStatistics()));
+        sender.sendMessage(new TextComponentString(SCHEMATIC_CACHE + StructureCache.getStatistics()));
     }
 
     @NotNull
@@ -0,0 +1,66 @@
+package com.minecolonies.coremod.commands;
+
+import com.minecolonies.coremod.network.ViewSyncStatistics;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+
+import static com.minecolonies.coremod.commands.AbstractSingleCommand.Commands.VIEWSYNC;
+
+/**
+ * Shows how many bytes of colony views have been serialized and sent to the clients.
+ */
+public class ViewSyncCommand extends AbstractSingleCommand
+{
+    public static final String DESC                  = "viewsync";
+    public static final String NO_PERMISSION_MESSAGE = "You do not have permission to see the view sync statistics!";
+
+    /**
+     * Initialize this SubCommand with it's parents.
+     *
+     * @param parents an array of all the parents.
+     */
+    public ViewSyncCommand(@NotNull final String... parents)
+    {
+        super(parents);
+    }
+
+    @Override
+    public void execute(@NotNull final MinecraftServer server, @NotNull final ICommandSender sender, @NotNull final String... args) throws CommandException
+    {
+        if (!isPlayerOpped(sender, String.valueOf(VIEWSYNC)))
+        {
+            sender.sendMessage(new TextComponentString(NO_PERMISSION_MESSAGE));
+            return;
+        }
+
+        for (final String line : ViewSyncStatistics.getStatistics())
+        {
+            sender.sendMessage(new TextComponentString(line));
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<String> getTabCompletionOptions(
+                                                 @NotNull final MinecraftServer server,
+                                                 @NotNull final ICommandSender sender,
+                                                 @NotNull final String[] args,
+                                                 @Nullable final BlockPos pos)
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isUsernameIndex(@NotNull final String[] args, final int index)
+    {
+        return false;
+    }
+}
@@ -118,6 +118,10 @@ public final class ConfigurationHandler
               "Limits the number of checked blocks per builder update").getInt();
             chatFrequency = config.get(CATEGORY_GAMEPLAY, "chatFrequency", chatFrequency,
               "Chat Frequency (seconds)").getInt();
+            citizenTickBudget = config.get(CATEGORY_GAMEPLAY, "citizenTickBudget", citizenTickBudget,
+              "Time in microseconds the citizens of a colony may spend per tick before their staggered work is deferred").getInt();
+            distantColonyUpdateInterval = config.get(CATEGORY_GAMEPLAY, "distantColonyUpdateInterval", distantColonyUpdateInterval,
+              "Ticks between two work updates of citizens of colonies nobody is near (1=every tick)").getInt();
 
             enableInDevelopmentFeatures = config.get(CATEGORY_GAMEPLAY, "development", enableInDevelopmentFeatures,
               "Display in-development features which do not work and may break your game").getBoolean();
@@ -148,6 +152,8 @@ public final class ConfigurationHandler
                 "Debug output verbosity of pathfinding (0=none, 1=results, 2=live work)").getInt();
         pathfindingMaxThreadCount = config.get(CATEGORY_PATHFINDING, "maxThreads", pathfindingMaxThreadCount,
                 "Maximum number of threads to use for pathfinding.").getInt();
+        pathfindingMaxJobsPerColonyTick = config.get(CATEGORY_PATHFINDING, "maxJobsPerColonyTick", pathfindingMaxJobsPerColonyTick,
+                "Maximum number of path jobs a colony may start per tick, combat jobs are exempt (0=unlimited).").getInt();
     }
 
     /**
@@ -56,9 +56,13 @@ public class Configurations
 
     public static boolean enableInDevelopmentFeatures = false;
 
-    public static boolean pathfindingDebugDraw      = false;
-    public static int     pathfindingDebugVerbosity = 0;
-    public static int     pathfindingMaxThreadCount = 2;
+    public static int citizenTickBudget           = 2000;
+    public static int distantColonyUpdateInterval = 4;
+
+    public static boolean pathfindingDebugDraw            = false;
+    public static int     pathfindingDebugVerbosity       = 0;
+    public static int     pathfindingMaxThreadCount       = 2;
+    public static int     pathfindingMaxJobsPerColonyTick = 16;
 
     public static String[] freeToInteractBlocks = new String[]
                                                     {
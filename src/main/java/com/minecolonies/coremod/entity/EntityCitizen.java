@@ -163,6 +163,10 @@ public class EntityCitizen extends EntityAgeable implements INpc
      * This times the citizen id is the personal offset of the citizen.
      */
     private static final int    OFFSET_TICK_MULTIPLIER     = 7;
+    /**
+     * Range around the citizen in which it picks up items and gathers experience.
+     */
+    private static final float  PICKUP_RANGE               = 2.0F;
     /**
      * Range required for the citizen to be home.
      */
@@ -268,6 +272,17 @@ public class EntityCitizen extends EntityAgeable implements INpc
      */
     private int stuckTime = 0;
 
+    /**
+     * The tick the staggered work of the citizen ran last, -1 before the first run.
+     */
+    private long lastStaggeredTick = -1;
+
+    /**
+     * Reused by the item pickup and experience gathering, so they do not create new lists every time.
+     */
+    private final List<EntityItem>  nearbyItems = new ArrayList<>();
+    private final List<EntityXPOrb> nearbyOrbs  = new ArrayList<>();
+
     /**
      * Variable to check what time it is for the citizen.
      */
@@ -572,18 +587,29 @@ public class EntityCitizen extends EntityAgeable implements INpc
             addExperience(orb.getXpValue() / 2.0D);
             orb.setDead();
         }
+        nearbyOrbs.clear();
     }
 
     /**
      * Defines the area in which the citizen automatically gathers experience.
+     * Asks the colony for the orbs if it tracks the area, else scans the world.
      *
-     * @return a list of xp orbs around the entity.
+     * @return a list of xp orbs around the entity, reused by the next call.
      */
     private List<EntityXPOrb> getXPOrbsOnGrid()
     {
         @NotNull final AxisAlignedBB bb = new AxisAlignedBB(posX - 2, posY - 2, posZ - 2, posX + 2, posY + 2, posZ + 2);
 
-        return world.getEntitiesWithinAABB(EntityXPOrb.class, bb);
+        nearbyOrbs.clear();
+        if (colony != null && colony.getLooseEntities().covers(this, PICKUP_RANGE))
+        {
+            colony.getLooseEntities().getXPOrbsWithin(bb, nearbyOrbs);
+        }
+        else
+        {
+            nearbyOrbs.addAll(world.getEntitiesWithinAABB(EntityXPOrb.class, bb));
+        }
+        return nearbyOrbs;
     }
 
     /**
@@ -987,22 +1013,29 @@ public class EntityCitizen extends EntityAgeable implements INpc
     @Override
     public void onLivingUpdate()
     {
+        final long start = System.nanoTime();
         if (recentlyHit > 0)
         {
             citizenData.markDirty();
         }
+        final int staggeredTicks;
         if (world.isRemote)
         {
+            staggeredTicks = 1;
             updateColonyClient();
         }
         else
         {
-            pickupItems();
+            staggeredTicks = getStaggeredTicks();
+            if (staggeredTicks > 0)
+            {
+                pickupItems();
+            }
             cleanupChatMessages();
             updateColonyServer();
-            if(getColonyJob() != null)
+            if(getColonyJob() != null && staggeredTicks > 0)
             {
-                checkIfStuck();
+                checkIfStuck(staggeredTicks);
             }
             if (world.isDaytime() && !world.isRaining())
             {
@@ -1019,6 +1052,55 @@ public class EntityCitizen extends EntityAgeable implements INpc
             getNavigator().moveAwayFromXYZ(this.getPosition(), MOVE_AWAY_RANGE, MOVE_AWAY_SPEED);
         }
 
+        if (staggeredTicks > 0)
+        {
+            updateStaggered();
+        }
+
+        checkHeal();
+        super.onLivingUpdate();
+
+        if (!world.isRemote && colony != null)
+        {
+            colony.getCitizenScheduler().addCost(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Get the ticks since the staggered work of the citizen ran last, if it is due this tick.
+     * The first run is offset by the entity id, so the citizens of a colony do not all run in the same tick.
+     *
+     * @return the ticks or 0 if it is not due.
+     */
+    private int getStaggeredTicks()
+    {
+        final long now = world.getTotalWorldTime();
+        if (colony == null)
+        {
+            lastStaggeredTick = now;
+            return 1;
+        }
+
+        final CitizenScheduler scheduler = colony.getCitizenScheduler();
+        if (lastStaggeredTick < 0)
+        {
+            lastStaggeredTick = now - getEntityId() % scheduler.getStaggerInterval();
+        }
+
+        final long elapsed = now - lastStaggeredTick;
+        if (!scheduler.isStaggeredWorkDue(elapsed))
+        {
+            return 0;
+        }
+        lastStaggeredTick = now;
+        return (int) Math.min(Integer.MAX_VALUE, elapsed);
+    }
+
+    /**
+     * Collect experience and take care of the saturation, does not need to run every tick.
+     */
+    private void updateStaggered()
+    {
         gatherXp();
         if (citizenData != null)
         {
@@ -1036,9 +1118,6 @@ public class EntityCitizen extends EntityAgeable implements INpc
                 tryToEat();
             }
         }
-
-        checkHeal();
-        super.onLivingUpdate();
     }
 
     private void updateColonyClient()
@@ -1071,21 +1150,30 @@ public class EntityCitizen extends EntityAgeable implements INpc
      */
     private void pickupItems()
     {
-        @NotNull final List<EntityItem> retList = new ArrayList<>();
-        //I know streams look better but they are flawed in type erasure
-        for (final Object o : world.getEntitiesWithinAABB(EntityItem.class, getEntityBoundingBox().expand(2.0F, 0.0F, 2.0F)))
+        if (!canPickUpLoot())
+        {
+            return;
+        }
+
+        @NotNull final AxisAlignedBB bb = getEntityBoundingBox().expand(PICKUP_RANGE, 0.0F, PICKUP_RANGE);
+        nearbyItems.clear();
+        if (colony != null && colony.getLooseEntities().covers(this, PICKUP_RANGE))
+        {
+            colony.getLooseEntities().getItemsWithin(bb, nearbyItems);
+        }
+        else
         {
-            if (o instanceof EntityItem)
+            nearbyItems.addAll(world.getEntitiesWithinAABB(EntityItem.class, bb));
+        }
+
+        for (final EntityItem item : nearbyItems)
+        {
+            if (!item.isDead)
             {
-                retList.add((EntityItem) o);
+                tryPickupEntityItem(item);
             }
         }
-
-        retList.stream()
-                .filter(Objects::nonNull)
-                .filter(item -> !item.isDead)
-                .filter(item -> canPickUpLoot())
-                .forEach(this::tryPickupEntityItem);
+        nearbyItems.clear();
     }
 
     private void cleanupChatMessages()
@@ -1104,7 +1192,12 @@ public class EntityCitizen extends EntityAgeable implements INpc
         }
     }
 
-    private void checkIfStuck()
+    /**
+     * Teleport the citizen to its destination if it did not move for a while.
+     *
+     * @param ticks the ticks since the last check.
+     */
+    private void checkIfStuck(final int ticks)
     {
         if (this.currentPosition == null)
         {
@@ -1114,7 +1207,7 @@ public class EntityCitizen extends EntityAgeable implements INpc
 
         if (this.currentPosition.equals(this.getPosition()) && newNavigator != null && newNavigator.getDestination() != null)
         {
-            stuckTime++;
+            stuckTime += ticks;
             if (stuckTime >= MAX_STUCK_TIME)
             {
                 if (newNavigator.getDestination().distanceSq(posX, posY, posZ) < MOVE_AWAY_RANGE)
@@ -1,14 +1,17 @@
 package com.minecolonies.coremod.entity.ai.basic;
 
+import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.colony.jobs.AbstractJob;
 import com.minecolonies.coremod.entity.EntityCitizen;
 import com.minecolonies.coremod.entity.ai.util.AIState;
 import com.minecolonies.coremod.entity.ai.util.AITarget;
+import com.minecolonies.coremod.entity.ai.util.AITargetTable;
 import com.minecolonies.coremod.entity.ai.util.ChatSpamFilter;
 import com.minecolonies.coremod.util.Log;
 import net.minecraft.entity.ai.EntityAIBase;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,11 +39,24 @@ public abstract class AbstractAISkeleton<J extends AbstractJob> extends EntityAI
     protected final ChatSpamFilter      chatSpamFilter;
     @NotNull
     private final   ArrayList<AITarget> targetList;
+    /**
+     * The registered targets compiled by state, null until the first update after a registration.
+     */
+    @Nullable
+    private         AITargetTable       targetTable;
     /**
      * The current state the ai is in.
      * Used to compare to state matching targets.
      */
     private         AIState             state;
+    /**
+     * The tick the ai updated last, -1 before the first update.
+     */
+    private         long                lastUpdateTick = -1;
+    /**
+     * The ticks since the last update, more than 1 while the colony of the worker runs at a lower level of detail.
+     */
+    private         int                 ticksSinceLastUpdate = 1;
 
     /**
      * Sets up some important skeleton stuff for every ai.
@@ -67,6 +83,7 @@ public abstract class AbstractAISkeleton<J extends AbstractJob> extends EntityAI
     private void registerTarget(final AITarget target)
     {
         targetList.add(target);
+        targetTable = null;
     }
 
     /**
@@ -125,7 +142,55 @@ public abstract class AbstractAISkeleton<J extends AbstractJob> extends EntityAI
     @Override
     public final void updateTask()
     {
-        targetList.stream().anyMatch(this::checkOnTarget);
+        if (!isUpdateDue())
+        {
+            return;
+        }
+
+        if (targetTable == null)
+        {
+            targetTable = new AITargetTable(targetList);
+        }
+
+        for (final AITarget target : targetTable.getTargets(state))
+        {
+            if (checkOnTarget(target))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Check if the ai updates this tick and count the ticks which passed since its last update.
+     *
+     * @return false if the colony of the worker runs at a lower level of detail and it is not the turn of the worker.
+     */
+    final boolean isUpdateDue()
+    {
+        final Colony colony = job.getColony();
+        final int interval = colony == null ? 1 : colony.getCitizenScheduler().getAIInterval();
+        if (interval > 1 && worker.getOffsetTicks() % interval != 0)
+        {
+            return false;
+        }
+
+        //  Capped by the interval, so an ai which was not executing for a while does not skip its delays
+        final long now = world.getTotalWorldTime();
+        ticksSinceLastUpdate = lastUpdateTick < 0 ? 1 : (int) Math.max(1, Math.min(interval, now - lastUpdateTick));
+        lastUpdateTick = now;
+        return true;
+    }
+
+    /**
+     * Get the ticks which passed since the last update of the ai.
+     * Ais which count down ticks should count down this many per update to do the same work at a lower level of detail.
+     *
+     * @return the ticks, at least 1.
+     */
+    protected final int getTicksSinceLastUpdate()
+    {
+        return ticksSinceLastUpdate;
     }
 
     /**
@@ -143,8 +208,8 @@ public abstract class AbstractAISkeleton<J extends AbstractJob> extends EntityAI
 
     /**
      * Checks on one target to see if it has to be executed.
-     * It first checks for the state of the ai.
-     * If that matches it tests the predicate if the ai
+     * The target table only hands out targets which match the state of the ai.
+     * It tests the predicate if the ai
      * wants to run the target.
      * And if that's a yes, runs the target.
      * Tester and target are both error-checked
@@ -155,10 +220,6 @@ public abstract class AbstractAISkeleton<J extends AbstractJob> extends EntityAI
      */
     private boolean checkOnTarget(@NotNull final AITarget target)
     {
-        if (state != target.getState() && target.getState() != null)
-        {
-            return false;
-        }
         try
         {
             if (!target.test())
@@ -317,7 +317,7 @@ public abstract class AbstractEntityAIBasic<J extends AbstractJob> extends Abstr
     /**
      * This method will return true if the AI is waiting for something.
      * In that case, don't execute any more AI code, until it returns false.
-     * Call this exactly once per tick to get the delay right.
+     * Call this exactly once per update to get the delay right.
      * The worker will move and animate correctly while he waits.
      *
      * @return true if we have to wait for something
@@ -339,7 +339,7 @@ public abstract class AbstractEntityAIBasic<J extends AbstractJob> extends Abstr
             {
                 worker.hitBlockWithToolInHand(currentWorkingLocation);
             }
-            delay--;
+            delay -= Math.min(delay, getTicksSinceLastUpdate());
             return true;
         }
         clearWorkTarget();
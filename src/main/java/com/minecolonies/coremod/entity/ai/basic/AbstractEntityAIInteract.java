@@ -319,7 +319,7 @@ public abstract class AbstractEntityAIInteract<J extends AbstractJob> extends Ab
             return;
         }
 
-        stillTicks++;
+        stillTicks += getTicksSinceLastUpdate();
         //Stuck for too long
         if (stillTicks > STUCK_WAIT_TICKS)
         {
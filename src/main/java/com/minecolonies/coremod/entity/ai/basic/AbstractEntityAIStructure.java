@@ -112,6 +112,10 @@ public abstract class AbstractEntityAIStructure<J extends AbstractJob> extends A
         super(job);
         this.registerTargets(
 
+                /**
+                 * Continue the material requests, does not stop execution.
+                 */
+                new AITarget(this::continueRequestingMaterials),
                 /**
                  * Pick up stuff which might've been
                  */
@@ -374,6 +378,20 @@ public abstract class AbstractEntityAIStructure<J extends AbstractJob> extends A
          */
     }
 
+    /**
+     * Continues requesting materials over several ticks, called every tick.
+     *
+     * @return null, the state is never changed.
+     */
+    @Nullable
+    protected AIState continueRequestingMaterials()
+    {
+        /**
+         * Extending entities implement this if required.
+         */
+        return null;
+    }
+
     /**
      * Searches a handy block to substitute a non-solid space which should be guaranteed solid.
      *
@@ -0,0 +1,380 @@
+package com.minecolonies.coremod.entity.ai.citizen.builder;
+
+import com.minecolonies.coremod.blocks.BlockSolidSubstitution;
+import com.minecolonies.coremod.blocks.ModBlocks;
+import com.minecolonies.coremod.colony.buildings.BuildingBuilder;
+import com.minecolonies.coremod.configuration.Configurations;
+import com.minecolonies.coremod.entity.ai.basic.AbstractEntityAIStructure;
+import com.minecolonies.coremod.util.BlockUtils;
+import com.minecolonies.coremod.util.InventoryUtils;
+import com.minecolonies.coremod.util.Log;
+import com.minecolonies.structures.helpers.PackedBlockGrid;
+import com.minecolonies.structures.helpers.StructureProxy;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockBed;
+import net.minecraft.block.BlockDoor;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.template.PlacementSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bill of materials of a builder work order.
+ * Which positions of a structure may need an item, and which item, only depends on the structure.
+ * It is computed from the immutable block grid on a background thread and cached per schematic MD5, rotation and mirror,
+ * the schematic of every level is its own file so the MD5 covers the level.
+ * Which of those positions still need their item depends on the world, the server thread compares them with the world
+ * in slices of at most {@link Configurations#maxBlocksCheckedByBuilder} positions per tick.
+ */
+public final class BillOfMaterials
+{
+    /**
+     * Seconds the calculator thread stays alive without work.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * The candidates of the structures built last, in access order.
+     */
+    private static final Map<String, Future<List<Candidate>>> cache = new LinkedHashMap<String, Future<List<Candidate>>>(16, 0.75F, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Future<List<Candidate>>> eldest)
+        {
+            return size() > Configurations.maxCachedSchematics;
+        }
+    };
+
+    /**
+     * The single calculator thread.
+     */
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    /**
+     * Calculates the candidates, in the background and again on the server thread if that failed.
+     */
+    private final Supplier<List<Candidate>> calculation;
+
+    /**
+     * The cache key or null if the structure has no MD5.
+     */
+    @Nullable
+    private final String key;
+
+    /**
+     * The candidates, calculated in the background.
+     */
+    private Future<List<Candidate>> candidates;
+
+    /**
+     * The next candidate to compare with the world.
+     */
+    private int next = 0;
+
+    /**
+     * Create a bill, the candidates are taken from the cache or calculated in the background.
+     *
+     * @param structure the rotated structure of the work order.
+     */
+    public BillOfMaterials(@NotNull final StructureProxy structure)
+    {
+        this(getKey(structure), createCalculation(structure.getBlocks(), structure.getEntityIndices()));
+    }
+
+    /**
+     * Create a bill with its own calculation.
+     *
+     * @param key         the cache key or null if the bill is not cached.
+     * @param calculation calculates the candidates.
+     */
+    BillOfMaterials(@Nullable final String key, @NotNull final Supplier<List<Candidate>> calculation)
+    {
+        this.key = key;
+        this.calculation = calculation;
+        if (key == null)
+        {
+            this.candidates = executor.submit(calculation::get);
+            return;
+        }
+
+        synchronized (cache)
+        {
+            this.candidates = cache.computeIfAbsent(key, k -> executor.submit(calculation::get));
+        }
+    }
+
+    /**
+     * Get the cache key of a structure.
+     *
+     * @param structure the rotated structure.
+     * @return the key or null if the structure has no MD5.
+     */
+    @Nullable
+    private static String getKey(@NotNull final StructureProxy structure)
+    {
+        final String md5 = structure.getStructure().getMD5();
+        if (md5 == null)
+        {
+            return null;
+        }
+
+        final PlacementSettings settings = structure.getStructure().getSettings();
+        return getKey(md5, settings.getRotation(), settings.getMirror());
+    }
+
+    /**
+     * Get the cache key of a schematic with a rotation and mirror.
+     *
+     * @param md5      the MD5 of the schematic.
+     * @param rotation the rotation.
+     * @param mirror   the mirror.
+     * @return the key.
+     */
+    @NotNull
+    static String getKey(@NotNull final String md5, @NotNull final Rotation rotation, @NotNull final Mirror mirror)
+    {
+        return md5 + ':' + rotation + ':' + mirror;
+    }
+
+    /**
+     * Create the calculation of the candidates of a structure, it only holds the immutable grid and the entity indices.
+     *
+     * @param blocks   the blocks of the structure.
+     * @param entities the indices of the positions with an entity.
+     * @return the calculation.
+     */
+    @NotNull
+    private static Supplier<List<Candidate>> createCalculation(@NotNull final PackedBlockGrid blocks, @NotNull final Set<Integer> entities)
+    {
+        return () -> collectCandidates(blocks, entities);
+    }
+
+    /**
+     * Drop all cached bills, called when the schematics are loaded again.
+     * Bills in progress keep their candidates.
+     */
+    public static void clearCache()
+    {
+        synchronized (cache)
+        {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Hand the next candidates to a consumer, which compares them with the world.
+     *
+     * @param budget   the max amount of candidates.
+     * @param consumer the consumer.
+     * @return true if all candidates have been handed over.
+     */
+    public boolean process(final int budget, @NotNull final Consumer<Candidate> consumer)
+    {
+        final List<Candidate> list = getCandidates();
+        if (list == null)
+        {
+            return false;
+        }
+
+        final int end = Math.min(list.size(), next + budget);
+        while (next < end)
+        {
+            consumer.accept(list.get(next));
+            next++;
+        }
+        return next >= list.size();
+    }
+
+    /**
+     * Get the progress of the bill.
+     *
+     * @return the progress in percent, {@link BuildingBuilder#MATERIALS_DONE} when finished.
+     */
+    public int getProgress()
+    {
+        final List<Candidate> list = getCandidates();
+        if (list == null)
+        {
+            return 0;
+        }
+        return list.isEmpty() ? BuildingBuilder.MATERIALS_DONE : (next * BuildingBuilder.MATERIALS_DONE / list.size());
+    }
+
+    /**
+     * Get the candidates if they have been calculated.
+     * If the background calculation failed they are calculated on this thread instead.
+     *
+     * @return the candidates or null if they are not ready yet.
+     */
+    @Nullable
+    private List<Candidate> getCandidates()
+    {
+        if (!candidates.isDone())
+        {
+            return null;
+        }
+
+        try
+        {
+            return candidates.get();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch (final ExecutionException | CancellationException e)
+        {
+            Log.getLogger().error("Exception when calculating the bill of materials, calculating it on the server thread", e);
+            if (key != null)
+            {
+                synchronized (cache)
+                {
+                    cache.remove(key);
+                }
+            }
+
+            final List<Candidate> list = calculation.get();
+            candidates = CompletableFuture.completedFuture(list);
+            return list;
+        }
+    }
+
+    /**
+     * Collect all positions which may need an item, in build order.
+     * Only reads the immutable grid and the block states, so it is safe to run off the server thread.
+     *
+     * @param blocks   the blocks of the structure.
+     * @param entities the indices of the positions with an entity.
+     * @return the candidates.
+     */
+    @NotNull
+    private static List<Candidate> collectCandidates(@NotNull final PackedBlockGrid blocks, @NotNull final Set<Integer> entities)
+    {
+        final List<Candidate> list = new ArrayList<>();
+        for (int index = 0; index < blocks.getVolume(); index++)
+        {
+            final IBlockState state = blocks.getBlockState(index);
+            final boolean hasEntity = entities.contains(index);
+
+            //The world always counts as equal to a substitution block, nothing is requested there.
+            if (state != null && state.getBlock() == ModBlocks.blockSubstitution)
+            {
+                continue;
+            }
+
+            boolean requestsBlock = false;
+            ItemStack stack = null;
+            if (state != null && !isSecondHalf(state))
+            {
+                final Block block = state.getBlock();
+                if (block instanceof BlockSolidSubstitution)
+                {
+                    requestsBlock = true;
+                }
+                else if (block != Blocks.AIR && !AbstractEntityAIStructure.isBlockFree(block, 0))
+                {
+                    stack = BlockUtils.getItemStackFromBlockState(state);
+                    requestsBlock = !InventoryUtils.isItemStackEmpty(stack);
+                }
+            }
+
+            if (requestsBlock || hasEntity)
+            {
+                list.add(new Candidate(new BlockPos(blocks.getX(index), blocks.getY(index), blocks.getZ(index)), requestsBlock, stack));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Check if a block is the half of a bed or door which is placed together with the other half.
+     *
+     * @param state the block state.
+     * @return true if no item is needed for it.
+     */
+    private static boolean isSecondHalf(@NotNull final IBlockState state)
+    {
+        return (state.getBlock() instanceof BlockBed && state.getValue(BlockBed.PART).equals(BlockBed.EnumPartType.FOOT))
+                 || (state.getBlock() instanceof BlockDoor && state.getValue(BlockDoor.HALF).equals(BlockDoor.EnumDoorHalf.UPPER));
+    }
+
+    /**
+     * Create the calculator thread pool.
+     *
+     * @return the pool.
+     */
+    private static ThreadPoolExecutor createExecutor()
+    {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable ->
+        {
+            final Thread thread = new Thread(runnable, "Minecolonies Material Calculator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * A position of the structure which may need an item.
+     */
+    public static final class Candidate
+    {
+        private final BlockPos  pos;
+        private final boolean   requestsBlock;
+        @Nullable
+        private final ItemStack stack;
+
+        Candidate(@NotNull final BlockPos pos, final boolean requestsBlock, @Nullable final ItemStack stack)
+        {
+            this.pos = pos;
+            this.requestsBlock = requestsBlock;
+            this.stack = stack;
+        }
+
+        /**
+         * Get the position in the structure.
+         *
+         * @return the local position.
+         */
+        @NotNull
+        public BlockPos getPos()
+        {
+            return pos;
+        }
+
+        /**
+         * Check if the block at the position needs an item, the entity there may need one independently.
+         *
+         * @return true if so.
+         */
+        public boolean requestsBlock()
+        {
+            return requestsBlock;
+        }
+
+        /**
+         * Get the item of the block, shared between all bills and must not be modified.
+         *
+         * @return the item, or null if the block is a solid substitution and the item depends on the world.
+         */
+        @Nullable
+        public ItemStack getStack()
+        {
+            return stack;
+        }
+    }
+}
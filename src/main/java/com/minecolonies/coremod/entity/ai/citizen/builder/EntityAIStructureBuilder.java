@@ -1,7 +1,6 @@
 package com.minecolonies.coremod.entity.ai.citizen.builder;
 
 import com.minecolonies.coremod.blocks.AbstractBlockHut;
-import com.minecolonies.coremod.blocks.BlockSolidSubstitution;
 import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
 import com.minecolonies.coremod.colony.buildings.AbstractBuildingWorker;
 import com.minecolonies.coremod.colony.buildings.BuildingBuilder;
@@ -15,8 +14,6 @@ import com.minecolonies.coremod.entity.ai.util.AIState;
 import com.minecolonies.coremod.entity.ai.util.AITarget;
 import com.minecolonies.coremod.util.*;
 import net.minecraft.block.Block;
-import net.minecraft.block.BlockBed;
-import net.minecraft.block.BlockDoor;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityArmorStand;
@@ -69,6 +66,12 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
     @Nullable
     private BlockPos workFrom = null;
 
+    /**
+     * The bill of materials being compared with the world, null if none is in progress.
+     */
+    @Nullable
+    private BillOfMaterials materials = null;
+
     /**
      * Initialize the builder and add all his tasks.
      *
@@ -177,90 +180,128 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
     }
 
     /**
-     * Iterates through all the required resources and stores them in the building.
-     * Suppressing Sonar Rule Squid:S135
-     * The rule thinks we should have less continue and breaks.
-     * But in this case the rule does not apply because code would become unreadable and uneffective without.
+     * Starts collecting all the required resources, they are stored in the building over the next ticks.
      */
-    @SuppressWarnings("squid:S135")
     private void requestMaterials()
     {
-        if (job.getWorkOrder().isRequested())
+        if (job.getWorkOrder().isRequested() || !job.hasStructure())
         {
             return;
         }
 
         final AbstractBuildingWorker buildingWorker = getOwnBuilding();
-        if(buildingWorker instanceof BuildingBuilder)
+        if (buildingWorker instanceof BuildingBuilder)
         {
             ((BuildingBuilder) buildingWorker).resetNeededResources();
+            ((BuildingBuilder) buildingWorker).setMaterialProgress(0);
         }
 
-        while (job.getStructure().findNextBlock())
+        materials = new BillOfMaterials(job.getStructure().structure());
+    }
+
+    @Override
+    protected AIState continueRequestingMaterials()
+    {
+        if (materials == null)
         {
-            @Nullable final Template.BlockInfo blockInfo = job.getStructure().getBlockInfo();
-            @Nullable final Template.EntityInfo entityInfo = job.getStructure().getEntityinfo();
+            return null;
+        }
 
-            if (entityInfo != null)
-            {
-                requestEntityToBuildingIfRequired(entityInfo);
-            }
+        final AbstractBuildingWorker buildingWorker = getOwnBuilding();
+        if (!(buildingWorker instanceof BuildingBuilder))
+        {
+            materials = null;
+            return null;
+        }
 
-            if (blockInfo == null)
-            {
-                continue;
-            }
+        final BuildingBuilder building = (BuildingBuilder) buildingWorker;
+        if (!job.hasStructure() || !job.hasWorkOrder())
+        {
+            materials = null;
+            building.setMaterialProgress(BuildingBuilder.MATERIALS_DONE);
+            return null;
+        }
 
-            @Nullable IBlockState blockState = blockInfo.blockState;
-            @Nullable Block block = blockState.getBlock();
+        final StructureWrapper structure = job.getStructure();
+        final boolean done = materials.process(Configurations.maxBlocksCheckedByBuilder, candidate -> requestMaterial(building, structure, candidate));
+        building.setMaterialProgress(materials.getProgress());
 
-            if (job.getStructure().isStructureBlockEqualWorldBlock()
-                    || (blockState.getBlock() instanceof BlockBed && blockState.getValue(BlockBed.PART).equals(BlockBed.EnumPartType.FOOT))
-                    || (blockState.getBlock() instanceof BlockDoor && blockState.getValue(BlockDoor.HALF).equals(BlockDoor.EnumDoorHalf.UPPER)))
-            {
-                continue;
-            }
+        if (done)
+        {
+            materials = null;
+            job.getWorkOrder().setRequested(true);
+        }
+        return null;
+    }
 
-            if(block instanceof BlockSolidSubstitution)
-            {
-                blockState = getSolidSubstitution(job.getStructure().getBlockPosition());
-                block = blockState.getBlock();
-            }
+    /**
+     * Compare a position which may need an item with the world and store the item in the building if it is needed.
+     *
+     * @param building  the building.
+     * @param structure the structure.
+     * @param candidate the position.
+     */
+    private void requestMaterial(
+                                  @NotNull final BuildingBuilder building,
+                                  @NotNull final StructureWrapper structure,
+                                  @NotNull final BillOfMaterials.Candidate candidate)
+    {
+        final BlockPos localPos = candidate.getPos();
+        if (structure.isStructureBlockEqualWorldBlock(localPos))
+        {
+            return;
+        }
+
+        @Nullable final Template.EntityInfo entityInfo = structure.structure().getEntityinfo(localPos);
+        if (entityInfo != null)
+        {
+            requestEntityToBuildingIfRequired(entityInfo);
+        }
 
-            final Block worldBlock = BlockPosUtil.getBlock(world, job.getStructure().getBlockPosition());
+        if (!candidate.requestsBlock())
+        {
+            return;
+        }
 
-            if (block != null
-                    && block != Blocks.AIR
-                    && worldBlock != Blocks.BEDROCK
-                    && !(worldBlock instanceof AbstractBlockHut)
-                    && !isBlockFree(block, 0))
+        final BlockPos worldPos = localPos.add(structure.getOffsetPosition());
+        ItemStack stack = candidate.getStack();
+        if (stack == null)
+        {
+            final IBlockState substitution = getSolidSubstitution(worldPos);
+            final Block block = substitution.getBlock();
+            if (block == Blocks.AIR || isBlockFree(block, 0))
             {
-                requestBlockToBuildingIfRequired((BuildingBuilder) getOwnBuilding(), blockState);
+                return;
             }
+            stack = BlockUtils.getItemStackFromBlockState(substitution);
+        }
+
+        final Block worldBlock = BlockPosUtil.getBlock(world, worldPos);
+        if (stack != null && worldBlock != Blocks.BEDROCK && !(worldBlock instanceof AbstractBlockHut))
+        {
+            @Nullable final Template.BlockInfo blockInfo = structure.structure().getBlockInfo(localPos);
+            requestBlockToBuildingIfRequired(building, stack, blockInfo == null ? null : blockInfo.tileentityData);
         }
-        job.getWorkOrder().setRequested(true);
     }
 
     /**
      * Add blocks to the builder building if he needs it.
      *
-     * @param building   the building.
-     * @param blockState the block to add.
+     * @param building       the building.
+     * @param stack          the item of the block to add.
+     * @param tileEntityData the tile entity of the block or null.
      */
-    private void requestBlockToBuildingIfRequired(BuildingBuilder building, IBlockState blockState)
+    private void requestBlockToBuildingIfRequired(final BuildingBuilder building, final ItemStack stack, @Nullable final NBTTagCompound tileEntityData)
     {
-        if (job.getStructure().getBlockInfo().tileentityData != null)
+        if (tileEntityData != null)
         {
-            final List<ItemStack> itemList = new ArrayList<>();
-            itemList.addAll(getItemsFromTileEntity());
-
-            for (final ItemStack stack : itemList)
+            for (final ItemStack content : getItemStacksOfTileEntity(tileEntityData))
             {
-                building.addNeededResource(stack, 1);
+                building.addNeededResource(content, 1);
             }
         }
 
-        building.addNeededResource(BlockUtils.getItemStackFromBlockState(blockState), 1);
+        building.addNeededResource(stack, 1);
     }
 
     /**
@@ -366,6 +407,7 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
         {
             super.resetTask();
             workFrom = null;
+            materials = null;
             job.setStructure(null);
             job.setWorkOrder(null);
             resetCurrentStructure();
@@ -508,10 +550,11 @@ public class EntityAIStructureBuilder extends AbstractEntityAIStructure<JobBuild
     @Override
     public void handleFlowerPots(@NotNull final BlockPos pos)
     {
-        if (job.getStructure().getBlockInfo().tileentityData != null)
+        final Template.BlockInfo info = job.getStructure().getBlockInfo();
+        if (info != null && info.tileentityData != null)
         {
             final TileEntityFlowerPot tileentityflowerpot = (TileEntityFlowerPot) world.getTileEntity(pos);
-            tileentityflowerpot.readFromNBT(job.getStructure().getBlockInfo().tileentityData);
+            tileentityflowerpot.readFromNBT(info.tileentityData);
             world.setTileEntity(pos, tileentityflowerpot);
         }
     }
@@ -343,6 +343,7 @@ public class EntityAIWorkDeliveryman extends AbstractEntityAIInteract<JobDeliver
 
         worker.addExperience(1.0D);
         worker.setHeldItem(SLOT_HAND);
+        buildingToDeliver.getColony().getDeliveryRequests().complete(buildingToDeliver);
         buildingToDeliver.setOnGoingDelivery(false);
         deliveryHut.setBuildingToDeliver(null);
 
@@ -370,16 +371,17 @@ public class EntityAIWorkDeliveryman extends AbstractEntityAIInteract<JobDeliver
                 final boolean ableToDeliver;
                 if (buildingToDeliver instanceof BuildingHome)
                 {
-                    ableToDeliver = wareHouse.getTileEntity().checkInWareHouseForFood((BuildingHome) buildingToDeliver, false);
+                    ableToDeliver = wareHouse.getTileEntity().checkInWareHouseForFood((BuildingHome) buildingToDeliver);
                 }
                 else
                 {
-                    ableToDeliver = wareHouse.getTileEntity().checkInWareHouse(buildingToDeliver, false);
+                    ableToDeliver = wareHouse.getTileEntity().checkInWareHouse(buildingToDeliver);
                 }
 
                 if (!ableToDeliver)
                 {
                     buildingToDeliver.setOnGoingDelivery(false);
+                    buildingToDeliver.getColony().getDeliveryRequests().release(buildingToDeliver.getLocation());
                     return START_WORKING;
                 }
                 itemsToDeliver = new ArrayList<>(buildingToDeliver.getNeededItems());
@@ -420,6 +422,8 @@ public class EntityAIWorkDeliveryman extends AbstractEntityAIInteract<JobDeliver
                     return GATHER_IN_WAREHOUSE;
                 }
 
+                buildingToDeliver.setOnGoingDelivery(false);
+                buildingToDeliver.getColony().getDeliveryRequests().release(buildingToDeliver.getLocation());
                 ((BuildingDeliveryman) ownBuilding).setBuildingToDeliver(null);
                 itemsToDeliver.clear();
                 return START_WORKING;
@@ -503,7 +507,9 @@ public class EntityAIWorkDeliveryman extends AbstractEntityAIInteract<JobDeliver
             return true;
         }
 
-        return gatherItems(buildingToDeliver, position);
+        final boolean gathered = gatherItems(buildingToDeliver, position);
+        wareHouse.getTileEntity().markChestDirty(position);
+        return gathered;
     }
 
     /**
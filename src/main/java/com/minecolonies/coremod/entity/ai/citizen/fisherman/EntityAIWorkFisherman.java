@@ -125,6 +125,7 @@ public class EntityAIWorkFisherman extends AbstractEntityAISkill<JobFisherman>
     private final        Random random               = new Random();
     /**
      * The number of executed adjusts of the fisherman's rotation.
+     * Counts the ticks since the last update, so a pond is given up as fast in colonies at a lower level of detail.
      */
     private              int    executedRotations    = 0;
     /**
@@ -333,7 +334,7 @@ public class EntityAIWorkFisherman extends AbstractEntityAISkill<JobFisherman>
         }
         //Try a different angle to throw the hook not that far
         worker.faceBlock(job.getWater());
-        executedRotations++;
+        executedRotations += getTicksSinceLastUpdate();
         return FISHERMAN_START_FISHING;
     }
 
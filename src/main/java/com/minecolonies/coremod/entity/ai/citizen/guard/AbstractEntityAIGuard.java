@@ -260,7 +260,7 @@ public abstract class AbstractEntityAIGuard extends AbstractEntityAIInteract<Job
                 {
                     if (worker.getColony() != null && worker.getColony().getPermissions().hasPermission((EntityPlayer) entity, Permissions.Action.GUARDS_ATTACK))
                     {
-                        targetEntity = (EntityLivingBase) entity;
+                        claimTarget((EntityLivingBase) entity);
                         worker.getNavigator().clearPathEntity();
                         return AIState.GUARD_HUNT_DOWN_TARGET;
                     }
@@ -271,7 +271,7 @@ public abstract class AbstractEntityAIGuard extends AbstractEntityAIInteract<Job
                 else
                 {
                     worker.getNavigator().clearPathEntity();
-                    targetEntity = (EntityLivingBase) entity;
+                    claimTarget((EntityLivingBase) entity);
                     return AIState.GUARD_HUNT_DOWN_TARGET;
                 }
             }
@@ -287,6 +287,21 @@ public abstract class AbstractEntityAIGuard extends AbstractEntityAIInteract<Job
         return AIState.GUARD_GET_TARGET;
     }
 
+    /**
+     * Set the target of the guard and claim it, so the other guards of the colony prefer other targets.
+     *
+     * @param entity the target.
+     */
+    private void claimTarget(@NotNull final EntityLivingBase entity)
+    {
+        targetEntity = entity;
+        final Colony colony = worker.getColony();
+        if (colony != null)
+        {
+            colony.getThreatIndex().claim(entity, job.getCitizen().getId());
+        }
+    }
+
     public boolean huntDownlastAttacker()
     {
         if(this.worker.getLastAttacker() != null && this.worker.getLastAttackerTime() >= worker.ticksExisted - ATTACK_TIME_BUFFER
@@ -311,9 +326,17 @@ public abstract class AbstractEntityAIGuard extends AbstractEntityAIInteract<Job
             return AIState.GUARD_HUNT_DOWN_TARGET;
         }
 
-        entityList = this.worker.world.getEntitiesWithinAABB(EntityMob.class, this.getTargetableArea(currentSearchDistance));
-        entityList.addAll(this.worker.world.getEntitiesWithinAABB(EntitySlime.class, this.getTargetableArea(currentSearchDistance)));
-        entityList.addAll(this.worker.world.getEntitiesWithinAABB(EntityPlayer.class, this.getTargetableArea(currentSearchDistance)));
+        final Colony colony = worker.getColony();
+        if (colony == null)
+        {
+            entityList = this.worker.world.getEntitiesWithinAABB(EntityMob.class, this.getTargetableArea(currentSearchDistance));
+            entityList.addAll(this.worker.world.getEntitiesWithinAABB(EntitySlime.class, this.getTargetableArea(currentSearchDistance)));
+            entityList.addAll(this.worker.world.getEntitiesWithinAABB(EntityPlayer.class, this.getTargetableArea(currentSearchDistance)));
+        }
+        else
+        {
+            entityList = colony.getThreatIndex().getThreatsWithin(this.getTargetableArea(currentSearchDistance), job.getCitizen().getId());
+        }
 
         if (targetEntity != null && targetEntity.isEntityAlive() && worker.getEntitySenses().canSee(targetEntity))
         {
@@ -1,10 +1,10 @@
 package com.minecolonies.coremod.entity.ai.citizen.lumberjack;
 
+import com.minecolonies.coremod.colony.buildings.BuildingLumberjack;
 import com.minecolonies.coremod.colony.jobs.JobLumberjack;
 import com.minecolonies.coremod.entity.ai.basic.AbstractEntityAIInteract;
 import com.minecolonies.coremod.entity.ai.util.AIState;
 import com.minecolonies.coremod.entity.ai.util.AITarget;
-import com.minecolonies.coremod.entity.pathfinding.PathJobFindTree;
 import com.minecolonies.coremod.util.*;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockSapling;
@@ -45,7 +45,7 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
     /**
      * If this limit is reached, no trees are found.
      */
-    private static final int SEARCH_LIMIT = 150;
+    private static final int SEARCH_LIMIT = ForestIndex.MAX_RANGE;
     /**
      * Number of ticks to wait before coming to the conclusion of being stuck.
      */
@@ -55,6 +55,11 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
      * and walks a bit back to try a new path.
      */
     private static final int WALKING_BACK_WAIT_TIME = 60;
+    /**
+     * Number of times he tries to get unstuck on the way to a tree
+     * before giving up on it.
+     */
+    private static final int MAX_UNSTUCK_TRIES      = 10;
     /**
      * How much he backs away when really not finding any path.
      */
@@ -132,10 +137,10 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
 
 
     /**
-     * The active pathfinding job used to walk to trees.
+     * Number of times he tried to get unstuck on the way to the current tree.
+     * Counts the ticks since the last update, so it runs out as fast in colonies at a lower level of detail.
      */
-    @Nullable
-    private PathJobFindTree.TreePathResult pathResult;
+    private int unstuckTries = 0;
     /**
      * A counter by how much the tree search radius
      * has been increased by now.
@@ -219,6 +224,17 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
         return LUMBERJACK_SEARCHING_TREE;
     }
 
+    /**
+     * Returns the lumberjack's work building.
+     *
+     * @return building instance
+     */
+    @Override
+    protected BuildingLumberjack getOwnBuilding()
+    {
+        return (BuildingLumberjack) worker.getWorkBuilding();
+    }
+
     /**
      * Checks if lumberjack has already found some trees. If not search trees.
      *
@@ -234,47 +250,34 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
     }
 
     /**
-     * Search for a tree.
+     * Search for a tree in the forest index of the hut,
+     * scanning a part of the area around the hut on every call.
      *
-     * @return LUMBERJACK_GATHERING if job was canceled.
+     * @return LUMBERJACK_NO_TREES_FOUND if there is no tree within the search limit.
      */
     private AIState findTree()
     {
-        if (pathResult == null || pathResult.treeLocation == null)
+        final ForestIndex forest = getOwnBuilding().getForest();
+        final int range = SEARCH_RANGE + searchIncrement;
+        final BlockPos treeLocation = forest.findNearestTree(world, range);
+        if (treeLocation != null)
         {
-            pathResult = worker.getNavigator().moveToTree(SEARCH_RANGE + searchIncrement, 1.0D);
+            job.tree = new Tree(world, treeLocation);
+            job.tree.findLogs(world);
+            unstuckTries = 0;
             return getState();
         }
-        if (pathResult.getPathReachesDestination())
+        if (!forest.isScanned(range))
         {
-            return setNewTree();
-        }
-        if (pathResult.isCancelled())
-        {
-            pathResult = null;
-            return LUMBERJACK_GATHERING;
+            return getState();
         }
-        return getState();
-    }
 
-    private AIState setNewTree()
-    {
-        if (pathResult.treeLocation == null)
-        {
-            setDelay(WAIT_BEFORE_INCREMENT);
-            if (searchIncrement + SEARCH_RANGE > SEARCH_LIMIT)
-            {
-                return LUMBERJACK_NO_TREES_FOUND;
-            }
-            searchIncrement += SEARCH_INCREMENT;
-        }
-        else
+        setDelay(WAIT_BEFORE_INCREMENT);
+        if (range >= SEARCH_LIMIT)
         {
-            job.tree = new Tree(world, pathResult.treeLocation);
-            job.tree.findLogs(world);
+            return LUMBERJACK_NO_TREES_FOUND;
         }
-        pathResult = null;
-
+        searchIncrement += SEARCH_INCREMENT;
         return getState();
     }
 
@@ -312,8 +315,17 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
         if (!walkToTree(job.tree.getStumpLocations().get(0)))
         {
             checkIfStuckOnLeaves(location);
+            if (unstuckTries > MAX_UNSTUCK_TRIES)
+            {
+                //  The tree can not be reached, look for another one
+                getOwnBuilding().getForest().skip(location, world);
+                job.tree = null;
+                unstuckTries = 0;
+                return LUMBERJACK_SEARCHING_TREE;
+            }
             return getState();
         }
+        unstuckTries = 0;
 
         if (!job.tree.hasLogs())
         {
@@ -385,13 +397,14 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
             return;
         }
         //Stuck, probably on leaves
-        stillTicks++;
+        stillTicks += getTicksSinceLastUpdate();
         if (stillTicks < STUCK_WAIT_TIME)
         {
             //Wait for some time before jumping to conclusions
             return;
         }
         //now we seem to be stuck!
+        unstuckTries += getTicksSinceLastUpdate();
         tryGettingUnstuckFromLeaves();
     }
 
@@ -480,7 +493,7 @@ public class EntityAIWorkLumberjack extends AbstractEntityAIInteract<JobLumberja
             setDelay(TIMEOUT_DELAY);
             return true;
         }
-        timeWaited++;
+        timeWaited += getTicksSinceLastUpdate();
         return false;
     }
 
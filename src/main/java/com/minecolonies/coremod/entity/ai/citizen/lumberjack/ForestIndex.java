@@ -0,0 +1,296 @@
+package com.minecolonies.coremod.entity.ai.citizen.lumberjack;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The trees around a lumberjack hut.
+ * The area is scanned column by column in rings around the hut, a few columns per search, recording the lowest log of every column as a tree candidate.
+ * Block changes keep the candidates up to date afterwards, so finding the nearest tree does not need a path search.
+ * Candidates are checked with {@link Tree#checkTree} before they are handed out.
+ * Only accessed from the server thread.
+ */
+public final class ForestIndex
+{
+    /**
+     * The furthest a lumberjack looks for trees.
+     */
+    public static final int MAX_RANGE = 150;
+
+    /**
+     * Columns scanned per search.
+     */
+    private static final int COLUMNS_PER_SEARCH = 256;
+
+    /**
+     * Ticks after which the whole area is scanned again, for columns which were not loaded before.
+     */
+    private static final long RESCAN_INTERVAL = 24_000L;
+
+    /**
+     * Ticks a tree which the lumberjack could not reach is not handed out again.
+     */
+    private static final long SKIP_TIME = 6_000L;
+
+    /**
+     * Sides of a ring.
+     */
+    private static final int SIDES = 4;
+
+    /**
+     * The position of the hut.
+     */
+    @NotNull
+    private final BlockPos center;
+
+    /**
+     * The lowest logs of the columns, nearest to the hut first.
+     */
+    @NotNull
+    private final TreeSet<BlockPos> candidates;
+
+    /**
+     * Trees which could not be reached, with the tick until which they are skipped.
+     */
+    @NotNull
+    private final Map<BlockPos, Long> skipped = new HashMap<>();
+
+    /**
+     * The ring the scan is at, all rings below it are scanned.
+     */
+    private int ring = 0;
+
+    /**
+     * The next column of the ring.
+     */
+    private int column = 0;
+
+    /**
+     * The tick the current scan started at.
+     */
+    private long scanStart = 0;
+
+    /**
+     * Create the forest index of a lumberjack hut.
+     *
+     * @param center the position of the hut.
+     */
+    public ForestIndex(@NotNull final BlockPos center)
+    {
+        this.center = center;
+        this.candidates = new TreeSet<>(Comparator.<BlockPos>comparingLong(pos -> getDistanceSq(center, pos)).thenComparingLong(BlockPos::toLong));
+    }
+
+    /**
+     * Check if a block state is a log.
+     *
+     * @param state the state.
+     * @return true if so.
+     */
+    public static boolean isLog(@NotNull final IBlockState state)
+    {
+        return state.getBlock().isWood(null, BlockPos.ORIGIN);
+    }
+
+    /**
+     * Find the nearest tree to the hut, scans a few more columns first.
+     *
+     * @param world the world.
+     * @param range the horizontal range around the hut.
+     * @return the lowest log of the tree or null if none is known, check {@link #isScanned(int)} to know if there may be one.
+     */
+    @Nullable
+    public BlockPos findNearestTree(@NotNull final World world, final int range)
+    {
+        final long now = world.getTotalWorldTime();
+        if (isScanned(MAX_RANGE) && now - scanStart >= RESCAN_INTERVAL)
+        {
+            ring = 0;
+            column = 0;
+        }
+        if (ring == 0 && column == 0)
+        {
+            scanStart = now;
+        }
+        scan(world, COLUMNS_PER_SEARCH);
+        skipped.values().removeIf(until -> until <= now);
+
+        //  Unscanned columns are at least as far as the ring the scan is at, so trees within the rings below are the nearest ones
+        final long maxDistance = isScanned(range) ? range : Math.min(range, ring - 1);
+        final long maxDistanceSq = maxDistance * maxDistance;
+        final Iterator<BlockPos> iterator = candidates.iterator();
+        while (iterator.hasNext())
+        {
+            final BlockPos pos = iterator.next();
+            if (getDistanceSq(center, pos) > maxDistanceSq)
+            {
+                return null;
+            }
+            if (skipped.containsKey(pos) || !world.isBlockLoaded(pos))
+            {
+                continue;
+            }
+            if (Tree.checkTree(world, pos))
+            {
+                return pos;
+            }
+            iterator.remove();
+        }
+        return null;
+    }
+
+    /**
+     * Check if the area within a range around the hut is scanned.
+     *
+     * @param range the horizontal range.
+     * @return true if so.
+     */
+    public boolean isScanned(final int range)
+    {
+        return ring > Math.min(range, MAX_RANGE);
+    }
+
+    /**
+     * Do not hand out a tree for a while, when the lumberjack could not reach it.
+     *
+     * @param pos   the lowest log of the tree.
+     * @param world the world.
+     */
+    public void skip(@NotNull final BlockPos pos, @NotNull final World world)
+    {
+        skipped.put(pos, world.getTotalWorldTime() + SKIP_TIME);
+    }
+
+    /**
+     * Update the candidates when a block changed.
+     *
+     * @param world    the world.
+     * @param pos      the position of the block.
+     * @param oldState the state before.
+     * @param newState the state now.
+     */
+    public void onBlockChanged(@NotNull final World world, @NotNull final BlockPos pos, @NotNull final IBlockState oldState, @NotNull final IBlockState newState)
+    {
+        if (Math.max(Math.abs(pos.getX() - center.getX()), Math.abs(pos.getZ() - center.getZ())) > MAX_RANGE)
+        {
+            return;
+        }
+
+        final boolean wasLog = isLog(oldState);
+        final boolean isLog = isLog(newState);
+        if (isLog && !wasLog)
+        {
+            candidates.remove(pos.up());
+            if (!isLog(world.getBlockState(pos.down())))
+            {
+                candidates.add(pos);
+            }
+        }
+        else if (wasLog && !isLog)
+        {
+            candidates.remove(pos);
+            if (isLog(world.getBlockState(pos.up())))
+            {
+                candidates.add(pos.up());
+            }
+        }
+    }
+
+    /**
+     * Get the amount of known tree candidates.
+     *
+     * @return the amount.
+     */
+    public int size()
+    {
+        return candidates.size();
+    }
+
+    /**
+     * Scan the next columns.
+     *
+     * @param world   the world.
+     * @param columns the amount of columns.
+     */
+    private void scan(@NotNull final World world, final int columns)
+    {
+        for (int i = 0; i < columns && ring <= MAX_RANGE; i++)
+        {
+            final int side = ring == 0 ? 0 : column / (2 * ring);
+            final int offset = ring == 0 ? 0 : column % (2 * ring);
+            final int x;
+            final int z;
+            switch (side)
+            {
+                case 0:
+                    x = -ring + offset;
+                    z = -ring;
+                    break;
+                case 1:
+                    x = ring;
+                    z = -ring + offset;
+                    break;
+                case 2:
+                    x = ring - offset;
+                    z = ring;
+                    break;
+                default:
+                    x = -ring;
+                    z = ring - offset;
+                    break;
+            }
+            scanColumn(world, center.getX() + x, center.getZ() + z);
+
+            column++;
+            if (ring == 0 || column >= SIDES * 2 * ring)
+            {
+                ring++;
+                column = 0;
+            }
+        }
+    }
+
+    /**
+     * Walk down a column from its top block through leaves, logs and air, and record the lowest log.
+     */
+    private void scanColumn(@NotNull final World world, final int x, final int z)
+    {
+        final BlockPos bottom = new BlockPos(x, 0, z);
+        if (!world.isBlockLoaded(bottom))
+        {
+            return;
+        }
+
+        BlockPos lowestLog = null;
+        for (BlockPos pos = world.getHeight(bottom).down(); pos.getY() > 0; pos = pos.down())
+        {
+            final IBlockState state = world.getBlockState(pos);
+            if (isLog(state))
+            {
+                lowestLog = pos;
+            }
+            else if (state.getMaterial() != Material.LEAVES && !state.getMaterial().isReplaceable())
+            {
+                break;
+            }
+        }
+
+        if (lowestLog != null)
+        {
+            candidates.add(lowestLog);
+        }
+    }
+
+    private static long getDistanceSq(@NotNull final BlockPos center, @NotNull final BlockPos pos)
+    {
+        final long dx = pos.getX() - center.getX();
+        final long dz = pos.getZ() - center.getZ();
+        return dx * dx + dz * dz;
+    }
+}
@@ -17,10 +17,7 @@ import net.minecraftforge.common.util.Constants;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Custom class for Trees. Used by lumberjack
@@ -134,7 +131,7 @@ public class Tree
     }
 
     /**
-     * For use in PathJobFindTree.
+     * Check if a log is part of a tree, used by the {@link ForestIndex}.
      *
      * @param world the world.
      * @param pos   The coordinates.
@@ -148,7 +145,7 @@ public class Tree
             return false;
         }
 
-        final Tuple<BlockPos, BlockPos> baseAndTOp = getBottomAndTopLog(world, pos, new LinkedList<>(), null, null);
+        final Tuple<BlockPos, BlockPos> baseAndTOp = getBottomAndTopLog(world, pos);
 
         //Get base log, should already be base log.
         final BlockPos basePos = baseAndTOp.getFirst();
@@ -160,55 +157,69 @@ public class Tree
     }
 
     /**
-     * Adds a log and searches for further logs(Breadth first search).
+     * Get the lowest and the highest log connected to a log.
      *
      * @param world The world the log is in.
-     * @param log   the log to add.
+     * @param log   the log to start at.
      * @return a tuple containing, first: bottom log and second: top log.
      */
     @NotNull
-    private static Tuple<BlockPos, BlockPos> getBottomAndTopLog(
-                                                                 @NotNull final IBlockAccess world,
-                                                                 @NotNull final BlockPos log,
-                                                                 @NotNull final LinkedList<BlockPos> woodenBlocks,
-                                                                 final BlockPos bottomLog,
-                                                                 final BlockPos topLog)
+    private static Tuple<BlockPos, BlockPos> getBottomAndTopLog(@NotNull final IBlockAccess world, @NotNull final BlockPos log)
     {
-        BlockPos bottom = bottomLog == null ? log : bottomLog;
-        BlockPos top = topLog == null ? log : topLog;
-
-        if (woodenBlocks.size() >= MAX_TREE_SIZE)
-        {
-            return new Tuple<>(bottom, top);
-        }
-
-        if (log.getY() < bottom.getY())
+        BlockPos bottom = log;
+        BlockPos top = log;
+        for (final BlockPos pos : findConnectedLogs(world, log))
         {
-            bottom = log;
+            if (pos.getY() < bottom.getY())
+            {
+                bottom = pos;
+            }
+            if (pos.getY() > top.getY())
+            {
+                top = pos;
+            }
         }
+        return new Tuple<>(bottom, top);
+    }
 
-        if (log.getY() > top.getY())
-        {
-            top = log;
-        }
+    /**
+     * Find the logs connected to a log, including diagonally (Breadth first search).
+     * Stops after {@link #MAX_TREE_SIZE} logs.
+     *
+     * @param world The world the log is in.
+     * @param log   the log to start at, part of the result.
+     * @return the logs in the order they were found.
+     */
+    @NotNull
+    private static List<BlockPos> findConnectedLogs(@NotNull final IBlockAccess world, @NotNull final BlockPos log)
+    {
+        final List<BlockPos> logs = new ArrayList<>();
+        final Set<BlockPos> visited = new HashSet<>();
+        final Deque<BlockPos> open = new ArrayDeque<>();
+        visited.add(log);
+        open.add(log);
 
-        woodenBlocks.add(log);
-        for (int y = -1; y <= 1; y++)
+        while (!open.isEmpty() && logs.size() < MAX_TREE_SIZE)
         {
-            for (int x = -1; x <= 1; x++)
+            final BlockPos current = open.poll();
+            logs.add(current);
+            for (int y = -1; y <= 1; y++)
             {
-                for (int z = -1; z <= 1; z++)
+                for (int x = -1; x <= 1; x++)
                 {
-                    final BlockPos temp = log.add(x, y, z);
-                    if (world.getBlockState(temp).getBlock().isWood(null, temp) && !woodenBlocks.contains(temp))
+                    for (int z = -1; z <= 1; z++)
                     {
-                        return getBottomAndTopLog(world, temp, woodenBlocks, bottom, top);
+                        final BlockPos temp = current.add(x, y, z);
+                        if (!visited.contains(temp) && world.getBlockState(temp).getBlock().isWood(null, temp))
+                        {
+                            visited.add(temp);
+                            open.add(temp);
+                        }
                     }
                 }
             }
         }
-
-        return new Tuple<>(bottom, top);
+        return logs;
     }
 
     private static boolean hasEnoughLeaves(@NotNull final IBlockAccess world, final BlockPos pos)
@@ -306,7 +317,7 @@ public class Tree
     public void findLogs(@NotNull final World world)
     {
         addAndSearch(world, location);
-        Collections.sort(woodBlocks, (c1, c2) -> (int) (c1.distanceSq(location) - c2.distanceSq(location)));
+        woodBlocks.sort(Comparator.comparingDouble(log -> log.distanceSq(location)));
         if (getStumpLocations().isEmpty())
         {
             fillTreeStumps(location.getY());
@@ -338,35 +349,24 @@ public class Tree
      */
     private void addAndSearch(@NotNull final World world, @NotNull final BlockPos log)
     {
-        if (woodBlocks.size() >= MAX_TREE_SIZE)
-        {
-            return;
-        }
-
-        if (log.getY() < location.getY())
+        for (final BlockPos pos : findConnectedLogs(world, log))
         {
-            location = log;
-        }
+            if (woodBlocks.size() >= MAX_TREE_SIZE)
+            {
+                return;
+            }
 
-        if (log.getY() > topLog.getY())
-        {
-            topLog = log;
-        }
+            if (pos.getY() < location.getY())
+            {
+                location = pos;
+            }
 
-        woodBlocks.add(log);
-        for (int y = -1; y <= 1; y++)
-        {
-            for (int x = -1; x <= 1; x++)
+            if (pos.getY() > topLog.getY())
             {
-                for (int z = -1; z <= 1; z++)
-                {
-                    final BlockPos temp = log.add(x, y, z);
-                    if (BlockPosUtil.getBlock(world, temp).isWood(null, temp) && !woodBlocks.contains(temp))
-                    {
-                        addAndSearch(world, temp);
-                    }
-                }
+                topLog = pos;
             }
+
+            woodBlocks.add(pos);
         }
     }
 
@@ -9,7 +9,6 @@ import com.minecolonies.coremod.entity.ai.util.AITarget;
 import com.minecolonies.coremod.util.Log;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockLadder;
-import net.minecraft.block.BlockOre;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.item.ItemStack;
@@ -40,8 +39,6 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
      */
     private static final int    MAX_BLOCKS_MINED    = 3 * 64;
     private static final int    LADDER_SEARCH_RANGE = 10;
-    private static final int    SHAFT_RADIUS        = 3;
-    private static final int    SAFE_CHECK_RANGE    = 5;
 
     /**
      * Possible rotations.
@@ -94,12 +91,6 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
         worker.setCanPickUpLoot(true);
     }
 
-    private static boolean isOre(final Block block)
-    {
-        //TODO make this more sophisticated
-        return block instanceof BlockOre;
-    }
-
     //Miner wants to work but is not at building
     @NotNull
     private AIState startWorkingAtOwnBuilding()
@@ -183,7 +174,7 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
     private AIState checkMineShaft()
     {
         //Check if we reached the mineshaft depth limit
-        if (getLastLadder(getOwnBuilding().getLadderLocation()) < getOwnBuilding().getDepthLimit())
+        if (getLastLadder() < getOwnBuilding().getDepthLimit())
         {
             //If the miner hut has been placed too deep.
             if (getOwnBuilding().getNumberOfLevels() == 0)
@@ -244,7 +235,7 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
         }
         if (world.getBlockState(pos).getBlock().equals(Blocks.LADDER))
         {
-            final int firstLadderY = getFirstLadder(pos);
+            final int firstLadderY = MinePlan.getFirstLadder(world, pos);
             buildingMiner.setLadderLocation(new BlockPos(pos.getX(), firstLadderY, pos.getZ()));
             validateLadderOrientation();
         }
@@ -285,7 +276,7 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
         final int z = buildingMiner.getLadderLocation().getZ();
 
         buildingMiner.setCobbleLocation(new BlockPos(x - buildingMiner.getVectorX(), y, z - buildingMiner.getVectorZ()));
-        buildingMiner.setShaftStart(new BlockPos(x, getLastLadder(buildingMiner.getLadderLocation()) - 1, z));
+        buildingMiner.setShaftStart(new BlockPos(x, getLastLadder() - 1, z));
         buildingMiner.setFoundLadder(true);
     }
 
@@ -317,30 +308,23 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
             return state;
         }
 
-        @NotNull final BlockPos safeCobble =
-          new BlockPos(getOwnBuilding().getLadderLocation().getX(), getLastLadder(getOwnBuilding().getLadderLocation()) - 2, getOwnBuilding().getLadderLocation().getZ());
-
-        final int xOffset = SHAFT_RADIUS * getOwnBuilding().getVectorX();
-        final int zOffset = SHAFT_RADIUS * getOwnBuilding().getVectorZ();
-        //Check for safe floor
-        for (int x = -SAFE_CHECK_RANGE + xOffset; x <= SAFE_CHECK_RANGE + xOffset; x++)
+        //Check for safe floor, continues at the first block which was not secured last time
+        final MinePlan.ShaftLayer layer = getShaftLayer();
+        for (BlockPos curBlock = layer.getNextFloorBlock(); curBlock != null; curBlock = layer.getNextFloorBlock())
         {
-            for (int z = -SAFE_CHECK_RANGE + zOffset; z <= SAFE_CHECK_RANGE + zOffset; z++)
+            if (!secureBlock(curBlock, currentStandingPosition))
             {
-                @NotNull final BlockPos curBlock = new BlockPos(safeCobble.getX() + x, safeCobble.getY(), safeCobble.getZ() + z);
-                if (!secureBlock(curBlock, currentStandingPosition))
-                {
-                    return state;
-                }
+                return state;
             }
+            layer.onFloorBlockSecured();
         }
 
         @NotNull final BlockPos safeStand =
-          new BlockPos(getOwnBuilding().getLadderLocation().getX(), getLastLadder(getOwnBuilding().getLadderLocation()), getOwnBuilding().getLadderLocation().getZ());
+          new BlockPos(getOwnBuilding().getLadderLocation().getX(), getLastLadder(), getOwnBuilding().getLadderLocation().getZ());
         @NotNull final BlockPos nextLadder =
-          new BlockPos(getOwnBuilding().getLadderLocation().getX(), getLastLadder(getOwnBuilding().getLadderLocation()) - 1, getOwnBuilding().getLadderLocation().getZ());
+          new BlockPos(getOwnBuilding().getLadderLocation().getX(), getLastLadder() - 1, getOwnBuilding().getLadderLocation().getZ());
         @NotNull final BlockPos nextCobble =
-          new BlockPos(getOwnBuilding().getCobbleLocation().getX(), getLastLadder(getOwnBuilding().getLadderLocation()) - 1, getOwnBuilding().getCobbleLocation().getZ());
+          new BlockPos(getOwnBuilding().getCobbleLocation().getX(), getLastLadder() - 1, getOwnBuilding().getCobbleLocation().getZ());
 
         if (!mineBlock(nextCobble, safeStand) || !mineBlock(nextLadder, safeStand))
         {
@@ -366,20 +350,19 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
     }
 
     /**
-     * Calculates the next non-air block to mine.
-     * Will take the nearest block it finds.
+     * Get the next non-air block of the shaft layer to mine.
+     * The layer is planned once, the blocks are mined from the ladder along the walls.
      */
     @Nullable
     private BlockPos getNextBlockInShaftToMine()
     {
-
+        final MinePlan.ShaftLayer layer = getShaftLayer();
         final BlockPos ladderPos = getOwnBuilding().getLadderLocation();
-        final int lastLadder = getLastLadder(ladderPos);
         if (minerWorkingLocation == null)
         {
-            minerWorkingLocation = new BlockPos(ladderPos.getX(), lastLadder + 1, ladderPos.getZ());
+            minerWorkingLocation = new BlockPos(ladderPos.getX(), layer.getY() + 1, ladderPos.getZ());
         }
-        Block block = getBlock(minerWorkingLocation);
+        final Block block = getBlock(minerWorkingLocation);
         if (block != null
               && block != Blocks.AIR
               && block != Blocks.LADDER
@@ -389,87 +372,73 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
             return minerWorkingLocation;
         }
         currentStandingPosition = minerWorkingLocation;
-        @Nullable BlockPos nextBlockToMine = null;
-        double bestDistance = Double.MAX_VALUE;
 
-        final int xOffset = SHAFT_RADIUS * getOwnBuilding().getVectorX();
-        final int zOffset = SHAFT_RADIUS * getOwnBuilding().getVectorZ();
+        final BlockPos nextBlockToMine = layer.getNextBlock(world);
 
         //remove water for safety
-        for (int x = SHAFT_RADIUS + xOffset + 2; x >= -SHAFT_RADIUS + xOffset - 2; x--)
+        for (final BlockPos curBlock : layer.takeBlocksToCheck())
         {
-            for (int z = -SHAFT_RADIUS + zOffset - 2; z <= SHAFT_RADIUS + zOffset + 2; z++)
+            if (isLiquid(getBlock(curBlock)))
             {
-                if (x == 0 && 0 == z)
-                {
-                    continue;
-                }
-                @NotNull final BlockPos curBlock = new BlockPos(ladderPos.getX() + x, lastLadder, ladderPos.getZ() + z);
-                block = getBlock(curBlock);
-                if (block.equals(Blocks.WATER)
-                      || block.equals(Blocks.LAVA)
-                      || block.equals(Blocks.FLOWING_WATER)
-                      || block.equals(Blocks.FLOWING_LAVA))
+                setBlockFromInventory(curBlock, Blocks.COBBLESTONE);
+                if (isLiquid(getBlock(curBlock)))
                 {
-                    setBlockFromInventory(curBlock, Blocks.COBBLESTONE);
+                    layer.checkAgain(curBlock);
                 }
             }
         }
 
+        if (nextBlockToMine == null)
+        {
+            return null;
+        }
+        if (isLiquid(getBlock(nextBlockToMine)))
+        {
+            setBlockFromInventory(nextBlockToMine, Blocks.COBBLESTONE);
+        }
 
-        //7x7 shaft find nearest block
-        //Beware from positive to negative! to draw the miner to a wall to go down
-        for (int x = SHAFT_RADIUS + xOffset; x >= -SHAFT_RADIUS + xOffset; x--)
+        //find good looking standing position
+        double bestDistance = Double.MAX_VALUE;
+        for (int x = 1; x >= -1; x--)
         {
-            for (int z = -SHAFT_RADIUS + zOffset; z <= SHAFT_RADIUS + zOffset; z++)
+            for (int z = -1; z <= 1; z++)
             {
                 if (x == 0 && 0 == z)
                 {
                     continue;
                 }
-                @NotNull final BlockPos curBlock = new BlockPos(ladderPos.getX() + x, lastLadder, ladderPos.getZ() + z);
-                final double distance = curBlock.distanceSq(ladderPos) + Math.pow(curBlock.distanceSq(minerWorkingLocation), 2);
-                block = getBlock(curBlock);
-                if (distance < bestDistance
-                      && !world.isAirBlock(curBlock))
+                @NotNull final BlockPos curBlock = new BlockPos(nextBlockToMine.getX() + x, layer.getY(), nextBlockToMine.getZ() + z);
+                final double distance = curBlock.distanceSq(ladderPos);
+                if (distance < bestDistance && world.isAirBlock(curBlock))
                 {
-                    if (block.equals(Blocks.WATER)
-                          || block.equals(Blocks.LAVA)
-                          || block.equals(Blocks.FLOWING_WATER)
-                          || block.equals(Blocks.FLOWING_LAVA))
-                    {
-                        setBlockFromInventory(curBlock, Blocks.COBBLESTONE);
-                    }
-                    nextBlockToMine = curBlock;
+                    currentStandingPosition = curBlock;
                     bestDistance = distance;
                 }
             }
         }
-        //find good looking standing position
-        bestDistance = Double.MAX_VALUE;
-        if (nextBlockToMine != null)
-        {
-            for (int x = 1; x >= -1; x--)
-            {
-                for (int z = -1; z <= 1; z++)
-                {
-                    if (x == 0 && 0 == z)
-                    {
-                        continue;
-                    }
-                    @NotNull final BlockPos curBlock = new BlockPos(nextBlockToMine.getX() + x, lastLadder, nextBlockToMine.getZ() + z);
-                    final double distance = curBlock.distanceSq(ladderPos);
-                    if (distance < bestDistance && world.isAirBlock(curBlock))
-                    {
-                        currentStandingPosition = curBlock;
-                        bestDistance = distance;
-                    }
-                }
-            }
-        }
         return nextBlockToMine;
     }
 
+    private static boolean isLiquid(@NotNull final Block block)
+    {
+        return block.equals(Blocks.WATER)
+                 || block.equals(Blocks.LAVA)
+                 || block.equals(Blocks.FLOWING_WATER)
+                 || block.equals(Blocks.FLOWING_LAVA);
+    }
+
+    /**
+     * Get the planned layer of the shaft at the lowest ladder.
+     *
+     * @return the layer.
+     */
+    @NotNull
+    private MinePlan.ShaftLayer getShaftLayer()
+    {
+        final BuildingMiner buildingMiner = getOwnBuilding();
+        return buildingMiner.getMinePlan().getShaftLayer(world, buildingMiner.getLadderLocation(), buildingMiner.getVectorX(), buildingMiner.getVectorZ());
+    }
+
     @NotNull
     private AIState doShaftBuilding()
     {
@@ -479,10 +448,10 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
         }
 
         final BlockPos ladderPos = getOwnBuilding().getLadderLocation();
-        final int lastLadder = getLastLadder(ladderPos) + 1;
+        final int lastLadder = getLastLadder() + 1;
 
-        final int xOffset = SHAFT_RADIUS * getOwnBuilding().getVectorX();
-        final int zOffset = SHAFT_RADIUS * getOwnBuilding().getVectorZ();
+        final int xOffset = MinePlan.SHAFT_RADIUS * getOwnBuilding().getVectorX();
+        final int zOffset = MinePlan.SHAFT_RADIUS * getOwnBuilding().getVectorZ();
 
         initStructure(null, 0, new BlockPos(ladderPos.getX() + xOffset, lastLadder, ladderPos.getZ() + zOffset));
 
@@ -533,7 +502,7 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
     {
         if (workingNode == null || workingNode.getStatus() == Node.NodeStatus.COMPLETED)
         {
-            workingNode = currentLevel.getRandomNode();
+            workingNode = currentLevel.getNextNode();
             return MINER_CHECK_MINESHAFT;
         }
 
@@ -569,7 +538,7 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
 
     private boolean secureBlock(@NotNull final BlockPos curBlock, @NotNull final BlockPos safeStand)
     {
-        if ((!getBlockState(curBlock).getMaterial().blocksMovement() && getBlock(curBlock) != Blocks.TORCH) || isOre(getBlock(curBlock)))
+        if ((!getBlockState(curBlock).getMaterial().blocksMovement() && getBlock(curBlock) != Blocks.TORCH) || MinePlan.isOre(getBlock(curBlock)))
         {
 
             if (!mineBlock(curBlock, safeStand))
@@ -663,11 +632,7 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
                 for (int y = -1; y <= LIQUID_CHECK_RANGE; y++)
                 {
                     @NotNull final BlockPos curBlock = new BlockPos(mineNode.getX() + x, standingPosition.getY() + y, mineNode.getZ() + z);
-                    final Block block = getBlock(curBlock);
-                    if (block.equals(Blocks.WATER)
-                          || block.equals(Blocks.LAVA)
-                          || block.equals(Blocks.FLOWING_WATER)
-                          || block.equals(Blocks.FLOWING_LAVA))
+                    if (isLiquid(getBlock(curBlock)))
                     {
                         setBlockFromInventory(curBlock, Blocks.COBBLESTONE);
                     }
@@ -715,28 +680,14 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
         return world.getBlockState(loc).getBlock();
     }
 
-    private int getLastLadder(@NotNull final BlockPos pos)
-    {
-        if (world.getBlockState(pos).getBlock().isLadder(world.getBlockState(pos), world, pos, null))
-        {
-            return getLastLadder(pos.down());
-        }
-        else
-        {
-            return pos.getY() + 1;
-        }
-    }
-
-    private int getFirstLadder(@NotNull final BlockPos pos)
+    /**
+     * Get the y of the lowest ladder of the shaft, from the mine plan.
+     *
+     * @return the y.
+     */
+    private int getLastLadder()
     {
-        if (world.getBlockState(pos).getBlock().isLadder(world.getBlockState(pos), world, pos, null))
-        {
-            return getFirstLadder(pos.up());
-        }
-        else
-        {
-            return pos.getY() - 1;
-        }
+        return getOwnBuilding().getMinePlan().getLastLadder(world, getOwnBuilding().getLadderLocation());
     }
 
     /**
@@ -762,11 +713,11 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
         //If shaft isn't cleared we're in shaft clearing mode.
         if (minerBuilding.clearedShaft)
         {
-            minerBuilding.getCurrentLevel().closeNextNode(getRotation());
+            minerBuilding.getCurrentLevel().closeNextNode(getRotation(), world);
         }
         else
         {
-            @NotNull final Level currentLevel = new Level(minerBuilding, job.getStructure().getPosition().getY());
+            @NotNull final Level currentLevel = new Level(minerBuilding, job.getStructure().getPosition().getY(), world);
             minerBuilding.addLevel(currentLevel);
             minerBuilding.setCurrentLevel(minerBuilding.getNumberOfLevels());
             minerBuilding.resetStartingLevelShaft();
@@ -792,11 +743,11 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
     private BlockPos getNodeMiningPosition(BlockPos blockToMine)
     {
         final BuildingMiner buildingMiner = getOwnBuilding();
-        if (buildingMiner.getCurrentLevel() == null || buildingMiner.getCurrentLevel().getRandomNode() == null)
+        if (buildingMiner.getCurrentLevel() == null || buildingMiner.getCurrentLevel().getNextNode() == null)
         {
             return blockToMine;
         }
-        final Point2D parentPos = buildingMiner.getCurrentLevel().getRandomNode().getParent();
+        final Point2D parentPos = buildingMiner.getCurrentLevel().getNextNode().getParent();
         if (parentPos != null && buildingMiner.getCurrentLevel().getNode(parentPos) != null
               && buildingMiner.getCurrentLevel().getNode(parentPos).getStyle() == Node.NodeType.SHAFT)
         {
@@ -806,7 +757,7 @@ public class EntityAIStructureMiner extends AbstractEntityAIStructure<JobMiner>
                                  buildingMiner.getCurrentLevel().getDepth(),
                                  ladderPos.getZ() + buildingMiner.getVectorZ() * OTHER_SIDE_OF_SHAFT);
         }
-        final Point2D pos = buildingMiner.getCurrentLevel().getRandomNode().getParent();
+        final Point2D pos = buildingMiner.getCurrentLevel().getNextNode().getParent();
         return new BlockPos(pos.getX(), buildingMiner.getCurrentLevel().getDepth(), pos.getY());
     }
 
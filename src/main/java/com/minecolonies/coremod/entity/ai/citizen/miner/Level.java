@@ -3,6 +3,7 @@ package com.minecolonies.coremod.entity.ai.citizen.miner;
 import com.minecolonies.coremod.colony.buildings.BuildingMiner;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
+import net.minecraft.world.World;
 import net.minecraftforge.common.util.Constants;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -44,20 +45,21 @@ public class Level
      */
     private static final int                    RANDOM_TYPES       = 4;
     /**
-     * Comparator to compare two nodes, for the priority queue.
+     * How many blocks of tunnel an ore in a node is worth.
      */
-    @NotNull
-    private static final Comparator<Node>       NODE_COMPARATOR    = (Node n1, Node n2) -> rand.nextInt(100) > 50 ? 1 : -1;
+    private static final double                 ORE_VALUE          = 2.0;
     /**
      * The hashMap of nodes, check for nodes with the tuple of the parent x and z.
      */
     @NotNull
     private final        HashMap<Point2D, Node> nodes              = new HashMap<>();
     /**
-     * The queue of open Nodes. Get a new node to work on here.
+     * The queue of open Nodes, cheapest first. Get a new node to work on here.
      */
     @NotNull
-    private final        Queue<Node>            openNodes          = new PriorityQueue<>(11, NODE_COMPARATOR);
+    private final        Queue<Node>            openNodes          = new PriorityQueue<>(11, Comparator.comparingDouble(this::getCost)
+                                                                                               .thenComparingDouble(Node::getX)
+                                                                                               .thenComparingDouble(Node::getZ));
     /**
      * The depth of the level stored as the y coordinate.
      */
@@ -83,8 +85,9 @@ public class Level
      *
      * @param buildingMiner reference to the miner building.
      * @param depth         the depth of this level.
+     * @param world         the world to look for ores in, null if unknown.
      */
-    public Level(@NotNull final BuildingMiner buildingMiner, final int depth)
+    public Level(@NotNull final BuildingMiner buildingMiner, final int depth, @Nullable final World world)
     {
         this.depth = depth;
 
@@ -121,6 +124,7 @@ public class Level
             }
             final Node tempNode = new Node(pos.getX(), pos.getY(), ladderCenter);
             tempNode.setStyle(TUNNEL);
+            tempNode.setOres(MinePlan.countOres(world, pos.getX(), pos.getY(), depth));
             nodes.put(pos, tempNode);
             openNodes.add(tempNode);
         }
@@ -162,11 +166,12 @@ public class Level
     }
 
     /**
-     * Getter for a random Node in the level.
+     * Getter for the next Node to mine in the level, the cheapest open one.
      *
-     * @return any random node.
+     * @return the node or null if there is none.
      */
-    public Node getRandomNode()
+    @Nullable
+    public Node getNextNode()
     {
         return openNodes.peek();
     }
@@ -176,8 +181,9 @@ public class Level
      * Then creates the new nodes connected to it.
      *
      * @param rotation the rotation of the node.
+     * @param world    the world to look for ores in, null if unknown.
      */
-    public void closeNextNode(int rotation)
+    public void closeNextNode(final int rotation, @Nullable final World world)
     {
         final Node tempNode = openNodes.poll();
         final List<Point2D.Double> nodeCenterList = new ArrayList<>();
@@ -208,12 +214,25 @@ public class Level
             final Node tempNodeToAdd = new Node(pos.getX(), pos.getY(), new Point2D.Double(tempNode.getX(), tempNode.getZ()));
             final int randNumber = rand.nextInt(RANDOM_TYPES);
             tempNodeToAdd.setStyle(randNumber <= 1 ? TUNNEL : (randNumber == 2 ? BEND : CROSSROAD));
+            tempNodeToAdd.setOres(MinePlan.countOres(world, pos.getX(), pos.getY(), depth));
             nodes.put(pos, tempNodeToAdd);
             openNodes.add(tempNodeToAdd);
         }
         nodes.get(new Point2D.Double(tempNode.getX(), tempNode.getZ())).setStatus(Node.NodeStatus.COMPLETED);
     }
 
+    /**
+     * The cost of mining a node: the length of the tunnel to it from the shaft, less the value of the ores expected in it.
+     *
+     * @param node the node.
+     * @return the cost.
+     */
+    private double getCost(@NotNull final Node node)
+    {
+        final double distance = ladderNode == null ? 0 : Math.abs(node.getX() - ladderNode.getX()) + Math.abs(node.getZ() - ladderNode.getZ());
+        return distance - ORE_VALUE * node.getOres();
+    }
+
     /**
      * GEts the next node position from the currentNode the rotation of it and the additional rotation.
      *
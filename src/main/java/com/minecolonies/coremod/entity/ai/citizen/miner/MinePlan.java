@@ -0,0 +1,385 @@
+package com.minecolonies.coremod.entity.ai.citizen.miner;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockOre;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The plan of a mine, kept by the miner building.
+ * <p>
+ * Caches the extent of the ladder column and the layer of the shaft the miner works on,
+ * so the miner does not have to walk the ladder or scan the shaft every tick.
+ * Nothing of it is stored, it is rebuilt from the world when needed.
+ */
+public class MinePlan
+{
+    /**
+     * The radius of the shaft around its center, the shaft is 7x7.
+     */
+    public static final int SHAFT_RADIUS = 3;
+
+    /**
+     * The radius around the center of the shaft which is kept free of liquids.
+     */
+    private static final int SAFETY_RADIUS = SHAFT_RADIUS + 2;
+
+    /**
+     * Height of the blocks of a node which are checked for ores.
+     */
+    private static final int NODE_HEIGHT = 4;
+
+    /**
+     * The position the ladder extent was found for.
+     */
+    @Nullable
+    private BlockPos ladderTop = null;
+
+    /**
+     * The y of the lowest ladder.
+     */
+    private int lastLadder = 0;
+
+    /**
+     * The layer of the shaft the miner is working on.
+     */
+    @Nullable
+    private ShaftLayer layer = null;
+
+    /**
+     * Check if a block is an ore.
+     *
+     * @param block the block.
+     * @return true if so.
+     */
+    public static boolean isOre(final Block block)
+    {
+        //TODO make this more sophisticated
+        return block instanceof BlockOre;
+    }
+
+    /**
+     * Find the topmost ladder of a ladder column.
+     *
+     * @param world the world.
+     * @param pos   a ladder of the column.
+     * @return the y of the topmost ladder.
+     */
+    public static int getFirstLadder(@NotNull final World world, @NotNull final BlockPos pos)
+    {
+        BlockPos current = pos;
+        while (isLadder(world, current))
+        {
+            current = current.up();
+        }
+        return current.getY() - 1;
+    }
+
+    /**
+     * Count the ores in the area of a node, as the expected yield of mining it.
+     *
+     * @param world the world, null if unknown.
+     * @param x     the x of the center of the node.
+     * @param z     the z of the center of the node.
+     * @param depth the y of the floor of the node.
+     * @return the amount of ores, 0 if the area is not loaded.
+     */
+    public static int countOres(@Nullable final World world, final double x, final double z, final int depth)
+    {
+        final BlockPos center = new BlockPos(x, depth, z);
+        if (world == null || !world.isBlockLoaded(center))
+        {
+            return 0;
+        }
+
+        int ores = 0;
+        for (int dx = -SHAFT_RADIUS; dx <= SHAFT_RADIUS; dx++)
+        {
+            for (int dz = -SHAFT_RADIUS; dz <= SHAFT_RADIUS; dz++)
+            {
+                for (int dy = 0; dy < NODE_HEIGHT; dy++)
+                {
+                    if (isOre(world.getBlockState(center.add(dx, dy, dz)).getBlock()))
+                    {
+                        ores++;
+                    }
+                }
+            }
+        }
+        return ores;
+    }
+
+    private static boolean isLadder(@NotNull final World world, @NotNull final BlockPos pos)
+    {
+        final IBlockState state = world.getBlockState(pos);
+        return state.getBlock().isLadder(state, world, pos, null);
+    }
+
+    /**
+     * Get the y of the lowest ladder of the ladder column.
+     * Only walks the column the first time or when the lowest known ladder is gone,
+     * else only the ladders added below since the last call are checked.
+     *
+     * @param world  the world.
+     * @param ladder the topmost ladder.
+     * @return the y of the lowest ladder, one above the ladder if it is not one.
+     */
+    public int getLastLadder(@NotNull final World world, @NotNull final BlockPos ladder)
+    {
+        BlockPos current;
+        if (ladder.equals(ladderTop) && lastLadder <= ladder.getY() && isLadder(world, new BlockPos(ladder.getX(), lastLadder, ladder.getZ())))
+        {
+            current = new BlockPos(ladder.getX(), lastLadder - 1, ladder.getZ());
+        }
+        else
+        {
+            current = ladder;
+        }
+
+        while (isLadder(world, current))
+        {
+            current = current.down();
+        }
+
+        ladderTop = ladder;
+        lastLadder = current.getY() + 1;
+        return lastLadder;
+    }
+
+    /**
+     * Get the layer of the shaft at the lowest ladder, builds it when the ladder went down.
+     *
+     * @param world   the world.
+     * @param ladder  the topmost ladder.
+     * @param vectorX the x direction the shaft lies in from the ladder.
+     * @param vectorZ the z direction the shaft lies in from the ladder.
+     * @return the layer.
+     */
+    @NotNull
+    public ShaftLayer getShaftLayer(@NotNull final World world, @NotNull final BlockPos ladder, final int vectorX, final int vectorZ)
+    {
+        final BlockPos ladderPos = new BlockPos(ladder.getX(), getLastLadder(world, ladder), ladder.getZ());
+        if (layer == null || !layer.ladder.equals(ladderPos) || layer.vectorX != vectorX || layer.vectorZ != vectorZ)
+        {
+            layer = new ShaftLayer(ladderPos, vectorX, vectorZ);
+        }
+        return layer;
+    }
+
+    /**
+     * One layer of the shaft, with the blocks which are left to mine in the order they are mined.
+     */
+    public static final class ShaftLayer
+    {
+        /**
+         * The lowest ladder, the layer is at its height.
+         */
+        @NotNull
+        private final BlockPos ladder;
+        private final int      vectorX;
+        private final int      vectorZ;
+
+        /**
+         * The blocks of the shaft in the order they are mined, the ones before {@link #next} are mined.
+         */
+        @NotNull
+        private final List<BlockPos> blocks;
+
+        /**
+         * The blocks of the floor below, in the order they are secured, the ones before {@link #nextFloor} are secured.
+         */
+        @NotNull
+        private final List<BlockPos> floor;
+
+        /**
+         * The blocks around the shaft which have to be checked for liquids.
+         */
+        @NotNull
+        private final Set<BlockPos> toCheck = new LinkedHashSet<>();
+
+        private int next      = 0;
+        private int nextFloor = 0;
+
+        private ShaftLayer(@NotNull final BlockPos ladder, final int vectorX, final int vectorZ)
+        {
+            this.ladder = ladder;
+            this.vectorX = vectorX;
+            this.vectorZ = vectorZ;
+
+            final int centerX = ladder.getX() + SHAFT_RADIUS * vectorX;
+            final int centerZ = ladder.getZ() + SHAFT_RADIUS * vectorZ;
+
+            //  Beware from positive to negative! to draw the miner to a wall to go down
+            final List<BlockPos> shaft = new ArrayList<>();
+            for (int x = centerX + SHAFT_RADIUS; x >= centerX - SHAFT_RADIUS; x--)
+            {
+                for (int z = centerZ - SHAFT_RADIUS; z <= centerZ + SHAFT_RADIUS; z++)
+                {
+                    if (x != ladder.getX() || z != ladder.getZ())
+                    {
+                        shaft.add(new BlockPos(x, ladder.getY(), z));
+                    }
+                }
+            }
+            this.blocks = orderBlocks(shaft, ladder);
+
+            this.floor = new ArrayList<>();
+            for (int x = centerX - SAFETY_RADIUS; x <= centerX + SAFETY_RADIUS; x++)
+            {
+                for (int z = centerZ - SAFETY_RADIUS; z <= centerZ + SAFETY_RADIUS; z++)
+                {
+                    floor.add(new BlockPos(x, ladder.getY() - 2, z));
+                    if (x != ladder.getX() || z != ladder.getZ())
+                    {
+                        toCheck.add(new BlockPos(x, ladder.getY(), z));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Order the blocks of the shaft, the next block is always the one closest to the ladder and the block before,
+         * so the miner works from the ladder along the walls.
+         */
+        @NotNull
+        private static List<BlockPos> orderBlocks(@NotNull final List<BlockPos> shaft, @NotNull final BlockPos ladder)
+        {
+            final List<BlockPos> left = new ArrayList<>(shaft);
+            final List<BlockPos> ordered = new ArrayList<>(shaft.size());
+            BlockPos previous = ladder.up();
+            while (!left.isEmpty())
+            {
+                int best = 0;
+                double bestDistance = Double.MAX_VALUE;
+                for (int i = 0; i < left.size(); i++)
+                {
+                    final BlockPos pos = left.get(i);
+                    final double distance = pos.distanceSq(ladder) + Math.pow(pos.distanceSq(previous), 2);
+                    if (distance < bestDistance)
+                    {
+                        best = i;
+                        bestDistance = distance;
+                    }
+                }
+                previous = left.remove(best);
+                ordered.add(previous);
+            }
+            return ordered;
+        }
+
+        /**
+         * Get the y of the layer.
+         *
+         * @return the y.
+         */
+        public int getY()
+        {
+            return ladder.getY();
+        }
+
+        /**
+         * Get the next block to mine, skips the blocks which are air by now.
+         * Once the end of the layer is reached, the layer is looked through once more,
+         * as sealing a liquid may have filled a block which was mined already.
+         *
+         * @param world the world.
+         * @return the block or null if the layer is mined.
+         */
+        @Nullable
+        public BlockPos getNextBlock(@NotNull final World world)
+        {
+            while (next < blocks.size() && world.isAirBlock(blocks.get(next)))
+            {
+                onMined(blocks.get(next));
+                next++;
+            }
+
+            if (next >= blocks.size())
+            {
+                next = 0;
+                while (next < blocks.size() && world.isAirBlock(blocks.get(next)))
+                {
+                    next++;
+                }
+            }
+            return next < blocks.size() ? blocks.get(next) : null;
+        }
+
+        /**
+         * Get the amount of blocks left to mine, as of the last {@link #getNextBlock(World)}.
+         *
+         * @return the amount.
+         */
+        public int getRemainingBlocks()
+        {
+            return blocks.size() - next;
+        }
+
+        /**
+         * Take the blocks which have to be checked for liquids, all of the layer at first,
+         * then the ones next to the blocks which were mined since.
+         *
+         * @return the blocks.
+         */
+        @NotNull
+        public List<BlockPos> takeBlocksToCheck()
+        {
+            final List<BlockPos> result = new ArrayList<>(toCheck);
+            toCheck.clear();
+            return result;
+        }
+
+        /**
+         * Check a block for liquids again the next time, when it could not be sealed.
+         *
+         * @param pos the block.
+         */
+        public void checkAgain(@NotNull final BlockPos pos)
+        {
+            toCheck.add(pos);
+        }
+
+        /**
+         * Get the next block of the floor below to secure.
+         *
+         * @return the block or null if the floor is secured.
+         */
+        @Nullable
+        public BlockPos getNextFloorBlock()
+        {
+            return nextFloor < floor.size() ? floor.get(nextFloor) : null;
+        }
+
+        /**
+         * Mark the block returned by {@link #getNextFloorBlock()} as secured.
+         */
+        public void onFloorBlockSecured()
+        {
+            nextFloor++;
+        }
+
+        /**
+         * A block of the shaft is mined, the blocks around it may have been opened to liquids.
+         */
+        private void onMined(@NotNull final BlockPos pos)
+        {
+            final int centerX = ladder.getX() + SHAFT_RADIUS * vectorX;
+            final int centerZ = ladder.getZ() + SHAFT_RADIUS * vectorZ;
+            for (int x = pos.getX() - 1; x <= pos.getX() + 1; x++)
+            {
+                for (int z = pos.getZ() - 1; z <= pos.getZ() + 1; z++)
+                {
+                    if (Math.abs(x - centerX) <= SAFETY_RADIUS && Math.abs(z - centerZ) <= SAFETY_RADIUS && (x != ladder.getX() || z != ladder.getZ()))
+                    {
+                        toCheck.add(new BlockPos(x, pos.getY(), z));
+                    }
+                }
+            }
+        }
+    }
+}
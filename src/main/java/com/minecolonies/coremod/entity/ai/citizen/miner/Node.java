@@ -24,6 +24,7 @@ public class Node
     private static final String TAG_STATUS  = "Status";
     private static final String TAG_PARENTX = "ParentX";
     private static final String TAG_PARENTZ = "ParentZ";
+    private static final String TAG_ORES    = "Ores";
 
     /**
      * The distance to the center of the next node.
@@ -54,6 +55,10 @@ public class Node
      */
     @NotNull
     private       NodeStatus status;
+    /**
+     * Amount of ores found in the area of the node when it was planned.
+     */
+    private       int        ores;
 
     /**
      * Initializes the node.
@@ -95,6 +100,7 @@ public class Node
         @NotNull final Node node = new Node(x, z, tempParent);
         node.setStyle(style);
         node.setStatus(status);
+        node.setOres(compound.getInteger(TAG_ORES));
 
         return node;
     }
@@ -111,6 +117,7 @@ public class Node
 
         compound.setString(TAG_STYLE, style.name());
         compound.setString(TAG_STATUS, status.name());
+        compound.setInteger(TAG_ORES, ores);
 
         if (parent != null)
         {
@@ -140,6 +147,26 @@ public class Node
         this.status = status;
     }
 
+    /**
+     * Returns the amount of ores found in the area of the node when it was planned.
+     *
+     * @return the amount.
+     */
+    public int getOres()
+    {
+        return ores;
+    }
+
+    /**
+     * Sets the amount of ores found in the area of the node.
+     *
+     * @param ores the amount.
+     */
+    public void setOres(final int ores)
+    {
+        this.ores = ores;
+    }
+
     /**
      * Getter for the parent value.
      *
@@ -0,0 +1,80 @@
+package com.minecolonies.coremod.entity.ai.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The targets of an ai compiled by state.
+ * For every state which has own targets it holds the targets which can fire in that state,
+ * its own and the state independent ones, in the order of registration.
+ * All other states share the array of the state independent targets.
+ * Looking up the targets of a state allocates nothing.
+ */
+public final class AITargetTable
+{
+    /**
+     * The targets of the states which have own targets.
+     */
+    @NotNull
+    private final Map<AIState, AITarget[]> targetsByState = new EnumMap<>(AIState.class);
+
+    /**
+     * The targets which fire in every state.
+     */
+    @NotNull
+    private final AITarget[] stateIndependentTargets;
+
+    /**
+     * Compile the targets of an ai.
+     *
+     * @param targets the targets in the order of registration.
+     */
+    public AITargetTable(@NotNull final List<AITarget> targets)
+    {
+        final List<AITarget> independent = new ArrayList<>();
+        for (final AITarget target : targets)
+        {
+            if (target.getState() == null)
+            {
+                independent.add(target);
+            }
+        }
+        this.stateIndependentTargets = independent.toArray(new AITarget[independent.size()]);
+
+        for (final AITarget target : targets)
+        {
+            final AIState state = target.getState();
+            if (state == null || targetsByState.containsKey(state))
+            {
+                continue;
+            }
+
+            final List<AITarget> matching = new ArrayList<>();
+            for (final AITarget candidate : targets)
+            {
+                if (candidate.getState() == null || candidate.getState() == state)
+                {
+                    matching.add(candidate);
+                }
+            }
+            targetsByState.put(state, matching.toArray(new AITarget[matching.size()]));
+        }
+    }
+
+    /**
+     * Get the targets which can fire in a state.
+     *
+     * @param state the state.
+     * @return the targets in the order of registration, must not be modified.
+     */
+    @NotNull
+    public AITarget[] getTargets(@NotNull final AIState state)
+    {
+        final AITarget[] targets = targetsByState.get(state);
+        return targets == null ? stateIndependentTargets : targets;
+    }
+}
@@ -3,8 +3,9 @@ package com.minecolonies.coremod.entity.pathfinding;
 import com.minecolonies.coremod.blocks.BlockConstructionTape;
 import com.minecolonies.coremod.blocks.BlockConstructionTapeCorner;
 import com.minecolonies.coremod.blocks.BlockHutField;
+import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.ColonyManager;
 import com.minecolonies.coremod.configuration.Configurations;
-import com.minecolonies.coremod.util.BlockUtils;
 import com.minecolonies.coremod.util.Log;
 import net.minecraft.block.*;
 import net.minecraft.block.material.Material;
@@ -15,7 +16,6 @@ import net.minecraft.pathfinding.PathPoint;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
-import net.minecraft.world.ChunkCache;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
@@ -74,14 +74,14 @@ public abstract class AbstractPathJob implements Callable<Path>
     private static final double TOO_FAR_FROM_FENCE = 0.9D;
 
     /**
-     * Shift x by this value to calculate the node key..
+     * Open node heaps, pooled per path finding thread and reused by every job it runs.
      */
-    private static final int SHIFT_X_BY = 20;
+    private static final ThreadLocal<NodeHeap> POOLED_NODES_OPEN = ThreadLocal.withInitial(NodeHeap::new);
 
     /**
-     * Shift the y value by this to calculate the node key..
+     * Visited node tables, pooled per path finding thread and reused by every job it runs.
      */
-    private static final int SHIFT_Y_BY = 12;
+    private static final ThreadLocal<NodeTable> POOLED_NODES_VISITED = ThreadLocal.withInitial(NodeTable::new);
 
     @Nullable
     protected static Set<Node>    lastDebugNodesVisited;
@@ -92,11 +92,19 @@ public abstract class AbstractPathJob implements Callable<Path>
     @NotNull
     protected final  BlockPos     start;
     @NotNull
-    protected final  IBlockAccess world;
+    protected final  PathChunkCache world;
     protected final  PathResult   result;
     private final    int          maxRange;
-    private final Queue<Node>        nodesOpen                    = new PriorityQueue<>(500);
-    private final Map<Integer, Node> nodesVisited                 = new HashMap<>();
+    @Nullable
+    private final    PassabilityCache passabilityCache;
+    @Nullable
+    private final    PathCache    pathCache;
+    private final    int          colonyId;
+    @NotNull
+    private          PathPriority priority                    = PathPriority.WORK;
+    private volatile boolean      cancelled                   = false;
+    private       NodeHeap           nodesOpen;
+    private       NodeTable          nodesVisited;
     //  Debug Rendering
     protected     boolean            debugDrawEnabled             = false;
     protected     int                debugSleepMs                 = 0;
@@ -143,7 +151,12 @@ public abstract class AbstractPathJob implements Callable<Path>
         final int maxX = Math.max(start.getX(), end.getX()) + (range / 2);
         final int maxZ = Math.max(start.getZ(), end.getZ()) + (range / 2);
 
-        this.world = new ChunkCache(world, new BlockPos(minX, MIN_Y, minZ), new BlockPos(maxX, MAX_Y, maxZ), range);
+        this.world = new PathChunkCache(world, new BlockPos(minX, MIN_Y, minZ), new BlockPos(maxX, MAX_Y, maxZ), range);
+
+        final Colony colony = ColonyManager.getColony(world, start);
+        this.passabilityCache = colony == null ? null : colony.getPassabilityCache();
+        this.colonyId = colony == null ? 0 : colony.getID();
+        this.pathCache = colony == null ? null : colony.getPathCache();
 
         this.start = new BlockPos(start);
         this.maxRange = range;
@@ -272,20 +285,15 @@ public abstract class AbstractPathJob implements Callable<Path>
     }
 
     /**
-     * Generate a pseudo-unique key for identifying a given node by it's coordinates
-     * Encodes the lowest 12 bits of x,z and all useful bits of y.
-     * This creates unique keys for all blocks within a 4096x256x4096 cube, which is FAR
-     * bigger volume than one should attempt to pathfind within
-     * This version takes a BlockPos
+     * Generate a unique key for identifying a given node by it's coordinates.
+     * Packs x,y,z into a primitive long, so no boxing is needed to look up nodes.
      *
      * @param pos BlockPos to generate key from
      * @return key for node in map
      */
-    private static int computeNodeKey(@NotNull final BlockPos pos)
+    private static long computeNodeKey(@NotNull final BlockPos pos)
     {
-        return ((pos.getX() & 0xFFF) << SHIFT_X_BY)
-                 | ((pos.getY() & 0xFF) << SHIFT_Y_BY)
-                 | (pos.getZ() & 0xFFF);
+        return pos.toLong();
     }
 
     /**
@@ -335,9 +343,9 @@ public abstract class AbstractPathJob implements Callable<Path>
         return node != null && node.isClosed();
     }
 
-    private static boolean calculateSwimming(@NotNull final IBlockAccess world, @NotNull final BlockPos pos, @Nullable final Node node)
+    private boolean calculateSwimming(@NotNull final BlockPos pos, @Nullable final Node node)
     {
-        return (node == null) ? world.getBlockState(pos.down()).getMaterial().isLiquid() : node.isSwimming();
+        return (node == null) ? isLiquid(pos.down()) : node.isSwimming();
     }
 
     public PathResult getResult()
@@ -345,6 +353,88 @@ public abstract class AbstractPathJob implements Callable<Path>
         return result;
     }
 
+    /**
+     * Get the passability cache of the colony the job started in.
+     *
+     * @return the cache or null if the job did not start inside of a colony.
+     */
+    @Nullable
+    protected PassabilityCache getPassabilityCache()
+    {
+        return passabilityCache;
+    }
+
+    /**
+     * Get the path cache of the colony the job started in.
+     *
+     * @return the cache or null if the job did not start inside of a colony.
+     */
+    @Nullable
+    protected PathCache getPathCache()
+    {
+        return pathCache;
+    }
+
+    /**
+     * Get the amount of nodes the search visited so far.
+     *
+     * @return the amount.
+     */
+    protected int getTotalNodesVisited()
+    {
+        return totalNodesVisited;
+    }
+
+    /**
+     * Get the id of the colony the job started in.
+     *
+     * @return the colony id, 0 if the job did not start inside of a colony.
+     */
+    public int getColonyId()
+    {
+        return colonyId;
+    }
+
+    /**
+     * Get the priority class of the job.
+     *
+     * @return the priority.
+     */
+    @NotNull
+    public PathPriority getPriority()
+    {
+        return priority;
+    }
+
+    /**
+     * Set the priority class of the job, must be called before it is enqueued.
+     *
+     * @param priority the priority.
+     */
+    public void setPriority(@NotNull final PathPriority priority)
+    {
+        this.priority = priority;
+    }
+
+    /**
+     * Ask the job to stop, the search stops at the next visited node.
+     * Called when the job has been superseded by a newer one.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * Check if the job has been cancelled.
+     *
+     * @return true if so.
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
     /**
      * Callable method for initiating asynchronous task.
      *
@@ -353,6 +443,8 @@ public abstract class AbstractPathJob implements Callable<Path>
     @Override
     public final Path call()
     {
+        nodesOpen = POOLED_NODES_OPEN.get();
+        nodesVisited = POOLED_NODES_VISITED.get();
         try
         {
             return search();
@@ -361,6 +453,12 @@ public abstract class AbstractPathJob implements Callable<Path>
         {
             Log.getLogger().debug(e);
         }
+        finally
+        {
+            //  Release the nodes so the pooled structures are empty for the next job of this thread
+            nodesOpen.clear();
+            nodesVisited.clear();
+        }
 
         return null;
     }
@@ -379,7 +477,7 @@ public abstract class AbstractPathJob implements Callable<Path>
 
         while (!nodesOpen.isEmpty())
         {
-            if (Thread.currentThread().isInterrupted())
+            if (cancelled || Thread.currentThread().isInterrupted())
             {
                 return null;
             }
@@ -546,7 +644,7 @@ public abstract class AbstractPathJob implements Callable<Path>
         {
             startNode.setLadder();
         }
-        else if (world.getBlockState(start).getMaterial().isLiquid())
+        else if (isLiquid(start))
         {
             startNode.setSwimming();
         }
@@ -696,7 +794,7 @@ public abstract class AbstractPathJob implements Callable<Path>
 
         //  Cheap test to perform before doing a 'y' test
         //  Has this node been visited?
-        int nodeKey = computeNodeKey(pos);
+        long nodeKey = computeNodeKey(pos);
         Node node = nodesVisited.get(nodeKey);
 
         //  Can we traverse into this node?  Fix the y up
@@ -721,8 +819,8 @@ public abstract class AbstractPathJob implements Callable<Path>
         }
 
 
-        final boolean isSwimming = calculateSwimming(world, pos, node);
-        final boolean onRoad = BlockUtils.isPathBlock(world.getBlockState(pos).getBlock());
+        final boolean isSwimming = calculateSwimming(pos, node);
+        final boolean onRoad = (getFlags(pos) & PassabilityCache.FLAG_PATH) != 0;
         //  Cost may have changed due to a jump up or drop
         final double stepCost = computeCost(dPos, isSwimming, onRoad);
         final double heuristic = computeHeuristic(pos);
@@ -732,14 +830,17 @@ public abstract class AbstractPathJob implements Callable<Path>
         if (node == null)
         {
             node = createNode(parent, pos, nodeKey, isSwimming, heuristic, cost, score);
+            nodesOpen.offer(node);
         }
         else if (updateCurrentNode(parent, node, heuristic, cost, score))
         {
-
             return false;
         }
-
-        nodesOpen.offer(node);
+        else
+        {
+            //  Node got a better score while still being open, move it up in place
+            nodesOpen.decreaseKey(node);
+        }
 
         //  Jump Point Search-ish optimization:
         // If this node was a (heuristic-based) improvement on our parent,
@@ -759,7 +860,7 @@ public abstract class AbstractPathJob implements Callable<Path>
 
     @NotNull
     private Node createNode(
-                             final Node parent, @NotNull final BlockPos pos, final int nodeKey,
+                             final Node parent, @NotNull final BlockPos pos, final long nodeKey,
                              final boolean isSwimming, final double heuristic, final double cost, final double score)
     {
         final Node node;
@@ -792,7 +893,7 @@ public abstract class AbstractPathJob implements Callable<Path>
             return true;
         }
 
-        if (!nodesOpen.remove(node))
+        if (!nodesOpen.contains(node))
         {
             return true;
         }
@@ -822,15 +923,14 @@ public abstract class AbstractPathJob implements Callable<Path>
         }
 
         //  Now check the block we want to move to
-        final IBlockState target = world.getBlockState(pos);
-        if (!isPassable(target))
+        if (!isPassable(pos))
         {
-            return handleTargeNotPassable(parent, pos, target);
+            return handleTargeNotPassable(parent, pos);
         }
 
         //  Do we have something to stand on in the target space?
-        final IBlockState below = world.getBlockState(pos.down());
-        final SurfaceType walkability = isWalkableSurface(below);
+        final BlockPos below = pos.down();
+        final SurfaceType walkability = getSurfaceType(below);
         if (walkability == SurfaceType.WALKABLE)
         {
             //  Level path
@@ -844,16 +944,16 @@ public abstract class AbstractPathJob implements Callable<Path>
         return handleNotStanding(parent, pos, below);
     }
 
-    private int handleNotStanding(@Nullable final Node parent, @NotNull final BlockPos pos, @NotNull final IBlockState below)
+    private int handleNotStanding(@Nullable final Node parent, @NotNull final BlockPos pos, @NotNull final BlockPos below)
     {
         final boolean isSwimming = parent != null && parent.isSwimming();
 
-        if (below.getMaterial().isLiquid())
+        if (isLiquid(below))
         {
             return handleInLiquid(pos, below, isSwimming);
         }
 
-        if (isLadder(below.getBlock(), pos.down()))
+        if (isLadder(below))
         {
             return pos.getY();
         }
@@ -870,9 +970,7 @@ public abstract class AbstractPathJob implements Callable<Path>
             return -1;
         }
 
-        final BlockPos down = pos.down(2);
-        final IBlockState below = world.getBlockState(down);
-        if (isWalkableSurface(below) == SurfaceType.WALKABLE)
+        if (getSurfaceType(pos.down(2)) == SurfaceType.WALKABLE)
         {
             //  Level path
             return pos.getY() - 1;
@@ -881,7 +979,7 @@ public abstract class AbstractPathJob implements Callable<Path>
         return -1;
     }
 
-    private int handleInLiquid(@NotNull final BlockPos pos, @NotNull final IBlockState below, final boolean isSwimming)
+    private int handleInLiquid(@NotNull final BlockPos pos, @NotNull final BlockPos below, final boolean isSwimming)
     {
         if (isSwimming)
         {
@@ -889,7 +987,7 @@ public abstract class AbstractPathJob implements Callable<Path>
             return pos.getY();
         }
 
-        if (allowSwimming && below.getMaterial() == Material.WATER)
+        if (allowSwimming && (getFlags(below) & PassabilityCache.FLAG_WATER) != 0)
         {
             //  This is water, and we are allowed to swim
             return pos.getY();
@@ -899,11 +997,11 @@ public abstract class AbstractPathJob implements Callable<Path>
         return -1;
     }
 
-    private int handleTargeNotPassable(@Nullable final Node parent, @NotNull final BlockPos pos, @NotNull final IBlockState target)
+    private int handleTargeNotPassable(@Nullable final Node parent, @NotNull final BlockPos pos)
     {
         final boolean canJump = parent != null && !parent.isLadder() && !parent.isSwimming();
         //  Need to try jumping up one, if we can
-        if (!canJump || isWalkableSurface(target) != SurfaceType.WALKABLE)
+        if (!canJump || getSurfaceType(pos) != SurfaceType.WALKABLE)
         {
             return -1;
         }
@@ -931,24 +1029,90 @@ public abstract class AbstractPathJob implements Callable<Path>
             return true;
         }
 
-        if (parent != null)
+        if (parent != null && isLiquid(parent.pos.down()) && !isPassable(pos))
         {
-            final IBlockState hereState = world.getBlockState(parent.pos.down());
-            if (hereState.getMaterial().isLiquid() && !isPassable(pos))
-            {
-                return true;
-            }
+            return true;
         }
         return false;
     }
 
     /**
-     * Is the space passable.
+     * Get the pathing flags of a block, see {@link PassabilityCache}.
+     * Served from the shared cache of the colony if the job runs inside of one.
+     *
+     * @param pos the position of the block.
+     * @return the flags of the block.
+     */
+    protected int getFlags(@NotNull final BlockPos pos)
+    {
+        if (passabilityCache != null)
+        {
+            return passabilityCache.getFlags(world, pos);
+        }
+        return PassabilityCache.computeFlags(world, pos);
+    }
+
+    /**
+     * Is the space at the position passable.
+     *
+     * @param pos the position to check.
+     * @return true if the block does not block movement.
+     */
+    protected boolean isPassable(final BlockPos pos)
+    {
+        return (getFlags(pos) & PassabilityCache.FLAG_PASSABLE) != 0;
+    }
+
+    /**
+     * Can the block at the position be stood upon.
+     *
+     * @param pos the position to check.
+     * @return the type of the surface.
+     */
+    @NotNull
+    private SurfaceType getSurfaceType(@NotNull final BlockPos pos)
+    {
+        final int flags = getFlags(pos);
+        if ((flags & PassabilityCache.FLAG_WALKABLE) != 0)
+        {
+            return SurfaceType.WALKABLE;
+        }
+        if ((flags & PassabilityCache.FLAG_DROPABLE) != 0)
+        {
+            return SurfaceType.DROPABLE;
+        }
+        return SurfaceType.NOT_PASSABLE;
+    }
+
+    /**
+     * Is the block a ladder.
+     *
+     * @param pos location of the block.
+     * @return true if the block is a ladder.
+     */
+    protected boolean isLadder(final BlockPos pos)
+    {
+        return (getFlags(pos) & PassabilityCache.FLAG_LADDER) != 0;
+    }
+
+    /**
+     * Is the block a liquid.
+     *
+     * @param pos location of the block.
+     * @return true if the block is a liquid.
+     */
+    protected boolean isLiquid(final BlockPos pos)
+    {
+        return (getFlags(pos) & PassabilityCache.FLAG_LIQUID) != 0;
+    }
+
+    /**
+     * The passability rule shared by all jobs, used to fill the {@link PassabilityCache}.
      *
      * @param block the block we are checking.
      * @return true if the block does not block movement.
      */
-    protected boolean isPassable(@NotNull final IBlockState block)
+    static boolean isPassableState(@NotNull final IBlockState block)
     {
         if (block.getMaterial() != Material.AIR)
         {
@@ -968,19 +1132,14 @@ public abstract class AbstractPathJob implements Callable<Path>
         return true;
     }
 
-    protected boolean isPassable(final BlockPos pos)
-    {
-        return isPassable(world.getBlockState(pos));
-    }
-
     /**
-     * Is the block solid and can be stood upon.
+     * The surface rule shared by all jobs, used to fill the {@link PassabilityCache}.
      *
      * @param blockState Block to check.
-     * @return true if the block at that location can be walked on.
+     * @return the type of the surface.
      */
     @NotNull
-    protected SurfaceType isWalkableSurface(@NotNull final IBlockState blockState)
+    static SurfaceType getSurfaceType(@NotNull final IBlockState blockState)
     {
         final Block block = blockState.getBlock();
         if (block instanceof BlockFence
@@ -1004,23 +1163,6 @@ public abstract class AbstractPathJob implements Callable<Path>
         return SurfaceType.DROPABLE;
     }
 
-    /**
-     * Is the block a ladder.
-     *
-     * @param block block to check.
-     * @param pos   location of the block.
-     * @return true if the block is a ladder.
-     */
-    protected boolean isLadder(@NotNull final Block block, final BlockPos pos)
-    {
-        return block.isLadder(this.world.getBlockState(pos), world, pos, null);
-    }
-
-    protected boolean isLadder(final BlockPos pos)
-    {
-        return isLadder(world.getBlockState(pos).getBlock(), pos);
-    }
-
     /**
      * Getter for the allowSwimming.
      *
@@ -1044,7 +1186,7 @@ public abstract class AbstractPathJob implements Callable<Path>
     /**
      * Check if we can walk on a surface, drop into, or neither.
      */
-    private enum SurfaceType
+    enum SurfaceType
     {
         WALKABLE,
         DROPABLE,
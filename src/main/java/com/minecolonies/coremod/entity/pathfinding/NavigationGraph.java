@@ -0,0 +1,394 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import com.minecolonies.coremod.util.BlockPosUtil;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Abstract navigation graph of a colony, built over its waypoints and building entrances.
+ * Nodes are bucketed in square regions and only linked to nodes of the neighbouring regions,
+ * so every link is short enough to be walked with a single short A* search.
+ * Two close nodes are only linked if a {@link Probe} finds the ground between them walkable,
+ * the links of a node are probed when a route search first reaches it and again after {@link #LINK_REFRESH_TICKS}.
+ * Road blocks are no nodes of their own, they only make the links between two nodes standing on a road cheaper.
+ * Long trips are planned on this graph first and then refined segment by segment by the path finder.
+ * The graph is maintained incrementally when waypoints or buildings are added or removed.
+ */
+public class NavigationGraph
+{
+    /**
+     * Bits to shift a block coordinate by to get the region coordinate, regions are 32x32 blocks.
+     */
+    private static final int REGION_SHIFT = 5;
+
+    /**
+     * Max distance between two linked nodes, squared.
+     * Equal to the region size so all possible links are in the neighbouring regions.
+     */
+    private static final long MAX_LINK_DISTANCE_SQ = 32L * 32L;
+
+    /**
+     * Cost factor of links between two nodes on roads, same as for path nodes of the path finder.
+     */
+    private static final double ON_ROAD_COST = 0.75D;
+
+    /**
+     * Ticks after which the links of a node are probed again, the world may have changed in between.
+     */
+    public static final long LINK_REFRESH_TICKS = 1200L;
+
+    /**
+     * Probe time of nodes whose links were never probed.
+     */
+    private static final long NEVER = Long.MIN_VALUE;
+
+    /**
+     * All nodes by their position.
+     */
+    private final Map<BlockPos, GraphNode> nodes = new HashMap<>();
+
+    /**
+     * The nodes of each region by the packed region coordinates.
+     */
+    private final Map<Long, List<GraphNode>> regions = new HashMap<>();
+
+    /**
+     * Add a node to the graph, it is linked with the close nodes the next time a route search reaches them.
+     * Replaces an existing node at the same position.
+     * Does not read the world, so it is safe to call while the colony is loaded.
+     *
+     * @param pos the position of the node.
+     */
+    public void addNode(@NotNull final BlockPos pos)
+    {
+        removeNode(pos);
+
+        final GraphNode node = new GraphNode(pos);
+        forEachCloseNode(pos, GraphNode::invalidate);
+
+        nodes.put(pos, node);
+        regions.computeIfAbsent(getRegionKey(pos.getX() >> REGION_SHIFT, pos.getZ() >> REGION_SHIFT), key -> new ArrayList<>()).add(node);
+    }
+
+    /**
+     * Remove a node and all its links from the graph.
+     *
+     * @param pos the position of the node.
+     */
+    public void removeNode(@NotNull final BlockPos pos)
+    {
+        final GraphNode node = nodes.remove(pos);
+        if (node == null)
+        {
+            return;
+        }
+
+        forEachCloseNode(pos, other -> other.links.remove(node));
+
+        final long regionKey = getRegionKey(pos.getX() >> REGION_SHIFT, pos.getZ() >> REGION_SHIFT);
+        final List<GraphNode> region = regions.get(regionKey);
+        if (region != null)
+        {
+            region.remove(node);
+            if (region.isEmpty())
+            {
+                regions.remove(regionKey);
+            }
+        }
+    }
+
+    /**
+     * Check if the graph has a node at the position.
+     *
+     * @param pos the position.
+     * @return true if so.
+     */
+    public boolean hasNode(@NotNull final BlockPos pos)
+    {
+        return nodes.containsKey(pos);
+    }
+
+    /**
+     * Get the amount of nodes in the graph.
+     *
+     * @return the size.
+     */
+    public int size()
+    {
+        return nodes.size();
+    }
+
+    /**
+     * Plan a trip on the graph.
+     * The returned positions are the nodes to walk through in order, the target itself is not part of it.
+     *
+     * @param start  the start of the trip.
+     * @param target the target of the trip.
+     * @param probe  checks the world for the links of the nodes which were not probed recently.
+     * @param now    the current world time.
+     * @return the positions to walk through, empty if the graph does not connect start and target.
+     */
+    @NotNull
+    public List<BlockPos> findRoute(@NotNull final BlockPos start, @NotNull final BlockPos target, @NotNull final Probe probe, final long now)
+    {
+        final GraphNode from = getClosestNode(start);
+        final GraphNode to = getClosestNode(target);
+        if (from == null || to == null || from == to)
+        {
+            return Collections.emptyList();
+        }
+
+        final Map<GraphNode, Double> costs = new HashMap<>();
+        final Map<GraphNode, GraphNode> parents = new HashMap<>();
+        final Queue<RouteEntry> open = new PriorityQueue<>();
+
+        costs.put(from, 0D);
+        open.add(new RouteEntry(from, 0D, getHeuristic(from, to)));
+
+        while (!open.isEmpty())
+        {
+            final RouteEntry entry = open.poll();
+            final GraphNode node = entry.node;
+            if (node == to)
+            {
+                return buildRoute(parents, to);
+            }
+
+            if (entry.cost > costs.get(node))
+            {
+                //  Outdated entry, the node has been reached cheaper meanwhile
+                continue;
+            }
+
+            updateLinks(node, probe, now);
+            for (final GraphNode next : node.links)
+            {
+                if (next.onRoad == null)
+                {
+                    next.onRoad = probe.isOnRoad(next.pos);
+                }
+                final double cost = entry.cost + getLinkCost(node, next);
+                final Double knownCost = costs.get(next);
+                if (knownCost == null || cost < knownCost)
+                {
+                    costs.put(next, cost);
+                    parents.put(next, node);
+                    open.add(new RouteEntry(next, cost, cost + getHeuristic(next, to)));
+                }
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Probe the links of a node unless that was done recently.
+     *
+     * @param node  the node.
+     * @param probe checks the world.
+     * @param now   the current world time.
+     */
+    private void updateLinks(@NotNull final GraphNode node, @NotNull final Probe probe, final long now)
+    {
+        if (node.probedAt != NEVER && now - node.probedAt < LINK_REFRESH_TICKS && now >= node.probedAt)
+        {
+            return;
+        }
+
+        node.probedAt = now;
+        node.onRoad = probe.isOnRoad(node.pos);
+        node.links.clear();
+        forEachCloseNode(node.pos, other ->
+        {
+            if (other != node && probe.canWalk(node.pos, other.pos))
+            {
+                node.links.add(other);
+            }
+        });
+    }
+
+    /**
+     * Walk back from the last node of a route to its start.
+     *
+     * @param parents the parent of every reached node.
+     * @param last    the last node of the route.
+     * @return the positions of the route in walking order.
+     */
+    @NotNull
+    private static List<BlockPos> buildRoute(@NotNull final Map<GraphNode, GraphNode> parents, @NotNull final GraphNode last)
+    {
+        final List<BlockPos> route = new ArrayList<>();
+        for (GraphNode node = last; node != null; node = parents.get(node))
+        {
+            route.add(node.pos);
+        }
+        Collections.reverse(route);
+        return route;
+    }
+
+    /**
+     * Get the closest node within link distance of a position.
+     *
+     * @param pos the position.
+     * @return the node or null if there is none close enough.
+     */
+    @Nullable
+    private GraphNode getClosestNode(@NotNull final BlockPos pos)
+    {
+        final GraphNode[] closest = new GraphNode[1];
+        final long[] closestDistance = {Long.MAX_VALUE};
+        forEachCloseNode(pos, node ->
+        {
+            final long distance = BlockPosUtil.getDistanceSquared(pos, node.pos);
+            if (distance < closestDistance[0])
+            {
+                closest[0] = node;
+                closestDistance[0] = distance;
+            }
+        });
+        return closest[0];
+    }
+
+    /**
+     * Run an action for every node within link distance of a position.
+     *
+     * @param pos    the position.
+     * @param action the action to run.
+     */
+    private void forEachCloseNode(@NotNull final BlockPos pos, @NotNull final Consumer<GraphNode> action)
+    {
+        final int regionX = pos.getX() >> REGION_SHIFT;
+        final int regionZ = pos.getZ() >> REGION_SHIFT;
+        for (int x = regionX - 1; x <= regionX + 1; x++)
+        {
+            for (int z = regionZ - 1; z <= regionZ + 1; z++)
+            {
+                final List<GraphNode> region = regions.get(getRegionKey(x, z));
+                if (region == null)
+                {
+                    continue;
+                }
+
+                for (final GraphNode node : region)
+                {
+                    if (BlockPosUtil.getDistanceSquared(pos, node.pos) <= MAX_LINK_DISTANCE_SQ)
+                    {
+                        action.accept(node);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cost to walk along a link, cheaper if both ends are on a road.
+     *
+     * @param from the start of the link.
+     * @param to   the end of the link.
+     * @return the cost.
+     */
+    private static double getLinkCost(@NotNull final GraphNode from, @NotNull final GraphNode to)
+    {
+        final double distance = Math.sqrt(BlockPosUtil.getDistanceSquared(from.pos, to.pos));
+        return Boolean.TRUE.equals(from.onRoad) && Boolean.TRUE.equals(to.onRoad) ? distance * ON_ROAD_COST : distance;
+    }
+
+    /**
+     * Estimate of the cost from a node to the end of the route, never more than the real cost.
+     *
+     * @param from the node.
+     * @param to   the end of the route.
+     * @return the estimate.
+     */
+    private static double getHeuristic(@NotNull final GraphNode from, @NotNull final GraphNode to)
+    {
+        return Math.sqrt(BlockPosUtil.getDistanceSquared(from.pos, to.pos)) * ON_ROAD_COST;
+    }
+
+    /**
+     * Packs region coordinates into a key.
+     *
+     * @param x the region x coordinate.
+     * @param z the region z coordinate.
+     * @return the key.
+     */
+    private static long getRegionKey(final int x, final int z)
+    {
+        return ((long) x << Integer.SIZE) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Checks the world between the nodes of the graph.
+     */
+    public interface Probe
+    {
+        /**
+         * Check if a node stands on a road.
+         *
+         * @param pos the position of the node.
+         * @return true if so.
+         */
+        boolean isOnRoad(@NotNull BlockPos pos);
+
+        /**
+         * Check if a citizen can walk from one node to a close one, the check has to be bounded by the distance.
+         *
+         * @param from the position of the first node.
+         * @param to   the position of the second node.
+         * @return true if so, false if not or unknown.
+         */
+        boolean canWalk(@NotNull BlockPos from, @NotNull BlockPos to);
+    }
+
+    /**
+     * A node of the graph.
+     */
+    private static final class GraphNode
+    {
+        private final BlockPos       pos;
+        private final Set<GraphNode> links    = new HashSet<>();
+        @Nullable
+        private       Boolean        onRoad   = null;
+        private       long           probedAt = NEVER;
+
+        private GraphNode(@NotNull final BlockPos pos)
+        {
+            this.pos = pos;
+        }
+
+        /**
+         * Probe the links again the next time, a close node was added.
+         */
+        private void invalidate()
+        {
+            probedAt = NEVER;
+        }
+    }
+
+    /**
+     * An entry of the open list of the route search.
+     */
+    private static final class RouteEntry implements Comparable<RouteEntry>
+    {
+        private final GraphNode node;
+        private final double    cost;
+        private final double    score;
+
+        private RouteEntry(@NotNull final GraphNode node, final double cost, final double score)
+        {
+            this.node = node;
+            this.cost = cost;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(@NotNull final RouteEntry o)
+        {
+            return Double.compare(score, o.score);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Checks the world between two nodes of the {@link NavigationGraph}.
+ * Follows the straight line between the nodes column by column and looks for ground a citizen can stand on
+ * within a step up or a short drop of the previous column, using the same flags as the path finder.
+ * Bounded by the distance of the nodes, so at most a few hundred blocks are read per link.
+ * Only used on the server thread.
+ */
+public class NavigationProbe implements NavigationGraph.Probe
+{
+    /**
+     * The highest drop the probe walks down.
+     */
+    private static final int MAX_DROP = 3;
+
+    /**
+     * The highest difference between the end of the probe and the target node.
+     */
+    private static final int MAX_END_OFFSET = 2;
+
+    @NotNull
+    private final World world;
+
+    /**
+     * Create a probe for a world.
+     *
+     * @param world the world.
+     */
+    public NavigationProbe(@NotNull final World world)
+    {
+        this.world = world;
+    }
+
+    @Override
+    public boolean isOnRoad(@NotNull final BlockPos pos)
+    {
+        return world.isBlockLoaded(pos) && (getFlags(pos.down()) & PassabilityCache.FLAG_PATH) != 0;
+    }
+
+    @Override
+    public boolean canWalk(@NotNull final BlockPos from, @NotNull final BlockPos to)
+    {
+        final int dx = to.getX() - from.getX();
+        final int dz = to.getZ() - from.getZ();
+        final int steps = Math.max(Math.abs(dx), Math.abs(dz));
+
+        int y = from.getY();
+        for (int step = 1; step <= steps; step++)
+        {
+            final int x = from.getX() + Math.round((float) dx * step / steps);
+            final int z = from.getZ() + Math.round((float) dz * step / steps);
+            final BlockPos column = new BlockPos(x, y, z);
+            if (!world.isBlockLoaded(column))
+            {
+                return false;
+            }
+
+            final int standY = findStandingY(column);
+            if (standY == Integer.MIN_VALUE)
+            {
+                return false;
+            }
+            y = standY;
+        }
+        return Math.abs(y - to.getY()) <= MAX_END_OFFSET;
+    }
+
+    /**
+     * Find where a citizen coming from the height of the position stands in its column.
+     *
+     * @param pos the column, at the height the citizen comes from.
+     * @return the height or {@link Integer#MIN_VALUE} if the citizen can not go there.
+     */
+    private int findStandingY(@NotNull final BlockPos pos)
+    {
+        for (int offset = 0; offset <= MAX_DROP + 1; offset++)
+        {
+            //  Same height first, then one step up, then down
+            final int dy = offset == 0 ? 0 : (offset == 1 ? 1 : 1 - offset);
+            final BlockPos feet = pos.up(dy);
+            if (canStand(feet))
+            {
+                return feet.getY();
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    private boolean canStand(@NotNull final BlockPos feet)
+    {
+        final int ground = getFlags(feet.down());
+        return (ground & PassabilityCache.FLAG_WALKABLE) != 0
+                 && (ground & PassabilityCache.FLAG_LIQUID) == 0
+                 && (getFlags(feet) & PassabilityCache.FLAG_PASSABLE) != 0
+                 && (getFlags(feet.up()) & PassabilityCache.FLAG_PASSABLE) != 0;
+    }
+
+    private int getFlags(@NotNull final BlockPos pos)
+    {
+        return PassabilityCache.computeFlags(world, pos);
+    }
+}
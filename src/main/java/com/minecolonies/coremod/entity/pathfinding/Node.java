@@ -81,6 +81,11 @@ public class Node implements Comparable<Node>
      */
     private boolean swimming = false;
 
+    /**
+     * Index of the node in the open node heap, -1 if not in the heap.
+     */
+    private int heapIndex = -1;
+
     /**
      * Create initial Node.
      *
@@ -333,4 +338,24 @@ public class Node implements Comparable<Node>
     {
         this.counterAdded = counterAdded;
     }
+
+    /**
+     * Getter of the index of the node in the open node heap.
+     *
+     * @return the index or -1 if not in the heap.
+     */
+    int getHeapIndex()
+    {
+        return heapIndex;
+    }
+
+    /**
+     * Sets the index of the node in the open node heap.
+     *
+     * @param heapIndex the index, -1 if removed from the heap.
+     */
+    void setHeapIndex(final int heapIndex)
+    {
+        this.heapIndex = heapIndex;
+    }
 }
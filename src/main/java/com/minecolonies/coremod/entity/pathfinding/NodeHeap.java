@@ -0,0 +1,197 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of nodes, ordered by {@link Node#compareTo(Node)}.
+ * Every node remembers its index in the heap, which allows an in place decrease of the key
+ * instead of a linear remove and re-add as with a {@link java.util.PriorityQueue}.
+ * Instances are meant to be reused across path jobs of the same thread, see {@link #clear()}.
+ */
+public class NodeHeap
+{
+    /**
+     * Initial amount of nodes the heap can hold.
+     */
+    private static final int DEFAULT_CAPACITY = 512;
+
+    /**
+     * Heaps which grew beyond this amount of nodes are shrunk again on clear to not hold on to the memory forever.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 15;
+
+    /**
+     * The nodes of the heap.
+     */
+    private Node[] heap = new Node[DEFAULT_CAPACITY];
+
+    /**
+     * Amount of nodes in the heap.
+     */
+    private int size = 0;
+
+    /**
+     * Add a node to the heap.
+     *
+     * @param node the node to add, must not be in the heap already.
+     */
+    public void offer(@NotNull final Node node)
+    {
+        if (size == heap.length)
+        {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        heap[size] = node;
+        node.setHeapIndex(size);
+        size++;
+        siftUp(node.getHeapIndex());
+    }
+
+    /**
+     * Removes the node with the lowest score from the heap.
+     *
+     * @return the node or null if the heap is empty.
+     */
+    @Nullable
+    public Node poll()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+
+        final Node first = heap[0];
+        first.setHeapIndex(-1);
+        size--;
+
+        if (size > 0)
+        {
+            heap[0] = heap[size];
+            heap[0].setHeapIndex(0);
+            siftDown(0);
+        }
+        heap[size] = null;
+
+        return first;
+    }
+
+    /**
+     * Restores the heap order after the score of a node in the heap has been lowered.
+     *
+     * @param node the node which got a better score.
+     */
+    public void decreaseKey(@NotNull final Node node)
+    {
+        siftUp(node.getHeapIndex());
+    }
+
+    /**
+     * Check if the node is currently in the heap.
+     *
+     * @param node the node to check.
+     * @return true if so.
+     */
+    public boolean contains(@NotNull final Node node)
+    {
+        final int index = node.getHeapIndex();
+        return index >= 0 && index < size && heap[index] == node;
+    }
+
+    /**
+     * Get the amount of nodes in the heap.
+     *
+     * @return the size.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Check if the heap is empty.
+     *
+     * @return true if so.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all nodes so the heap can be reused by the next job.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            heap[i].setHeapIndex(-1);
+            heap[i] = null;
+        }
+        size = 0;
+
+        if (heap.length > MAX_RETAINED_CAPACITY)
+        {
+            heap = new Node[DEFAULT_CAPACITY];
+        }
+    }
+
+    /**
+     * Moves the node at the index up until its parent is not worse than it.
+     *
+     * @param index the index to start at.
+     */
+    private void siftUp(final int index)
+    {
+        final Node node = heap[index];
+        int current = index;
+        while (current > 0)
+        {
+            final int parentIndex = (current - 1) >>> 1;
+            final Node parent = heap[parentIndex];
+            if (node.compareTo(parent) >= 0)
+            {
+                break;
+            }
+            heap[current] = parent;
+            parent.setHeapIndex(current);
+            current = parentIndex;
+        }
+        heap[current] = node;
+        node.setHeapIndex(current);
+    }
+
+    /**
+     * Moves the node at the index down until none of its children is better than it.
+     *
+     * @param index the index to start at.
+     */
+    private void siftDown(final int index)
+    {
+        final Node node = heap[index];
+        final int half = size >>> 1;
+        int current = index;
+        while (current < half)
+        {
+            int childIndex = (current << 1) + 1;
+            Node child = heap[childIndex];
+            final int rightIndex = childIndex + 1;
+            if (rightIndex < size && heap[rightIndex].compareTo(child) < 0)
+            {
+                childIndex = rightIndex;
+                child = heap[rightIndex];
+            }
+            if (node.compareTo(child) <= 0)
+            {
+                break;
+            }
+            heap[current] = child;
+            child.setHeapIndex(current);
+            current = childIndex;
+        }
+        heap[current] = node;
+        node.setHeapIndex(current);
+    }
+}
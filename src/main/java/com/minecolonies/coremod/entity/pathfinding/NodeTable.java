@@ -0,0 +1,198 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table which maps primitive long node keys to nodes.
+ * Replaces a HashMap of boxed keys to avoid an allocation for every lookup and insertion.
+ * Instances are meant to be reused across path jobs of the same thread, see {@link #clear()}.
+ */
+public class NodeTable
+{
+    /**
+     * Initial amount of slots of the table, must be a power of two.
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Tables which grew beyond this amount of slots are shrunk again on clear to not hold on to the memory forever.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+
+    /**
+     * Maximum load factor before the table is grown, in percent.
+     */
+    private static final int MAX_LOAD_PERCENT = 50;
+
+    /**
+     * Constant used to spread the bits of the key over the slot index (golden ratio).
+     */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The keys of the slots.
+     */
+    private long[] keys;
+
+    /**
+     * The nodes of the slots, null if the slot is free.
+     */
+    private Node[] values;
+
+    /**
+     * Amount of nodes in the table.
+     */
+    private int size = 0;
+
+    /**
+     * Creates a new empty node table.
+     */
+    public NodeTable()
+    {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Allocates fresh storage with the given amount of slots.
+     *
+     * @param capacity the amount of slots, a power of two.
+     */
+    private void allocate(final int capacity)
+    {
+        keys = new long[capacity];
+        values = new Node[capacity];
+    }
+
+    /**
+     * Calculates the first slot to probe for a key.
+     *
+     * @param key  the key.
+     * @param mask the slot mask of the table.
+     * @return the slot index.
+     */
+    private static int slotOf(final long key, final int mask)
+    {
+        final long hash = key * HASH_MULTIPLIER;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Get the node stored for a key.
+     *
+     * @param key the node key.
+     * @return the node or null if none is stored.
+     */
+    @Nullable
+    public Node get(final long key)
+    {
+        final int mask = values.length - 1;
+        int slot = slotOf(key, mask);
+        Node node = values[slot];
+        while (node != null)
+        {
+            if (keys[slot] == key)
+            {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+            node = values[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Store a node for a key, replacing any node stored for the same key.
+     *
+     * @param key  the node key.
+     * @param node the node to store.
+     */
+    public void put(final long key, @NotNull final Node node)
+    {
+        if ((size + 1) * 100 > values.length * MAX_LOAD_PERCENT)
+        {
+            rehash(values.length << 1);
+        }
+
+        final int mask = values.length - 1;
+        int slot = slotOf(key, mask);
+        while (values[slot] != null)
+        {
+            if (keys[slot] == key)
+            {
+                values[slot] = node;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = node;
+        size++;
+    }
+
+    /**
+     * Moves all nodes into a table with a new amount of slots.
+     *
+     * @param capacity the new amount of slots, a power of two.
+     */
+    private void rehash(final int capacity)
+    {
+        final long[] oldKeys = keys;
+        final Node[] oldValues = values;
+        allocate(capacity);
+
+        final int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++)
+        {
+            if (oldValues[i] != null)
+            {
+                int slot = slotOf(oldKeys[i], mask);
+                while (values[slot] != null)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Get the amount of nodes in the table.
+     *
+     * @return the size.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Check if the table is empty.
+     *
+     * @return true if so.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all nodes so the table can be reused by the next job.
+     */
+    public void clear()
+    {
+        if (values.length > MAX_RETAINED_CAPACITY)
+        {
+            allocate(DEFAULT_CAPACITY);
+        }
+        else if (size > 0)
+        {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+}
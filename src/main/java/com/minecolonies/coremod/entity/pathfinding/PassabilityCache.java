@@ -0,0 +1,368 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import com.minecolonies.coremod.util.BlockUtils;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Passability information of the blocks of a colony, shared by all path jobs running in it.
+ * The flags of every block are stored in one byte per block, grouped in 16x16x16 chunk sections.
+ * Flags are calculated lazily by the path finding threads and invalidated per block from the server thread
+ * whenever a block changes, so most path jobs never have to look at the raw block states again.
+ */
+public class PassabilityCache
+{
+    /**
+     * Set for every block which flags have been calculated.
+     */
+    public static final int FLAG_COMPUTED = 1;
+
+    /**
+     * The block does not block movement.
+     */
+    public static final int FLAG_PASSABLE = 1 << 1;
+
+    /**
+     * The block can be stood upon.
+     */
+    public static final int FLAG_WALKABLE = 1 << 2;
+
+    /**
+     * The block can not be stood upon, but entities can drop through it.
+     * Blocks which are neither walkable nor dropable must not be walked on at all (fences and walls).
+     */
+    public static final int FLAG_DROPABLE = 1 << 3;
+
+    /**
+     * The block is a ladder.
+     */
+    public static final int FLAG_LADDER = 1 << 4;
+
+    /**
+     * The block is a liquid.
+     */
+    public static final int FLAG_LIQUID = 1 << 5;
+
+    /**
+     * The block is water.
+     */
+    public static final int FLAG_WATER = 1 << 6;
+
+    /**
+     * The block is a path block, cheaper to walk on.
+     */
+    public static final int FLAG_PATH = 1 << 7;
+
+    /**
+     * Bits to shift a block coordinate by to get the section coordinate.
+     */
+    private static final int SECTION_SHIFT = 4;
+
+    /**
+     * Mask to get the position of a block inside of its section.
+     */
+    private static final int SECTION_MASK = 0xF;
+
+    /**
+     * Amount of blocks in a section.
+     */
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+
+    /**
+     * Bits of the packed section key used for every coordinate.
+     */
+    private static final int KEY_BITS = 22;
+
+    /**
+     * Mask of the bits of a single coordinate of the section key.
+     */
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    /**
+     * Version counter shared by all caches, a section gets a new version each time a block in it changes.
+     */
+    private static final AtomicInteger VERSION_COUNTER = new AtomicInteger();
+
+    /**
+     * The sections of the cache by their packed section coordinates.
+     */
+    private final Map<Long, Section> sections = new ConcurrentHashMap<>();
+
+    /**
+     * Center of the cached area.
+     */
+    private final BlockPos center;
+
+    /**
+     * Squared horizontal radius of the cached area.
+     */
+    private final long rangeSq;
+
+    /**
+     * Creates a new passability cache covering a circular area.
+     *
+     * @param center the center of the area.
+     * @param range  the horizontal radius of the area.
+     */
+    public PassabilityCache(@NotNull final BlockPos center, final int range)
+    {
+        this.center = center;
+        this.rangeSq = (long) range * range;
+    }
+
+    /**
+     * Calculate the flags of a block, without any caching.
+     *
+     * @param world the world to read from.
+     * @param pos   the position of the block.
+     * @return the flags of the block.
+     */
+    public static int computeFlags(@NotNull final IBlockAccess world, @NotNull final BlockPos pos)
+    {
+        return computeFlags(world, pos, world.getBlockState(pos));
+    }
+
+    /**
+     * Calculate the flags a block state would have at a position.
+     *
+     * @param world the world to read from.
+     * @param pos   the position of the block.
+     * @param state the state of the block.
+     * @return the flags of the block.
+     */
+    public static int computeFlags(@NotNull final IBlockAccess world, @NotNull final BlockPos pos, @NotNull final IBlockState state)
+    {
+        int flags = FLAG_COMPUTED;
+
+        if (AbstractPathJob.isPassableState(state))
+        {
+            flags |= FLAG_PASSABLE;
+        }
+
+        final AbstractPathJob.SurfaceType surface = AbstractPathJob.getSurfaceType(state);
+        if (surface == AbstractPathJob.SurfaceType.WALKABLE)
+        {
+            flags |= FLAG_WALKABLE;
+        }
+        else if (surface == AbstractPathJob.SurfaceType.DROPABLE)
+        {
+            flags |= FLAG_DROPABLE;
+        }
+
+        if (state.getBlock().isLadder(state, world, pos, null))
+        {
+            flags |= FLAG_LADDER;
+        }
+
+        final Material material = state.getMaterial();
+        if (material.isLiquid())
+        {
+            flags |= FLAG_LIQUID;
+        }
+        if (material == Material.WATER)
+        {
+            flags |= FLAG_WATER;
+        }
+
+        if (BlockUtils.isPathBlock(state.getBlock()))
+        {
+            flags |= FLAG_PATH;
+        }
+
+        return flags;
+    }
+
+    /**
+     * Get the flags of a block, calculating and caching them if they are not known yet.
+     * Safe to call from the path finding threads.
+     *
+     * @param world the chunk cache of the path job.
+     * @param pos   the position of the block.
+     * @return the flags of the block.
+     */
+    public int getFlags(@NotNull final PathChunkCache world, @NotNull final BlockPos pos)
+    {
+        if (!covers(pos) || !world.isBlockLoaded(pos))
+        {
+            return computeFlags(world, pos);
+        }
+
+        final Section section = sections.computeIfAbsent(getSectionKey(pos), key -> new Section());
+        final int index = getIndex(pos);
+        final int cached = section.flags[index];
+        if (cached != 0)
+        {
+            return cached & 0xFF;
+        }
+
+        final int version = section.version;
+        final int flags = computeFlags(world, pos);
+        section.flags[index] = (byte) flags;
+
+        //  The block changed while we were looking at it, do not keep the possibly outdated flags
+        if (section.version != version)
+        {
+            section.flags[index] = 0;
+        }
+
+        return flags;
+    }
+
+    /**
+     * Get the version of the section containing the position.
+     * The version changes whenever a block inside the section changes, or the section is dropped.
+     *
+     * @param pos the position.
+     * @return the version, or -1 if the position is not cached.
+     */
+    public int getVersion(@NotNull final BlockPos pos)
+    {
+        final Section section = sections.get(getSectionKey(pos));
+        return section == null ? -1 : section.version;
+    }
+
+    /**
+     * Get the current value of the version counter.
+     * Every section changed after this call will have a higher version.
+     *
+     * @return the version.
+     */
+    public static int getCurrentVersion()
+    {
+        return VERSION_COUNTER.get();
+    }
+
+    /**
+     * Check that no block in the section containing the position changed since a certain version.
+     *
+     * @param pos     the position.
+     * @param version a version returned by {@link #getCurrentVersion()}.
+     * @return true if the section is cached and did not change since.
+     */
+    public boolean isUnchangedSince(@NotNull final BlockPos pos, final int version)
+    {
+        final Section section = sections.get(getSectionKey(pos));
+        if (section == null)
+        {
+            return false;
+        }
+
+        //  A section created after that version has not changed as long as it keeps its first version
+        final int current = section.version;
+        return current <= version || current == section.createdVersion;
+    }
+
+    /**
+     * Forget the flags of a block, called from the server thread when the block changed.
+     *
+     * @param pos the position of the block.
+     */
+    public void invalidate(@NotNull final BlockPos pos)
+    {
+        final Section section = sections.get(getSectionKey(pos));
+        if (section != null)
+        {
+            section.version = VERSION_COUNTER.incrementAndGet();
+            section.flags[getIndex(pos)] = 0;
+        }
+    }
+
+    /**
+     * Drop all sections of a chunk, called when the chunk unloads.
+     *
+     * @param chunkX the x coordinate of the chunk.
+     * @param chunkZ the z coordinate of the chunk.
+     */
+    public void removeChunk(final int chunkX, final int chunkZ)
+    {
+        if (sections.isEmpty())
+        {
+            return;
+        }
+
+        for (int y = 0; y < 16; y++)
+        {
+            final Section section = sections.remove(getSectionKey(chunkX, y, chunkZ));
+            if (section != null)
+            {
+                section.version = VERSION_COUNTER.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop all cached information.
+     */
+    public void clear()
+    {
+        sections.values().forEach(section -> section.version = VERSION_COUNTER.incrementAndGet());
+        sections.clear();
+    }
+
+    /**
+     * Check if a position lies inside of the cached area.
+     *
+     * @param pos the position to check.
+     * @return true if so.
+     */
+    public boolean covers(@NotNull final BlockPos pos)
+    {
+        final long dx = (long) pos.getX() - center.getX();
+        final long dz = (long) pos.getZ() - center.getZ();
+        return dx * dx + dz * dz <= rangeSq;
+    }
+
+    /**
+     * Get the packed key of the section containing the position.
+     *
+     * @param pos the position.
+     * @return the key.
+     */
+    static long getSectionKey(@NotNull final BlockPos pos)
+    {
+        return getSectionKey(pos.getX() >> SECTION_SHIFT, pos.getY() >> SECTION_SHIFT, pos.getZ() >> SECTION_SHIFT);
+    }
+
+    /**
+     * Get the packed key of a section.
+     *
+     * @param x the section x coordinate.
+     * @param y the section y coordinate.
+     * @param z the section z coordinate.
+     * @return the key.
+     */
+    private static long getSectionKey(final int x, final int y, final int z)
+    {
+        return ((x & KEY_MASK) << (KEY_BITS + SECTION_SHIFT)) | ((z & KEY_MASK) << SECTION_SHIFT) | (y & SECTION_MASK);
+    }
+
+    /**
+     * Get the index of a position inside of its section.
+     *
+     * @param pos the position.
+     * @return the index.
+     */
+    private static int getIndex(@NotNull final BlockPos pos)
+    {
+        return ((pos.getY() & SECTION_MASK) << 8) | ((pos.getZ() & SECTION_MASK) << SECTION_SHIFT) | (pos.getX() & SECTION_MASK);
+    }
+
+    /**
+     * Flags of the blocks of one chunk section, a value of 0 means not calculated yet.
+     */
+    private static final class Section
+    {
+        private final byte[] flags = new byte[SECTION_VOLUME];
+
+        private final int createdVersion = VERSION_COUNTER.incrementAndGet();
+
+        private volatile int version = createdVersion;
+    }
+}
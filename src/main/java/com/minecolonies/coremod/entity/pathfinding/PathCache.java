@@ -0,0 +1,305 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import net.minecraft.pathfinding.Path;
+import net.minecraft.pathfinding.PathPoint;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Least recently used cache of the paths computed in a colony, for the trips citizens walk over and over.
+ * Paths are keyed by the region of their start and their exact destination.
+ * A cached path stays valid as long as none of the chunk sections it crosses changed,
+ * which is checked against the section versions of the {@link PassabilityCache} of the colony.
+ * The sections of the ground, the feet and the head of every point are checked.
+ * The points are copied in and out, the entities following a path change its points.
+ */
+public class PathCache
+{
+    /**
+     * Max amount of paths kept per colony.
+     */
+    private static final int MAX_ENTRIES = 256;
+
+    /**
+     * Bits to shift the start coordinates by to get the start region, regions are 4x4x4 blocks.
+     */
+    private static final int START_REGION_SHIFT = 2;
+
+    /**
+     * Percent factor for the hit rate.
+     */
+    private static final double PERCENT = 100D;
+
+    /**
+     * The cached paths, in access order.
+     */
+    private final Map<Key, Entry> entries = new LinkedHashMap<Key, Entry>(MAX_ENTRIES, 0.75F, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest)
+        {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private long hits         = 0;
+    private long misses       = 0;
+    private long staleEntries = 0;
+    private long savedNodes   = 0;
+
+    /**
+     * Store a computed path, called by the path job which computed it.
+     * The path is only stored if none of the sections it crosses changed while it was computed.
+     *
+     * @param passabilityCache the passability cache the job read the blocks through.
+     * @param start            the start of the path.
+     * @param destination      the destination of the path.
+     * @param points           the points of the path.
+     * @param visitedNodes     the amount of nodes the job visited to compute it.
+     * @param version          the version of the passability cache when the job started.
+     */
+    public synchronized void put(
+                                  @NotNull final PassabilityCache passabilityCache,
+                                  @NotNull final BlockPos start,
+                                  @NotNull final BlockPos destination,
+                                  @NotNull final PathPoint[] points,
+                                  final int visitedNodes,
+                                  final int version)
+    {
+        if (points.length == 0)
+        {
+            return;
+        }
+
+        final Set<Long> sections = new HashSet<>();
+        final List<BlockPos> sectionPositions = new ArrayList<>();
+        for (final PathPoint point : points)
+        {
+            final BlockPos pos = new BlockPos(point.xCoord, point.yCoord, point.zCoord);
+            for (final BlockPos checked : new BlockPos[] {pos.down(), pos, pos.up()})
+            {
+                if (sections.add(PassabilityCache.getSectionKey(checked)))
+                {
+                    if (!passabilityCache.isUnchangedSince(checked, version))
+                    {
+                        return;
+                    }
+                    sectionPositions.add(checked);
+                }
+            }
+        }
+
+        final int[] versions = new int[sectionPositions.size()];
+        for (int i = 0; i < versions.length; i++)
+        {
+            versions[i] = passabilityCache.getVersion(sectionPositions.get(i));
+        }
+
+        entries.put(new Key(start, destination),
+          new Entry(start, copyPoints(points, 0), sectionPositions.toArray(new BlockPos[sectionPositions.size()]), versions, visitedNodes));
+    }
+
+    /**
+     * Get a cached path for a trip.
+     * The path is attached to the start if the start lies on or right next to it.
+     *
+     * @param passabilityCache the passability cache of the colony.
+     * @param start            the start of the trip.
+     * @param destination      the destination of the trip.
+     * @return a new path, or null if none is cached or the cached one is outdated.
+     */
+    @Nullable
+    public synchronized Path get(@NotNull final PassabilityCache passabilityCache, @NotNull final BlockPos start, @NotNull final BlockPos destination)
+    {
+        final Key key = new Key(start, destination);
+        final Entry entry = entries.get(key);
+        if (entry == null)
+        {
+            misses++;
+            return null;
+        }
+
+        for (int i = 0; i < entry.sectionPositions.length; i++)
+        {
+            if (passabilityCache.getVersion(entry.sectionPositions[i]) != entry.versions[i])
+            {
+                entries.remove(key);
+                staleEntries++;
+                misses++;
+                return null;
+            }
+        }
+
+        final int first = entry.getFirstPointFrom(start);
+        if (first < 0 || first >= entry.points.length)
+        {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        savedNodes += entry.visitedNodes;
+        return new Path(copyPoints(entry.points, first));
+    }
+
+    /**
+     * Copy the points of a path.
+     *
+     * @param points the points.
+     * @param from   the index of the first point to copy.
+     * @return the copies.
+     */
+    @NotNull
+    private static PathPoint[] copyPoints(@NotNull final PathPoint[] points, final int from)
+    {
+        final PathPoint[] copy = new PathPoint[points.length - from];
+        for (int i = from; i < points.length; i++)
+        {
+            final PathPoint point = points[i];
+            if (point instanceof PathPointExtended)
+            {
+                final PathPointExtended extended = new PathPointExtended(new BlockPos(point.xCoord, point.yCoord, point.zCoord));
+                extended.setOnLadder(((PathPointExtended) point).isOnLadder());
+                extended.setLadderFacing(((PathPointExtended) point).getLadderFacing());
+                copy[i - from] = extended;
+            }
+            else
+            {
+                copy[i - from] = new PathPoint(point.xCoord, point.yCoord, point.zCoord);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Drop all cached paths.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    /**
+     * Get the hit rate and savings of the cache.
+     *
+     * @return a line of text.
+     */
+    @NotNull
+    public synchronized String getStatistics()
+    {
+        final long lookups = hits + misses;
+        return String.format("%d paths, %d hits, %d misses (%d stale), hit rate %.1f%%, %d nodes saved",
+          entries.size(),
+          hits,
+          misses,
+          staleEntries,
+          lookups == 0 ? 0D : hits * PERCENT / lookups,
+          savedNodes);
+    }
+
+    /**
+     * Key of a cached path, the start region and the destination.
+     */
+    private static final class Key
+    {
+        private final int      regionX;
+        private final int      regionY;
+        private final int      regionZ;
+        private final BlockPos destination;
+
+        private Key(@NotNull final BlockPos start, @NotNull final BlockPos destination)
+        {
+            this.regionX = start.getX() >> START_REGION_SHIFT;
+            this.regionY = start.getY() >> START_REGION_SHIFT;
+            this.regionZ = start.getZ() >> START_REGION_SHIFT;
+            this.destination = destination;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return regionX == key.regionX && regionY == key.regionY && regionZ == key.regionZ && destination.equals(key.destination);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(regionX, regionY, regionZ, destination);
+        }
+    }
+
+    /**
+     * A cached path with the section versions it is valid for.
+     */
+    private static final class Entry
+    {
+        private final BlockPos    start;
+        private final PathPoint[] points;
+        private final BlockPos[]  sectionPositions;
+        private final int[]       versions;
+        private final int         visitedNodes;
+
+        private Entry(
+                       @NotNull final BlockPos start,
+                       @NotNull final PathPoint[] points,
+                       @NotNull final BlockPos[] sectionPositions,
+                       @NotNull final int[] versions,
+                       final int visitedNodes)
+        {
+            this.start = start;
+            this.points = points;
+            this.sectionPositions = sectionPositions;
+            this.versions = versions;
+            this.visitedNodes = visitedNodes;
+        }
+
+        /**
+         * Find where a trip from a position joins the path, the start of the path is not one of its points.
+         *
+         * @param pos the start of the trip.
+         * @return the index of the first point to walk to, or -1 if the position is not on or next to the path.
+         */
+        private int getFirstPointFrom(@NotNull final BlockPos pos)
+        {
+            //  Prefer joining as far along the path as possible
+            for (int i = points.length - 1; i >= 0; i--)
+            {
+                final PathPoint point = points[i];
+                if (point.yCoord != pos.getY())
+                {
+                    continue;
+                }
+
+                final int distance = Math.abs(point.xCoord - pos.getX()) + Math.abs(point.zCoord - pos.getZ());
+                if (distance == 0)
+                {
+                    return i + 1;
+                }
+                if (distance == 1)
+                {
+                    return i;
+                }
+            }
+
+            if (pos.equals(start))
+            {
+                return 0;
+            }
+
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.ChunkCache;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Chunk cache used by the path jobs, which can tell if a position is actually backed by a chunk.
+ * Positions outside of the cached chunks read as air, those must not end up in the shared passability cache.
+ */
+public class PathChunkCache extends ChunkCache
+{
+    /**
+     * Creates a new chunk cache for a path job.
+     *
+     * @param world the world to cache.
+     * @param from  the lower corner of the area.
+     * @param to    the upper corner of the area.
+     * @param range additional range around the area.
+     */
+    public PathChunkCache(final World world, final BlockPos from, final BlockPos to, final int range)
+    {
+        super(world, from, to, range);
+    }
+
+    /**
+     * Check if the position is inside a chunk of the cache.
+     *
+     * @param pos the position to check.
+     * @return true if the block state of the position is known.
+     */
+    public boolean isBlockLoaded(@NotNull final BlockPos pos)
+    {
+        if (pos.getY() < 0 || pos.getY() >= 256)
+        {
+            return false;
+        }
+
+        final int x = (pos.getX() >> 4) - this.chunkX;
+        final int z = (pos.getZ() >> 4) - this.chunkZ;
+        return x >= 0 && x < this.chunkArray.length
+                 && z >= 0 && z < this.chunkArray[x].length
+                 && this.chunkArray[x][z] != null;
+    }
+}
@@ -3,6 +3,7 @@ package com.minecolonies.coremod.entity.pathfinding;
 import com.minecolonies.coremod.configuration.Configurations;
 import com.minecolonies.coremod.util.Log;
 import net.minecraft.pathfinding.Path;
+import net.minecraft.pathfinding.PathPoint;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.NotNull;
@@ -21,6 +22,8 @@ public class PathJobMoveToLocation extends AbstractPathJob
     private final BlockPos destination;
     // 0 = exact match
     private float destinationSlack = DESTINATION_SLACK_NONE;
+    //  Version of the passability cache when the job was created, to check if a path may be cached
+    private final int cacheVersion = PassabilityCache.getCurrentVersion();
 
     /**
      * Prepares the PathJob for the path finding system.
@@ -58,7 +61,34 @@ public class PathJobMoveToLocation extends AbstractPathJob
             destinationSlack = DESTINATION_SLACK_ADJACENT;
         }
 
-        return super.search();
+        final Path path = super.search();
+        if (path != null && result.getPathReachesDestination())
+        {
+            cachePath(path);
+        }
+        return path;
+    }
+
+    /**
+     * Store a path reaching the destination in the path cache of the colony.
+     *
+     * @param path the computed path.
+     */
+    private void cachePath(@NotNull final Path path)
+    {
+        final PathCache pathCache = getPathCache();
+        final PassabilityCache passabilityCache = getPassabilityCache();
+        if (pathCache == null || passabilityCache == null)
+        {
+            return;
+        }
+
+        final PathPoint[] points = new PathPoint[path.getCurrentPathLength()];
+        for (int i = 0; i < points.length; i++)
+        {
+            points[i] = path.getPathPointFromIndex(i);
+        }
+        pathCache.put(passabilityCache, start, destination, points, getTotalNodesVisited(), cacheVersion);
     }
 
     @Override
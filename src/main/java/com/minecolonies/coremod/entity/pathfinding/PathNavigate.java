@@ -1,5 +1,6 @@
 package com.minecolonies.coremod.entity.pathfinding;
 
+import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.entity.EntityCitizen;
 import com.minecolonies.coremod.util.BlockPosUtil;
 import com.minecolonies.coremod.util.BlockUtils;
@@ -132,6 +133,22 @@ public class PathNavigate extends PathNavigateGround
      */
     @Nullable
     public PathResult moveToXYZ(final double x, final double y, final double z, final double speed)
+    {
+        return moveToXYZ(x, y, z, speed, getDefaultPriority());
+    }
+
+    /**
+     * Try to move to a certain position with a given path priority.
+     *
+     * @param x        the x target.
+     * @param y        the y target.
+     * @param z        the z target.
+     * @param speed    the speed to walk.
+     * @param priority the priority of the path job.
+     * @return the PathResult.
+     */
+    @Nullable
+    public PathResult moveToXYZ(final double x, final double y, final double z, final double speed, @NotNull final PathPriority priority)
     {
         int newX = MathHelper.floor(x);
         int newY = (int) y;
@@ -162,9 +179,30 @@ public class PathNavigate extends PathNavigateGround
         @NotNull final BlockPos start = AbstractPathJob.prepareStart(entity);
         @NotNull final BlockPos dest = new BlockPos(newX, newY, newZ);
 
+        final Colony colony = entity instanceof EntityCitizen ? ((EntityCitizen) entity).getColony() : null;
+        if (colony != null)
+        {
+            final Path cachedPath = colony.getPathCache().get(colony.getPassabilityCache(), start, dest);
+            if (cachedPath != null)
+            {
+                return setCachedPath(cachedPath, dest, speed);
+            }
+        }
+
         return setPathJob(
           new PathJobMoveToLocation(entity.world, start, dest, (int) getPathSearchRange()),
-          dest, speed);
+          dest, speed, priority);
+    }
+
+    /**
+     * Priority of paths requested without an explicit one, entities fighting a target get theirs first.
+     *
+     * @return the priority.
+     */
+    @NotNull
+    private PathPriority getDefaultPriority()
+    {
+        return entity.getAttackTarget() == null ? PathPriority.WORK : PathPriority.COMBAT;
     }
 
     public boolean isUnableToReachDestination()
@@ -172,15 +210,40 @@ public class PathNavigate extends PathNavigateGround
         return pathResult != null && pathResult.failedToReachDestination();
     }
 
+    /**
+     * Follow a path taken from the path cache of the colony, no path job is needed.
+     *
+     * @param path  the cached path.
+     * @param dest  the destination of the path.
+     * @param speed the speed to walk.
+     * @return the PathResult.
+     */
+    @NotNull
+    private PathResult setCachedPath(@NotNull final Path path, final BlockPos dest, final double speed)
+    {
+        clearPathEntity();
+
+        this.destination = dest;
+        this.walkSpeed = speed;
+
+        pathResult = new PathResult();
+        pathResult.setPathReachesDestination(true);
+        setPath(path, speed);
+        pathResult.setPathLength(path.getCurrentPathLength());
+        pathResult.setStatus(PathResult.Status.IN_PROGRESS_FOLLOWING);
+        return pathResult;
+    }
+
     @Nullable
-    private PathResult setPathJob(@NotNull final AbstractPathJob job, final BlockPos dest, final double speed)
+    private PathResult setPathJob(@NotNull final AbstractPathJob job, final BlockPos dest, final double speed, @NotNull final PathPriority priority)
     {
         clearPathEntity();
 
         this.destination = dest;
         this.walkSpeed = speed;
 
-        future = Pathfinding.enqueue(job);
+        job.setPriority(priority);
+        future = Pathfinding.enqueue(job, entity);
         pathResult = job.getResult();
         return pathResult;
     }
@@ -397,20 +460,6 @@ public class PathNavigate extends PathNavigateGround
         super.clearPathEntity();
     }
 
-    /**
-     * Used to find a tree.
-     *
-     * @param range in the range.
-     * @param speed walking speed.
-     * @return the result of the search.
-     */
-    public PathJobFindTree.TreePathResult moveToTree(final int range, final double speed)
-    {
-        @NotNull final BlockPos start = AbstractPathJob.prepareStart(entity);
-        return (PathJobFindTree.TreePathResult) setPathJob(
-          new PathJobFindTree(entity.world, start, ((EntityCitizen) entity).getWorkBuilding().getLocation(), range), null, speed);
-    }
-
     /**
      * Used to find a water.
      *
@@ -424,7 +473,7 @@ public class PathNavigate extends PathNavigateGround
     {
         @NotNull final BlockPos start = AbstractPathJob.prepareStart(entity);
         return (PathJobFindWater.WaterPathResult) setPathJob(
-          new PathJobFindWater(entity.world, start, ((EntityCitizen) entity).getWorkBuilding().getLocation(), range, ponds), null, speed);
+          new PathJobFindWater(entity.world, start, ((EntityCitizen) entity).getWorkBuilding().getLocation(), range, ponds), null, speed, PathPriority.WORK);
     }
 
     /**
@@ -451,7 +500,7 @@ public class PathNavigate extends PathNavigateGround
     @Nullable
     public PathResult moveAwayFromEntityLiving(@NotNull final Entity e, final double distance, final double speed)
     {
-        return moveAwayFromXYZ(e.getPosition(), distance, speed);
+        return moveAwayFromXYZ(e.getPosition(), distance, speed, PathPriority.COMBAT);
     }
 
     /**
@@ -464,11 +513,26 @@ public class PathNavigate extends PathNavigateGround
      */
     @Nullable
     public PathResult moveAwayFromXYZ(final BlockPos avoid, final double range, final double speed)
+    {
+        return moveAwayFromXYZ(avoid, range, speed, PathPriority.WORK);
+    }
+
+    /**
+     * Used to path away from a position with a given path priority.
+     *
+     * @param avoid    the position to avoid.
+     * @param range    the range he should move out of.
+     * @param speed    the speed to run at.
+     * @param priority the priority of the path job.
+     * @return the result of the pathing.
+     */
+    @Nullable
+    private PathResult moveAwayFromXYZ(final BlockPos avoid, final double range, final double speed, @NotNull final PathPriority priority)
     {
         @NotNull final BlockPos start = AbstractPathJob.prepareStart(entity);
 
         return setPathJob(
           new PathJobMoveAwayFromLocation(entity.world, start, avoid, (int) range, (int) getPathSearchRange()),
-          null, speed);
+          null, speed, priority);
     }
 }
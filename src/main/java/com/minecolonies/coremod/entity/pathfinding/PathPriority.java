@@ -0,0 +1,23 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+/**
+ * Priority classes of path jobs, jobs of a higher class are always computed first.
+ * Declared from the highest to the lowest priority.
+ */
+public enum PathPriority
+{
+    /**
+     * Fighting or fleeing, needs a path right away.
+     */
+    COMBAT,
+
+    /**
+     * Regular work of a citizen.
+     */
+    WORK,
+
+    /**
+     * Idle wandering, can wait as long as needed.
+     */
+    IDLE
+}
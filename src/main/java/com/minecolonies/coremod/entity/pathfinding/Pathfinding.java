@@ -14,29 +14,79 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.lwjgl.opengl.GL11;
 
-import java.util.ConcurrentModificationException;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Static class the handles all the Pathfinding.
+ * Jobs are computed by priority class, then in the order they were requested.
+ * Every entity has at most one job in the system, a new request supersedes the previous one.
+ * Each colony may only start a limited amount of jobs per tick, jobs above that budget wait for the next tick.
  */
 public final class Pathfinding
 {
-    private static final BlockingQueue<Runnable> jobQueue = new LinkedBlockingDeque<>();
+    private static final BlockingQueue<Runnable> jobQueue = new PriorityBlockingQueue<>();
     private static final ResourceLocation        TEXTURE  = new ResourceLocation("textures/gui/widgets.png");
     private static final ThreadPoolExecutor executor;
     static
     {
-        executor = new ThreadPoolExecutor(1, Configurations.pathfindingMaxThreadCount, 10, TimeUnit.SECONDS, jobQueue);
+        //  The queue is unbounded, so the pool never grows past its core size.
+        executor = new ThreadPoolExecutor(Configurations.pathfindingMaxThreadCount, Configurations.pathfindingMaxThreadCount, 10, TimeUnit.SECONDS, jobQueue);
+        executor.allowCoreThreadTimeOut(true);
     }
+
+    /**
+     * Nanoseconds per millisecond, to print the statistics.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    /**
+     * Counter to keep jobs of the same priority in request order.
+     */
+    private static final AtomicLong jobCounter = new AtomicLong();
+
+    /**
+     * The queued or running job of each entity by the entity id.
+     */
+    private static final Map<Integer, PathJobTask> jobsByEntity = new ConcurrentHashMap<>();
+
+    /**
+     * Jobs waiting for the next tick because their colony used up its budget, by colony id.
+     * Concurrent, jobs may be requested from any thread, a queue is only added or removed within a compute of its key.
+     */
+    private static final Map<Integer, Queue<PathJobTask>> deferredJobs = new ConcurrentHashMap<>();
+
+    /**
+     * Amount of jobs each colony started in the current tick, by colony id.
+     * Concurrent, two jobs requested at the same time may both get the last job of the budget.
+     */
+    private static final Map<Integer, Integer> jobsStartedThisTick = new ConcurrentHashMap<>();
+
+    /**
+     * Statistics of every job type by the job class name.
+     */
+    private static final Map<String, JobStatistics> statistics = new ConcurrentHashMap<>();
+
     private Pathfinding()
     {
         //Hides default constructor.
     }
 
+    /**
+     * Get the amount of threads jobs are computed on.
+     *
+     * @return the core size of the pool.
+     */
+    static int getThreadCount()
+    {
+        return executor.getCorePoolSize();
+    }
+
     /**
      * Add a job to the queue for processing.
      *
@@ -45,7 +95,146 @@ public final class Pathfinding
      */
     public static Future<Path> enqueue(@NotNull final AbstractPathJob job)
     {
-        return executor.submit(job);
+        return enqueue(job, null);
+    }
+
+    /**
+     * Add a job of an entity to the queue for processing.
+     * A job the entity requested before and which is not done yet is cancelled.
+     *
+     * @param job    PathJob
+     * @param entity the entity requesting the path, or null.
+     * @return a Future containing the Path
+     */
+    public static Future<Path> enqueue(@NotNull final AbstractPathJob job, @Nullable final Entity entity)
+    {
+        final PathJobTask task = new PathJobTask(job, entity == null ? null : entity.getEntityId());
+        getStatistics(job).requested.increment();
+
+        if (task.ownerId != null)
+        {
+            final PathJobTask previous = jobsByEntity.put(task.ownerId, task);
+            if (previous != null)
+            {
+                previous.cancel(false);
+            }
+        }
+
+        if (hasBudget(job))
+        {
+            startJob(task);
+        }
+        else
+        {
+            getStatistics(job).deferred.increment();
+            deferredJobs.compute(job.getColonyId(), (id, queue) ->
+            {
+                final Queue<PathJobTask> deferred = queue == null ? new PriorityBlockingQueue<>() : queue;
+                deferred.add(task);
+                return deferred;
+            });
+        }
+
+        return task;
+    }
+
+    /**
+     * Called once per server tick, resets the budget of the colonies and starts the jobs waiting for it.
+     */
+    public static void onServerTick()
+    {
+        jobsStartedThisTick.clear();
+
+        for (final Integer colonyId : deferredJobs.keySet())
+        {
+            deferredJobs.computeIfPresent(colonyId, (id, queue) ->
+            {
+                for (PathJobTask task = queue.peek(); task != null && hasBudget(task.job); task = queue.peek())
+                {
+                    queue.poll();
+                    if (!task.isCancelled())
+                    {
+                        startJob(task);
+                    }
+                }
+                return queue.isEmpty() ? null : queue;
+            });
+        }
+    }
+
+    /**
+     * Get the current state of the scheduler and statistics per job type.
+     *
+     * @return a line of text per entry.
+     */
+    @NotNull
+    public static List<String> getStatistics()
+    {
+        int deferred = 0;
+        for (final Queue<PathJobTask> queue : deferredJobs.values())
+        {
+            deferred += queue.size();
+        }
+
+        final List<String> lines = new ArrayList<>();
+        lines.add(String.format("Queued: %d, running: %d, deferred: %d", jobQueue.size(), executor.getActiveCount(), deferred));
+
+        for (final Map.Entry<String, JobStatistics> entry : new TreeMap<>(statistics).entrySet())
+        {
+            final JobStatistics stats = entry.getValue();
+            final long completed = Math.max(1, stats.completed.sum());
+            lines.add(String.format("%s: %d requested, %d completed, %d cancelled while queued, %d cancelled while running, %d deferred, avg wait %.2fms, avg compute %.2fms",
+              entry.getKey(),
+              stats.requested.sum(),
+              stats.completed.sum(),
+              stats.cancelled.sum(),
+              stats.cancelledRunning.sum(),
+              stats.deferred.sum(),
+              stats.waitTime.sum() / (double) completed / NANOS_PER_MILLI,
+              stats.computeTime.sum() / (double) completed / NANOS_PER_MILLI));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Check if a job may start right away.
+     * Combat jobs and jobs outside of colonies are never held back.
+     *
+     * @param job the job.
+     * @return true if its colony has budget left in this tick.
+     */
+    private static boolean hasBudget(@NotNull final AbstractPathJob job)
+    {
+        if (job.getPriority() == PathPriority.COMBAT || job.getColonyId() == 0 || Configurations.pathfindingMaxJobsPerColonyTick <= 0)
+        {
+            return true;
+        }
+
+        return jobsStartedThisTick.getOrDefault(job.getColonyId(), 0) < Configurations.pathfindingMaxJobsPerColonyTick;
+    }
+
+    /**
+     * Hand a job to the executor and charge it to the budget of its colony.
+     *
+     * @param task the job to start.
+     */
+    private static void startJob(@NotNull final PathJobTask task)
+    {
+        jobsStartedThisTick.merge(task.job.getColonyId(), 1, Integer::sum);
+        executor.execute(task);
+    }
+
+    /**
+     * Get the statistics of the type of a job.
+     *
+     * @param job the job.
+     * @return the statistics.
+     */
+    @NotNull
+    private static JobStatistics getStatistics(@NotNull final AbstractPathJob job)
+    {
+        return statistics.computeIfAbsent(job.getClass().getSimpleName(), name -> new JobStatistics());
     }
 
     /**
@@ -240,4 +429,99 @@ public final class Pathfinding
         GL11.glPopMatrix();
         GL11.glPopAttrib();
     }
+
+    /**
+     * A path job in the queue, ordered by priority and then by request order.
+     * Cancelling it never interrupts the thread, it stops the search cooperatively.
+     */
+    private static final class PathJobTask extends FutureTask<Path> implements Comparable<PathJobTask>
+    {
+        private final AbstractPathJob job;
+        @Nullable
+        private final Integer         ownerId;
+        private final long            sequence    = jobCounter.incrementAndGet();
+        private final long            requestTime = System.nanoTime();
+        private volatile boolean      started     = false;
+
+        private PathJobTask(@NotNull final AbstractPathJob job, @Nullable final Integer ownerId)
+        {
+            super(job);
+            this.job = job;
+            this.ownerId = ownerId;
+        }
+
+        @Override
+        public void run()
+        {
+            if (isCancelled())
+            {
+                return;
+            }
+
+            started = true;
+            final JobStatistics stats = getStatistics(job);
+            final long startTime = System.nanoTime();
+
+            super.run();
+
+            //  Jobs cancelled while running are counted by cancel, they would skew the averages
+            if (!isCancelled())
+            {
+                stats.waitTime.add(startTime - requestTime);
+                stats.computeTime.add(System.nanoTime() - startTime);
+                stats.completed.increment();
+            }
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning)
+        {
+            job.cancel();
+            if (!super.cancel(false))
+            {
+                return false;
+            }
+
+            if (started)
+            {
+                getStatistics(job).cancelledRunning.increment();
+            }
+            else
+            {
+                getStatistics(job).cancelled.increment();
+                executor.remove(this);
+            }
+            return true;
+        }
+
+        @Override
+        protected void done()
+        {
+            if (ownerId != null)
+            {
+                jobsByEntity.remove(ownerId, this);
+            }
+        }
+
+        @Override
+        public int compareTo(@NotNull final PathJobTask o)
+        {
+            final int priorityCompare = job.getPriority().compareTo(o.job.getPriority());
+            return priorityCompare == 0 ? Long.compare(sequence, o.sequence) : priorityCompare;
+        }
+    }
+
+    /**
+     * Counters of one job type, updated from the path finding threads.
+     */
+    private static final class JobStatistics
+    {
+        private final LongAdder requested        = new LongAdder();
+        private final LongAdder completed        = new LongAdder();
+        private final LongAdder cancelled        = new LongAdder();
+        private final LongAdder cancelledRunning = new LongAdder();
+        private final LongAdder deferred         = new LongAdder();
+        private final LongAdder waitTime         = new LongAdder();
+        private final LongAdder computeTime      = new LongAdder();
+    }
 }
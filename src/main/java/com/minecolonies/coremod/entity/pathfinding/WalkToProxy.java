@@ -233,9 +233,9 @@ public class WalkToProxy
             //Check if miner is underground in shaft and his target is overground.
             if (workerY <= levelDepth && targetY > levelDepth)
             {
-                if (level.getRandomNode() != null && level.getRandomNode().getParent() != null)
+                if (level.getNextNode() != null && level.getNextNode().getParent() != null)
                 {
-                    com.minecolonies.coremod.entity.ai.citizen.miner.Node currentNode = level.getNode(level.getRandomNode().getParent());
+                    com.minecolonies.coremod.entity.ai.citizen.miner.Node currentNode = level.getNode(level.getNextNode().getParent());
                     while (new Point2D.Double(currentNode.getX(), currentNode.getZ()) != currentNode.getParent() && currentNode.getParent() != null)
                     {
                         proxyList.add(new BlockPos(currentNode.getX(), levelDepth, currentNode.getZ()));
@@ -269,10 +269,10 @@ public class WalkToProxy
                                 level.getDepth(),
                                 ladderPos.getZ() + building.getVectorZ() * OTHER_SIDE_OF_SHAFT));
 
-                if (level.getRandomNode() != null && level.getRandomNode().getParent() != null)
+                if (level.getNextNode() != null && level.getNextNode().getParent() != null)
                 {
                     final List<BlockPos> nodesToTarget = new ArrayList<>();
-                    com.minecolonies.coremod.entity.ai.citizen.miner.Node currentNode = level.getNode(level.getRandomNode().getParent());
+                    com.minecolonies.coremod.entity.ai.citizen.miner.Node currentNode = level.getNode(level.getNextNode().getParent());
                     while (new Point2D.Double(currentNode.getX(), currentNode.getZ()) != currentNode.getParent() && currentNode.getParent() != null)
                     {
                         nodesToTarget.add(new BlockPos(currentNode.getX(), levelDepth, currentNode.getZ()));
@@ -312,10 +312,10 @@ public class WalkToProxy
                     }
                 }
 
-                if (level.getRandomNode().getParent() != null)
+                if (level.getNextNode().getParent() != null)
                 {
                     final List<BlockPos> nodesToTarget = new ArrayList<>();
-                    com.minecolonies.coremod.entity.ai.citizen.miner.Node currentNode = level.getNode(level.getRandomNode().getParent());
+                    com.minecolonies.coremod.entity.ai.citizen.miner.Node currentNode = level.getNode(level.getNextNode().getParent());
                     while (new Point2D.Double(currentNode.getX(), currentNode.getZ()) != currentNode.getParent() && currentNode.getParent() != null)
                     {
                         nodesToTarget.add(new BlockPos(currentNode.getX(), levelDepth, currentNode.getZ()));
@@ -354,6 +354,18 @@ public class WalkToProxy
             return target;
         }
 
+        //  Plan the trip on the navigation graph first, every step of it is short enough for a single path job
+        final List<BlockPos> route = worker.getColony().getNavigationGraph().findRoute(position, target, new NavigationProbe(worker.world), worker.world.getTotalWorldTime());
+        if (!route.isEmpty())
+        {
+            route.removeIf(proxyList::contains);
+            proxyList.addAll(route);
+            if (!proxyList.isEmpty())
+            {
+                return proxyList.get(0);
+            }
+        }
+
         double weight = Double.MAX_VALUE;
         BlockPos proxyPoint = null;
 
@@ -2,9 +2,11 @@ package com.minecolonies.coremod.event;
 
 import com.minecolonies.coremod.blocks.AbstractBlockHut;
 import com.minecolonies.coremod.blocks.BlockHutTownHall;
+import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.colony.ColonyManager;
 import com.minecolonies.coremod.colony.IColony;
 import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
+import com.minecolonies.coremod.colony.buildings.BuildingWareHouse;
 import com.minecolonies.coremod.colony.permissions.Permissions;
 import com.minecolonies.coremod.util.LanguageHandler;
 import com.minecolonies.coremod.util.Log;
@@ -14,17 +16,25 @@ import net.minecraft.block.BlockSilverfish;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.entity.EntityPlayerSP;
 import net.minecraft.client.multiplayer.WorldClient;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityXPOrb;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.inventory.ContainerChest;
+import net.minecraft.inventory.IInventory;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
+import net.minecraftforge.event.entity.player.PlayerContainerEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -383,6 +393,76 @@ public class EventHandler
         ColonyManager.onWorldUnload(event.getWorld());
     }
 
+    /**
+     * Gets called when a chunk unloads.
+     * Calls {@link ColonyManager#onChunkUnload(World, int, int)}
+     *
+     * @param event {@link net.minecraftforge.event.world.ChunkEvent.Unload}
+     */
+    @SubscribeEvent
+    public void onChunkUnload(@NotNull final ChunkEvent.Unload event)
+    {
+        if (!event.getWorld().isRemote)
+        {
+            ColonyManager.onChunkUnload(event.getWorld(), event.getChunk().xPosition, event.getChunk().zPosition);
+        }
+    }
+
+    /**
+     * Gets called when an entity joins the world, also when its chunk loads.
+     * Hands dropped items and orbs to the closest colony, so its citizens find them without scanning the world.
+     * Runs last, so entities which another mod keeps from joining are not tracked.
+     *
+     * @param event {@link EntityJoinWorldEvent}
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onLooseEntityJoinWorld(@NotNull final EntityJoinWorldEvent event)
+    {
+        final Entity entity = event.getEntity();
+        if (event.isCanceled() || event.getWorld().isRemote || !(entity instanceof EntityItem || entity instanceof EntityXPOrb))
+        {
+            return;
+        }
+
+        final Colony colony = ColonyManager.getClosestColony(event.getWorld(), entity.getPosition());
+        if (colony != null)
+        {
+            colony.getLooseEntities().track(entity);
+        }
+    }
+
+    /**
+     * Gets called when a player closes a container.
+     * Marks the chests of the warehouses of the colony dirty if the player closed one of them,
+     * vanilla chests do not notify anyone of their changes.
+     *
+     * @param event {@link net.minecraftforge.event.entity.player.PlayerContainerEvent.Close}
+     */
+    @SubscribeEvent
+    public void onContainerClose(@NotNull final PlayerContainerEvent.Close event)
+    {
+        final EntityPlayer player = event.getEntityPlayer();
+        if (player.getEntityWorld().isRemote || !(event.getContainer() instanceof ContainerChest))
+        {
+            return;
+        }
+
+        final Colony colony = ColonyManager.getColony(player.getEntityWorld(), player.getPosition());
+        if (colony == null)
+        {
+            return;
+        }
+
+        final IInventory inventory = ((ContainerChest) event.getContainer()).getLowerChestInventory();
+        for (final AbstractBuilding building : colony.getBuildings().values())
+        {
+            if (building instanceof BuildingWareHouse && ((BuildingWareHouse) building).getTileEntity() != null)
+            {
+                ((BuildingWareHouse) building).getTileEntity().onChestClosed(inventory);
+            }
+        }
+    }
+
     /**
      * Gets called when world saves.
      * Calls {@link ColonyManager#onWorldSave(World)}
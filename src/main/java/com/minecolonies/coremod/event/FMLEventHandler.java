@@ -2,6 +2,7 @@ package com.minecolonies.coremod.event;
 
 import com.minecolonies.coremod.MineColonies;
 import com.minecolonies.coremod.colony.ColonyManager;
+import com.minecolonies.coremod.colony.SchematicTransfers;
 import com.minecolonies.coremod.network.messages.ColonyStylesMessage;
 import com.minecolonies.coremod.network.messages.ServerUUIDMessage;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -67,4 +68,15 @@ public class FMLEventHandler
             ColonyManager.syncAllColoniesAchievements();
         }
     }
+
+    /**
+     * Called when a player logs out, drops the schematics the player did not finish uploading.
+     *
+     * @param event {@link net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent}
+     */
+    @SubscribeEvent
+    public void onPlayerLogout(@NotNull final PlayerEvent.PlayerLoggedOutEvent event)
+    {
+        SchematicTransfers.forget(event.player.getUniqueID());
+    }
 }
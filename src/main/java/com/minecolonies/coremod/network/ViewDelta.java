@@ -0,0 +1,200 @@
+package com.minecolonies.coremod.network;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server side state of a view which is synced to the clients field by field.
+ * The view is split into sections, a section gets a new revision whenever its serialized bytes change.
+ * Every subscriber remembers the revision it has been sent last, and only gets the sections changed since then.
+ * The connection delivers messages in order, so a sent revision is an acknowledged revision.
+ * Every message names the revision it was made for, a client which has another one does not apply it and asks for the whole view again.
+ * Only accessed from the server thread.
+ */
+public final class ViewDelta
+{
+    /**
+     * Revision of a subscriber which has not been sent anything yet, it gets all sections.
+     */
+    public static final int NO_REVISION = 0;
+
+    /**
+     * Returned by {@link #readRevision(ByteBuf, int)} if a message was made for another revision than the client has.
+     */
+    public static final int MISMATCH = -1;
+
+    /**
+     * Max amount of sections, the changed sections are sent as a bit mask.
+     */
+    private static final int MAX_SECTIONS = Integer.SIZE;
+
+    /**
+     * The last serialized bytes of every section.
+     */
+    private final byte[][] sections;
+
+    /**
+     * The revision every section changed in last.
+     */
+    private final int[] sectionRevisions;
+
+    /**
+     * The revision sent last to every subscriber.
+     */
+    private final Map<UUID, Integer> subscriberRevisions = new HashMap<>();
+
+    /**
+     * The current revision.
+     */
+    private int revision = NO_REVISION;
+
+    /**
+     * Create the state of a view.
+     *
+     * @param sectionCount the amount of sections of the view.
+     */
+    public ViewDelta(final int sectionCount)
+    {
+        if (sectionCount <= 0 || sectionCount > MAX_SECTIONS)
+        {
+            throw new IllegalArgumentException("A view needs between 1 and " + MAX_SECTIONS + " sections, got " + sectionCount);
+        }
+        this.sections = new byte[sectionCount][];
+        this.sectionRevisions = new int[sectionCount];
+    }
+
+    /**
+     * Update the view with its current serialized sections, sections with other bytes than before get a new revision.
+     *
+     * @param buffers the serialized sections, in order.
+     * @return true if any section changed.
+     */
+    public boolean update(@NotNull final ByteBuf... buffers)
+    {
+        if (buffers.length != sections.length)
+        {
+            throw new IllegalArgumentException("Expected " + sections.length + " sections, got " + buffers.length);
+        }
+
+        boolean changed = false;
+        for (int i = 0; i < buffers.length; i++)
+        {
+            final byte[] bytes = new byte[buffers[i].readableBytes()];
+            buffers[i].getBytes(buffers[i].readerIndex(), bytes);
+            if (!Arrays.equals(bytes, sections[i]))
+            {
+                if (!changed)
+                {
+                    revision++;
+                    changed = true;
+                }
+                sections[i] = bytes;
+                sectionRevisions[i] = revision;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Get the current revision of the view.
+     *
+     * @return the revision.
+     */
+    public int getRevision()
+    {
+        return revision;
+    }
+
+    /**
+     * Get the revision a subscriber has been sent last.
+     *
+     * @param subscriber the UUID of the subscriber.
+     * @return the revision or {@link #NO_REVISION}.
+     */
+    public int getRevision(@NotNull final UUID subscriber)
+    {
+        return subscriberRevisions.getOrDefault(subscriber, NO_REVISION);
+    }
+
+    /**
+     * Remember that a subscriber has been sent the current revision.
+     *
+     * @param subscriber the UUID of the subscriber.
+     */
+    public void setSent(@NotNull final UUID subscriber)
+    {
+        subscriberRevisions.put(subscriber, revision);
+    }
+
+    /**
+     * Forget a subscriber, it gets all sections again once it subscribes again.
+     *
+     * @param subscriber the UUID of the subscriber.
+     */
+    public void removeSubscriber(@NotNull final UUID subscriber)
+    {
+        subscriberRevisions.remove(subscriber);
+    }
+
+    /**
+     * Write the sections changed since a revision.
+     * Prefixed by the revision they were made for, the current revision and the bit mask of the written sections.
+     *
+     * @param buf          the buffer to write to.
+     * @param fromRevision the revision the receiver has, {@link #NO_REVISION} writes all sections.
+     */
+    public void write(@NotNull final ByteBuf buf, final int fromRevision)
+    {
+        int mask = 0;
+        for (int i = 0; i < sections.length; i++)
+        {
+            if (sectionRevisions[i] > fromRevision)
+            {
+                mask |= 1 << i;
+            }
+        }
+
+        buf.writeInt(fromRevision);
+        buf.writeInt(revision);
+        buf.writeInt(mask);
+        for (int i = 0; i < sections.length; i++)
+        {
+            if (hasSection(mask, i))
+            {
+                buf.writeBytes(sections[i]);
+            }
+        }
+    }
+
+    /**
+     * Read the revisions of a received message, used by the clients before they read the sections.
+     * A message with all sections applies to any view, else the view has to have the revision the message was made for.
+     *
+     * @param buf           the buffer to read from.
+     * @param knownRevision the revision of the view on the client, {@link #NO_REVISION} if it has none.
+     * @return the revision of the view after the message or {@link #MISMATCH}, in which case the rest of the message has to be dropped.
+     */
+    public static int readRevision(@NotNull final ByteBuf buf, final int knownRevision)
+    {
+        final int fromRevision = buf.readInt();
+        final int toRevision = buf.readInt();
+        return fromRevision == NO_REVISION || fromRevision == knownRevision ? toRevision : MISMATCH;
+    }
+
+    /**
+     * Check if a section is contained in a received bit mask, used by the clients to read the sections.
+     *
+     * @param mask    the bit mask.
+     * @param section the index of the section.
+     * @return true if the section has been sent.
+     */
+    public static boolean hasSection(final int mask, final int section)
+    {
+        return (mask & (1 << section)) != 0;
+    }
+}
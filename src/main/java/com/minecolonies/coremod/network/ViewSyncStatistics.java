@@ -0,0 +1,103 @@
+package com.minecolonies.coremod.network;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the bytes of the colony view updates serialized and sent to the clients.
+ * A view is serialized once per update and sent to every subscriber, so the bytes sent grow with the subscribers
+ * while the bytes serialized only grow with the changes.
+ * Only accessed from the server thread.
+ */
+public final class ViewSyncStatistics
+{
+    private static long serializedViews;
+    private static long serializedBytes;
+    private static long sentMessages;
+    private static long sentBytes;
+
+    private static long tickSerializedViews;
+    private static long tickSerializedBytes;
+    private static long tickSentMessages;
+    private static long tickSentBytes;
+
+    private static long lastTickSerializedViews;
+    private static long lastTickSerializedBytes;
+    private static long lastTickSentMessages;
+    private static long lastTickSentBytes;
+
+    /**
+     * Private constructor to hide implicit one.
+     */
+    private ViewSyncStatistics()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Count a view serialized into a payload.
+     *
+     * @param bytes the size of the payload.
+     */
+    public static void onSerialized(final int bytes)
+    {
+        tickSerializedViews++;
+        tickSerializedBytes += bytes;
+    }
+
+    /**
+     * Write a serialized view into a message to a player and count it.
+     * Leaves the reader index of the payload untouched, so the same message can be written for every subscriber.
+     *
+     * @param buf     the buffer of the message.
+     * @param payload the serialized view.
+     */
+    public static void writePayload(@NotNull final ByteBuf buf, @NotNull final ByteBuf payload)
+    {
+        buf.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
+        tickSentMessages++;
+        tickSentBytes += payload.readableBytes();
+    }
+
+    /**
+     * Close the counts of the last tick, called at the start of every server tick.
+     */
+    public static void onServerTick()
+    {
+        lastTickSerializedViews = tickSerializedViews;
+        lastTickSerializedBytes = tickSerializedBytes;
+        lastTickSentMessages = tickSentMessages;
+        lastTickSentBytes = tickSentBytes;
+
+        serializedViews += tickSerializedViews;
+        serializedBytes += tickSerializedBytes;
+        sentMessages += tickSentMessages;
+        sentBytes += tickSentBytes;
+
+        tickSerializedViews = 0;
+        tickSerializedBytes = 0;
+        tickSentMessages = 0;
+        tickSentBytes = 0;
+    }
+
+    /**
+     * Get the counts of the last tick and since the server started.
+     *
+     * @return lines of text.
+     */
+    @NotNull
+    public static List<String> getStatistics()
+    {
+        final List<String> lines = new ArrayList<>();
+        lines.add(String.format("Last tick: %d views serialized (%d bytes), %d messages sent (%d bytes)",
+          lastTickSerializedViews, lastTickSerializedBytes, lastTickSentMessages, lastTickSentBytes));
+        lines.add(String.format("Total: %d views serialized (%d bytes), %d messages sent (%d bytes), %.2f bytes sent per byte serialized",
+          serializedViews, serializedBytes, sentMessages, sentBytes, serializedBytes == 0 ? 0D : (double) sentBytes / serializedBytes));
+        return lines;
+    }
+}
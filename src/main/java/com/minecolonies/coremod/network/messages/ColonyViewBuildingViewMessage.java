@@ -2,6 +2,7 @@ package com.minecolonies.coremod.network.messages;
 
 import com.minecolonies.coremod.colony.ColonyManager;
 import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
+import com.minecolonies.coremod.network.ViewSyncStatistics;
 import com.minecolonies.coremod.util.BlockPosUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -35,11 +36,23 @@ public class ColonyViewBuildingViewMessage implements IMessage, IMessageHandler<
      * @param building AbstractBuilding to add or update a view.
      */
     public ColonyViewBuildingViewMessage(@NotNull final AbstractBuilding building)
+    {
+        this(building, Unpooled.buffer());
+        building.serializeToView(this.buildingData);
+        ViewSyncStatistics.onSerialized(buildingData.readableBytes());
+    }
+
+    /**
+     * Creates a message to handle colony views from an already serialized view.
+     *
+     * @param building     AbstractBuilding to add or update a view.
+     * @param buildingData the serialized view, shared and not modified.
+     */
+    public ColonyViewBuildingViewMessage(@NotNull final AbstractBuilding building, @NotNull final ByteBuf buildingData)
     {
         this.colonyId = building.getColony().getID();
         this.buildingId = building.getID();
-        this.buildingData = Unpooled.buffer();
-        building.serializeToView(this.buildingData);
+        this.buildingData = buildingData;
     }
 
     @Override
@@ -56,7 +69,7 @@ public class ColonyViewBuildingViewMessage implements IMessage, IMessageHandler<
     {
         buf.writeInt(colonyId);
         BlockPosUtil.writeToByteBuf(buf, buildingId);
-        buf.writeBytes(buildingData);
+        ViewSyncStatistics.writePayload(buf, buildingData);
     }
 
     @Nullable
@@ -3,6 +3,7 @@ package com.minecolonies.coremod.network.messages;
 import com.minecolonies.coremod.colony.CitizenData;
 import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.colony.ColonyManager;
+import com.minecolonies.coremod.network.ViewSyncStatistics;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -31,15 +32,17 @@ public class ColonyViewCitizenViewMessage implements IMessage, IMessageHandler<C
     /**
      * Updates a {@link com.minecolonies.coremod.colony.CitizenDataView} of the citizens.
      *
-     * @param colony  Colony of the citizen
-     * @param citizen Citizen data of the citizen to update view
+     * @param colony       Colony of the citizen
+     * @param citizen      Citizen data of the citizen to update view
+     * @param fromRevision the revision of the view the receivers have.
      */
-    public ColonyViewCitizenViewMessage(@NotNull final Colony colony, @NotNull final CitizenData citizen)
+    public ColonyViewCitizenViewMessage(@NotNull final Colony colony, @NotNull final CitizenData citizen, final int fromRevision)
     {
         this.colonyId = colony.getID();
         this.citizenId = citizen.getId();
         this.citizenBuffer = Unpooled.buffer();
-        citizen.serializeViewNetworkData(citizenBuffer);
+        citizen.getViewDelta().write(citizenBuffer, fromRevision);
+        ViewSyncStatistics.onSerialized(citizenBuffer.readableBytes());
     }
 
     @Override
@@ -56,7 +59,7 @@ public class ColonyViewCitizenViewMessage implements IMessage, IMessageHandler<C
     {
         buf.writeInt(colonyId);
         buf.writeInt(citizenId);
-        buf.writeBytes(citizenBuffer);
+        ViewSyncStatistics.writePayload(buf, citizenBuffer);
     }
 
     @Nullable
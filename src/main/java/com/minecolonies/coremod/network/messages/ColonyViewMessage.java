@@ -2,7 +2,8 @@ package com.minecolonies.coremod.network.messages;
 
 import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.colony.ColonyManager;
-import com.minecolonies.coremod.colony.ColonyView;
+import com.minecolonies.coremod.network.ViewDelta;
+import com.minecolonies.coremod.network.ViewSyncStatistics;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -30,16 +31,18 @@ public class ColonyViewMessage implements IMessage, IMessageHandler<ColonyViewMe
 
     /**
      * Add or Update a ColonyView on the client.
+     * A receiver which has not been sent the view yet is a new subscription and gets the whole view.
      *
-     * @param colony            Colony of the view to update.
-     * @param isNewSubscription Boolean whether or not this is a new subscription.
+     * @param colony       Colony of the view to update.
+     * @param fromRevision the revision of the view the receivers have.
      */
-    public ColonyViewMessage(@NotNull final Colony colony, final boolean isNewSubscription)
+    public ColonyViewMessage(@NotNull final Colony colony, final int fromRevision)
     {
         this.colonyId = colony.getID();
-        this.isNewSubscription = isNewSubscription;
+        this.isNewSubscription = fromRevision == ViewDelta.NO_REVISION;
         this.colonyBuffer = Unpooled.buffer();
-        ColonyView.serializeNetworkData(colony, colonyBuffer, isNewSubscription);
+        colony.getViewDelta().write(colonyBuffer, fromRevision);
+        ViewSyncStatistics.onSerialized(colonyBuffer.readableBytes());
     }
 
     @Override
@@ -55,7 +58,7 @@ public class ColonyViewMessage implements IMessage, IMessageHandler<ColonyViewMe
     {
         buf.writeInt(colonyId);
         buf.writeBoolean(isNewSubscription);
-        buf.writeBytes(colonyBuffer);
+        ViewSyncStatistics.writePayload(buf, colonyBuffer);
     }
 
     @Nullable
@@ -0,0 +1,60 @@
+package com.minecolonies.coremod.network.messages;
+
+import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.ColonyManager;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Asks the server for the whole view of a colony, sent by a client which got a view update made for another revision than it has.
+ */
+public class ColonyViewResyncMessage extends AbstractMessage<ColonyViewResyncMessage, IMessage>
+{
+    /**
+     * The id of the colony.
+     */
+    private int colonyId;
+
+    /**
+     * Empty constructor used when registering the message.
+     */
+    public ColonyViewResyncMessage()
+    {
+        super();
+    }
+
+    /**
+     * Creates a message asking for the whole view of a colony.
+     *
+     * @param colonyId the id of the colony.
+     */
+    public ColonyViewResyncMessage(final int colonyId)
+    {
+        super();
+        this.colonyId = colonyId;
+    }
+
+    @Override
+    public void fromBytes(@NotNull final ByteBuf buf)
+    {
+        colonyId = buf.readInt();
+    }
+
+    @Override
+    public void toBytes(@NotNull final ByteBuf buf)
+    {
+        buf.writeInt(colonyId);
+    }
+
+    @Override
+    public void messageOnServerThread(final ColonyViewResyncMessage message, final EntityPlayerMP player)
+    {
+        final Colony colony = ColonyManager.getColony(message.colonyId);
+        if (colony != null)
+        {
+            colony.resyncSubscriber(player);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.minecolonies.coremod.network.messages;
 import com.minecolonies.coremod.colony.Colony;
 import com.minecolonies.coremod.colony.ColonyManager;
 import com.minecolonies.coremod.colony.workorders.AbstractWorkOrder;
+import com.minecolonies.coremod.network.ViewSyncStatistics;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -40,6 +41,7 @@ public class ColonyViewWorkOrderMessage implements IMessage, IMessageHandler<Col
         this.workOrderBuffer = Unpooled.buffer();
         this.workOrderId = workOrder.getID();
         workOrder.serializeViewNetworkData(workOrderBuffer);
+        ViewSyncStatistics.onSerialized(workOrderBuffer.readableBytes());
     }
 
     @Override
@@ -55,7 +57,7 @@ public class ColonyViewWorkOrderMessage implements IMessage, IMessageHandler<Col
     {
         buf.writeInt(colonyId);
         buf.writeInt(workOrderId);
-        buf.writeBytes(workOrderBuffer);
+        ViewSyncStatistics.writePayload(buf, workOrderBuffer);
     }
 
     @Nullable
@@ -1,18 +1,16 @@
 package com.minecolonies.coremod.network.messages;
 
 import com.minecolonies.coremod.MineColonies;
+import com.minecolonies.coremod.colony.SchematicTransfers;
 import com.minecolonies.coremod.util.Log;
-import com.minecolonies.structures.helpers.Structure;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.InputStream;
-
 /**
- * Request a schematic from the server.
+ * Request a schematic from the server, one window of chunks starting at the first missing one.
  * Created: Feb 07, 2017
  *
  * @author xavier
@@ -22,6 +20,11 @@ public class SchematicRequestMessage extends AbstractMessage<SchematicRequestMes
 
     private String filename;
 
+    /**
+     * The first chunk to send.
+     */
+    private int firstChunk;
+
     /**
      * Empty constructor used when registering the message.
      */
@@ -37,37 +40,60 @@ public class SchematicRequestMessage extends AbstractMessage<SchematicRequestMes
      *                 Ex: schematics/stone/Builder1.nbt
      */
     public SchematicRequestMessage(final String filename)
+    {
+        this(filename, 0);
+    }
+
+    /**
+     * Creates a Schematic request message resuming a transfer.
+     *
+     * @param filename   of the structure based on schematics folder
+     *                   Ex: schematics/stone/Builder1.nbt
+     * @param firstChunk the first chunk which did not arrive yet.
+     */
+    public SchematicRequestMessage(final String filename, final int firstChunk)
     {
         super();
         this.filename = filename;
+        this.firstChunk = firstChunk;
     }
 
     @Override
     public void fromBytes(@NotNull final ByteBuf buf)
     {
         filename = ByteBufUtils.readUTF8String(buf);
+        firstChunk = buf.readInt();
     }
 
     @Override
     public void toBytes(@NotNull final ByteBuf buf)
     {
         ByteBufUtils.writeUTF8String(buf, filename);
+        buf.writeInt(firstChunk);
     }
 
     @Override
     public void messageOnServerThread(final SchematicRequestMessage message, final EntityPlayerMP player)
     {
-        final InputStream stream = Structure.getStream(message.filename);
-
-        if (stream == null)
-        {
-            Log.getLogger().error("SchematicRequestMessage: file \"" + message.filename + "\" not found");
-        }
-        else
+        if (message.firstChunk == 0)
         {
             Log.getLogger().info("Request: player " + player.getName() + " is requesting schematic " + message.filename);
-            byte[] schematic = Structure.getStreamAsByteArray(stream);
-            MineColonies.getNetwork().sendTo(new SchematicSaveMessage(schematic), player);
         }
+
+        SchematicTransfers.getChunks(message.filename).thenAccept(chunks -> player.getServerWorld().addScheduledTask(() ->
+        {
+            if (chunks == null)
+            {
+                Log.getLogger().error("SchematicRequestMessage: file \"" + message.filename + "\" not found");
+                return;
+            }
+
+            final int first = Math.max(0, message.firstChunk);
+            final int last = Math.min(chunks.getCount(), first + SchematicTransfers.WINDOW_SIZE);
+            for (int i = first; i < last; i++)
+            {
+                MineColonies.getNetwork().sendTo(new SchematicSaveMessage(message.filename, chunks, i, first), player);
+            }
+        }));
     }
 }
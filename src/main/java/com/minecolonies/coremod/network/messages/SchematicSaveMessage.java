@@ -1,26 +1,39 @@
 package com.minecolonies.coremod.network.messages;
 
 import com.minecolonies.coremod.MineColonies;
+import com.minecolonies.coremod.colony.SchematicTransfers;
 import com.minecolonies.coremod.colony.Structures;
 import com.minecolonies.coremod.configuration.Configurations;
-import com.minecolonies.coremod.util.ClientStructureWrapper;
 import com.minecolonies.coremod.util.Log;
-import com.minecolonies.structures.helpers.Structure;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.util.text.TextComponentString;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
+
 /**
- * Save Schematic Message.
+ * Save Schematic Message, carries one chunk of a schematic, see {@link SchematicTransfers}.
+ * The chunks are put together on the main thread, uploads of players are limited to {@link SchematicTransfers#MAX_UPLOAD_SIZE}.
  */
 public class SchematicSaveMessage implements IMessage, IMessageHandler<SchematicSaveMessage, IMessage>
 {
-    private byte[] data = null;
-    private static final int MAX_TOTAL_SIZE = 32_767;
+    private String filename;
+    private String md5;
+    private int    index;
+    private int    total;
+
+    /**
+     * The first chunk of the window this chunk was sent in.
+     */
+    private int    firstChunk;
+
+    private byte[] chunk = new byte[0];
 
     /**
      * Public standard constructor.
@@ -31,77 +44,93 @@ public class SchematicSaveMessage implements IMessage, IMessageHandler<Schematic
     }
 
     /**
-     * Send a schematic to the client.
+     * Send a chunk of a schematic.
      *
-     * @param data byte array of the schematic.
+     * @param filename   the name of the schematic, to request the next window.
+     * @param chunks     the chunks of the schematic.
+     * @param index      the index of the chunk to send.
+     * @param firstChunk the first chunk of the window.
      */
-    public SchematicSaveMessage(final byte[] data)
+    public SchematicSaveMessage(@NotNull final String filename, @NotNull final SchematicTransfers.Chunks chunks, final int index, final int firstChunk)
     {
-        this.data = data.clone();
+        super();
+        this.filename = filename;
+        this.md5 = chunks.getMD5();
+        this.index = index;
+        this.total = chunks.getCount();
+        this.firstChunk = firstChunk;
+        this.chunk = chunks.getChunk(index);
     }
 
     @Override
     public void fromBytes(@NotNull final ByteBuf buf)
     {
-        int length = buf.readInt();
-        final byte[] compressedData = new byte[length];
-        buf.readBytes(compressedData);
-        data = Structure.uncompress(compressedData);
+        filename = ByteBufUtils.readUTF8String(buf);
+        md5 = ByteBufUtils.readUTF8String(buf);
+        index = buf.readInt();
+        total = buf.readInt();
+        firstChunk = buf.readInt();
+        final int length = buf.readInt();
+        if (length < 0 || length > SchematicTransfers.CHUNK_SIZE || length > buf.readableBytes())
+        {
+            throw new IllegalArgumentException("SchematicSaveMessage: invalid chunk length " + length);
+        }
+        chunk = new byte[length];
+        buf.readBytes(chunk);
     }
 
     @Override
     public void toBytes(@NotNull final ByteBuf buf)
     {
-        final byte[] compressedData = Structure.compress(data);
-        if (compressedData != null)
-        {
-            buf.capacity(compressedData.length + buf.writerIndex());
-            final int maxSize = MAX_TOTAL_SIZE - Integer.SIZE / Byte.SIZE;
-            if (compressedData.length > maxSize)
-            {
-                buf.writeInt(0);
-                if (MineColonies.isClient())
-                {
-                    ClientStructureWrapper.sendMessageSchematicTooBig(maxSize);
-                }
-                else
-                {
-                    Log.getLogger().error("SchematicSaveMessage: schematic size too big, can not be bigger than " + maxSize + " bytes");
-                }
-            }
-            else
-            {
-                buf.writeInt(compressedData.length);
-                buf.writeBytes(compressedData);
-            }
-        }
+        ByteBufUtils.writeUTF8String(buf, filename);
+        ByteBufUtils.writeUTF8String(buf, md5);
+        buf.writeInt(index);
+        buf.writeInt(total);
+        buf.writeInt(firstChunk);
+        buf.writeInt(chunk.length);
+        buf.writeBytes(chunk);
     }
 
     @Nullable
     @Override
     public IMessage onMessage(@NotNull final SchematicSaveMessage message, final MessageContext ctx)
+    {
+        FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(() -> messageOnMainThread(message, ctx));
+        return null;
+    }
+
+    /**
+     * Store the chunk and save the schematic once it is complete, on the server or client thread.
+     *
+     * @param message the message.
+     * @param ctx     the context of the message.
+     */
+    private static void messageOnMainThread(@NotNull final SchematicSaveMessage message, final MessageContext ctx)
     {
         if (!MineColonies.isClient() && !Configurations.allowPlayerSchematics)
         {
-            Log.getLogger().info("SchematicSaveMessage: custom schematic is not allowed on this server.");
-            if (ctx.side.isServer())
+            //  Only once per transfer, not for every chunk
+            if (ctx.side.isServer() && message.index == 0)
             {
+                Log.getLogger().info("SchematicSaveMessage: custom schematic is not allowed on this server.");
                 ctx.getServerHandler().playerEntity.sendMessage(new TextComponentString("The server does not allow custom schematic!"));
             }
-            return null;
+            return;
         }
 
-        boolean schematicSent;
-        if (message.data == null)
-        {
-            Log.getLogger().error("Received empty schematic file");
-            schematicSent = false;
-        }
-        else
+        final UUID sender = ctx.side.isServer() ? ctx.getServerHandler().playerEntity.getUniqueID() : SchematicTransfers.SERVER;
+        final int maxSize = ctx.side.isServer() ? SchematicTransfers.MAX_UPLOAD_SIZE : SchematicTransfers.MAX_COMPRESSED_SIZE;
+        final byte[] data = SchematicTransfers.receive(sender, message.md5, message.index, message.total, message.chunk, maxSize);
+        if (data == null)
         {
-            schematicSent = Structures.handleSaveSchematicMessage(message.data);
+            if (ctx.side.isClient() && message.index + 1 < message.total && SchematicTransfers.isEndOfWindow(message.index, message.firstChunk, message.total))
+            {
+                MineColonies.getNetwork().sendToServer(new SchematicRequestMessage(message.filename, SchematicTransfers.getFirstMissingChunk(sender, message.md5)));
+            }
+            return;
         }
 
+        final boolean schematicSent = Structures.handleSaveSchematicMessage(data);
         if (ctx.side.isServer())
         {
             if (schematicSent)
@@ -113,6 +142,5 @@ public class SchematicSaveMessage implements IMessage, IMessageHandler<Schematic
                 ctx.getServerHandler().playerEntity.sendMessage(new TextComponentString("Failed to send the Schematic!"));
             }
         }
-        return null;
     }
 }
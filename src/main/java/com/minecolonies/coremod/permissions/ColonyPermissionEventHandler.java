@@ -2,6 +2,7 @@ package com.minecolonies.coremod.permissions;
 
 import com.minecolonies.coremod.blocks.AbstractBlockHut;
 import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.ColonyManager;
 import com.minecolonies.coremod.colony.jobs.JobGuard;
 import com.minecolonies.coremod.colony.permissions.Permissions;
 import com.minecolonies.coremod.configuration.Configurations;
@@ -12,7 +13,6 @@ import com.minecolonies.coremod.util.LanguageHandler;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockContainer;
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.monster.EntityMob;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemPotion;
@@ -28,27 +28,25 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This class handles all permission checks on events and cancels them if needed.
+ * A single instance handles the events of all colonies, it resolves the colony of an event once
+ * through the spatial index of the {@link ColonyManager} and then applies the permissions of that colony.
  */
 public class ColonyPermissionEventHandler
 {
-
-    private final Colony colony;
+    /**
+     * Bits to shift a block coordinate by to get the chunk coordinate.
+     */
+    private static final int CHUNK_SHIFT = 4;
 
     /**
-     * Create this EventHandler.
-     *
-     * @param colony the colony to check on.
+     * Offset from the first to the last block of a chunk.
      */
-    public ColonyPermissionEventHandler(final Colony colony)
-    {
-        this.colony = colony;
-    }
+    private static final int CHUNK_MAX_OFFSET = 15;
 
     /**
      * BlockEvent.PlaceEvent handler.
@@ -78,10 +76,11 @@ public class ColonyPermissionEventHandler
                                            final World worldIn, final BlockPos posIn, final EntityPlayer playerIn, final IBlockState blockState,
                                            final Permissions.Action action)
     {
-        @NotNull final EntityPlayer player = EntityUtils.getPlayerOfFakePlayer(playerIn, worldIn);
-
-        if (colony.isCoordInColony(worldIn, posIn))
+        final Colony colony = ColonyManager.getColony(worldIn, posIn);
+        if (colony != null)
         {
+            @NotNull final EntityPlayer player = EntityUtils.getPlayerOfFakePlayer(playerIn, worldIn);
+
             if (!colony.getPermissions().isColonyMember(player))
             {
                 return true;
@@ -153,19 +152,57 @@ public class ColonyPermissionEventHandler
         }
 
         final World eventWorld = event.getWorld();
-        final Predicate<BlockPos> getBlocksInColony = pos -> colony.isCoordInColony(eventWorld, pos);
-        final Predicate<Entity> getEntitiesInColony = entity -> colony.isCoordInColony(entity.getEntityWorld(), entity.getPosition());
-        // if block is in colony -> remove from list
-        final List<BlockPos> blocksToRemove = event.getAffectedBlocks().stream()
-                                                .filter(getBlocksInColony)
-                                                .collect(Collectors.toList());
+        if (ColonyManager.getColonies(eventWorld).isEmpty())
+        {
+            return;
+        }
+
+        // if block is in colony -> remove from list, resolved once per chunk where possible
+        final Map<Long, Boolean> chunksInColony = new HashMap<>();
+        event.getAffectedBlocks().removeIf(pos -> isBlockInColony(eventWorld, pos, chunksInColony));
 
         // if entity is in colony -> remove from list
-        final List<Entity> entitiesToRemove = event.getAffectedEntities().stream()
-                                                .filter(getEntitiesInColony)
-                                                .collect(Collectors.toList());
-        event.getAffectedBlocks().removeAll(blocksToRemove);
-        event.getAffectedEntities().removeAll(entitiesToRemove);
+        event.getAffectedEntities().removeIf(entity -> ColonyManager.getColony(entity.getEntityWorld(), entity.getPosition()) != null);
+    }
+
+    /**
+     * Check if a block is inside of a colony.
+     * If a whole chunk is inside of a single colony, this is remembered for the other blocks of the chunk.
+     *
+     * @param world          the world of the block.
+     * @param pos            the position of the block.
+     * @param chunksInColony for the chunks checked so far, true if they are completely inside of a colony, false if not.
+     * @return true if the block is inside of a colony.
+     */
+    private static boolean isBlockInColony(@NotNull final World world, @NotNull final BlockPos pos, @NotNull final Map<Long, Boolean> chunksInColony)
+    {
+        final int chunkX = pos.getX() >> CHUNK_SHIFT;
+        final int chunkZ = pos.getZ() >> CHUNK_SHIFT;
+        final long chunkKey = ((long) chunkX << Integer.SIZE) | (chunkZ & 0xFFFFFFFFL);
+
+        final Boolean chunkInColony = chunksInColony.computeIfAbsent(chunkKey, key -> isChunkInColony(world, chunkX, chunkZ, pos.getY()));
+        return chunkInColony || ColonyManager.getColony(world, pos) != null;
+    }
+
+    /**
+     * Check if a chunk lies completely inside of a single colony.
+     * The area of a colony is convex, so checking the corners of the chunk is enough.
+     *
+     * @param world  the world of the chunk.
+     * @param chunkX the chunk x coordinate.
+     * @param chunkZ the chunk z coordinate.
+     * @param y      any height.
+     * @return true if so.
+     */
+    private static boolean isChunkInColony(@NotNull final World world, final int chunkX, final int chunkZ, final int y)
+    {
+        final int minX = chunkX << CHUNK_SHIFT;
+        final int minZ = chunkZ << CHUNK_SHIFT;
+        final Colony colony = ColonyManager.getColony(world, new BlockPos(minX, y, minZ));
+        return colony != null
+                 && colony.isCoordInColony(world, new BlockPos(minX + CHUNK_MAX_OFFSET, y, minZ))
+                 && colony.isCoordInColony(world, new BlockPos(minX, y, minZ + CHUNK_MAX_OFFSET))
+                 && colony.isCoordInColony(world, new BlockPos(minX + CHUNK_MAX_OFFSET, y, minZ + CHUNK_MAX_OFFSET));
     }
 
     /**
@@ -178,7 +215,7 @@ public class ColonyPermissionEventHandler
     {
         if (Configurations.enableColonyProtection
               && Configurations.turnOffExplosionsInColonies
-              && colony.isCoordInColony(event.getWorld(), new BlockPos(event.getExplosion().getPosition())))
+              && ColonyManager.getColony(event.getWorld(), new BlockPos(event.getExplosion().getPosition())) != null)
         {
             cancelEvent(event, null);
         }
@@ -198,8 +235,13 @@ public class ColonyPermissionEventHandler
     @SubscribeEvent
     public void on(final PlayerInteractEvent event)
     {
-        if (colony.isCoordInColony(event.getWorld(), event.getPos())
-              && !(event instanceof PlayerInteractEvent.EntityInteract || event instanceof PlayerInteractEvent.EntityInteractSpecific))
+        if (event instanceof PlayerInteractEvent.EntityInteract || event instanceof PlayerInteractEvent.EntityInteractSpecific)
+        {
+            return;
+        }
+
+        final Colony colony = ColonyManager.getColony(event.getWorld(), event.getPos());
+        if (colony != null)
         {
             final Block block = event.getWorld().getBlockState(event.getPos()).getBlock();
             // Huts
@@ -211,7 +253,7 @@ public class ColonyPermissionEventHandler
 
             final Permissions perms = colony.getPermissions();
 
-            if (isFreeToInteractWith(event.getWorld().getBlockState(event.getPos()).getBlock(), event.getPos())
+            if (isFreeToInteractWith(colony, event.getWorld().getBlockState(event.getPos()).getBlock(), event.getPos())
                   && perms.hasPermission(event.getEntityPlayer(), Permissions.Action.ACCESS_FREE_BLOCKS))
             {
                 return;
@@ -253,10 +295,12 @@ public class ColonyPermissionEventHandler
     /**
      * Check in the config if that block can be interacted with freely.
      *
-     * @param block the block to check.
+     * @param colony the colony of the block.
+     * @param block  the block to check.
+     * @param pos    the position of the block.
      * @return true if so.
      */
-    private boolean isFreeToInteractWith(@Nullable final Block block, final BlockPos pos)
+    private static boolean isFreeToInteractWith(@NotNull final Colony colony, @Nullable final Block block, final BlockPos pos)
     {
         return (block != null && colony.getFreeBlocks().stream().anyMatch(b -> b.equals(block))) || colony.getFreePositions().stream().anyMatch(position -> position.equals(pos));
     }
@@ -274,7 +318,9 @@ public class ColonyPermissionEventHandler
     @SubscribeEvent
     public void on(final PlayerInteractEvent.EntityInteract event)
     {
-        if (isFreeToInteractWith(null, event.getPos())
+        final Colony colony = ColonyManager.getColony(event.getWorld(), event.getPos());
+        if (colony != null
+              && isFreeToInteractWith(colony, null, event.getPos())
               && colony.getPermissions().hasPermission(event.getEntityPlayer(), Permissions.Action.ACCESS_FREE_BLOCKS))
         {
             return;
@@ -293,11 +339,14 @@ public class ColonyPermissionEventHandler
      */
     private void checkEventCancelation(final Permissions.Action action, @NotNull final EntityPlayer playerIn, @NotNull final World world, @NotNull final Event event)
     {
-        @NotNull final EntityPlayer player = EntityUtils.getPlayerOfFakePlayer(playerIn, world);
+        if (!Configurations.enableColonyProtection)
+        {
+            return;
+        }
 
-        if (Configurations.enableColonyProtection
-              && colony.isCoordInColony(player.getEntityWorld(), player.getPosition())
-              && !colony.getPermissions().hasPermission(player, action))
+        @NotNull final EntityPlayer player = EntityUtils.getPlayerOfFakePlayer(playerIn, world);
+        final Colony colony = ColonyManager.getColony(player.getEntityWorld(), player.getPosition());
+        if (colony != null && !colony.getPermissions().hasPermission(player, action))
         {
             cancelEvent(event, player);
         }
@@ -316,7 +365,9 @@ public class ColonyPermissionEventHandler
     @SubscribeEvent
     public void on(final PlayerInteractEvent.EntityInteractSpecific event)
     {
-        if (isFreeToInteractWith(null, event.getPos())
+        final Colony colony = ColonyManager.getColony(event.getWorld(), event.getPos());
+        if (colony != null
+              && isFreeToInteractWith(colony, null, event.getPos())
               && colony.getPermissions().hasPermission(event.getEntityPlayer(), Permissions.Action.ACCESS_FREE_BLOCKS))
         {
             return;
@@ -406,10 +457,14 @@ public class ColonyPermissionEventHandler
             return;
         }
 
-        @NotNull final EntityPlayer player = EntityUtils.getPlayerOfFakePlayer(event.getEntityPlayer(), event.getEntityPlayer().getEntityWorld());
+        if (!Configurations.enableColonyProtection)
+        {
+            return;
+        }
 
-        if (Configurations.enableColonyProtection
-              && colony.isCoordInColony(player.getEntityWorld(), player.getPosition()))
+        @NotNull final EntityPlayer player = EntityUtils.getPlayerOfFakePlayer(event.getEntityPlayer(), event.getEntityPlayer().getEntityWorld());
+        final Colony colony = ColonyManager.getColony(player.getEntityWorld(), player.getPosition());
+        if (colony != null)
         {
             final Permissions perms = colony.getPermissions();
             if (event.getTarget() instanceof EntityCitizen)
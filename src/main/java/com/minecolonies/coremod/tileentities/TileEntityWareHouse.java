@@ -1,25 +1,29 @@
 package com.minecolonies.coremod.tileentities;
 
 import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.DeliveryRequest;
+import com.minecolonies.coremod.colony.DeliveryRequestQueue;
 import com.minecolonies.coremod.colony.buildings.*;
 import com.minecolonies.coremod.inventory.InventoryCitizen;
 import com.minecolonies.coremod.util.InventoryFunctions;
 import com.minecolonies.coremod.util.InventoryUtils;
 import com.minecolonies.coremod.util.LanguageHandler;
 import com.minecolonies.coremod.util.Utils;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.inventory.InventoryLargeChest;
 import net.minecraft.item.ItemFood;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.tileentity.TileEntityChest;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3d;
 import net.minecraftforge.items.wrapper.InvWrapper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 
 /**
@@ -28,24 +32,19 @@ import java.util.function.Predicate;
 public class TileEntityWareHouse extends TileEntityColonyBuilding
 {
     /**
-     * List which contains the currentTasks to be executed by the deliveryman.
-     */
-    private final CopyOnWriteArrayList<AbstractBuilding> list = new CopyOnWriteArrayList<>();
-
-    /**
-     * Wait this amount of ticks before checking again.
+     * Wait this amount of ticks before verifying the next chest.
      */
     private static final int WAIT_TICKS = 5;
 
     /**
-     * Index of last controlled building.
+     * Ticks past since the last check.
      */
-    private int index = 1;
+    private int ticksPassed = 0;
 
     /**
-     * Ticks past since the last check.
+     * Index of the items in the chests of the warehouse.
      */
-    private int ticksPassed = 0;
+    private final WareHouseIndex itemIndex = new WareHouseIndex();
 
     /**
      * Empty standard constructor.
@@ -73,160 +72,75 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
             return;
         }
         ticksPassed = 0;
-
-        final AbstractBuilding wareHouseBuilding = getBuilding();
-        if(getColony() != null
-                && wareHouseBuilding instanceof BuildingWareHouse
-                && !((BuildingWareHouse) wareHouseBuilding).getRegisteredDeliverymen().isEmpty())
-        {
-            final Map<BlockPos, AbstractBuilding> buildingMap = getColony().getBuildings();
-
-            if (buildingMap.size() < this.index)
-            {
-                this.index = 1;
-            }
-
-            int i = 1;
-            for (@NotNull final Map.Entry<BlockPos, AbstractBuilding> buildingEntry : buildingMap.entrySet())
-            {
-                if (i == index)
-                {
-                    if(buildingEntry.getValue() instanceof AbstractBuildingWorker
-                            && !list.contains(buildingEntry.getValue())
-                            && ((AbstractBuildingWorker) buildingEntry.getValue()).needsAnything())
-                    {
-                        checkInWareHouse((AbstractBuildingWorker) buildingEntry.getValue(), true);
-                    }
-                    else if(buildingEntry.getValue() instanceof BuildingHome && ((BuildingHome) buildingEntry.getValue()).isFoodNeeded())
-                    {
-                        checkInWareHouseForFood((BuildingHome) buildingEntry.getValue(), true);
-                    }
-                    this.index++;
-                }
-                i++;
-            }
-        }
+        syncIndexPositions();
+        itemIndex.verifyNext();
     }
 
-    public boolean checkInWareHouseForFood(final BuildingHome buildingEntry, final boolean addToList)
+    /**
+     * Check if food for a home is in the wareHouse.
+     * @param buildingEntry the home requesting.
+     * @return true if has food in warehouse to deliver.
+     */
+    public boolean checkInWareHouseForFood(@NotNull final BuildingHome buildingEntry)
     {
-        if (buildingEntry.isFoodNeeded())
-        {
-            if (isInHut(itemStack -> !InventoryUtils.isItemStackEmpty(itemStack) && itemStack.getItem() instanceof ItemFood))
-            {
-                if (addToList)
-                {
-                    buildingEntry.setOnGoingDelivery(true);
-                    list.add(buildingEntry);
-                }
-                return true;
-            }
-
-            if (list.contains(buildingEntry))
-            {
-                list.remove(buildingEntry);
-                buildingEntry.setOnGoingDelivery(false);
-            }
-        }
-        return false;
+        return buildingEntry.isFoodNeeded()
+                && isInHut(itemStack -> !InventoryUtils.isItemStackEmpty(itemStack) && itemStack.getItem() instanceof ItemFood);
     }
 
     /**
-     * Get the first task in the list.
+     * Get the most urgent delivery request of the colony which can be delivered from this warehouse.
+     * Requests of buildings which do not need anything anymore are withdrawn on the way.
      * @return the building which needs a delivery.
      */
     @Nullable
     public AbstractBuilding getTask()
     {
-        if(list.isEmpty())
+        final Colony colony = getColony();
+        if(colony == null)
         {
             return null;
         }
-        return list.remove(0);
-    }
 
-    /**
-     * Check if the required items by the building are in the wareHouse.
-     * @param buildingEntry the building requesting.
-     * @param addToList if is in warehouse should add to the list?
-     * @return true if has something in warehouse to deliver.
-     */
-    public boolean checkInWareHouse(@NotNull final AbstractBuilding buildingEntry, boolean addToList)
-    {
-        if(buildingEntry.areItemsNeeded())
+        final DeliveryRequestQueue queue = colony.getDeliveryRequests();
+        for(@NotNull final DeliveryRequest request : queue.getOpenRequests())
         {
-            for(final ItemStack stack : buildingEntry.getNeededItems())
-            {
-                if(stack == null
-                     || (deliveryManHasBuildingAsTask(buildingEntry)
-                           && addToList))
-                {
-                    continue;
-                }
-
-                if(isInHut(stack))
-                {
-                    if(addToList)
-                    {
-                        buildingEntry.setOnGoingDelivery(true);
-                        list.add(buildingEntry);
-                    }
-                    return true;
-                }
-            }
-            if (list.contains(buildingEntry))
+            final AbstractBuilding building = colony.getBuilding(request.getBuilding());
+            if(building == null || !(building instanceof BuildingHome ? ((BuildingHome) building).isFoodNeeded() : building.needsAnything()))
             {
-                list.remove(buildingEntry);
-                buildingEntry.setOnGoingDelivery(false);
+                queue.withdraw(request.getBuilding());
+                continue;
             }
-        }
 
-        final String tool = buildingEntry.getRequiredTool();
-        if(!tool.isEmpty())
-        {
-            if(isToolInHut(tool, buildingEntry))
-            {
-                if (addToList)
-                {
-                    buildingEntry.setOnGoingDelivery(true);
-                    list.add(buildingEntry);
-                }
-                return true;
-            }
-            if (list.contains(buildingEntry))
+            if(building instanceof BuildingHome ? checkInWareHouseForFood((BuildingHome) building) : checkInWareHouse(building))
             {
-                list.remove(buildingEntry);
-                buildingEntry.setOnGoingDelivery(false);
+                queue.assign(request.getBuilding());
+                building.setOnGoingDelivery(true);
+                return building;
             }
         }
-        return false;
+        return null;
     }
 
     /**
-     * Check if a building is being delivery by on of the warehouses deliverymen.
-     * @param buildingEntry the building to check.
-     * @return true if so.
+     * Check if the required items by the building are in the wareHouse.
+     * @param buildingEntry the building requesting.
+     * @return true if has something in warehouse to deliver.
      */
-    private boolean deliveryManHasBuildingAsTask(@NotNull final AbstractBuilding buildingEntry)
+    public boolean checkInWareHouse(@NotNull final AbstractBuilding buildingEntry)
     {
-        final AbstractBuilding wareHouse = getBuilding();
-        if(wareHouse instanceof BuildingWareHouse)
+        if(buildingEntry.areItemsNeeded())
         {
-            for(final Vec3d pos : ((BuildingWareHouse) wareHouse).getRegisteredDeliverymen())
+            for(final ItemStack stack : buildingEntry.getNeededItems())
             {
-                final Colony colony = getColony();
-                if(colony != null)
+                if(stack != null && isInHut(stack))
                 {
-                    final AbstractBuilding building = colony.getBuilding(new BlockPos(pos));
-                    if(building instanceof BuildingDeliveryman)
-                    {
-                        return ((BuildingDeliveryman) building).getBuildingToDeliver() != null
-                                && ((BuildingDeliveryman) building).getBuildingToDeliver().getLocation() == buildingEntry.getLocation();
-                    }
+                    return true;
                 }
             }
         }
-        return false;
+
+        final String tool = buildingEntry.getRequiredTool();
+        return !tool.isEmpty() && isToolInHut(tool, buildingEntry);
     }
 
     /**
@@ -236,25 +150,13 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
      */
     public boolean isInHut(@Nullable final ItemStack is)
     {
-        @Nullable final AbstractBuilding building = getBuilding();
-        if(building != null)
+        if (is == null)
         {
-            if(isInTileEntity(building.getTileEntity(), is))
-            {
-                return true;
-            }
-
-            for(final BlockPos pos : building.getAdditionalCountainers())
-            {
-                @Nullable final TileEntity entity = world.getTileEntity(pos);
-                if(entity instanceof TileEntityChest && isInTileEntity((TileEntityChest) entity, is))
-                {
-                    return true;
-                }
-            }
+            return false;
         }
 
-        return false;
+        @Nullable final WareHouseIndex wareHouseIndex = getIndex();
+        return wareHouseIndex != null && wareHouseIndex.getCount(is) > 0;
     }
 
     /**
@@ -264,25 +166,7 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
      */
     public boolean isInHut(@NotNull final Predicate<ItemStack> itemStackSelectionPredicate)
     {
-        @Nullable final AbstractBuilding building = getBuilding();
-        if(building != null)
-        {
-            if(isInTileEntity(building.getTileEntity(), itemStackSelectionPredicate))
-            {
-                return true;
-            }
-
-            for(final BlockPos pos : building.getAdditionalCountainers())
-            {
-                @Nullable final TileEntity entity = world.getTileEntity(pos);
-                if(entity instanceof TileEntityChest && isInTileEntity((TileEntityChest) entity, itemStackSelectionPredicate))
-                {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return getPositionOfChestWithItemStack(itemStackSelectionPredicate) != null;
     }
 
     /**
@@ -293,25 +177,8 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
     @Nullable
     public BlockPos getPositionOfChestWithItemStack(@NotNull final ItemStack stack)
     {
-        @Nullable final AbstractBuilding building = getBuilding();
-
-        if(building != null)
-        {
-            if(isInTileEntity(building.getTileEntity(), stack))
-            {
-                return building.getLocation();
-            }
-
-            for(final BlockPos pos : building.getAdditionalCountainers())
-            {
-                final TileEntity entity = world.getTileEntity(pos);
-                if(entity instanceof TileEntityChest && isInTileEntity((TileEntityChest) entity, stack))
-                {
-                    return pos;
-                }
-            }
-        }
-        return null;
+        @Nullable final WareHouseIndex wareHouseIndex = getIndex();
+        return wareHouseIndex == null ? null : wareHouseIndex.findItem(stack, getBuilding().getLocation());
     }
 
     /**
@@ -322,25 +189,8 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
     @Nullable
     public BlockPos getPositionOfChestWithItemStack(@NotNull final Predicate<ItemStack> itemStackSelectionPredicate)
     {
-        @Nullable final AbstractBuilding building = getBuilding();
-
-        if(building != null)
-        {
-            if(isInTileEntity(building.getTileEntity(), itemStackSelectionPredicate))
-            {
-                return building.getLocation();
-            }
-
-            for(final BlockPos pos : building.getAdditionalCountainers())
-            {
-                final TileEntity entity = world.getTileEntity(pos);
-                if(entity instanceof TileEntityChest && isInTileEntity((TileEntityChest) entity, itemStackSelectionPredicate))
-                {
-                    return pos;
-                }
-            }
-        }
-        return null;
+        @Nullable final WareHouseIndex wareHouseIndex = getIndex();
+        return wareHouseIndex == null ? null : wareHouseIndex.findItem(itemStackSelectionPredicate, getBuilding().getLocation());
     }
 
     /**
@@ -352,26 +202,28 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
      */
     public BlockPos getPositionOfChestWithTool(@NotNull final String tool,final int minLevel, @NotNull final AbstractBuilding requestingBuilding)
     {
-        @Nullable final AbstractBuilding building = getBuilding();
+        @Nullable final WareHouseIndex wareHouseIndex = getIndex();
+        if(wareHouseIndex == null)
+        {
+            return null;
+        }
 
-        if(building != null)
+        final BlockPos location = getBuilding().getLocation();
+        final Set<BlockPos> candidates = new LinkedHashSet<>();
+        if(minLevel != -1)
         {
-            if((minLevel != -1
-                    && InventoryUtils.isPickaxeInProvider(building.getTileEntity(), minLevel, requestingBuilding.getBuildingLevel()))
-                    || InventoryUtils.isToolInProvider(building.getTileEntity(), tool, requestingBuilding.getBuildingLevel()))
-            {
-                return building.getLocation();
-            }
+            candidates.addAll(wareHouseIndex.getChestsWithTool(Utils.PICKAXE, location));
+        }
+        candidates.addAll(wareHouseIndex.getChestsWithTool(tool, location));
 
-            for(@NotNull final BlockPos pos : building.getAdditionalCountainers())
+        for(@NotNull final BlockPos pos : candidates)
+        {
+            final TileEntity entity = world.getTileEntity(pos);
+            if (entity instanceof TileEntityChest
+                    && ((minLevel != -1 && InventoryUtils.isPickaxeInProvider(entity, minLevel, requestingBuilding.getBuildingLevel()))
+                    || InventoryUtils.isToolInProvider(entity, tool, requestingBuilding.getBuildingLevel())))
             {
-                final TileEntity entity = world.getTileEntity(pos);
-                if (entity instanceof TileEntityChest
-                        && ((minLevel != -1 && InventoryUtils.isPickaxeInProvider(entity, minLevel, requestingBuilding.getBuildingLevel()))
-                        || InventoryUtils.isToolInProvider((TileEntityChest) entity, tool, requestingBuilding.getBuildingLevel())))
-                {
-                    return pos;
-                }
+                return pos;
             }
         }
         return null;
@@ -385,43 +237,30 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
      */
     public boolean isToolInHut(final String tool, @NotNull final AbstractBuilding requestingBuilding)
     {
-        @Nullable final AbstractBuilding building = getBuilding();
-
-        boolean hasItem;
-        if(building != null)
+        @Nullable final WareHouseIndex wareHouseIndex = getIndex();
+        if(wareHouseIndex == null)
         {
-            if(tool.equals(Utils.PICKAXE))
-            {
-                hasItem = InventoryUtils.isPickaxeInProvider(building.getTileEntity(), requestingBuilding.getNeededPickaxeLevel(), requestingBuilding.getBuildingLevel());
-            }
-            else
-            {
-                hasItem = InventoryUtils.isToolInProvider(building.getTileEntity(), tool, requestingBuilding.getBuildingLevel());
-            }
+            return false;
+        }
 
-            if(hasItem)
+        for(final BlockPos pos : wareHouseIndex.getChestsWithTool(tool, getBuilding().getLocation()))
+        {
+            @Nullable final TileEntity entity = world.getTileEntity(pos);
+            if(entity instanceof TileEntityChest)
             {
-                return true;
-            }
+                final boolean hasItem;
+                if(tool.equals(Utils.PICKAXE))
+                {
+                    hasItem = InventoryUtils.isPickaxeInProvider(entity, requestingBuilding.getNeededPickaxeLevel(), requestingBuilding.getBuildingLevel());
+                }
+                else
+                {
+                    hasItem = InventoryUtils.isToolInProvider(entity, tool, requestingBuilding.getBuildingLevel());
+                }
 
-            for(final BlockPos pos : building.getAdditionalCountainers())
-            {
-                @Nullable final TileEntity entity = world.getTileEntity(pos);
-                if(entity instanceof TileEntityChest)
+                if(hasItem)
                 {
-                    if(tool.equals(Utils.PICKAXE))
-                    {
-                        hasItem = InventoryUtils.isPickaxeInProvider(entity, requestingBuilding.getNeededPickaxeLevel(), requestingBuilding.getBuildingLevel());
-                    }
-                    else
-                    {
-                        hasItem = InventoryUtils.isToolInProvider(entity, tool, requestingBuilding.getBuildingLevel());
-                    }
-
-                    if(hasItem)
-                    {
-                        return true;
-                    }
+                    return true;
                 }
             }
         }
@@ -503,6 +342,7 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
                 return;
             }
             InventoryUtils.transferItemStackIntoNextFreeSlotInProvider(new InvWrapper(inventoryCitizen), i, chest);
+            itemIndex.markDirty(chest.getPos());
         }
 
     }
@@ -515,75 +355,98 @@ public class TileEntityWareHouse extends TileEntityColonyBuilding
     @Nullable
     private TileEntityChest searchRightChestForStack(@NotNull final ItemStack stack)
     {
-        if(InventoryUtils.findFirstSlotInProviderWith(this, stack.getItem(), stack.getItemDamage()) != -1 && InventoryUtils.getFirstOpenSlotFromProvider(this) != -1)
+        @Nullable final WareHouseIndex wareHouseIndex = getIndex();
+        if(wareHouseIndex == null)
         {
-            return this;
+            return null;
         }
 
-        for(@NotNull final BlockPos pos : getBuilding().getAdditionalCountainers())
+        for(@NotNull final BlockPos pos : wareHouseIndex.getMissingChests())
         {
-            final TileEntity entity = world.getTileEntity(pos);
-            if(entity instanceof TileEntityChest
-                    && InventoryUtils.findFirstSlotInProviderWith(entity, stack.getItem(), stack.getItemDamage()) != -1
-                    && InventoryUtils.getFirstOpenSlotFromProvider(entity) != -1)
-            {
-                return (TileEntityChest) entity;
-            }
+            getBuilding().removeContainerPosition(pos);
+        }
+
+        @Nullable final BlockPos pos = wareHouseIndex.findChestForStack(stack, getBuilding().getLocation());
+        if(pos == null)
+        {
+            return null;
         }
 
-        @Nullable final TileEntityChest chest = searchChestWithSimilarItem(stack);
-        return chest == null ? searchMostEmptySlot() : chest;
+        final TileEntity entity = world.getTileEntity(pos);
+        return entity instanceof TileEntityChest ? (TileEntityChest) entity : null;
     }
 
     /**
-     * Searches a chest with a similar item as the incoming stack.
-     * @param stack the stack.
-     * @return the entity of the chest.
+     * Mark a chest of the warehouse to be scanned again before the next lookup, after its content changed.
+     * @param pos the position of the chest.
      */
-    @Nullable
-    private TileEntityChest searchChestWithSimilarItem(final ItemStack stack)
+    public void markChestDirty(@NotNull final BlockPos pos)
+    {
+        itemIndex.markDirty(pos);
+    }
+
+    /**
+     * Called when a player closed a chest, marks the chests of the warehouse it belongs to dirty.
+     * @param inventory the inventory of the closed chest, a single or a large chest.
+     */
+    public void onChestClosed(@NotNull final IInventory inventory)
     {
-        for(@NotNull final BlockPos pos : getBuilding().getAdditionalCountainers())
+        for(@NotNull final BlockPos pos : itemIndex.getPositions())
         {
             final TileEntity entity = world.getTileEntity(pos);
             if(entity instanceof TileEntityChest
-                    && InventoryUtils.findFirstSlotInProviderWith(entity, stack.getItem(), -1) != -1
-                    && InventoryUtils.getFirstOpenSlotFromProvider(entity) != -1)
+                    && (entity == inventory
+                          || (inventory instanceof InventoryLargeChest && ((InventoryLargeChest) inventory).isPartOfLargeChest((TileEntityChest) entity))))
             {
-                return (TileEntityChest) entity;
+                itemIndex.markDirty(pos);
             }
         }
-        return null;
+    }
+
+    @Override
+    public void markDirty()
+    {
+        super.markDirty();
+        itemIndex.markDirty(getPos());
     }
 
     /**
-     * Search for the chest with the least items in it.
-     * @return the tileEntity of this chest.
+     * Get the index of the items in the chests, with the dirty chests scanned.
+     * The chests of the building are only taken over every few ticks, or on the first lookup.
+     * @return the index or null if the building is not known yet.
      */
     @Nullable
-    private TileEntityChest searchMostEmptySlot()
+    private WareHouseIndex getIndex()
     {
-        int freeSlots = 0;
-        TileEntityChest emptiestChest = null;
-        for(@NotNull final BlockPos pos : getBuilding().getAdditionalCountainers())
+        if(getBuilding() == null || world == null)
         {
-            final TileEntity entity = world.getTileEntity(pos);
-            if(entity == null)
-            {
-                getBuilding().removeContainerPosition(pos);
-                continue;
-            }
-            if(entity instanceof TileEntityChest && InventoryUtils.getFirstOpenSlotFromProvider(entity) != -1)
-            {
-                final int tempFreeSlots = ((TileEntityChest) entity).getSizeInventory() - InventoryUtils.getAmountOfStacksInProvider(entity);
-                if(freeSlots < tempFreeSlots)
-                {
-                    freeSlots = tempFreeSlots;
-                    emptiestChest = (TileEntityChest) entity;
-                }
-            }
+            return null;
+        }
+
+        if(itemIndex.getPositions().isEmpty())
+        {
+            syncIndexPositions();
         }
+        itemIndex.scanDirty(world);
+        return itemIndex;
+    }
 
-        return emptiestChest;
+    /**
+     * Take over the chests of the building into the index, on the server only.
+     */
+    private void syncIndexPositions()
+    {
+        if(world == null || world.isRemote)
+        {
+            return;
+        }
+
+        @Nullable final AbstractBuilding building = getBuilding();
+        if(building != null)
+        {
+            final List<BlockPos> positions = building.getAdditionalCountainers();
+            positions.add(0, building.getLocation());
+            itemIndex.setPositions(positions);
+        }
     }
 }
\ No newline at end of file
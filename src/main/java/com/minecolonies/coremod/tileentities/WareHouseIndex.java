@@ -0,0 +1,565 @@
+package com.minecolonies.coremod.tileentities;
+
+import com.minecolonies.coremod.util.InventoryUtils;
+import com.minecolonies.coremod.util.Utils;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.tileentity.TileEntityChest;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.items.IItemHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Index of the items in the chests of a warehouse.
+ * Every chest is scanned once into the items it holds, by item and damage, the tool types it holds and its free slots.
+ * The amount of every item over all chests is kept as well, so checking for an item never looks at the stacks.
+ * A chest is scanned again only after it has been marked dirty, by an inventory change the warehouse was notified of,
+ * or by the round robin verification which catches changes nobody was notified of, like hoppers.
+ * Only accessed from the server thread.
+ */
+public final class WareHouseIndex
+{
+    /**
+     * The tool types which are indexed.
+     */
+    private static final String[] TOOL_TYPES = {Utils.PICKAXE, Utils.SHOVEL, Utils.AXE, Utils.HOE, Utils.WEAPON};
+
+    /**
+     * The indexed chests, in the order they were added.
+     */
+    private final Map<BlockPos, Chest> chests = new LinkedHashMap<>();
+
+    /**
+     * The positions of the indexed chests, in the same order, for the round robin verification.
+     */
+    private final List<BlockPos> order = new ArrayList<>();
+
+    /**
+     * The chests holding an item with a certain damage.
+     */
+    private final Map<ItemKey, Set<BlockPos>> chestsByItem = new HashMap<>();
+
+    /**
+     * The amount of an item with a certain damage in all chests.
+     */
+    private final Map<ItemKey, Integer> counts = new HashMap<>();
+
+    /**
+     * The chests holding an item with any damage.
+     */
+    private final Map<Item, Set<BlockPos>> chestsByItemType = new HashMap<>();
+
+    /**
+     * The chests holding a tool type.
+     */
+    private final Map<String, Set<BlockPos>> chestsByTool = new HashMap<>();
+
+    /**
+     * The chests which have to be scanned before the next lookup.
+     */
+    private final Set<BlockPos> dirty = new HashSet<>();
+
+    /**
+     * The index in {@link #order} of the chest the next verification scans.
+     */
+    private int nextToVerify = 0;
+
+    /**
+     * Update the indexed chests to the chests of the warehouse and scan all dirty chests.
+     *
+     * @param world     the world of the chests.
+     * @param positions the positions of all chests of the warehouse.
+     */
+    public void sync(@NotNull final World world, @NotNull final Collection<BlockPos> positions)
+    {
+        setPositions(positions);
+        scanDirty(world);
+    }
+
+    /**
+     * Update the indexed chests to the chests of the warehouse, new chests are scanned before the next lookup.
+     *
+     * @param positions the positions of all chests of the warehouse.
+     */
+    public void setPositions(@NotNull final Collection<BlockPos> positions)
+    {
+        if (chests.size() != positions.size() || !chests.keySet().containsAll(positions))
+        {
+            final Set<BlockPos> wanted = new HashSet<>(positions);
+            for (final BlockPos pos : new ArrayList<>(chests.keySet()))
+            {
+                if (!wanted.contains(pos))
+                {
+                    remove(pos);
+                }
+            }
+
+            for (final BlockPos pos : positions)
+            {
+                if (!chests.containsKey(pos))
+                {
+                    chests.put(pos, new Chest());
+                    order.add(pos);
+                    dirty.add(pos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scan the chests which were marked dirty.
+     *
+     * @param world the world of the chests.
+     */
+    public void scanDirty(@NotNull final World world)
+    {
+        if (!dirty.isEmpty())
+        {
+            for (final BlockPos pos : dirty)
+            {
+                scan(world, pos);
+            }
+            dirty.clear();
+        }
+    }
+
+    /**
+     * Mark a chest to be scanned again before the next lookup.
+     *
+     * @param pos the position of the chest.
+     */
+    public void markDirty(@NotNull final BlockPos pos)
+    {
+        if (chests.containsKey(pos))
+        {
+            dirty.add(pos);
+        }
+    }
+
+    /**
+     * Mark the next chest in turn to be scanned again, to catch changes nobody was notified of.
+     */
+    public void verifyNext()
+    {
+        if (order.isEmpty())
+        {
+            return;
+        }
+
+        if (nextToVerify >= order.size())
+        {
+            nextToVerify = 0;
+        }
+        dirty.add(order.get(nextToVerify));
+        nextToVerify++;
+    }
+
+    /**
+     * Get the positions of the indexed chests.
+     *
+     * @return an unmodifiable view of the positions.
+     */
+    @NotNull
+    public Set<BlockPos> getPositions()
+    {
+        return Collections.unmodifiableSet(chests.keySet());
+    }
+
+    /**
+     * Get the positions of the indexed chests which had no tile entity when they were scanned last.
+     *
+     * @return a list of the positions.
+     */
+    @NotNull
+    public List<BlockPos> getMissingChests()
+    {
+        final List<BlockPos> missing = new ArrayList<>();
+        for (final Map.Entry<BlockPos, Chest> entry : chests.entrySet())
+        {
+            if (entry.getValue().missing)
+            {
+                missing.add(entry.getKey());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Find a chest holding an item with the same item and damage as a stack.
+     *
+     * @param stack     the stack, the amount is ignored.
+     * @param preferred the chest which is returned if it holds the item.
+     * @return the position of the chest or null.
+     */
+    @Nullable
+    public BlockPos findItem(@NotNull final ItemStack stack, @NotNull final BlockPos preferred)
+    {
+        return first(chestsByItem.get(new ItemKey(stack)), preferred);
+    }
+
+    /**
+     * Get the amount of an item with the same damage as a stack in all chests.
+     *
+     * @param stack the stack, its amount is ignored.
+     * @return the amount.
+     */
+    public int getCount(@NotNull final ItemStack stack)
+    {
+        return counts.getOrDefault(new ItemKey(stack), 0);
+    }
+
+    /**
+     * Find a chest holding an item which matches a predicate.
+     * The predicate is tested against every stack of the chests, so it may look at more than item and damage, like NBT.
+     * Unlike the lookups by item this scans the stacks, an arbitrary predicate can not be indexed.
+     *
+     * @param predicate the predicate.
+     * @param preferred the chest which is returned if it holds a matching item.
+     * @return the position of the chest or null.
+     */
+    @Nullable
+    public BlockPos findItem(@NotNull final Predicate<ItemStack> predicate, @NotNull final BlockPos preferred)
+    {
+        final Chest preferredChest = chests.get(preferred);
+        if (preferredChest != null && preferredChest.holds(predicate))
+        {
+            return preferred;
+        }
+
+        for (final Map.Entry<BlockPos, Chest> entry : chests.entrySet())
+        {
+            if (entry.getValue().holds(predicate))
+            {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the chests holding a tool of a type, of any level.
+     *
+     * @param tool      the tool type.
+     * @param preferred the chest which comes first if it holds such a tool.
+     * @return the positions of the chests.
+     */
+    @NotNull
+    public List<BlockPos> getChestsWithTool(@NotNull final String tool, @NotNull final BlockPos preferred)
+    {
+        final Set<BlockPos> positions = chestsByTool.get(tool);
+        if (positions == null)
+        {
+            return Collections.emptyList();
+        }
+
+        final List<BlockPos> list = new ArrayList<>(positions.size());
+        if (positions.contains(preferred))
+        {
+            list.add(preferred);
+        }
+        for (final BlockPos pos : positions)
+        {
+            if (!pos.equals(preferred))
+            {
+                list.add(pos);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Find the chest a stack should be stored in.
+     * That is a chest already holding the item with the same damage, the preferred chest first,
+     * then another chest holding the item with any damage and last the chest with the most free slots.
+     *
+     * @param stack     the stack to store.
+     * @param preferred the chest which is tried first, it is only used if it holds the exact item.
+     * @return the position of the chest or null if all chests are full.
+     */
+    @Nullable
+    public BlockPos findChestForStack(@NotNull final ItemStack stack, @NotNull final BlockPos preferred)
+    {
+        final Set<BlockPos> sameItem = chestsByItem.get(new ItemKey(stack));
+        if (sameItem != null)
+        {
+            if (sameItem.contains(preferred) && chests.get(preferred).freeSlots > 0)
+            {
+                return preferred;
+            }
+
+            for (final BlockPos pos : sameItem)
+            {
+                if (chests.get(pos).freeSlots > 0)
+                {
+                    return pos;
+                }
+            }
+        }
+
+        final Set<BlockPos> sameType = chestsByItemType.get(stack.getItem());
+        if (sameType != null)
+        {
+            for (final BlockPos pos : sameType)
+            {
+                if (!pos.equals(preferred) && chests.get(pos).freeSlots > 0)
+                {
+                    return pos;
+                }
+            }
+        }
+
+        int freeSlots = 0;
+        BlockPos emptiest = null;
+        for (final Map.Entry<BlockPos, Chest> entry : chests.entrySet())
+        {
+            if (!entry.getKey().equals(preferred) && entry.getValue().freeSlots > freeSlots)
+            {
+                freeSlots = entry.getValue().freeSlots;
+                emptiest = entry.getKey();
+            }
+        }
+        return emptiest;
+    }
+
+    /**
+     * Get the first position of a set, or the preferred one if the set contains it.
+     *
+     * @param positions the set or null.
+     * @param preferred the preferred position.
+     * @return the position or null if the set is empty.
+     */
+    @Nullable
+    private static BlockPos first(@Nullable final Set<BlockPos> positions, @NotNull final BlockPos preferred)
+    {
+        if (positions == null || positions.isEmpty())
+        {
+            return null;
+        }
+        return positions.contains(preferred) ? preferred : positions.iterator().next();
+    }
+
+    /**
+     * Scan a chest again and update the reverse lookups.
+     *
+     * @param world the world of the chest.
+     * @param pos   the position of the chest.
+     */
+    private void scan(@NotNull final World world, @NotNull final BlockPos pos)
+    {
+        unlink(pos);
+        final Chest chest = new Chest();
+        chests.put(pos, chest);
+
+        final TileEntity entity = world.getTileEntity(pos);
+        if (entity == null)
+        {
+            chest.missing = true;
+            return;
+        }
+        if (!(entity instanceof TileEntityChest))
+        {
+            return;
+        }
+
+        for (final IItemHandler handler : InventoryUtils.getItemHandlersFromProvider(entity))
+        {
+            for (int slot = 0; slot < handler.getSlots(); slot++)
+            {
+                final ItemStack stack = handler.getStackInSlot(slot);
+                if (InventoryUtils.isItemStackEmpty(stack))
+                {
+                    chest.freeSlots++;
+                    continue;
+                }
+
+                final ItemKey key = new ItemKey(stack);
+                counts.merge(key, stack.getCount(), Integer::sum);
+                final List<ItemStack> stacks = chest.items.get(key);
+                if (stacks != null)
+                {
+                    stacks.add(stack.copy());
+                }
+                else
+                {
+                    chest.items.put(key, new ArrayList<>(Collections.singletonList(stack.copy())));
+                    chestsByItem.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(pos);
+                    chestsByItemType.computeIfAbsent(key.item, k -> new LinkedHashSet<>()).add(pos);
+
+                    for (final String tool : TOOL_TYPES)
+                    {
+                        if (Utils.isTool(stack, tool) && chest.tools.add(tool))
+                        {
+                            chestsByTool.computeIfAbsent(tool, k -> new LinkedHashSet<>()).add(pos);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove a chest from the index.
+     *
+     * @param pos the position of the chest.
+     */
+    private void remove(@NotNull final BlockPos pos)
+    {
+        unlink(pos);
+        chests.remove(pos);
+        dirty.remove(pos);
+
+        final int index = order.indexOf(pos);
+        order.remove(index);
+        if (index < nextToVerify)
+        {
+            nextToVerify--;
+        }
+    }
+
+    /**
+     * Remove a chest from the reverse lookups.
+     *
+     * @param pos the position of the chest.
+     */
+    private void unlink(@NotNull final BlockPos pos)
+    {
+        final Chest chest = chests.get(pos);
+        if (chest == null)
+        {
+            return;
+        }
+
+        for (final Map.Entry<ItemKey, List<ItemStack>> entry : chest.items.entrySet())
+        {
+            final ItemKey key = entry.getKey();
+            int amount = 0;
+            for (final ItemStack stack : entry.getValue())
+            {
+                amount += stack.getCount();
+            }
+            final int left = counts.getOrDefault(key, 0) - amount;
+            if (left > 0)
+            {
+                counts.put(key, left);
+            }
+            else
+            {
+                counts.remove(key);
+            }
+
+            removeFrom(chestsByItem, key, pos);
+            removeFrom(chestsByItemType, key.item, pos);
+        }
+        for (final String tool : chest.tools)
+        {
+            removeFrom(chestsByTool, tool, pos);
+        }
+    }
+
+    /**
+     * Remove a position from a reverse lookup and drop the key once no chest is left.
+     *
+     * @param map the reverse lookup.
+     * @param key the key.
+     * @param pos the position.
+     * @param <K> the type of the key.
+     */
+    private static <K> void removeFrom(@NotNull final Map<K, Set<BlockPos>> map, @NotNull final K key, @NotNull final BlockPos pos)
+    {
+        final Set<BlockPos> positions = map.get(key);
+        if (positions != null && positions.remove(pos) && positions.isEmpty())
+        {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * The indexed content of a chest.
+     */
+    private static final class Chest
+    {
+        /**
+         * A copy of every stack, by item and damage, to test predicates against.
+         */
+        private final Map<ItemKey, List<ItemStack>> items = new HashMap<>();
+
+        /**
+         * The tool types in the chest.
+         */
+        private final Set<String> tools = new HashSet<>();
+
+        /**
+         * The amount of empty slots.
+         */
+        private int freeSlots = 0;
+
+        /**
+         * True if there was no tile entity at the position.
+         */
+        private boolean missing = false;
+
+        /**
+         * Check if any item of the chest matches a predicate.
+         *
+         * @param predicate the predicate.
+         * @return true if so.
+         */
+        private boolean holds(@NotNull final Predicate<ItemStack> predicate)
+        {
+            for (final List<ItemStack> stacks : items.values())
+            {
+                for (final ItemStack stack : stacks)
+                {
+                    if (predicate.test(stack))
+                    {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * An item with its damage, equal for stacks which are {@link ItemStack#isItemEqual(ItemStack)}.
+     */
+    private static final class ItemKey
+    {
+        private final Item item;
+        private final int  damage;
+
+        private ItemKey(@NotNull final ItemStack stack)
+        {
+            this.item = stack.getItem();
+            this.damage = stack.getItemDamage();
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            final ItemKey key = (ItemKey) o;
+            return item == key.item && damage == key.damage;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * item.hashCode() + damage;
+        }
+    }
+}
@@ -208,6 +208,10 @@ public final class StructureWrapper
                 {
                     @NotNull final BlockPos localPos = new BlockPos(i, j, k);
                     final IBlockState localState = this.structure.getBlockState(localPos);
+                    if (localState == null)
+                    {
+                        continue;
+                    }
                     final Block localBlock = localState.getBlock();
 
                     final BlockPos worldPos = pos.add(localPos);
@@ -293,26 +297,14 @@ public final class StructureWrapper
      */
     public boolean incrementBlock()
     {
-        if (this.progressPos.equals(NULL_POS))
+        final int index = this.progressPos.equals(NULL_POS) ? 0 : (structure.getIndex(this.progressPos) + 1);
+        if (index >= structure.getVolume())
         {
-            this.progressPos.setPos(-1, 0, 0);
-        }
-
-        this.progressPos.setPos(this.progressPos.getX() + 1, this.progressPos.getY(), this.progressPos.getZ());
-        if (this.progressPos.getX() == structure.getWidth())
-        {
-            this.progressPos.setPos(0, this.progressPos.getY(), this.progressPos.getZ() + 1);
-            if (this.progressPos.getZ() == structure.getLength())
-            {
-                this.progressPos.setPos(this.progressPos.getX(), this.progressPos.getY() + 1, 0);
-                if (this.progressPos.getY() == structure.getHeight())
-                {
-                    reset();
-                    return false;
-                }
-            }
+            reset();
+            return false;
         }
 
+        structure.getPosition(index, this.progressPos);
         return true;
     }
 
@@ -323,7 +315,22 @@ public final class StructureWrapper
      */
     public boolean isStructureBlockEqualWorldBlock()
     {
-        final IBlockState structureBlockState = structure.getBlockState(this.getLocalPosition());
+        return isStructureBlockEqualWorldBlock(this.getLocalPosition());
+    }
+
+    /**
+     * Checks if the block in the world is the same as what is in the structure at a position.
+     *
+     * @param localPos the position in the structure.
+     * @return true if the structure block equals the world block.
+     */
+    public boolean isStructureBlockEqualWorldBlock(@NotNull final BlockPos localPos)
+    {
+        final IBlockState structureBlockState = structure.getBlockState(localPos);
+        if (structureBlockState == null)
+        {
+            return true;
+        }
         final Block structureBlock = structureBlockState.getBlock();
 
         //All worldBlocks are equal the substitution block
@@ -332,7 +339,7 @@ public final class StructureWrapper
             return true;
         }
 
-        final BlockPos worldPos = this.getBlockPosition();
+        final BlockPos worldPos = localPos.add(getOffsetPosition());
 
         final IBlockState worldBlockState = world.getBlockState(worldPos);
 
@@ -353,7 +360,7 @@ public final class StructureWrapper
             return true;
         }
 
-        final Template.EntityInfo entityInfo = structure.getEntityinfo(this.getLocalPosition());
+        final Template.EntityInfo entityInfo = structure.getEntityinfo(localPos);
         if (entityInfo != null)
         {
             return false;
@@ -539,26 +546,14 @@ public final class StructureWrapper
      */
     public boolean decrementBlock()
     {
-        if (this.progressPos.equals(NULL_POS))
+        final int index = (this.progressPos.equals(NULL_POS) ? structure.getVolume() : structure.getIndex(this.progressPos)) - 1;
+        if (index < 0)
         {
-            this.progressPos.setPos(structure.getWidth(), structure.getHeight() - 1, structure.getLength() - 1);
-        }
-
-        this.progressPos.setPos(this.progressPos.getX() - 1, this.progressPos.getY(), this.progressPos.getZ());
-        if (this.progressPos.getX() == -1)
-        {
-            this.progressPos.setPos(structure.getWidth() - 1, this.progressPos.getY(), this.progressPos.getZ() - 1);
-            if (this.progressPos.getZ() == -1)
-            {
-                this.progressPos.setPos(this.progressPos.getX(), this.progressPos.getY() - 1, structure.getLength() - 1);
-                if (this.progressPos.getY() == -1)
-                {
-                    reset();
-                    return false;
-                }
-            }
+            reset();
+            return false;
         }
 
+        structure.getPosition(index, this.progressPos);
         return true;
     }
 
@@ -0,0 +1,347 @@
+package com.minecolonies.structures.helpers;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.BlockRenderLayer;
+import net.minecraft.util.EnumBlockRenderType;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.template.PlacementSettings;
+import net.minecraft.world.gen.structure.template.Template;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * The preview of a structure at one position, rotation and mirror, baked into vertex data once.
+ * Holds the vertex data of all quads by render layer and vertex format, relative to the origin of the structure,
+ * already tinted and scaled where the world has a block, so a frame only uploads it.
+ * Faces hidden behind an opaque block of the structure are left out.
+ * Rebuilt by the structure when the settings change.
+ */
+public final class GhostMesh
+{
+    /**
+     * Scale of the blocks where the world has a block already, so the preview does not flicker with it.
+     */
+    private static final float OCCUPIED_SCALE = 1.001F;
+
+    /**
+     * Vertices of a quad.
+     */
+    private static final int VERTICES = 4;
+
+    /**
+     * Max value of a color component.
+     */
+    private static final int COLOR_MAX = 0xFF;
+
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    @NotNull
+    private final BlockPos    origin;
+    @NotNull
+    private final Rotation    rotation;
+    @NotNull
+    private final Mirror      mirror;
+    @Nullable
+    private final IBlockState substitute;
+
+    /**
+     * The vertex data by layer and format.
+     */
+    @NotNull
+    private final Map<BlockRenderLayer, Map<VertexFormat, int[]>> vertexData;
+
+    private final int quadCount;
+    private final int culledQuadCount;
+
+    private GhostMesh(@NotNull final Builder builder)
+    {
+        this.origin = builder.origin;
+        this.rotation = builder.rotation;
+        this.mirror = builder.mirror;
+        this.substitute = builder.substitute;
+        this.quadCount = builder.quadCount;
+        this.culledQuadCount = builder.culledQuadCount;
+
+        this.vertexData = new EnumMap<>(BlockRenderLayer.class);
+        for (final Map.Entry<BlockRenderLayer, Map<VertexFormat, List<int[]>>> layer : builder.quads.entrySet())
+        {
+            final Map<VertexFormat, int[]> formats = new LinkedHashMap<>();
+            for (final Map.Entry<VertexFormat, List<int[]>> format : layer.getValue().entrySet())
+            {
+                formats.put(format.getKey(), concat(format.getValue()));
+            }
+            vertexData.put(layer.getKey(), formats);
+        }
+    }
+
+    /**
+     * Bake the preview of a structure.
+     *
+     * @param origin     the position of the structure in the world.
+     * @param settings   the rotation and mirror the blocks are transformed with.
+     * @param substitute the block the solid substitution blocks show, null if none.
+     * @param blocks     the transformed blocks of the structure, relative to the origin, substitution blocks already replaced or left out.
+     * @param source     where the models and colors come from.
+     * @return the mesh.
+     */
+    @NotNull
+    public static GhostMesh build(
+                                   @NotNull final BlockPos origin,
+                                   @NotNull final PlacementSettings settings,
+                                   @Nullable final IBlockState substitute,
+                                   @NotNull final Template.BlockInfo[] blocks,
+                                   @NotNull final ModelSource source)
+    {
+        final Map<BlockPos, IBlockState> states = new HashMap<>(blocks.length * 2);
+        for (final Template.BlockInfo block : blocks)
+        {
+            states.put(block.pos, block.blockState);
+        }
+
+        final Builder builder = new Builder(origin, settings, substitute);
+        for (final Template.BlockInfo block : blocks)
+        {
+            final IBlockState state = block.blockState;
+            if (state.getRenderType() != EnumBlockRenderType.MODEL)
+            {
+                continue;
+            }
+
+            final BlockPos pos = origin.add(block.pos);
+            final boolean occupied = source.isOccupied(pos);
+            for (final BlockRenderLayer layer : BlockRenderLayer.values())
+            {
+                if (!source.canRenderInLayer(state, layer))
+                {
+                    continue;
+                }
+
+                for (final EnumFacing facing : EnumFacing.values())
+                {
+                    final IBlockState neighbor = states.get(block.pos.offset(facing));
+                    final List<BakedQuad> quads = source.getQuads(state, pos, layer, facing);
+                    if (neighbor != null && neighbor.isOpaqueCube())
+                    {
+                        builder.culledQuadCount += quads.size();
+                        continue;
+                    }
+                    builder.add(layer, block.pos, state, pos, quads, occupied, source);
+                }
+                builder.add(layer, block.pos, state, pos, source.getQuads(state, pos, layer, null), occupied, source);
+            }
+        }
+        return new GhostMesh(builder);
+    }
+
+    /**
+     * Check if the mesh shows the structure at a position with some settings.
+     *
+     * @param origin     the position of the structure.
+     * @param settings   the settings.
+     * @param substitute the block the solid substitution blocks show.
+     * @return true if it does, else it has to be built again.
+     */
+    public boolean isFor(@NotNull final BlockPos origin, @NotNull final PlacementSettings settings, @Nullable final IBlockState substitute)
+    {
+        return this.origin.equals(origin) && rotation == settings.getRotation() && mirror == settings.getMirror() && Objects.equals(this.substitute, substitute);
+    }
+
+    /**
+     * Get the position of the structure, the vertices are relative to it.
+     *
+     * @return the position.
+     */
+    @NotNull
+    public BlockPos getOrigin()
+    {
+        return origin;
+    }
+
+    /**
+     * Get the vertex data of the mesh.
+     *
+     * @return the vertex data by layer and format, not to be modified.
+     */
+    @NotNull
+    public Map<BlockRenderLayer, Map<VertexFormat, int[]>> getVertexData()
+    {
+        return Collections.unmodifiableMap(vertexData);
+    }
+
+    /**
+     * Get the amount of quads of the mesh.
+     *
+     * @return the amount.
+     */
+    public int getQuadCount()
+    {
+        return quadCount;
+    }
+
+    /**
+     * Get the amount of quads left out because an opaque block of the structure hides them.
+     *
+     * @return the amount.
+     */
+    public int getCulledQuadCount()
+    {
+        return culledQuadCount;
+    }
+
+    @NotNull
+    private static int[] concat(@NotNull final List<int[]> parts)
+    {
+        int size = 0;
+        for (final int[] part : parts)
+        {
+            size += part.length;
+        }
+
+        final int[] data = new int[size];
+        int offset = 0;
+        for (final int[] part : parts)
+        {
+            System.arraycopy(part, 0, data, offset, part.length);
+            offset += part.length;
+        }
+        return data;
+    }
+
+    /**
+     * Where the mesh gets the models and colors from, the client world in game.
+     */
+    public interface ModelSource
+    {
+        /**
+         * Check if a block renders in a layer.
+         *
+         * @param state the block state.
+         * @param layer the layer.
+         * @return true if so.
+         */
+        boolean canRenderInLayer(@NotNull IBlockState state, @NotNull BlockRenderLayer layer);
+
+        /**
+         * Get the quads of a block in a layer.
+         *
+         * @param state  the block state.
+         * @param pos    the position in the world.
+         * @param layer  the layer.
+         * @param facing the side the quads are culled with, null for the quads which are never culled.
+         * @return the quads.
+         */
+        @NotNull
+        List<BakedQuad> getQuads(@NotNull IBlockState state, @NotNull BlockPos pos, @NotNull BlockRenderLayer layer, @Nullable EnumFacing facing);
+
+        /**
+         * Get the tint of a quad.
+         *
+         * @param state     the block state.
+         * @param pos       the position in the world.
+         * @param tintIndex the tint index of the quad.
+         * @return the color as RGB.
+         */
+        int getTint(@NotNull IBlockState state, @NotNull BlockPos pos, int tintIndex);
+
+        /**
+         * Check if the world has a block at a position.
+         *
+         * @param pos the position.
+         * @return true if it is not air.
+         */
+        boolean isOccupied(@NotNull BlockPos pos);
+    }
+
+    /**
+     * Collects the vertex data while baking.
+     */
+    private static final class Builder
+    {
+        @NotNull
+        private final BlockPos    origin;
+        @NotNull
+        private final Rotation    rotation;
+        @NotNull
+        private final Mirror      mirror;
+        @Nullable
+        private final IBlockState substitute;
+
+        @NotNull
+        private final Map<BlockRenderLayer, Map<VertexFormat, List<int[]>>> quads = new EnumMap<>(BlockRenderLayer.class);
+
+        private int quadCount       = 0;
+        private int culledQuadCount = 0;
+
+        private Builder(@NotNull final BlockPos origin, @NotNull final PlacementSettings settings, @Nullable final IBlockState substitute)
+        {
+            this.origin = origin;
+            this.rotation = settings.getRotation();
+            this.mirror = settings.getMirror();
+            this.substitute = substitute;
+        }
+
+        /**
+         * Bake quads of a block: move them to the block, scale them if occupied and apply the tint.
+         */
+        private void add(
+                          @NotNull final BlockRenderLayer layer,
+                          @NotNull final BlockPos offset,
+                          @NotNull final IBlockState state,
+                          @NotNull final BlockPos pos,
+                          @NotNull final List<BakedQuad> blockQuads,
+                          final boolean occupied,
+                          @NotNull final ModelSource source)
+        {
+            final float scale = occupied ? OCCUPIED_SCALE : 1F;
+            for (final BakedQuad quad : blockQuads)
+            {
+                final VertexFormat format = quad.getFormat();
+                final int stride = format.getIntegerSize();
+                final int[] data = quad.getVertexData().clone();
+                final int tint = quad.hasTintIndex() ? source.getTint(state, pos, quad.getTintIndex()) : -1;
+
+                for (int vertex = 0; vertex < VERTICES; vertex++)
+                {
+                    final int base = vertex * stride;
+                    data[base] = Float.floatToRawIntBits(offset.getX() + Float.intBitsToFloat(data[base]) * scale);
+                    data[base + 1] = Float.floatToRawIntBits(offset.getY() + Float.intBitsToFloat(data[base + 1]) * scale);
+                    data[base + 2] = Float.floatToRawIntBits(offset.getZ() + Float.intBitsToFloat(data[base + 2]) * scale);
+
+                    if (tint != -1 && format.hasColor())
+                    {
+                        final int colorIndex = base + format.getColorOffset() / Integer.BYTES;
+                        data[colorIndex] = multiplyColor(data[colorIndex], tint);
+                    }
+                }
+
+                quads.computeIfAbsent(layer, key -> new LinkedHashMap<>()).computeIfAbsent(format, key -> new ArrayList<>()).add(data);
+                quadCount++;
+            }
+        }
+
+        /**
+         * Multiply a vertex color with an RGB tint, the way the block renderer does it.
+         *
+         * @param vertexColor the color in the vertex data, in native byte order.
+         * @param tint        the tint as RGB.
+         * @return the new color in native byte order.
+         */
+        private static int multiplyColor(final int vertexColor, final int tint)
+        {
+            final int color = LITTLE_ENDIAN ? vertexColor : Integer.reverseBytes(vertexColor);
+            final int red = (color & COLOR_MAX) * ((tint >> 16) & COLOR_MAX) / COLOR_MAX;
+            final int green = ((color >> 8) & COLOR_MAX) * ((tint >> 8) & COLOR_MAX) / COLOR_MAX;
+            final int blue = ((color >> 16) & COLOR_MAX) * (tint & COLOR_MAX) / COLOR_MAX;
+            final int result = (color & (COLOR_MAX << 24)) | (blue << 16) | (green << 8) | red;
+            return LITTLE_ENDIAN ? result : Integer.reverseBytes(result);
+        }
+    }
+}
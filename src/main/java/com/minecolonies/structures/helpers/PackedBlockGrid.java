@@ -0,0 +1,285 @@
+package com.minecolonies.structures.helpers;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Compact block grid of a structure.
+ * The blocks are stored as palette ids in one flat array in the order the builder walks them, x first, then z, then y.
+ * Structures use few distinct block states, so the ids fit into a short for all but the largest ones.
+ * The few tile entity compounds are kept in a sparse map by index.
+ * Immutable once built, so it can be shared between threads.
+ */
+public final class PackedBlockGrid
+{
+    /**
+     * Palette id of a position without a block.
+     */
+    private static final int NO_BLOCK = 0;
+
+    /**
+     * Max palette size which still fits into the short ids.
+     */
+    private static final int MAX_SHORT_PALETTE = 1 << Short.SIZE;
+
+    /**
+     * Mask to read a short id unsigned.
+     */
+    private static final int SHORT_MASK = 0xFFFF;
+
+    private final int width;
+    private final int height;
+    private final int length;
+
+    /**
+     * The distinct block states, {@link #NO_BLOCK} is null.
+     */
+    private final IBlockState[] palette;
+
+    /**
+     * The palette ids of the blocks, exactly one of the arrays is used.
+     */
+    @Nullable
+    private final short[] shortIds;
+    @Nullable
+    private final int[]   intIds;
+
+    /**
+     * The tile entity compounds by index.
+     */
+    private final Map<Integer, NBTTagCompound> tileEntityData;
+
+    private PackedBlockGrid(@NotNull final Builder builder)
+    {
+        this.width = builder.width;
+        this.height = builder.height;
+        this.length = builder.length;
+        this.palette = builder.palette.toArray(new IBlockState[builder.palette.size()]);
+        this.tileEntityData = builder.tileEntityData.isEmpty() ? Collections.emptyMap() : new HashMap<>(builder.tileEntityData);
+
+        if (palette.length <= MAX_SHORT_PALETTE)
+        {
+            this.shortIds = new short[builder.ids.length];
+            for (int i = 0; i < builder.ids.length; i++)
+            {
+                shortIds[i] = (short) builder.ids[i];
+            }
+            this.intIds = null;
+        }
+        else
+        {
+            this.shortIds = null;
+            this.intIds = builder.ids.clone();
+        }
+    }
+
+    /**
+     * Get the index of a position.
+     *
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @param z the z coordinate.
+     * @return the index.
+     * @throws IndexOutOfBoundsException if the position is outside of the grid.
+     */
+    public int getIndex(final int x, final int y, final int z)
+    {
+        if (x < 0 || x >= width || y < 0 || y >= height || z < 0 || z >= length)
+        {
+            throw new IndexOutOfBoundsException(String.format("%d %d %d is outside of a grid of %d %d %d", x, y, z, width, height, length));
+        }
+        return (y * length + z) * width + x;
+    }
+
+    /**
+     * Get the index of a position.
+     *
+     * @param pos the position.
+     * @return the index.
+     * @throws IndexOutOfBoundsException if the position is outside of the grid.
+     */
+    public int getIndex(@NotNull final BlockPos pos)
+    {
+        return getIndex(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Get the x coordinate of an index.
+     *
+     * @param index the index.
+     * @return the x coordinate.
+     */
+    public int getX(final int index)
+    {
+        return index % width;
+    }
+
+    /**
+     * Get the y coordinate of an index.
+     *
+     * @param index the index.
+     * @return the y coordinate.
+     */
+    public int getY(final int index)
+    {
+        return index / (width * length);
+    }
+
+    /**
+     * Get the z coordinate of an index.
+     *
+     * @param index the index.
+     * @return the z coordinate.
+     */
+    public int getZ(final int index)
+    {
+        return (index / width) % length;
+    }
+
+    /**
+     * Get the amount of positions in the grid.
+     *
+     * @return the amount.
+     */
+    public int getVolume()
+    {
+        return width * height * length;
+    }
+
+    /**
+     * Getter of the width.
+     *
+     * @return the width.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Getter of the height.
+     *
+     * @return the height.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Getter of the length.
+     *
+     * @return the length.
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Get the block state at an index.
+     *
+     * @param index the index.
+     * @return the block state or null if the structure has no block there.
+     */
+    @Nullable
+    public IBlockState getBlockState(final int index)
+    {
+        return palette[shortIds == null ? intIds[index] : (shortIds[index] & SHORT_MASK)];
+    }
+
+    /**
+     * Get the tile entity compound at an index.
+     *
+     * @param index the index.
+     * @return the compound or null.
+     */
+    @Nullable
+    public NBTTagCompound getTileEntityData(final int index)
+    {
+        return tileEntityData.get(index);
+    }
+
+    /**
+     * Get the amount of distinct block states.
+     *
+     * @return the amount, without the empty position.
+     */
+    public int getPaletteSize()
+    {
+        return palette.length - 1;
+    }
+
+    /**
+     * Collects the blocks of a grid.
+     */
+    public static final class Builder
+    {
+        private final int                          width;
+        private final int                          height;
+        private final int                          length;
+        private final int[]                        ids;
+        private final List<IBlockState>            palette        = new ArrayList<>();
+        private final Map<IBlockState, Integer>    paletteIds     = new HashMap<>();
+        private final Map<Integer, NBTTagCompound> tileEntityData = new HashMap<>();
+
+        /**
+         * Create a builder of an empty grid.
+         *
+         * @param size the size of the grid.
+         */
+        public Builder(@NotNull final BlockPos size)
+        {
+            this.width = size.getX();
+            this.height = size.getY();
+            this.length = size.getZ();
+            this.ids = new int[width * height * length];
+            palette.add(NO_BLOCK, null);
+        }
+
+        /**
+         * Set the block at a position.
+         *
+         * @param pos   the position.
+         * @param state the block state.
+         * @param data  the tile entity compound or null.
+         * @return this builder.
+         */
+        @NotNull
+        public Builder set(@NotNull final BlockPos pos, @NotNull final IBlockState state, @Nullable final NBTTagCompound data)
+        {
+            final int index = (pos.getY() * length + pos.getZ()) * width + pos.getX();
+            ids[index] = paletteIds.computeIfAbsent(state, key ->
+            {
+                palette.add(key);
+                return palette.size() - 1;
+            });
+
+            if (data == null)
+            {
+                tileEntityData.remove(index);
+            }
+            else
+            {
+                tileEntityData.put(index, data);
+            }
+            return this;
+        }
+
+        /**
+         * Build the grid.
+         *
+         * @return the grid.
+         */
+        @NotNull
+        public PackedBlockGrid build()
+        {
+            return new PackedBlockGrid(this);
+        }
+    }
+}
@@ -10,7 +10,6 @@ import com.minecolonies.coremod.util.BlockUtils;
 import com.minecolonies.coremod.util.Log;
 import com.minecolonies.structures.fake.FakeEntity;
 import com.minecolonies.structures.fake.FakeWorld;
-import com.minecolonies.structures.lib.ModelHolder;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
@@ -19,9 +18,9 @@ import net.minecraft.client.renderer.RenderHelper;
 import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.VertexBuffer;
 import net.minecraft.client.renderer.block.model.BakedQuad;
-import net.minecraft.client.renderer.block.model.IBakedModel;
 import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.client.renderer.tileentity.TileEntityRendererDispatcher;
+import net.minecraft.client.renderer.vertex.VertexFormat;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.player.EntityPlayer;
@@ -37,7 +36,6 @@ import net.minecraft.world.gen.structure.template.PlacementSettings;
 import net.minecraft.world.gen.structure.template.Template;
 import net.minecraftforge.client.ForgeHooksClient;
 import net.minecraftforge.client.MinecraftForgeClient;
-import net.minecraftforge.client.model.pipeline.LightUtil;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
@@ -48,7 +46,7 @@ import javax.xml.bind.DatatypeConverter;
 import java.io.*;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.List;
+import java.util.*;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -72,11 +70,6 @@ public class Structure
      */
     private static final double ONE_HUNDED_EIGHTY_DEGREES = 270D;
 
-    /**
-     * Used for scale.
-     */
-    private static final double SCALE = 1.001;
-
     /**
      * Size of the buffer.
      */
@@ -90,6 +83,14 @@ public class Structure
     private PlacementSettings settings;
     private String            md5;
 
+    /**
+     * The baked preview of the structure, null until it is rendered first.
+     */
+    @Nullable
+    private GhostMesh        mesh              = null;
+    private List<TileEntity> ghostTileEntities = Collections.emptyList();
+    private Entity[]         ghostEntities     = new Entity[0];
+
     /**
      * Constuctor of Structure, tries to create a new structure.
      *
@@ -133,8 +134,18 @@ public class Structure
 
             try
             {
-                this.md5 = Structure.calculateMD5(Structure.getStream(correctStructureName));
-                this.template = readTemplateFromStream(inputStream);
+                //  Read the file once, a template parsed before is reused from the cache
+                final byte[] bytes = Structure.getStreamAsByteArray(inputStream);
+                this.md5 = Structure.calculateMD5(bytes);
+                this.template = this.md5 == null ? null : StructureCache.getTemplate(this.md5);
+                if (this.template == null)
+                {
+                    this.template = readTemplateFromStream(new ByteArrayInputStream(bytes));
+                    if (this.md5 != null)
+                    {
+                        StructureCache.putTemplate(this.md5, this.template);
+                    }
+                }
             }
             catch (final IOException e)
             {
@@ -396,7 +407,15 @@ public class Structure
         return byteStream.toByteArray();
     }
 
-    public static byte[] uncompress(final byte[] data)
+    /**
+     * Uncompress data, stops as soon as it gets bigger than allowed.
+     *
+     * @param data    the compressed data.
+     * @param maxSize the maximum amount of uncompressed bytes.
+     * @return the uncompressed data or null if it is bigger than maxSize.
+     */
+    @Nullable
+    public static byte[] uncompress(final byte[] data, final int maxSize)
     {
         byte[] buffer = new byte[BUFFER_SIZE];
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -406,6 +425,11 @@ public class Structure
             int len;
             while ((len = zipStream.read(buffer)) > 0)
             {
+                if (len > maxSize - out.size())
+                {
+                    Log.getLogger().warn("Could not uncompress data, it is bigger than " + maxSize + " bytes");
+                    return null;
+                }
                 out.write(buffer, 0, len);
             }
         }
@@ -487,6 +511,7 @@ public class Structure
 
     /**
      * Renders the structure.
+     * The blocks are baked into a {@link GhostMesh} once and drawn from it until the position, rotation or mirror changes.
      *
      * @param startingPos  the start pos to render.
      * @param clientWorld  the world of the client.
@@ -494,9 +519,48 @@ public class Structure
      * @param partialTicks the partial ticks.
      */
     public void renderStructure(@NotNull final BlockPos startingPos, @NotNull final World clientWorld, @NotNull final EntityPlayer player, final float partialTicks)
+    {
+        final IBlockState substitute = BlockUtils.getSubstitutionBlockAtWorld(clientWorld, startingPos);
+        if (this.mesh == null || !this.mesh.isFor(startingPos, this.settings, substitute))
+        {
+            this.bakeMesh(startingPos, clientWorld, substitute);
+        }
+
+        final double dx = player.lastTickPosX + (player.posX - player.lastTickPosX) * partialTicks;
+        final double dy = player.lastTickPosY + (player.posY - player.lastTickPosY) * partialTicks;
+        final double dz = player.lastTickPosZ + (player.posZ - player.lastTickPosZ) * partialTicks;
+
+        for (final Map.Entry<BlockRenderLayer, Map<VertexFormat, int[]>> layer : this.mesh.getVertexData().entrySet())
+        {
+            this.renderGhostLayer(layer.getKey(), layer.getValue(), dx, dy, dz);
+        }
+
+        for (final TileEntity tileEntity : this.ghostTileEntities)
+        {
+            this.renderGhostTileEntity(tileEntity, partialTicks);
+        }
+
+        for (final Entity anEntityList : this.ghostEntities)
+        {
+            if (anEntityList != null)
+            {
+                Minecraft.getMinecraft().getRenderManager().renderEntityStatic(anEntityList, 0.0F, true);
+            }
+        }
+    }
+
+    /**
+     * Bake the blocks of the structure at a position into the mesh, and create the tile entities and entities shown with it.
+     *
+     * @param startingPos the start pos to render.
+     * @param clientWorld the world of the client.
+     * @param substitute  the block the solid substitution blocks show.
+     */
+    private void bakeMesh(@NotNull final BlockPos startingPos, @NotNull final World clientWorld, @NotNull final IBlockState substitute)
     {
         final Template.BlockInfo[] blockList = this.getBlockInfoWithSettings(this.settings);
-        final Entity[] entityList = this.getEntityInfoWithSettings(clientWorld, startingPos, this.settings);
+        final List<Template.BlockInfo> blocks = new ArrayList<>(blockList.length);
+        this.ghostTileEntities = new ArrayList<>();
 
         for (final Template.BlockInfo aBlockList : blockList)
         {
@@ -510,31 +574,28 @@ public class Structure
 
             if (block == ModBlocks.blockSolidSubstitution)
             {
-                iblockstate = BlockUtils.getSubstitutionBlockAtWorld(clientWorld, startingPos);
+                iblockstate = substitute;
                 block = iblockstate.getBlock();
             }
 
-            final BlockPos blockpos = aBlockList.pos.add(startingPos);
-            final IBlockState iBlockExtendedState = block.getExtendedState(iblockstate, clientWorld, blockpos);
-            final IBakedModel ibakedmodel = Minecraft.getMinecraft().getBlockRendererDispatcher().getModelForState(iblockstate);
-            TileEntity tileentity = null;
-            if (block.hasTileEntity(iblockstate) && aBlockList.tileentityData != null)
-            {
-                tileentity = block.createTileEntity(clientWorld, iblockstate);
-                tileentity.readFromNBT(aBlockList.tileentityData);
-            }
-            final ModelHolder models = new ModelHolder(blockpos, iblockstate, iBlockExtendedState, tileentity, ibakedmodel);
-            getQuads(models, models.quads);
-            this.renderGhost(clientWorld, models, player, partialTicks);
-        }
+            blocks.add(new Template.BlockInfo(aBlockList.pos, iblockstate, aBlockList.tileentityData));
 
-        for (final Entity anEntityList : entityList)
-        {
-            if (anEntityList != null)
+            //  Tile entities without a model are rendered by their renderer
+            if (iblockstate.getRenderType() != EnumBlockRenderType.MODEL && block.hasTileEntity(iblockstate) && aBlockList.tileentityData != null)
             {
-                Minecraft.getMinecraft().getRenderManager().renderEntityStatic(anEntityList, 0.0F, true);
+                final TileEntity tileentity = block.createTileEntity(clientWorld, iblockstate);
+                if (tileentity != null)
+                {
+                    tileentity.readFromNBT(aBlockList.tileentityData);
+                    tileentity.setPos(aBlockList.pos.add(startingPos));
+                    tileentity.setWorld(new FakeWorld(iblockstate, clientWorld.getSaveHandler(), clientWorld.getWorldInfo(), clientWorld.provider, clientWorld.theProfiler, true));
+                    this.ghostTileEntities.add(tileentity);
+                }
             }
         }
+
+        this.mesh = GhostMesh.build(startingPos, this.settings, substitute, blocks.toArray(new Template.BlockInfo[blocks.size()]), new ClientModelSource(clientWorld));
+        this.ghostEntities = this.getEntityInfoWithSettings(clientWorld, startingPos, this.settings);
     }
 
     /**
@@ -591,81 +652,27 @@ public class Structure
         return entityList;
     }
 
-    private static void getQuads(final ModelHolder holder, final List<BakedQuad> quads)
-    {
-        if (holder.actualState.getRenderType() == EnumBlockRenderType.MODEL)
-        {
-            final BlockRenderLayer originalLayer = MinecraftForgeClient.getRenderLayer();
-
-            for (final BlockRenderLayer layer : BlockRenderLayer.values())
-            {
-                if (holder.actualState.getBlock().canRenderInLayer(holder.actualState, layer))
-                {
-                    ForgeHooksClient.setRenderLayer(layer);
-
-                    for (final EnumFacing facing : EnumFacing.values())
-                    {
-                        quads.addAll(holder.model.getQuads(holder.extendedState, facing, 0));
-                    }
-
-                    quads.addAll(holder.model.getQuads(holder.extendedState, null, 0));
-                }
-            }
-
-            ForgeHooksClient.setRenderLayer(originalLayer);
-        }
-    }
-
-    private void renderGhost(final World world, final ModelHolder holder, final EntityPlayer player, final float partialTicks)
+    private void renderGhostTileEntity(final TileEntity te, final float partialTicks)
     {
-        final boolean existingModel = !this.mc.world.isAirBlock(holder.pos);
-
-        final IBlockState actualState = holder.actualState;
-        final Block block = actualState.getBlock();
+        final World fakeWorld = te.getWorld();
+        final int pass = 0;
 
-        if (actualState.getRenderType() == EnumBlockRenderType.MODEL)
+        if (te.shouldRenderInPass(pass))
         {
-            final BlockRenderLayer originalLayer = MinecraftForgeClient.getRenderLayer();
-
-            for (final BlockRenderLayer layer : BlockRenderLayer.values())
-            {
-                if (block.canRenderInLayer(actualState, layer))
-                {
-                    this.mc.getTextureManager().bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
-                    ForgeHooksClient.setRenderLayer(layer);
-                    this.renderGhostBlock(world, holder, player, layer, existingModel, partialTicks);
-                    holder.setRendered(true);
-                }
-            }
-
-            ForgeHooksClient.setRenderLayer(originalLayer);
-        }
-
-        if (holder.te != null && !holder.isRendered())
-        {
-            final TileEntity te = holder.te;
-            te.setPos(holder.pos);
-            final FakeWorld fakeWorld = new FakeWorld(holder.actualState, world.getSaveHandler(), world.getWorldInfo(), world.provider, world.theProfiler, true);
-            te.setWorld(fakeWorld);
-            final int pass = 0;
-
-            if (te.shouldRenderInPass(pass))
-            {
-                final TileEntityRendererDispatcher terd = TileEntityRendererDispatcher.instance;
-                terd.prepare(fakeWorld,
-                  Minecraft.getMinecraft().renderEngine,
-                  Minecraft.getMinecraft().fontRendererObj,
-                  new FakeEntity(fakeWorld),
-                  null,
-                  0.0F);
-                GL11.glPushMatrix();
-                terd.renderEngine = Minecraft.getMinecraft().renderEngine;
-                terd.preDrawBatch();
-                GL11.glColor4f(1F, 1F, 1F, 1F);
-                terd.renderTileEntity(te, partialTicks, -1);
-                terd.drawBatch(pass);
-                GL11.glPopMatrix();
-            }
+            final TileEntityRendererDispatcher terd = TileEntityRendererDispatcher.instance;
+            terd.prepare(fakeWorld,
+              Minecraft.getMinecraft().renderEngine,
+              Minecraft.getMinecraft().fontRendererObj,
+              new FakeEntity(fakeWorld),
+              null,
+              0.0F);
+            GL11.glPushMatrix();
+            terd.renderEngine = Minecraft.getMinecraft().renderEngine;
+            terd.preDrawBatch();
+            GL11.glColor4f(1F, 1F, 1F, 1F);
+            terd.renderTileEntity(te, partialTicks, -1);
+            terd.drawBatch(pass);
+            GL11.glPopMatrix();
         }
     }
 
@@ -710,27 +717,14 @@ public class Structure
         }
     }
 
-    private void renderGhostBlock(
-                                   final World world,
-                                   final ModelHolder holder,
-                                   final EntityPlayer player,
-                                   final BlockRenderLayer layer,
-                                   final boolean existingModel,
-                                   final float partialTicks)
+    private void renderGhostLayer(final BlockRenderLayer layer, final Map<VertexFormat, int[]> vertexData, final double dx, final double dy, final double dz)
     {
-        final double dx = player.lastTickPosX + (player.posX - player.lastTickPosX) * partialTicks;
-        final double dy = player.lastTickPosY + (player.posY - player.lastTickPosY) * partialTicks;
-        final double dz = player.lastTickPosZ + (player.posZ - player.lastTickPosZ) * partialTicks;
-        final BlockPos pos = holder.pos;
+        final BlockPos pos = this.mesh.getOrigin();
+        this.mc.getTextureManager().bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
 
         GlStateManager.pushMatrix();
         GlStateManager.translate(pos.getX() - dx, pos.getY() - dy, pos.getZ() - dz);
 
-        if (existingModel)
-        {
-            GlStateManager.scale(SCALE, SCALE, SCALE);
-        }
-
         RenderHelper.disableStandardItemLighting();
 
         if (layer == BlockRenderLayer.CUTOUT)
@@ -740,18 +734,16 @@ public class Structure
 
         GlStateManager.color(1F, 1F, 1F, 1F);
 
-        final int alpha = ((int) (1.0D * 0xFF)) << 24;
-
         GlStateManager.enableBlend();
         GlStateManager.enableTexture2D();
 
         GlStateManager.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
         GlStateManager.colorMask(false, false, false, false);
-        this.renderModel(world, holder, pos, alpha);
+        renderVertexData(vertexData);
 
         GlStateManager.colorMask(true, true, true, true);
         GlStateManager.depthFunc(GL11.GL_LEQUAL);
-        this.renderModel(world, holder, pos, alpha);
+        renderVertexData(vertexData);
 
         GlStateManager.disableBlend();
 
@@ -763,38 +755,19 @@ public class Structure
         GlStateManager.popMatrix();
     }
 
-    private void renderModel(final World world, final ModelHolder holder, final BlockPos pos, final int alpha)
-    {
-        for (final EnumFacing facing : EnumFacing.values())
-        {
-            this.renderQuads(world, holder.actualState, pos, holder.model.getQuads(holder.extendedState, facing, 0), alpha);
-        }
-
-        this.renderQuads(world, holder.actualState, pos, holder.model.getQuads(holder.extendedState, null, 0), alpha);
-    }
-
-    private void renderQuads(final World world, final IBlockState actualState, final BlockPos pos, final List<BakedQuad> quads, final int alpha)
+    private static void renderVertexData(final Map<VertexFormat, int[]> vertexData)
     {
         final Tessellator tessellator = Tessellator.getInstance();
         final VertexBuffer buffer = tessellator.getBuffer();
 
-        for (final BakedQuad quad : quads)
+        for (final Map.Entry<VertexFormat, int[]> format : vertexData.entrySet())
         {
-            buffer.begin(GL11.GL_QUADS, quad.getFormat());
-
-            final int color = quad.hasTintIndex() ? this.getTint(world, actualState, pos, alpha, quad.getTintIndex()) : (alpha | 0xffffff);
-
-            LightUtil.renderQuadColor(buffer, quad, color);
-
+            buffer.begin(GL11.GL_QUADS, format.getKey());
+            buffer.addVertexData(format.getValue());
             tessellator.draw();
         }
     }
 
-    private int getTint(final World world, final IBlockState actualState, final BlockPos pos, final int alpha, final int tintIndex)
-    {
-        return alpha | this.mc.getBlockColors().colorMultiplier(actualState, world, pos, tintIndex);
-    }
-
     /**
      * Get entity info with specific setting.
      *
@@ -860,6 +833,17 @@ public class Structure
         return template.entities;
     }
 
+    /**
+     * Get the MD5 of the template file.
+     *
+     * @return the MD5 or null if the template could not be loaded.
+     */
+    @Nullable
+    public String getMD5()
+    {
+        return md5;
+    }
+
     /**
      * Get the Placement settings of the structure.
      *
@@ -869,4 +853,57 @@ public class Structure
     {
         return settings;
     }
+
+    /**
+     * Gets the models and colors of the blocks from the client.
+     */
+    private static final class ClientModelSource implements GhostMesh.ModelSource
+    {
+        private final World     world;
+        private final Minecraft mc = Minecraft.getMinecraft();
+
+        private ClientModelSource(final World world)
+        {
+            this.world = world;
+        }
+
+        @Override
+        public boolean canRenderInLayer(@NotNull final IBlockState state, @NotNull final BlockRenderLayer layer)
+        {
+            return state.getBlock().canRenderInLayer(state, layer);
+        }
+
+        @NotNull
+        @Override
+        public List<BakedQuad> getQuads(
+                                         @NotNull final IBlockState state,
+                                         @NotNull final BlockPos pos,
+                                         @NotNull final BlockRenderLayer layer,
+                                         @Nullable final EnumFacing facing)
+        {
+            final BlockRenderLayer originalLayer = MinecraftForgeClient.getRenderLayer();
+            ForgeHooksClient.setRenderLayer(layer);
+            try
+            {
+                final IBlockState extendedState = state.getBlock().getExtendedState(state, world, pos);
+                return mc.getBlockRendererDispatcher().getModelForState(state).getQuads(extendedState, facing, 0);
+            }
+            finally
+            {
+                ForgeHooksClient.setRenderLayer(originalLayer);
+            }
+        }
+
+        @Override
+        public int getTint(@NotNull final IBlockState state, @NotNull final BlockPos pos, final int tintIndex)
+        {
+            return mc.getBlockColors().colorMultiplier(state, world, pos, tintIndex);
+        }
+
+        @Override
+        public boolean isOccupied(@NotNull final BlockPos pos)
+        {
+            return !mc.world.isAirBlock(pos);
+        }
+    }
 }
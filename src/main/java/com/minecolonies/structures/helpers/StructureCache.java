@@ -0,0 +1,254 @@
+package com.minecolonies.structures.helpers;
+
+import com.minecolonies.coremod.configuration.Configurations;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
+import net.minecraft.world.gen.structure.template.Template;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Least recently used cache of parsed structure templates and their block layouts, shared by all colonies.
+ * Templates are keyed by the MD5 of their file, so a changed file never hits an old entry.
+ * The cache holds at most {@link Configurations#maxCachedSchematics} templates and {@link #MAX_CACHED_BLOCKS} blocks
+ * and is cleared whenever the schematics are loaded again.
+ * The cached templates and layouts are shared and must not be modified.
+ */
+public final class StructureCache
+{
+    /**
+     * Max amount of blocks in all cached templates and layouts together.
+     */
+    private static final long MAX_CACHED_BLOCKS = 1L << 22;
+
+    /**
+     * Percent factor for the hit rate.
+     */
+    private static final double PERCENT = 100D;
+
+    /**
+     * The cached templates by MD5, in access order.
+     */
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    private static long cachedBlocks = 0;
+    private static long hits         = 0;
+    private static long misses       = 0;
+    private static long layoutHits   = 0;
+    private static long layoutMisses = 0;
+
+    /**
+     * Private constructor to hide implicit one.
+     */
+    private StructureCache()
+    {
+        /*
+         * Intentionally left empty.
+         */
+    }
+
+    /**
+     * Get a parsed template.
+     *
+     * @param md5 the MD5 of the template file.
+     * @return the template or null if it is not cached.
+     */
+    @Nullable
+    public static synchronized Template getTemplate(@NotNull final String md5)
+    {
+        final Entry entry = entries.get(md5);
+        if (entry == null)
+        {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.template;
+    }
+
+    /**
+     * Store a parsed template.
+     *
+     * @param md5      the MD5 of the template file.
+     * @param template the template.
+     */
+    public static synchronized void putTemplate(@NotNull final String md5, @NotNull final Template template)
+    {
+        if (entries.containsKey(md5))
+        {
+            return;
+        }
+
+        final Entry entry = new Entry(template);
+        entries.put(md5, entry);
+        cachedBlocks += entry.getWeight();
+        evict();
+    }
+
+    /**
+     * Get the block layout of a template with a rotation and mirror.
+     *
+     * @param md5      the MD5 of the template file.
+     * @param rotation the rotation, or null for the layout as loaded.
+     * @param mirror   the mirror.
+     * @return the layout or null if it is not cached.
+     */
+    @Nullable
+    public static synchronized StructureProxy.Layout getLayout(@NotNull final String md5, @Nullable final Rotation rotation, @NotNull final Mirror mirror)
+    {
+        final Entry entry = entries.get(md5);
+        final StructureProxy.Layout layout = entry == null ? null : entry.layouts.get(new LayoutKey(rotation, mirror));
+        if (layout == null)
+        {
+            layoutMisses++;
+        }
+        else
+        {
+            layoutHits++;
+        }
+        return layout;
+    }
+
+    /**
+     * Store the block layout of a cached template.
+     *
+     * @param md5      the MD5 of the template file.
+     * @param rotation the rotation, or null for the layout as loaded.
+     * @param mirror   the mirror.
+     * @param layout   the layout.
+     */
+    public static synchronized void putLayout(
+                                               @NotNull final String md5,
+                                               @Nullable final Rotation rotation,
+                                               @NotNull final Mirror mirror,
+                                               @NotNull final StructureProxy.Layout layout)
+    {
+        final Entry entry = entries.get(md5);
+        if (entry == null || entry.layouts.containsKey(new LayoutKey(rotation, mirror)))
+        {
+            return;
+        }
+
+        cachedBlocks -= entry.getWeight();
+        entry.layouts.put(new LayoutKey(rotation, mirror), layout);
+        cachedBlocks += entry.getWeight();
+        evict();
+    }
+
+    /**
+     * Drop all cached templates, called when the schematics are rescanned.
+     */
+    public static synchronized void clear()
+    {
+        entries.clear();
+        cachedBlocks = 0;
+    }
+
+    /**
+     * Get the hit rates and size of the cache, shown by the colony info command.
+     *
+     * @return a line of text.
+     */
+    @NotNull
+    public static synchronized String getStatistics()
+    {
+        return String.format("%d templates, %d blocks, templates %d hits %d misses (%.1f%%), layouts %d hits %d misses (%.1f%%)",
+          entries.size(),
+          cachedBlocks,
+          hits,
+          misses,
+          getHitRate(hits, misses),
+          layoutHits,
+          layoutMisses,
+          getHitRate(layoutHits, layoutMisses));
+    }
+
+    /**
+     * Get the hit rate of a counter pair in percent.
+     */
+    private static double getHitRate(final long hitCount, final long missCount)
+    {
+        final long lookups = hitCount + missCount;
+        return lookups == 0 ? 0D : hitCount * PERCENT / lookups;
+    }
+
+    /**
+     * Drop the least recently used templates until the cache fits its limits, the newest template is always kept.
+     */
+    private static void evict()
+    {
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > 1 && (entries.size() > Configurations.maxCachedSchematics || cachedBlocks > MAX_CACHED_BLOCKS))
+        {
+            cachedBlocks -= iterator.next().getWeight();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * A cached template with its layouts.
+     */
+    private static final class Entry
+    {
+        private final Template                              template;
+        private final int                                   blocks;
+        private final Map<LayoutKey, StructureProxy.Layout> layouts = new HashMap<>();
+
+        private Entry(@NotNull final Template template)
+        {
+            this.template = template;
+            this.blocks = template.blocks.size();
+        }
+
+        /**
+         * The weight of the entry, the blocks of the template and of every layout.
+         *
+         * @return the weight in blocks.
+         */
+        private long getWeight()
+        {
+            return (long) blocks * (1 + layouts.size());
+        }
+    }
+
+    /**
+     * Key of a layout, the rotation and mirror.
+     */
+    private static final class LayoutKey
+    {
+        @Nullable
+        private final Rotation rotation;
+        @NotNull
+        private final Mirror   mirror;
+
+        private LayoutKey(@Nullable final Rotation rotation, @NotNull final Mirror mirror)
+        {
+            this.rotation = rotation;
+            this.mirror = mirror;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            final LayoutKey key = (LayoutKey) o;
+            return rotation == key.rotation && mirror == key.mirror;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(rotation, mirror);
+        }
+    }
+}
@@ -12,20 +12,22 @@ import net.minecraft.world.gen.structure.template.Template;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * Proxy class translating the structures method to something we can use.
+ * The blocks are kept in a {@link PackedBlockGrid}, the few entities by their index in it.
  */
 public class StructureProxy
 {
-    private final Structure                 structure;
-    private       Template.EntityInfo[][][] entities;
-    private       Template.BlockInfo[][][]  blocks;
-    private       int                       width;
-    private       int                       height;
-    private       int                       length;
-    private       BlockPos                  offset;
+    private final Structure                         structure;
+    private       Map<Integer, Template.EntityInfo> entities = Collections.emptyMap();
+    private       PackedBlockGrid                   blocks;
+    private       BlockPos                          min;
+    private       int                               width;
+    private       int                               height;
+    private       int                               length;
+    private       BlockPos                          offset;
 
     /**
      * @param worldObj the world.
@@ -39,32 +41,82 @@ public class StructureProxy
         {
             return;
         }
-        final BlockPos size = structure.getSize(Rotation.NONE);
 
-        this.width = size.getX();
-        this.height = size.getY();
-        this.length = size.getZ();
+        applyLayout(getLayout(null, Mirror.NONE, 0));
+        this.entities = new HashMap<>();
 
-        this.blocks = new Template.BlockInfo[width][height][length];
-        this.entities = new Template.EntityInfo[width][height][length];
+        for (final Template.EntityInfo info : structure.getTileEntities())
+        {
+            entities.put(blocks.getIndex(info.blockPos), info);
+        }
+    }
+
+    /**
+     * Get the block layout of the structure from the cache, or compute and cache it.
+     *
+     * @param rotation the rotation, or null for the structure as loaded.
+     * @param mirror   the mirror.
+     * @param times    the times the structure is rotated.
+     * @return the layout.
+     */
+    @NotNull
+    private Layout getLayout(@Nullable final Rotation rotation, @NotNull final Mirror mirror, final int times)
+    {
+        final String md5 = structure.getMD5();
+        if (md5 != null)
+        {
+            final Layout cached = StructureCache.getLayout(md5, rotation, mirror);
+            if (cached != null)
+            {
+                return cached;
+            }
+        }
+
+        final Layout layout = rotation == null ? createLoadedLayout() : createRotatedLayout(rotation, mirror, times);
+        if (md5 != null)
+        {
+            StructureCache.putLayout(md5, rotation, mirror, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Take over the block layout, the blocks are shared with the cache and never modified.
+     *
+     * @param layout the layout.
+     */
+    private void applyLayout(@NotNull final Layout layout)
+    {
+        this.blocks = layout.blocks;
+        this.min = layout.min;
+        this.width = blocks.getWidth();
+        this.height = blocks.getHeight();
+        this.length = blocks.getLength();
+        this.offset = layout.offset;
+    }
+
+    /**
+     * Create the block layout of the structure as loaded.
+     *
+     * @return the layout.
+     */
+    @NotNull
+    private Layout createLoadedLayout()
+    {
+        final PackedBlockGrid.Builder builder = new PackedBlockGrid.Builder(structure.getSize(Rotation.NONE));
+        BlockPos hutOffset = null;
 
         for (final Template.BlockInfo info : structure.getBlockInfo())
         {
-            final BlockPos tempPos = info.pos;
-            blocks[tempPos.getX()][tempPos.getY()][tempPos.getZ()] = info;
-            entities[tempPos.getX()][tempPos.getY()][tempPos.getZ()] = null;
+            builder.set(info.pos, info.blockState, info.tileentityData);
 
             if (info.blockState.getBlock() instanceof AbstractBlockHut)
             {
-                offset = info.pos;
+                hutOffset = info.pos;
             }
         }
 
-        for (final Template.EntityInfo info : structure.getTileEntities())
-        {
-            final BlockPos tempPos = info.blockPos;
-            entities[tempPos.getX()][tempPos.getY()][tempPos.getZ()] = info;
-        }
+        return new Layout(builder.build(), hutOffset, BlockPos.ORIGIN);
     }
 
     /**
@@ -125,22 +177,44 @@ public class StructureProxy
      * Getter of the IBlockState at a certain position.
      *
      * @param pos the position.
-     * @return the blockState.
+     * @return the blockState or null if the structure has no block there, callers have to check.
+     * @throws IndexOutOfBoundsException if the position is outside of the structure.
      */
+    @Nullable
     public IBlockState getBlockState(@NotNull final BlockPos pos)
     {
-        return blocks[pos.getX()][pos.getY()][pos.getZ()].blockState;
+        return blocks.getBlockState(blocks.getIndex(pos));
+    }
+
+    /**
+     * Getter of the IBlockState at an index, see {@link #getIndex(BlockPos)}.
+     *
+     * @param index the index.
+     * @return the blockState.
+     */
+    @Nullable
+    public IBlockState getBlockState(final int index)
+    {
+        return blocks.getBlockState(index);
     }
 
     /**
      * Getter of the BlockInfo at a certain position.
      *
      * @param pos the position.
-     * @return the blockState.
+     * @return the blockInfo or null if the structure has no block there, callers have to check.
+     * @throws IndexOutOfBoundsException if the position is outside of the structure.
      */
+    @Nullable
     public Template.BlockInfo getBlockInfo(@NotNull final BlockPos pos)
     {
-        return blocks[pos.getX()][pos.getY()][pos.getZ()];
+        final int index = blocks.getIndex(pos);
+        final IBlockState state = blocks.getBlockState(index);
+        if (state == null)
+        {
+            return null;
+        }
+        return new Template.BlockInfo(pos.subtract(min), state, blocks.getTileEntityData(index));
     }
 
     /**
@@ -162,11 +236,60 @@ public class StructureProxy
     @Nullable
     public Template.EntityInfo getEntityinfo(@NotNull final BlockPos pos)
     {
-        if (entities[pos.getX()][pos.getY()].length == 0)
-        {
-            return null;
-        }
-        return entities[pos.getX()][pos.getY()][pos.getZ()];
+        return entities.get(blocks.getIndex(pos));
+    }
+
+    /**
+     * Get the index of a position, the positions are walked with x first, then z, then y.
+     *
+     * @param pos the position.
+     * @return the index.
+     */
+    public int getIndex(@NotNull final BlockPos pos)
+    {
+        return blocks.getIndex(pos);
+    }
+
+    /**
+     * Get the position of an index.
+     *
+     * @param index the index.
+     * @param pos   the position to set.
+     */
+    public void getPosition(final int index, @NotNull final BlockPos.MutableBlockPos pos)
+    {
+        pos.setPos(blocks.getX(index), blocks.getY(index), blocks.getZ(index));
+    }
+
+    /**
+     * Get the amount of positions in the structure.
+     *
+     * @return the amount.
+     */
+    public int getVolume()
+    {
+        return blocks.getVolume();
+    }
+
+    /**
+     * Get the blocks of the structure, the grid is immutable and may be read from other threads.
+     *
+     * @return the grid.
+     */
+    public PackedBlockGrid getBlocks()
+    {
+        return blocks;
+    }
+
+    /**
+     * Get the indices of all positions with an entity.
+     *
+     * @return a new set of indices.
+     */
+    @NotNull
+    public Set<Integer> getEntityIndices()
+    {
+        return new HashSet<>(entities.keySet());
     }
 
     /**
@@ -226,20 +349,50 @@ public class StructureProxy
         }
         structure.setPlacementSettings(new PlacementSettings().setRotation(rotation).setMirror(mirror));
 
-        final BlockPos size = structure.getSize(rotation);
+        final Layout layout = getLayout(rotation, mirror, times);
+        applyLayout(layout);
+        this.entities = new HashMap<>();
 
-        this.width = size.getX();
-        this.height = size.getY();
-        this.length = size.getZ();
+        final PlacementSettings settings = new PlacementSettings().setRotation(rotation).setMirror(mirror);
+        for (final Template.EntityInfo info : structure.getTileEntities())
+        {
+            final Template.EntityInfo newInfo = structure.transformEntityInfoWithSettings(info, world, rotatePos.subtract(offset).add(layout.min), settings);
+            //289 74 157 - 289.9 76.5, 157.5
+            final BlockPos tempPos = Template.transformedBlockPos(settings, info.blockPos).add(layout.min);
+            this.entities.put(blocks.getIndex(tempPos), newInfo);
+        }
+    }
 
-        this.blocks = new Template.BlockInfo[width][height][length];
-        this.entities = new Template.EntityInfo[width][height][length];
+    /**
+     * Create the block layout of the structure with a rotation and mirror.
+     *
+     * @param rotation the rotation.
+     * @param mirror   the mirror.
+     * @param times    the times the structure is rotated.
+     * @return the layout.
+     */
+    @NotNull
+    private Layout createRotatedLayout(@NotNull final Rotation rotation, @NotNull final Mirror mirror, final int times)
+    {
+        return createRotatedLayout(structure.getSize(rotation), structure.getBlockInfoWithSettings(new PlacementSettings().setRotation(rotation).setMirror(mirror)), times);
+    }
 
+    /**
+     * Create the block layout of rotated blocks, they are moved to start at 0.
+     *
+     * @param size  the rotated size of the structure.
+     * @param infos the rotated blocks.
+     * @param times the times the structure is rotated.
+     * @return the layout.
+     */
+    @NotNull
+    static Layout createRotatedLayout(@NotNull final BlockPos size, @NotNull final Template.BlockInfo[] infos, final int times)
+    {
         int minX = 0;
         int minY = 0;
         int minZ = 0;
 
-        for (final Template.BlockInfo info : structure.getBlockInfoWithSettings(new PlacementSettings().setRotation(rotation).setMirror(mirror)))
+        for (final Template.BlockInfo info : infos)
         {
             final BlockPos tempPos = info.pos;
             final int x = tempPos.getX();
@@ -264,64 +417,93 @@ public class StructureProxy
         minX = Math.abs(minX);
         minY = Math.abs(minY);
         minZ = Math.abs(minZ);
-        boolean foundHut = false;
-        final PlacementSettings settings = new PlacementSettings().setRotation(rotation).setMirror(mirror);
+        final PackedBlockGrid.Builder builder = new PackedBlockGrid.Builder(size);
+        BlockPos hutOffset = null;
 
-        for (final Template.BlockInfo info : structure.getBlockInfoWithSettings(settings))
+        for (final Template.BlockInfo info : infos)
         {
-            final BlockPos tempPos = info.pos;
-            final int x = tempPos.getX() + minX;
-            final int y = tempPos.getY() + minY;
-            final int z = tempPos.getZ() + minZ;
-
-            this.blocks[x][y][z] = info;
-            this.entities[x][y][z] = null;
+            builder.set(info.pos.add(minX, minY, minZ), info.blockState, info.tileentityData);
 
             if (info.blockState.getBlock() instanceof AbstractBlockHut)
             {
-                foundHut = true;
-                offset = info.pos.add(minX, minY, minZ);
+                hutOffset = info.pos.add(minX, minY, minZ);
             }
         }
 
-        updateOffSetIfDecoration(foundHut, size, times, minX, minY, minZ);
-
-        for (final Template.EntityInfo info : structure.getTileEntities())
+        if (hutOffset == null)
         {
-            final Template.EntityInfo newInfo = structure.transformEntityInfoWithSettings(info, world, rotatePos.subtract(offset).add(new BlockPos(minX, minY, minZ)), settings);
-            //289 74 157 - 289.9 76.5, 157.5
-            final BlockPos tempPos = Template.transformedBlockPos(settings, info.blockPos);
-            final int x = tempPos.getX() + minX;
-            final int y = tempPos.getY() + minY;
-            final int z = tempPos.getZ() + minZ;
-            this.entities[x][y][z] = newInfo;
+            hutOffset = getDecorationOffset(size, times, minX, minY, minZ);
         }
+
+        return new Layout(builder.build(), hutOffset, new BlockPos(minX, minY, minZ));
     }
 
     /**
-     * Updates the offset if the structure is a decoration.
+     * Calculates the offset if the structure is a decoration, the center of its ground layer.
      *
-     * @param foundHut if false update.
+     * @param size     the rotated size of the structure.
+     * @param rotation the times the structure is rotated.
+     * @param minX     the x shift of the rotated blocks.
+     * @param minY     the y shift of the rotated blocks.
+     * @param minZ     the z shift of the rotated blocks.
+     * @return the offset.
      */
-    private void updateOffSetIfDecoration(final boolean foundHut, final BlockPos size, int rotation, int minX, int minY, int minZ)
+    private static BlockPos getDecorationOffset(final BlockPos size, int rotation, int minX, int minY, int minZ)
     {
-        if (!foundHut)
+        BlockPos tempSize = size;
+        if (rotation == 1)
         {
-            BlockPos tempSize = size;
-            if (rotation == 1)
-            {
-                tempSize = new BlockPos(-size.getX(), size.getY(), size.getZ());
-            }
-            if (rotation == 2)
-            {
-                tempSize = new BlockPos(-size.getX(), size.getY(), -size.getZ());
-            }
-            if (rotation == 3)
-            {
-                tempSize = new BlockPos(size.getX(), size.getY(), -size.getZ());
-            }
+            tempSize = new BlockPos(-size.getX(), size.getY(), size.getZ());
+        }
+        if (rotation == 2)
+        {
+            tempSize = new BlockPos(-size.getX(), size.getY(), -size.getZ());
+        }
+        if (rotation == 3)
+        {
+            tempSize = new BlockPos(size.getX(), size.getY(), -size.getZ());
+        }
+
+        return new BlockPos(tempSize.getX() / 2, 0, tempSize.getZ() / 2).add(minX, minY, minZ);
+    }
+
+    /**
+     * Block layout of a structure with one rotation and mirror, shared by all proxies of the structure through the {@link StructureCache}.
+     */
+    public static final class Layout
+    {
+        private final PackedBlockGrid blocks;
+        @Nullable
+        private final BlockPos        offset;
+        private final BlockPos        min;
 
-            offset = new BlockPos(tempSize.getX() / 2, 0, tempSize.getZ() / 2).add(minX, minY, minZ);
+        Layout(@NotNull final PackedBlockGrid blocks, @Nullable final BlockPos offset, @NotNull final BlockPos min)
+        {
+            this.blocks = blocks;
+            this.offset = offset;
+            this.min = min;
+        }
+
+        /**
+         * Get the blocks of the layout.
+         *
+         * @return the grid.
+         */
+        @NotNull
+        PackedBlockGrid getBlocks()
+        {
+            return blocks;
+        }
+
+        /**
+         * Get the shift which moved the rotated blocks to start at 0.
+         *
+         * @return the shift.
+         */
+        @NotNull
+        BlockPos getMin()
+        {
+            return min;
         }
     }
 }
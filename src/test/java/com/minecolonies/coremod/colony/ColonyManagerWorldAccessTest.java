@@ -0,0 +1,126 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.entity.pathfinding.PassabilityCache;
+import com.minecolonies.coremod.entity.pathfinding.PathChunkCache;
+import com.minecolonies.coremod.test.ReflectionUtil;
+import com.minecolonies.coremod.util.BlockUtils;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+
+/**
+ * Tests around the invalidation of the passability caches by {@link ColonyManagerWorldAccess},
+ * with two colonies whose caches both hold the changed block.
+ */
+@PrepareForTest({ColonyManager.class, BlockUtils.class})
+@PowerMockIgnore("javax.management.*")
+@RunWith(PowerMockRunner.class)
+public class ColonyManagerWorldAccessTest
+{
+    private static final int      RANGE = 64;
+    private static final BlockPos POS   = new BlockPos(50, 64, 0);
+
+    private final ColonyManagerWorldAccess access = new ColonyManagerWorldAccess();
+
+    private World            world;
+    private PathChunkCache   chunkCache;
+    private PassabilityCache first;
+    private PassabilityCache second;
+    private IBlockState      stone;
+    private IBlockState      otherStone;
+    private IBlockState      air;
+
+    @Before
+    public void setup()
+    {
+        mockStatic(ColonyManager.class);
+        mockStatic(BlockUtils.class);
+
+        stone = mockState(Material.ROCK);
+        otherStone = mockState(Material.ROCK);
+        air = mockState(Material.AIR);
+
+        world = mock(World.class);
+        chunkCache = mock(PathChunkCache.class);
+        when(chunkCache.isBlockLoaded(any(BlockPos.class))).thenReturn(true);
+        when(chunkCache.getBlockState(any(BlockPos.class))).thenReturn(stone);
+
+        first = new PassabilityCache(BlockPos.ORIGIN, RANGE);
+        second = new PassabilityCache(new BlockPos(100, 64, 0), RANGE);
+        final PassabilityCache farAway = new PassabilityCache(new BlockPos(200, 64, 0), RANGE);
+        when(ColonyManager.getColoniesNear(world, POS)).thenReturn(Arrays.asList(mockColony(first), mockColony(null), mockColony(farAway), mockColony(second)));
+
+        first.getFlags(chunkCache, POS);
+        second.getFlags(chunkCache, POS);
+    }
+
+    private static IBlockState mockState(final Material material)
+    {
+        final IBlockState state = mock(IBlockState.class);
+        when(state.getMaterial()).thenReturn(material);
+        when(state.getBlock()).thenReturn(mock(Block.class));
+        return state;
+    }
+
+    private static Colony mockColony(final PassabilityCache cache)
+    {
+        final Colony colony = mock(Colony.class);
+        when(colony.getPassabilityCacheIfPresent()).thenReturn(cache);
+        return colony;
+    }
+
+    @Test
+    public void testChangedPassabilityIsDroppedFromEveryCache()
+    {
+        final int firstVersion = first.getVersion(POS);
+        final int secondVersion = second.getVersion(POS);
+        final int stoneFlags = first.getFlags(chunkCache, POS);
+
+        //  The stone was mined
+        when(chunkCache.getBlockState(any(BlockPos.class))).thenReturn(air);
+        access.notifyBlockUpdate(world, POS, stone, air, 3);
+
+        assertNotEquals(firstVersion, first.getVersion(POS));
+        assertNotEquals(secondVersion, second.getVersion(POS));
+        assertNotEquals(stoneFlags, first.getFlags(chunkCache, POS));
+        assertEquals(PassabilityCache.computeFlags(chunkCache, POS, air), second.getFlags(chunkCache, POS));
+    }
+
+    @Test
+    public void testSamePassabilityIsKept()
+    {
+        final int firstVersion = first.getVersion(POS);
+        final int secondVersion = second.getVersion(POS);
+
+        access.notifyBlockUpdate(world, POS, stone, otherStone, 3);
+
+        assertEquals(firstVersion, first.getVersion(POS));
+        assertEquals(secondVersion, second.getVersion(POS));
+    }
+
+    @Test
+    public void testClientWorldIsIgnored() throws Exception
+    {
+        final int firstVersion = first.getVersion(POS);
+        ReflectionUtil.setFinalField(world, "isRemote", true);
+
+        access.notifyBlockUpdate(world, POS, stone, air, 3);
+        assertEquals(firstVersion, first.getVersion(POS));
+    }
+}
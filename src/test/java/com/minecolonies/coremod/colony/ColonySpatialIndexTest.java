@@ -0,0 +1,176 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.colony.permissions.IPermissions;
+import com.minecolonies.coremod.util.BlockPosUtil;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests around {@link ColonySpatialIndex}.
+ */
+public class ColonySpatialIndexTest
+{
+    private static final int RANGE        = 100;
+    private static final int COLONY_COUNT = 200;
+    private static final int QUERY_COUNT  = 500;
+    private static final int WORLD_SIZE   = 20000;
+
+    private ColonySpatialIndex<TestColony> index;
+    private List<TestColony>               colonies;
+    private Random                         random;
+
+    @Before
+    public void setup()
+    {
+        index = new ColonySpatialIndex<>();
+        colonies = new ArrayList<>();
+        random = new Random(42);
+
+        for (int i = 0; i < COLONY_COUNT; i++)
+        {
+            final TestColony colony = new TestColony(i, randomPos());
+            colonies.add(colony);
+            index.add(colony, RANGE);
+        }
+    }
+
+    private BlockPos randomPos()
+    {
+        return new BlockPos(random.nextInt(WORLD_SIZE) - WORLD_SIZE / 2, 64, random.nextInt(WORLD_SIZE) - WORLD_SIZE / 2);
+    }
+
+    @Test
+    public void testGetColonyAt()
+    {
+        final TestColony colony = colonies.get(0);
+        final BlockPos inside = colony.getCenter().add(RANGE / 2, 0, -RANGE / 2);
+        assertSame(colony, index.getColonyAt(null, inside));
+
+        for (int i = 0; i < QUERY_COUNT; i++)
+        {
+            final BlockPos pos = randomPos();
+            final TestColony expected = colonies.stream().filter(c -> c.isCoordInColony(null, pos)).findFirst().orElse(null);
+            assertSame(expected, index.getColonyAt(null, pos));
+        }
+    }
+
+    @Test
+    public void testGetColoniesNear()
+    {
+        for (int i = 0; i < QUERY_COUNT; i++)
+        {
+            final BlockPos pos = randomPos();
+            final List<TestColony> near = index.getColoniesNear(pos);
+            for (final TestColony colony : colonies)
+            {
+                if (colony.isCoordInColony(null, pos))
+                {
+                    assertTrue(near.contains(colony));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetClosestColony()
+    {
+        for (int i = 0; i < QUERY_COUNT; i++)
+        {
+            final BlockPos pos = randomPos();
+            long expected = Long.MAX_VALUE;
+            for (final TestColony colony : colonies)
+            {
+                expected = Math.min(expected, colony.getDistanceSquared(pos));
+            }
+            assertEquals(expected, index.getClosestColony(pos).getDistanceSquared(pos));
+        }
+
+        //  Far outside of all colonies
+        assertNotNull(index.getClosestColony(new BlockPos(WORLD_SIZE * 10, 64, WORLD_SIZE * 10)));
+    }
+
+    @Test
+    public void testRemove()
+    {
+        final TestColony colony = colonies.get(0);
+        index.remove(colony);
+
+        assertNull(index.getColonyAt(null, colony.getCenter()));
+        assertNotSame(colony, index.getClosestColony(colony.getCenter()));
+        assertFalse(index.hasColonyCenterWithin(colony.getCenter(), 1));
+        assertEquals(COLONY_COUNT - 1, index.getColonies().size());
+    }
+
+    @Test
+    public void testHasColonyCenterWithin()
+    {
+        final TestColony colony = colonies.get(0);
+        assertTrue(index.hasColonyCenterWithin(colony.getCenter().add(3, 0, 4), 26));
+        assertFalse(index.hasColonyCenterWithin(new BlockPos(WORLD_SIZE * 10, 64, WORLD_SIZE * 10), RANGE * RANGE));
+    }
+
+    /**
+     * Minimal colony with a circular area.
+     */
+    private static final class TestColony implements IColony
+    {
+        private final int      id;
+        private final BlockPos center;
+
+        private TestColony(final int id, final BlockPos center)
+        {
+            this.id = id;
+            this.center = center;
+        }
+
+        @Override
+        public BlockPos getCenter()
+        {
+            return center;
+        }
+
+        @Override
+        public String getName()
+        {
+            return "Colony " + id;
+        }
+
+        @Override
+        public IPermissions getPermissions()
+        {
+            return null;
+        }
+
+        @Override
+        public boolean isCoordInColony(final World w, final BlockPos pos)
+        {
+            return getDistanceSquared(pos) <= RANGE * RANGE;
+        }
+
+        @Override
+        public long getDistanceSquared(final BlockPos pos)
+        {
+            return BlockPosUtil.getDistanceSquared2D(center, pos);
+        }
+
+        @Override
+        public boolean hasTownHall()
+        {
+            return true;
+        }
+
+        @Override
+        public int getID()
+        {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.coremod.colony.buildings.AbstractBuilding;
+import com.minecolonies.coremod.colony.buildings.BuildingHome;
+import com.minecolonies.coremod.util.Utils;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests around {@link DeliveryRequestQueue}, with mocked buildings which are taken by a deliveryman and delivered to.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DeliveryRequestQueueTest
+{
+    private static final BlockPos LOCATION = new BlockPos(10, 64, 10);
+
+    @Mock
+    private Colony colony;
+
+    @Mock
+    private World world;
+
+    @Mock
+    private AbstractBuilding building;
+
+    private final long[]               tick = new long[1];
+    private       DeliveryRequestQueue queue;
+
+    @Before
+    public void setup()
+    {
+        when(colony.getWorld()).thenReturn(world);
+        when(world.getTotalWorldTime()).thenAnswer(invocation -> tick[0]);
+        when(building.getLocation()).thenReturn(LOCATION);
+        when(building.getRequiredTool()).thenReturn("");
+        queue = new DeliveryRequestQueue(colony);
+    }
+
+    /**
+     * Let the building need items, publish it and let a deliveryman take the request.
+     */
+    private void publishAndAssign()
+    {
+        when(building.areItemsNeeded()).thenReturn(true);
+        when(building.needsAnything()).thenReturn(true);
+        queue.publish(building);
+        queue.assign(LOCATION);
+        assertTrue(queue.getOpenRequests().isEmpty());
+        tick[0] += 100;
+    }
+
+    @Test
+    public void testDeliveredRequestIsClosed()
+    {
+        publishAndAssign();
+
+        //  The worker took everything
+        when(building.areItemsNeeded()).thenReturn(false);
+        when(building.needsAnything()).thenReturn(false);
+        queue.complete(building);
+
+        assertTrue(queue.getOpenRequests().isEmpty());
+        assertTrue(queue.getStatistics().startsWith("0 open, 1 published, 1 fulfilled, 0 withdrawn"));
+    }
+
+    @Test
+    public void testChestFullKeepsRequestOpen()
+    {
+        publishAndAssign();
+
+        //  Nothing fitted into the chest, the building still needs the items
+        queue.complete(building);
+
+        final List<DeliveryRequest> open = queue.getOpenRequests();
+        assertEquals(1, open.size());
+        assertEquals(DeliveryRequest.Type.ITEMS, open.get(0).getType());
+        assertEquals(0, open.get(0).getCreated());
+        assertTrue(queue.getStatistics().startsWith("1 open, 1 published, 0 fulfilled"));
+    }
+
+    @Test
+    public void testWrongToolLevelKeepsRequestOpen()
+    {
+        when(building.getRequiredTool()).thenReturn(Utils.PICKAXE);
+        when(building.needsAnything()).thenReturn(true);
+        queue.publish(building);
+        queue.assign(LOCATION);
+
+        //  The delivered pickaxe was too weak, the worker still asks for one
+        queue.complete(building);
+
+        final List<DeliveryRequest> open = queue.getOpenRequests();
+        assertEquals(1, open.size());
+        assertEquals(DeliveryRequest.Type.TOOL, open.get(0).getType());
+        assertTrue(queue.getStatistics().startsWith("1 open, 1 published, 0 fulfilled"));
+    }
+
+    @Test
+    public void testRemainingNeedIsUpdated()
+    {
+        publishAndAssign();
+
+        //  The items were delivered, the worker asks for a tool now
+        when(building.areItemsNeeded()).thenReturn(false);
+        when(building.getRequiredTool()).thenReturn(Utils.AXE);
+        queue.complete(building);
+
+        final List<DeliveryRequest> open = queue.getOpenRequests();
+        assertEquals(1, open.size());
+        assertEquals(DeliveryRequest.Type.TOOL, open.get(0).getType());
+    }
+
+    @Test
+    public void testHomeIsClosedAfterFood()
+    {
+        final BuildingHome home = mock(BuildingHome.class);
+        when(home.getLocation()).thenReturn(LOCATION);
+        when(home.isFoodNeeded()).thenReturn(true);
+        when(home.getRequiredTool()).thenReturn("");
+        queue.publish(home);
+        queue.assign(LOCATION);
+
+        queue.complete(home);
+        assertTrue(queue.getOpenRequests().isEmpty());
+        assertTrue(queue.getStatistics().startsWith("0 open, 1 published, 1 fulfilled"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.minecolonies.coremod.colony;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests around {@link LooseEntityIndex}, with a world which knows its entities by id.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LooseEntityIndexTest
+{
+    private static final BlockPos CENTER = new BlockPos(0, 64, 0);
+
+    @Mock
+    private Colony colony;
+
+    @Mock
+    private World world;
+
+    private final Map<Integer, Entity> entitiesById = new HashMap<>();
+    private       int                  nextId       = 1;
+
+    private LooseEntityIndex index;
+
+    @Before
+    public void setup()
+    {
+        when(colony.getWorld()).thenReturn(world);
+        when(colony.getCenter()).thenReturn(CENTER);
+        when(world.isBlockLoaded(any(BlockPos.class))).thenReturn(true);
+        when(world.getEntityByID(anyInt())).thenAnswer(invocation -> entitiesById.get((Integer) invocation.getArguments()[0]));
+        index = new LooseEntityIndex(colony);
+    }
+
+    private <T extends Entity> T spawn(final Class<T> type)
+    {
+        final T entity = mock(type);
+        final int id = nextId++;
+        when(entity.getEntityId()).thenReturn(id);
+        entity.world = world;
+        entity.posX = 1;
+        entity.posY = 64;
+        entity.posZ = 1;
+        when(entity.getEntityBoundingBox()).thenAnswer(invocation -> new AxisAlignedBB(entity.posX, entity.posY, entity.posZ, entity.posX + 1, entity.posY + 1, entity.posZ + 1));
+        entitiesById.put(id, entity);
+        return entity;
+    }
+
+    private List<EntityItem> getItemsAround(final double x, final double y, final double z)
+    {
+        final List<EntityItem> items = new ArrayList<>();
+        index.getItemsWithin(new AxisAlignedBB(x - 2, y - 2, z - 2, x + 2, y + 2, z + 2), items);
+        return items;
+    }
+
+    @Test
+    public void testEntityJoiningTwiceIsTrackedOnce()
+    {
+        final EntityItem item = spawn(EntityItem.class);
+        index.track(item);
+        index.track(item);
+        index.track(spawn(EntityXPOrb.class));
+
+        assertEquals(2, index.size());
+        assertEquals(Collections.singletonList(item), getItemsAround(1, 64, 1));
+    }
+
+    @Test
+    public void testDeadEntityIsDropped()
+    {
+        final EntityItem item = spawn(EntityItem.class);
+        index.track(item);
+        item.isDead = true;
+        assertTrue(getItemsAround(1, 64, 1).isEmpty());
+
+        index.refresh();
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testEntityUnknownToWorldIsDropped()
+    {
+        final EntityItem item = spawn(EntityItem.class);
+        final EntityXPOrb orb = spawn(EntityXPOrb.class);
+        index.track(item);
+        index.track(orb);
+
+        //  The orb never made it into the world, the item was replaced under its id
+        entitiesById.remove(orb.getEntityId());
+        entitiesById.put(item.getEntityId(), mock(EntityItem.class));
+        index.refresh();
+        assertEquals(0, index.size());
+
+        //  Once dropped it can be tracked again
+        entitiesById.put(item.getEntityId(), item);
+        index.track(item);
+        index.refresh();
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testEntityFarAwayIsNotTracked()
+    {
+        final EntityItem item = spawn(EntityItem.class);
+        item.posX = 10_000;
+        index.track(item);
+        assertEquals(0, index.size());
+    }
+}
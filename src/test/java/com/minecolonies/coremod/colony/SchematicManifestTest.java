@@ -0,0 +1,87 @@
+package com.minecolonies.coremod.colony;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests around {@link SchematicManifest}.
+ */
+public class SchematicManifestTest
+{
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static BasicFileAttributes attributes(final Path path) throws IOException
+    {
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+
+    @Test
+    public void testIndexMatchesFullRead() throws Exception
+    {
+        final byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+        for (int i = 0; i < data.length; i += 3)
+        {
+            data[i] = 0;
+        }
+        final Path path = folder.newFile("Builder1.nbt").toPath();
+        Files.write(path, data);
+
+        final SchematicManifest.Entry entry = SchematicManifest.index(path, attributes(path));
+        assertEquals(DatatypeConverter.printHexBinary(MessageDigest.getInstance("MD5").digest(data)), entry.getMD5());
+    }
+
+    @Test
+    public void testUnchangedFilesAreKnownAfterReload() throws Exception
+    {
+        final Path path = folder.newFile("Builder1.nbt").toPath();
+        Files.write(path, new byte[] {1, 2, 3});
+        final String key = path.toUri().toString();
+        final File file = new File(folder.getRoot(), "minecolonies/schematics.manifest");
+
+        final SchematicManifest manifest = SchematicManifest.load(file);
+        assertNull(manifest.get(key, attributes(path)));
+        manifest.put(key, SchematicManifest.index(path, attributes(path)));
+        manifest.save();
+
+        final SchematicManifest reloaded = SchematicManifest.load(file);
+        assertEquals(manifest.get(key, attributes(path)), reloaded.get(key, attributes(path)));
+
+        Files.write(path, new byte[] {1, 2, 3, 4});
+        Files.setLastModifiedTime(path, FileTime.fromMillis(attributes(path).lastModifiedTime().toMillis() + 1000));
+        assertNull(reloaded.get(key, attributes(path)));
+    }
+
+    @Test
+    public void testRemovedFilesAreDropped() throws Exception
+    {
+        final Path path = folder.newFile("Builder1.nbt").toPath();
+        Files.write(path, new byte[] {1, 2, 3});
+        final String key = path.toUri().toString();
+        final File file = new File(folder.getRoot(), "minecolonies/schematics.manifest");
+
+        final SchematicManifest manifest = SchematicManifest.load(file);
+        manifest.put(key, SchematicManifest.index(path, attributes(path)));
+        manifest.retainUnder(folder.getRoot().toPath().toUri().toString(), Collections.singleton(key));
+        assertNotNull(manifest.get(key, attributes(path)));
+
+        manifest.retainUnder(folder.getRoot().toPath().toUri().toString(), Collections.emptySet());
+        manifest.save();
+        assertNull(SchematicManifest.load(file).get(key, attributes(path)));
+    }
+}
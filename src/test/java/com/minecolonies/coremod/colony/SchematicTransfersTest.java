@@ -0,0 +1,154 @@
+package com.minecolonies.coremod.colony;
+
+import com.minecolonies.structures.helpers.Structure;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests around {@link SchematicTransfers}.
+ */
+public class SchematicTransfersTest
+{
+    private static final UUID PLAYER = new UUID(1, 2);
+    private static final UUID OTHER  = new UUID(3, 4);
+
+    /**
+     * Random bytes do not compress, so this needs a few chunks.
+     */
+    private static byte[] createSchematic(final long seed, final int size)
+    {
+        final byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] createSchematic(final long seed)
+    {
+        return createSchematic(seed, SchematicTransfers.CHUNK_SIZE * 3 + 123);
+    }
+
+    private static byte[] download(final SchematicTransfers.Chunks chunks, final int index)
+    {
+        return SchematicTransfers.receive(SchematicTransfers.SERVER, chunks.getMD5(), index, chunks.getCount(), chunks.getChunk(index), SchematicTransfers.MAX_COMPRESSED_SIZE);
+    }
+
+    private static byte[] upload(final UUID sender, final SchematicTransfers.Chunks chunks, final int index)
+    {
+        return SchematicTransfers.receive(sender, chunks.getMD5(), index, chunks.getCount(), chunks.getChunk(index), SchematicTransfers.MAX_UPLOAD_SIZE);
+    }
+
+    @Test
+    public void testChunksArriveOutOfOrder()
+    {
+        final byte[] data = createSchematic(42);
+        final SchematicTransfers.Chunks chunks = SchematicTransfers.split(data);
+        assertNotNull(chunks);
+        assertTrue(chunks.getCount() > 1);
+
+        for (int i = chunks.getCount() - 1; i > 0; i--)
+        {
+            assertNull(download(chunks, i));
+        }
+        assertEquals(0, SchematicTransfers.getFirstMissingChunk(SchematicTransfers.SERVER, chunks.getMD5()));
+        assertArrayEquals(data, download(chunks, 0));
+        assertEquals(0, SchematicTransfers.getFirstMissingChunk(SchematicTransfers.SERVER, chunks.getMD5()));
+    }
+
+    @Test
+    public void testTransferResumesAtFirstMissingChunk()
+    {
+        final SchematicTransfers.Chunks chunks = SchematicTransfers.split(createSchematic(7));
+        assertNotNull(chunks);
+
+        assertNull(download(chunks, 0));
+        assertNull(download(chunks, 2));
+        assertEquals(1, SchematicTransfers.getFirstMissingChunk(SchematicTransfers.SERVER, chunks.getMD5()));
+    }
+
+    @Test
+    public void testWrongHashIsDropped()
+    {
+        final SchematicTransfers.Chunks chunks = SchematicTransfers.split(createSchematic(1));
+        assertNotNull(chunks);
+
+        final String md5 = "00000000000000000000000000000000";
+        for (int i = 0; i < chunks.getCount(); i++)
+        {
+            assertNull(SchematicTransfers.receive(SchematicTransfers.SERVER, md5, i, chunks.getCount(), chunks.getChunk(i), SchematicTransfers.MAX_COMPRESSED_SIZE));
+        }
+        assertEquals(0, SchematicTransfers.getFirstMissingChunk(SchematicTransfers.SERVER, md5));
+    }
+
+    @Test
+    public void testUploadIsLimitedToOnePacket()
+    {
+        final byte[] small = createSchematic(3, 1000);
+        final SchematicTransfers.Chunks allowed = SchematicTransfers.split(small);
+        assertNotNull(allowed);
+        assertArrayEquals(small, upload(PLAYER, allowed, 0));
+
+        //  Two chunks, but more than a single packet used to carry
+        final SchematicTransfers.Chunks tooBig = SchematicTransfers.split(createSchematic(4, SchematicTransfers.MAX_UPLOAD_SIZE + 100));
+        assertNotNull(tooBig);
+        assertEquals(2, tooBig.getCount());
+        assertNull(upload(PLAYER, tooBig, 0));
+        assertNull(upload(PLAYER, tooBig, 1));
+
+        //  More chunks than fit into the limit are not even stored
+        final SchematicTransfers.Chunks chunks = SchematicTransfers.split(createSchematic(5));
+        assertNotNull(chunks);
+        assertNull(upload(PLAYER, chunks, 1));
+        assertEquals(0, SchematicTransfers.getFirstMissingChunk(PLAYER, chunks.getMD5()));
+    }
+
+    @Test
+    public void testUnfinishedUploadsAreLimitedPerPlayer()
+    {
+        final SchematicTransfers.Chunks first = SchematicTransfers.split(createSchematic(10, SchematicTransfers.CHUNK_SIZE + 10));
+        final SchematicTransfers.Chunks other = SchematicTransfers.split(createSchematic(11, SchematicTransfers.CHUNK_SIZE + 10));
+        assertNotNull(first);
+        assertNotNull(other);
+        assertNull(upload(PLAYER, first, 0));
+        assertNull(upload(OTHER, other, 0));
+
+        //  Filling the transfers of one player drops its oldest one only
+        for (int seed = 20; seed < 30; seed++)
+        {
+            final SchematicTransfers.Chunks chunks = SchematicTransfers.split(createSchematic(seed, SchematicTransfers.CHUNK_SIZE + 10));
+            assertNotNull(chunks);
+            assertNull(upload(PLAYER, chunks, 0));
+        }
+        assertEquals(0, SchematicTransfers.getFirstMissingChunk(PLAYER, first.getMD5()));
+        assertEquals(1, SchematicTransfers.getFirstMissingChunk(OTHER, other.getMD5()));
+
+        //  Chunks of one player do not complete the transfer of another
+        assertNull(upload(PLAYER, other, 1));
+        assertEquals(1, SchematicTransfers.getFirstMissingChunk(OTHER, other.getMD5()));
+
+        SchematicTransfers.forget(OTHER);
+        assertEquals(0, SchematicTransfers.getFirstMissingChunk(OTHER, other.getMD5()));
+    }
+
+    @Test
+    public void testUncompressStopsAtMaximumSize()
+    {
+        final byte[] data = new byte[10_000];
+        final byte[] compressed = Structure.compress(data);
+
+        assertArrayEquals(data, Structure.uncompress(compressed, data.length));
+        assertNull(Structure.uncompress(compressed, data.length - 1));
+    }
+
+    @Test
+    public void testEndOfWindow()
+    {
+        assertFalse(SchematicTransfers.isEndOfWindow(0, 0, 20));
+        assertTrue(SchematicTransfers.isEndOfWindow(SchematicTransfers.WINDOW_SIZE - 1, 0, 20));
+        assertTrue(SchematicTransfers.isEndOfWindow(19, 16, 20));
+        assertTrue(SchematicTransfers.isEndOfWindow(2, 0, 3));
+    }
+}
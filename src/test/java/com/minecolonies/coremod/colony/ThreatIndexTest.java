@@ -0,0 +1,168 @@
+package com.minecolonies.coremod.colony;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.monster.EntityMob;
+import net.minecraft.entity.monster.EntitySlime;
+import net.minecraft.entity.passive.EntityAnimal;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests around {@link ThreatIndex}, against the per guard world scans it replaces.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ThreatIndexTest
+{
+    private static final BlockPos CENTER        = new BlockPos(0, 64, 0);
+    private static final int      GUARDS        = 20;
+    private static final int      HOSTILES      = 100;
+    private static final int      PASSIVES      = 50;
+    private static final double   SEARCH_RANGE  = 20D;
+    private static final double   SEARCH_HEIGHT = 10D;
+
+    @Mock
+    private Colony colony;
+
+    @Mock
+    private World world;
+
+    private final List<EntityLivingBase> entities = new ArrayList<>();
+    private final long[]                 tick     = new long[1];
+    private       int                    scans    = 0;
+    private       ThreatIndex            index;
+
+    @Before
+    public void setup()
+    {
+        when(colony.getWorld()).thenReturn(world);
+        when(colony.getCenter()).thenReturn(CENTER);
+        when(colony.getBuildings()).thenReturn(Collections.emptyMap());
+        when(world.getHeight()).thenReturn(256);
+        when(world.getTotalWorldTime()).thenAnswer(invocation -> tick[0]);
+        when(world.getEntitiesWithinAABB(eq(EntityLivingBase.class), any(AxisAlignedBB.class), any())).thenAnswer(invocation ->
+        {
+            scans++;
+            final List<EntityLivingBase> threats = new ArrayList<>();
+            for (final EntityLivingBase entity : entities)
+            {
+                if (entity instanceof EntityMob || entity instanceof EntitySlime || entity instanceof EntityPlayer)
+                {
+                    threats.add(entity);
+                }
+            }
+            return threats;
+        });
+        index = new ThreatIndex(colony);
+    }
+
+    private <T extends EntityLivingBase> T spawn(final Class<T> type, final double x, final double y, final double z)
+    {
+        final T entity = mock(type, CALLS_REAL_METHODS);
+        entity.posX = x;
+        entity.posY = y;
+        entity.posZ = z;
+        entities.add(entity);
+        return entity;
+    }
+
+    private static AxisAlignedBB searchArea(final double x, final double y, final double z)
+    {
+        return new AxisAlignedBB(x - SEARCH_RANGE, y - SEARCH_HEIGHT, z - SEARCH_RANGE, x + SEARCH_RANGE, y + SEARCH_HEIGHT, z + SEARCH_RANGE);
+    }
+
+    @Test
+    public void testClosestToTowerFirstAndClaimedLast()
+    {
+        final EntityMob near = spawn(EntityMob.class, 2, 64, 2);
+        final EntitySlime far = spawn(EntitySlime.class, 10, 64, 10);
+        spawn(EntityAnimal.class, 3, 64, 3);
+        spawn(EntityMob.class, 200, 64, 200);
+
+        final AxisAlignedBB area = searchArea(5, 64, 5);
+        assertEquals(Arrays.asList(near, far), index.getThreatsWithin(area, 1));
+
+        index.claim(near, 1);
+        assertEquals(Arrays.asList(near, far), index.getThreatsWithin(area, 1));
+        assertEquals(Arrays.asList(far, near), index.getThreatsWithin(area, 2));
+
+        //  A new claim of the guard replaces its old one
+        index.claim(far, 1);
+        assertEquals(Arrays.asList(near, far), index.getThreatsWithin(area, 2));
+
+        near.isDead = true;
+        assertEquals(Collections.singletonList(far), index.getThreatsWithin(area, 1));
+    }
+
+    @Test
+    public void testRescanAfterInterval()
+    {
+        index.getThreatsWithin(searchArea(0, 64, 0), 1);
+        final EntityMob mob = spawn(EntityMob.class, 1, 64, 1);
+        assertTrue(index.getThreatsWithin(searchArea(0, 64, 0), 1).isEmpty());
+
+        tick[0] += 10;
+        assertEquals(Collections.singletonList(mob), index.getThreatsWithin(searchArea(0, 64, 0), 1));
+        assertEquals(2, scans);
+    }
+
+    @Test
+    public void testSameThreatsAsWorldScans()
+    {
+        final Random random = new Random(42);
+        for (int i = 0; i < HOSTILES; i++)
+        {
+            spawn(i % 5 == 0 ? EntitySlime.class : EntityMob.class, random.nextInt(200) - 100, 60 + random.nextInt(10), random.nextInt(200) - 100);
+        }
+        for (int i = 0; i < PASSIVES; i++)
+        {
+            spawn(EntityAnimal.class, random.nextInt(200) - 100, 60 + random.nextInt(10), random.nextInt(200) - 100);
+        }
+
+        //  All guards of a tick share one scan of the colony
+        for (int i = 0; i < GUARDS; i++)
+        {
+            final AxisAlignedBB area = searchArea(random.nextInt(200) - 100, 64, random.nextInt(200) - 100);
+            assertEquals(new HashSet<>(scanWorld(area)), new HashSet<>(index.getThreatsWithin(area, i)));
+        }
+        assertEquals(1, scans);
+    }
+
+    /**
+     * What the guards did before, three class scans of the search area.
+     */
+    private List<Entity> scanWorld(final AxisAlignedBB area)
+    {
+        final List<Entity> list = new ArrayList<>();
+        list.addAll(scanWorld(area, EntityMob.class));
+        list.addAll(scanWorld(area, EntitySlime.class));
+        list.addAll(scanWorld(area, EntityPlayer.class));
+        return list;
+    }
+
+    private List<Entity> scanWorld(final AxisAlignedBB area, final Class<? extends Entity> type)
+    {
+        final List<Entity> list = new ArrayList<>();
+        for (final EntityLivingBase entity : entities)
+        {
+            if (type.isInstance(entity) && entity.posX >= area.minX && entity.posX <= area.maxX && entity.posY >= area.minY && entity.posY <= area.maxY
+                  && entity.posZ >= area.minZ && entity.posZ <= area.maxZ)
+            {
+                list.add(entity);
+            }
+        }
+        return list;
+    }
+}
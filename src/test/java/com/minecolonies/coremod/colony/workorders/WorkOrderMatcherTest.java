@@ -0,0 +1,212 @@
+package com.minecolonies.coremod.colony.workorders;
+
+import com.minecolonies.coremod.colony.CitizenData;
+import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.buildings.AbstractBuildingWorker;
+import com.minecolonies.coremod.colony.buildings.BuildingBuilder;
+import com.minecolonies.coremod.colony.jobs.JobBuilder;
+import net.minecraft.util.math.BlockPos;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests around {@link WorkOrderMatcher}, with mocked builders and orders which remember who claimed them.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WorkOrderMatcherTest
+{
+    @Mock
+    private Colony colony;
+
+    private final Map<Integer, CitizenData>        citizens = new HashMap<>();
+    private final Map<CitizenData, WorkOrderBuild> jobs     = new HashMap<>();
+    private final Map<WorkOrderBuild, CitizenData> claims   = new HashMap<>();
+    private final Map<CitizenData, Integer>        levels   = new HashMap<>();
+
+    @Before
+    public void setup()
+    {
+        when(colony.getCitizens()).thenReturn(citizens);
+    }
+
+    /**
+     * Hire a builder with a hut of a level.
+     */
+    private CitizenData hire(final int id, final int level)
+    {
+        final CitizenData citizen = mock(CitizenData.class);
+        final JobBuilder job = mock(JobBuilder.class);
+        final AbstractBuildingWorker hut = mock(AbstractBuildingWorker.class);
+        levels.put(citizen, level);
+
+        when(citizen.getId()).thenReturn(id);
+        when(citizen.getJob(JobBuilder.class)).thenReturn(job);
+        when(citizen.getWorkBuilding()).thenReturn(hut);
+        when(hut.getID()).thenReturn(getHutLocation(id));
+        when(hut.getBuildingLevel()).thenAnswer(invocation -> levels.get(citizen));
+        when(job.hasWorkOrder()).thenAnswer(invocation -> jobs.containsKey(citizen));
+        doAnswer(invocation ->
+        {
+            jobs.put(citizen, (WorkOrderBuild) invocation.getArguments()[0]);
+            return null;
+        }).when(job).setWorkOrder(any());
+
+        citizens.put(id, citizen);
+        return citizen;
+    }
+
+    /**
+     * Fire a builder, its order is released like the colony does.
+     */
+    private void fire(final CitizenData citizen)
+    {
+        citizens.remove(citizen.getId());
+        final WorkOrderBuild order = jobs.remove(citizen);
+        if (order != null)
+        {
+            claims.remove(order);
+        }
+    }
+
+    private static BlockPos getHutLocation(final int id)
+    {
+        return new BlockPos(id * 10, 64, 0);
+    }
+
+    /**
+     * Create an order to build a building at a level.
+     */
+    private WorkOrderBuild createOrder(final int id, final int priority, final int level, final BlockPos location)
+    {
+        final WorkOrderBuild order = mock(WorkOrderBuild.class);
+        when(order.getID()).thenReturn(id);
+        when(order.getPriority()).thenReturn(priority);
+        when(order.getUpgradeLevel()).thenReturn(level);
+        when(order.getBuildingLocation()).thenReturn(location);
+        when(order.isClaimed()).thenAnswer(invocation -> claims.containsKey(order));
+        when(order.canBeBuiltAtLevel(anyInt(), any())).thenAnswer(invocation ->
+        {
+            final int builderLevel = (Integer) invocation.getArguments()[0];
+            return builderLevel >= level || builderLevel == BuildingBuilder.MAX_BUILDING_LEVEL;
+        });
+        doAnswer(invocation ->
+        {
+            claims.put(order, (CitizenData) invocation.getArguments()[0]);
+            return null;
+        }).when(order).setClaimedBy(any());
+        return order;
+    }
+
+    private WorkOrderBuild createOrder(final int id, final int priority, final int level)
+    {
+        return createOrder(id, priority, level, new BlockPos(1000 + id, 64, 0));
+    }
+
+    @Test
+    public void testHighestPriorityFirst()
+    {
+        final CitizenData builder = hire(1, 3);
+        final WorkOrderBuild low = createOrder(1, 0, 1);
+        final WorkOrderBuild high = createOrder(2, 5, 1);
+
+        assertEquals(1, WorkOrderMatcher.match(colony, Arrays.asList(low, high)));
+        assertSame(builder, claims.get(high));
+        assertFalse(claims.containsKey(low));
+    }
+
+    @Test
+    public void testOldestFirstWithinSamePriority()
+    {
+        final CitizenData builder = hire(1, 3);
+        final WorkOrderBuild newer = createOrder(7, 2, 1);
+        final WorkOrderBuild older = createOrder(3, 2, 1);
+
+        WorkOrderMatcher.match(colony, Arrays.asList(newer, older));
+        assertSame(builder, claims.get(older));
+    }
+
+    @Test
+    public void testLeastCapableBuilderWhichCanBuild()
+    {
+        final CitizenData novice = hire(1, 1);
+        final CitizenData expert = hire(2, 3);
+        final WorkOrderBuild upgrade = createOrder(1, 0, 2);
+        final WorkOrderBuild small = createOrder(2, 0, 1);
+
+        assertEquals(2, WorkOrderMatcher.match(colony, Arrays.asList(upgrade, small)));
+        assertSame(expert, claims.get(upgrade));
+        assertSame(novice, claims.get(small));
+    }
+
+    @Test
+    public void testOrderAboveAllBuildersStaysOpen()
+    {
+        hire(1, 2);
+        final WorkOrderBuild upgrade = createOrder(1, 0, 3);
+
+        assertEquals(0, WorkOrderMatcher.match(colony, Collections.singletonList(upgrade)));
+        assertTrue(claims.isEmpty());
+        verify(upgrade).sendBuilderMessage(colony, true, true);
+    }
+
+    @Test
+    public void testBuilderMayAlwaysBuildOwnHut()
+    {
+        final CitizenData builder = hire(1, 1);
+        final WorkOrderBuild ownHut = createOrder(1, 0, 2, getHutLocation(1));
+
+        assertEquals(1, WorkOrderMatcher.match(colony, Collections.singletonList(ownHut)));
+        assertSame(builder, claims.get(ownHut));
+    }
+
+    @Test
+    public void testBusyBuildersAreSkipped()
+    {
+        hire(1, 3);
+        final WorkOrderBuild first = createOrder(1, 0, 1);
+        final WorkOrderBuild second = createOrder(2, 0, 1);
+
+        assertEquals(1, WorkOrderMatcher.match(colony, Arrays.asList(first, second)));
+        assertEquals(0, WorkOrderMatcher.match(colony, Arrays.asList(first, second)));
+        assertFalse(claims.containsKey(second));
+    }
+
+    @Test
+    public void testRematchAfterFireAndHire()
+    {
+        final CitizenData builder = hire(1, 3);
+        final WorkOrderBuild order = createOrder(1, 0, 2);
+        WorkOrderMatcher.match(colony, Collections.singletonList(order));
+        assertSame(builder, claims.get(order));
+
+        fire(builder);
+        assertEquals(0, WorkOrderMatcher.match(colony, Collections.singletonList(order)));
+        verify(order).sendBuilderMessage(colony, false, true);
+
+        final CitizenData replacement = hire(2, 2);
+        assertEquals(1, WorkOrderMatcher.match(colony, Collections.singletonList(order)));
+        assertSame(replacement, claims.get(order));
+    }
+
+    @Test
+    public void testRematchAfterUpgrade()
+    {
+        final CitizenData builder = hire(1, 1);
+        final WorkOrderBuild order = createOrder(1, 0, 2);
+        assertEquals(0, WorkOrderMatcher.match(colony, Collections.singletonList(order)));
+
+        levels.put(builder, 2);
+        assertEquals(1, WorkOrderMatcher.match(colony, Collections.singletonList(order)));
+        assertSame(builder, claims.get(order));
+    }
+}
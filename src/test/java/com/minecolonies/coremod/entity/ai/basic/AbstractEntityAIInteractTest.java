@@ -0,0 +1,149 @@
+package com.minecolonies.coremod.entity.ai.basic;
+
+import com.minecolonies.coremod.colony.CitizenData;
+import com.minecolonies.coremod.colony.CitizenScheduler;
+import com.minecolonies.coremod.colony.Colony;
+import com.minecolonies.coremod.colony.jobs.AbstractJob;
+import com.minecolonies.coremod.configuration.Configurations;
+import com.minecolonies.coremod.entity.EntityCitizen;
+import com.minecolonies.coremod.entity.pathfinding.PathNavigate;
+import net.minecraft.pathfinding.Path;
+import net.minecraft.world.World;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests around the counters of {@link AbstractEntityAIInteract} at the levels of detail of the colony,
+ * with a worker who is stuck on the way to an item.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AbstractEntityAIInteractTest
+{
+    /**
+     * Ticks after which the test gives up.
+     */
+    private static final int MAX_TICKS = 200;
+
+    @Mock
+    private AbstractJob job;
+
+    @Mock
+    private CitizenData citizenData;
+
+    @Mock
+    private EntityCitizen worker;
+
+    @Mock
+    private Colony colony;
+
+    @Mock
+    private World world;
+
+    @Mock
+    private PathNavigate navigator;
+
+    @Mock
+    private Path path;
+
+    private final long[] tick = new long[1];
+
+    private int distantColonyUpdateInterval;
+    private int skippedItems;
+
+    @Before
+    public void setup()
+    {
+        distantColonyUpdateInterval = Configurations.distantColonyUpdateInterval;
+
+        worker.world = world;
+        when(job.getCitizen()).thenReturn(citizenData);
+        when(job.getColony()).thenReturn(colony);
+        when(citizenData.getCitizenEntity()).thenReturn(worker);
+        when(colony.getCitizenScheduler()).thenReturn(new CitizenScheduler(colony));
+        when(colony.hasSubscribers()).thenReturn(false);
+        when(world.getTotalWorldTime()).thenAnswer(invocation -> tick[0]);
+        when(worker.getOffsetTicks()).thenAnswer(invocation -> (int) tick[0]);
+
+        //  The worker does not get any further on its path
+        when(worker.getNavigator()).thenReturn(navigator);
+        when(navigator.noPath()).thenReturn(false);
+        when(navigator.getPath()).thenReturn(path);
+        when(path.getCurrentPathIndex()).thenReturn(0);
+        doAnswer(invocation ->
+        {
+            skippedItems++;
+            return null;
+        }).when(navigator).clearPathEntity();
+    }
+
+    @After
+    public void tearDown()
+    {
+        Configurations.distantColonyUpdateInterval = distantColonyUpdateInterval;
+    }
+
+    /**
+     * Let a new ai gather items until it gives up on the item it is stuck on.
+     *
+     * @param interval the ticks between two updates of the ai.
+     * @return the tick the item was skipped.
+     */
+    private int getTickOfSkippedItem(final int interval)
+    {
+        Configurations.distantColonyUpdateInterval = interval;
+        skippedItems = 0;
+        final AbstractEntityAIInteract<AbstractJob> ai = new AbstractEntityAIInteract<AbstractJob>(job) {};
+
+        for (int t = 1; t <= MAX_TICKS; t++)
+        {
+            tick[0] = t;
+            if (ai.isUpdateDue())
+            {
+                ai.gatherItems();
+                if (skippedItems > 0)
+                {
+                    return t;
+                }
+            }
+        }
+        fail("The item was never skipped at an interval of " + interval);
+        return -1;
+    }
+
+    @Test
+    public void testStuckWorkerGivesUpAsFastAtLowerDetail()
+    {
+        final int fullDetail = getTickOfSkippedItem(1);
+        final int lowerDetail = getTickOfSkippedItem(4);
+
+        //  The ai updates a quarter as often, the counter has to catch up with the ticks in between
+        assertTrue(fullDetail + " vs " + lowerDetail, Math.abs(lowerDetail - fullDetail) < 4);
+    }
+
+    @Test
+    public void testUpdatesAreSkippedAtLowerDetail()
+    {
+        Configurations.distantColonyUpdateInterval = 4;
+        final AbstractEntityAIInteract<AbstractJob> ai = new AbstractEntityAIInteract<AbstractJob>(job) {};
+
+        int updates = 0;
+        for (int t = 1; t <= 40; t++)
+        {
+            tick[0] = t;
+            if (ai.isUpdateDue())
+            {
+                updates++;
+                assertEquals(t == 4 ? 1 : 4, ai.getTicksSinceLastUpdate());
+            }
+        }
+        assertEquals(10, updates);
+    }
+}
@@ -0,0 +1,193 @@
+package com.minecolonies.coremod.entity.ai.citizen.builder;
+
+import com.minecolonies.coremod.colony.buildings.BuildingBuilder;
+import com.minecolonies.coremod.configuration.Configurations;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests around {@link BillOfMaterials}, with calculations which count how often they run.
+ */
+public class BillOfMaterialsTest
+{
+    /**
+     * Max time to wait for the calculator thread.
+     */
+    private static final long TIMEOUT_MILLIS = 5_000L;
+
+    private int maxCachedSchematics;
+
+    private String md5;
+
+    @Before
+    public void setup()
+    {
+        maxCachedSchematics = Configurations.maxCachedSchematics;
+        md5 = UUID.randomUUID().toString();
+        BillOfMaterials.clearCache();
+    }
+
+    @After
+    public void tearDown()
+    {
+        Configurations.maxCachedSchematics = maxCachedSchematics;
+        BillOfMaterials.clearCache();
+    }
+
+    private static List<BillOfMaterials.Candidate> createCandidates(final int amount)
+    {
+        final List<BillOfMaterials.Candidate> list = new ArrayList<>();
+        for (int i = 0; i < amount; i++)
+        {
+            list.add(new BillOfMaterials.Candidate(new BlockPos(i, 0, 0), true, null));
+        }
+        return list;
+    }
+
+    private static Supplier<List<BillOfMaterials.Candidate>> counting(final AtomicInteger runs, final int amount)
+    {
+        return () ->
+        {
+            runs.incrementAndGet();
+            return createCandidates(amount);
+        };
+    }
+
+    /**
+     * Process a bill like the builder does, a budget per tick until all candidates are handed over.
+     *
+     * @return the positions handed over.
+     */
+    private static List<BlockPos> processAll(final BillOfMaterials bill, final int budget) throws InterruptedException
+    {
+        final List<BlockPos> positions = new ArrayList<>();
+        final long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!bill.process(budget, candidate -> positions.add(candidate.getPos())))
+        {
+            assertTrue("The bill was not calculated in time", System.currentTimeMillis() < end);
+            Thread.sleep(1);
+        }
+        return positions;
+    }
+
+    @Test
+    public void testCandidatesAreHandedOverInSlices() throws InterruptedException
+    {
+        final BillOfMaterials bill = new BillOfMaterials(null, () -> createCandidates(10));
+        final List<BlockPos> first = new ArrayList<>();
+        final long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (bill.getProgress() == 0 && first.isEmpty())
+        {
+            assertTrue(System.currentTimeMillis() < end);
+            bill.process(4, candidate -> first.add(candidate.getPos()));
+            Thread.sleep(1);
+        }
+
+        assertEquals(4, first.size());
+        assertEquals(40, bill.getProgress());
+
+        final List<BlockPos> rest = processAll(bill, 4);
+        assertEquals(6, rest.size());
+        assertEquals(new BlockPos(4, 0, 0), rest.get(0));
+        assertEquals(BuildingBuilder.MATERIALS_DONE, bill.getProgress());
+    }
+
+    @Test
+    public void testEmptyBillIsDone() throws InterruptedException
+    {
+        final BillOfMaterials bill = new BillOfMaterials(null, () -> createCandidates(0));
+        assertTrue(processAll(bill, 1).isEmpty());
+        assertEquals(BuildingBuilder.MATERIALS_DONE, bill.getProgress());
+    }
+
+    @Test
+    public void testKeyContainsRotationAndMirror()
+    {
+        assertNotEquals(BillOfMaterials.getKey(md5, Rotation.NONE, Mirror.NONE), BillOfMaterials.getKey(md5, Rotation.CLOCKWISE_90, Mirror.NONE));
+        assertNotEquals(BillOfMaterials.getKey(md5, Rotation.NONE, Mirror.NONE), BillOfMaterials.getKey(md5, Rotation.NONE, Mirror.FRONT_BACK));
+        assertEquals(BillOfMaterials.getKey(md5, Rotation.NONE, Mirror.NONE), BillOfMaterials.getKey(md5, Rotation.NONE, Mirror.NONE));
+    }
+
+    @Test
+    public void testSameKeyIsCalculatedOnce() throws InterruptedException
+    {
+        final AtomicInteger runs = new AtomicInteger();
+        final String key = BillOfMaterials.getKey(md5, Rotation.NONE, Mirror.NONE);
+
+        assertEquals(3, processAll(new BillOfMaterials(key, counting(runs, 3)), 10).size());
+        assertEquals(3, processAll(new BillOfMaterials(key, counting(runs, 3)), 10).size());
+        assertEquals(1, runs.get());
+
+        //  Another rotation of the same schematic is another bill
+        processAll(new BillOfMaterials(BillOfMaterials.getKey(md5, Rotation.CLOCKWISE_90, Mirror.NONE), counting(runs, 3)), 10);
+        assertEquals(2, runs.get());
+
+        //  Bills without a key are never cached
+        processAll(new BillOfMaterials(null, counting(runs, 3)), 10);
+        processAll(new BillOfMaterials(null, counting(runs, 3)), 10);
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws InterruptedException
+    {
+        Configurations.maxCachedSchematics = 2;
+        final AtomicInteger runs = new AtomicInteger();
+        final String first = BillOfMaterials.getKey(md5, Rotation.NONE, Mirror.NONE);
+        final String second = BillOfMaterials.getKey(md5, Rotation.CLOCKWISE_90, Mirror.NONE);
+        final String third = BillOfMaterials.getKey(md5, Rotation.CLOCKWISE_180, Mirror.NONE);
+
+        processAll(new BillOfMaterials(first, counting(runs, 1)), 10);
+        processAll(new BillOfMaterials(second, counting(runs, 1)), 10);
+
+        //  Using the first makes the second the least recently used one
+        processAll(new BillOfMaterials(first, counting(runs, 1)), 10);
+        processAll(new BillOfMaterials(third, counting(runs, 1)), 10);
+        assertEquals(3, runs.get());
+
+        processAll(new BillOfMaterials(first, counting(runs, 1)), 10);
+        assertEquals(3, runs.get());
+        processAll(new BillOfMaterials(second, counting(runs, 1)), 10);
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    public void testFailedCalculationIsRepeatedOnCallingThread() throws InterruptedException
+    {
+        final String key = BillOfMaterials.getKey(md5, Rotation.NONE, Mirror.NONE);
+        final Thread testThread = Thread.currentThread();
+        final List<Thread> threads = new ArrayList<>();
+        final Supplier<List<BillOfMaterials.Candidate>> failingInBackground = () ->
+        {
+            threads.add(Thread.currentThread());
+            if (Thread.currentThread() != testThread)
+            {
+                throw new IllegalStateException("Failed in the background");
+            }
+            return createCandidates(2);
+        };
+
+        final BillOfMaterials bill = new BillOfMaterials(key, failingInBackground);
+        assertEquals(2, processAll(bill, 10).size());
+        assertEquals(2, threads.size());
+        assertNotSame(testThread, threads.get(0));
+        assertSame(testThread, threads.get(1));
+
+        //  The failed calculation is not kept in the cache
+        final AtomicInteger runs = new AtomicInteger();
+        processAll(new BillOfMaterials(key, counting(runs, 2)), 10);
+        assertEquals(1, runs.get());
+    }
+}
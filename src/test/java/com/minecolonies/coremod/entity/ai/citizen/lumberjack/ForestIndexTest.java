@@ -0,0 +1,147 @@
+package com.minecolonies.coremod.entity.ai.citizen.lumberjack;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests around {@link ForestIndex}, on a flat stone world.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ForestIndexTest
+{
+    private static final BlockPos CENTER = new BlockPos(0, 64, 0);
+    private static final int      GROUND = 63;
+
+    @Mock
+    private World world;
+
+    private final Map<BlockPos, IBlockState> blocks = new HashMap<>();
+
+    private IBlockState air;
+    private IBlockState stone;
+    private IBlockState water;
+    private IBlockState log;
+
+    @Before
+    public void setup()
+    {
+        air = mockState(Material.AIR, false);
+        stone = mockState(Material.ROCK, false);
+        water = mockState(Material.WATER, false);
+        log = mockState(Material.WOOD, true);
+
+        when(world.isBlockLoaded(any(BlockPos.class))).thenReturn(true);
+        when(world.getTotalWorldTime()).thenReturn(0L);
+        when(world.getBlockState(any(BlockPos.class))).thenAnswer(invocation -> getState((BlockPos) invocation.getArguments()[0]));
+        when(world.getHeight(any(BlockPos.class))).thenAnswer(invocation ->
+        {
+            final BlockPos pos = (BlockPos) invocation.getArguments()[0];
+            int top = GROUND;
+            for (final BlockPos block : blocks.keySet())
+            {
+                if (block.getX() == pos.getX() && block.getZ() == pos.getZ() && blocks.get(block) != air)
+                {
+                    top = Math.max(top, block.getY());
+                }
+            }
+            return new BlockPos(pos.getX(), top + 1, pos.getZ());
+        });
+    }
+
+    private static IBlockState mockState(final Material material, final boolean wood)
+    {
+        final Block block = mock(Block.class);
+        when(block.isWood(any(), any())).thenReturn(wood);
+        final IBlockState state = mock(IBlockState.class);
+        when(state.getBlock()).thenReturn(block);
+        when(state.getMaterial()).thenReturn(material);
+        return state;
+    }
+
+    private IBlockState getState(final BlockPos pos)
+    {
+        final IBlockState state = blocks.get(pos);
+        if (state != null)
+        {
+            return state;
+        }
+        return pos.getY() <= GROUND ? stone : air;
+    }
+
+    private void setState(final ForestIndex forest, final BlockPos pos, final IBlockState state)
+    {
+        final IBlockState old = getState(pos);
+        blocks.put(pos, state);
+        forest.onBlockChanged(world, pos, old, state);
+    }
+
+    @Test
+    public void testScanAdvancesInRings()
+    {
+        final ForestIndex forest = new ForestIndex(CENTER);
+        assertFalse(forest.isScanned(0));
+
+        assertNull(forest.findNearestTree(world, ForestIndex.MAX_RANGE));
+
+        //  Rings 0 to 7 have 225 columns, ring 8 has 64
+        assertTrue(forest.isScanned(7));
+        assertFalse(forest.isScanned(8));
+    }
+
+    @Test
+    public void testLowestLogIsKeptWhileTrunkChanges()
+    {
+        final ForestIndex forest = new ForestIndex(CENTER);
+        final BlockPos bottom = new BlockPos(5, GROUND + 1, 5);
+
+        setState(forest, bottom, log);
+        setState(forest, bottom.up(), log);
+        assertEquals(1, forest.size());
+
+        setState(forest, bottom, air);
+        assertEquals(1, forest.size());
+
+        setState(forest, bottom.up(), air);
+        assertEquals(0, forest.size());
+    }
+
+    @Test
+    public void testCandidatesAreOnlyCheckedOnceNoNearerTreeCanExist()
+    {
+        //  A trunk standing in water is no tree, it is dropped once checked
+        final BlockPos bottom = new BlockPos(20, GROUND + 1, 20);
+        blocks.put(bottom.down(), water);
+        blocks.put(bottom, log);
+        blocks.put(bottom.up(), log);
+
+        final ForestIndex forest = new ForestIndex(CENTER);
+        while (!forest.isScanned(20))
+        {
+            assertNull(forest.findNearestTree(world, ForestIndex.MAX_RANGE));
+        }
+        //  Scanned, but about 28 blocks away, so a nearer tree may still be in a column which is not scanned
+        assertEquals(1, forest.size());
+
+        while (!forest.isScanned(30))
+        {
+            assertNull(forest.findNearestTree(world, ForestIndex.MAX_RANGE));
+        }
+        assertEquals(0, forest.size());
+    }
+}
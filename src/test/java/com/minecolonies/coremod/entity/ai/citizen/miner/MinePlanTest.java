@@ -0,0 +1,150 @@
+package com.minecolonies.coremod.entity.ai.citizen.miner;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests around {@link MinePlan}, with a ladder column going down from y 70.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MinePlanTest
+{
+    private static final BlockPos LADDER = new BlockPos(10, 70, 10);
+
+    @Mock
+    private World world;
+
+    private final Set<BlockPos> ladders = new HashSet<>();
+    private final Set<BlockPos> air     = new HashSet<>();
+    private       int           reads   = 0;
+
+    @Before
+    public void setup()
+    {
+        final IBlockState ladderState = mockState(true);
+        final IBlockState stone = mockState(false);
+        when(world.getBlockState(any(BlockPos.class))).thenAnswer(invocation ->
+        {
+            reads++;
+            return ladders.contains(invocation.getArguments()[0]) ? ladderState : stone;
+        });
+        when(world.isAirBlock(any(BlockPos.class))).thenAnswer(invocation -> air.contains(invocation.getArguments()[0]));
+
+        for (int y = 60; y <= LADDER.getY(); y++)
+        {
+            ladders.add(new BlockPos(LADDER.getX(), y, LADDER.getZ()));
+        }
+    }
+
+    private static IBlockState mockState(final boolean ladder)
+    {
+        final Block block = mock(Block.class);
+        when(block.isLadder(any(), any(), any(), any())).thenReturn(ladder);
+        final IBlockState state = mock(IBlockState.class);
+        when(state.getBlock()).thenReturn(block);
+        return state;
+    }
+
+    @Test
+    public void testLadderExtentIsCached()
+    {
+        final MinePlan plan = new MinePlan();
+        assertEquals(60, plan.getLastLadder(world, LADDER));
+        assertEquals(LADDER.getY(), MinePlan.getFirstLadder(world, new BlockPos(LADDER.getX(), 65, LADDER.getZ())));
+
+        reads = 0;
+        assertEquals(60, plan.getLastLadder(world, LADDER));
+        assertTrue("Walked the ladder again: " + reads, reads <= 2);
+
+        //  The miner placed the next ladder
+        ladders.add(new BlockPos(LADDER.getX(), 59, LADDER.getZ()));
+        reads = 0;
+        assertEquals(59, plan.getLastLadder(world, LADDER));
+        assertTrue("Walked the ladder again: " + reads, reads <= 3);
+
+        //  The lowest ladder is gone
+        ladders.remove(new BlockPos(LADDER.getX(), 59, LADDER.getZ()));
+        assertEquals(60, plan.getLastLadder(world, LADDER));
+    }
+
+    @Test
+    public void testShaftLayerIsMinedBlockByBlock()
+    {
+        final MinePlan plan = new MinePlan();
+        final MinePlan.ShaftLayer layer = plan.getShaftLayer(world, LADDER, 1, 0);
+        assertEquals(60, layer.getY());
+        assertSame(layer, plan.getShaftLayer(world, LADDER, 1, 0));
+
+        final Set<BlockPos> mined = new HashSet<>();
+        for (BlockPos next = layer.getNextBlock(world); next != null; next = layer.getNextBlock(world))
+        {
+            assertEquals(60, next.getY());
+            assertFalse(next.getX() == LADDER.getX() && next.getZ() == LADDER.getZ());
+            assertTrue(next.getX() >= LADDER.getX() && next.getX() <= LADDER.getX() + 2 * MinePlan.SHAFT_RADIUS);
+            assertTrue(mined.add(next));
+            air.add(next);
+        }
+        assertEquals(7 * 7 - 1, mined.size());
+        assertEquals(0, layer.getRemainingBlocks());
+
+        //  The next ladder moves the layer down
+        ladders.add(new BlockPos(LADDER.getX(), 59, LADDER.getZ()));
+        assertEquals(59, plan.getShaftLayer(world, LADDER, 1, 0).getY());
+    }
+
+    @Test
+    public void testSealedBlockIsMinedAgain()
+    {
+        final MinePlan.ShaftLayer layer = new MinePlan().getShaftLayer(world, LADDER, 1, 0);
+        final BlockPos first = layer.getNextBlock(world);
+        assertNotNull(first);
+        for (BlockPos next = first; next != null; next = layer.getNextBlock(world))
+        {
+            air.add(next);
+        }
+
+        //  A liquid was sealed with a block where the miner had already been
+        air.remove(first);
+        assertEquals(first, layer.getNextBlock(world));
+
+        air.add(first);
+        assertNull(layer.getNextBlock(world));
+        assertEquals(0, layer.getRemainingBlocks());
+    }
+
+    @Test
+    public void testMinedBlocksAreCheckedForLiquids()
+    {
+        final MinePlan.ShaftLayer layer = new MinePlan().getShaftLayer(world, LADDER, 1, 0);
+        assertEquals(11 * 11 - 1, layer.takeBlocksToCheck().size());
+        assertTrue(layer.takeBlocksToCheck().isEmpty());
+
+        final BlockPos first = layer.getNextBlock(world);
+        assertNotNull(first);
+        air.add(first);
+        layer.getNextBlock(world);
+
+        final List<BlockPos> toCheck = layer.takeBlocksToCheck();
+        assertFalse(toCheck.isEmpty());
+        for (final BlockPos pos : toCheck)
+        {
+            assertTrue(Math.abs(pos.getX() - first.getX()) <= 1 && Math.abs(pos.getZ() - first.getZ()) <= 1);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.minecolonies.coremod.entity.ai.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.minecolonies.coremod.entity.ai.util.AIState.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests around {@link AITargetTable}, against the linear scan over all targets the ais used before.
+ */
+public class AITargetTableTest
+{
+    /**
+     * Seed of the random target layouts, fixed to make failures reproducible.
+     */
+    private static final long SEED    = 42L;
+    private static final int  TARGETS = 60;
+    private static final int  LAYOUTS = 50;
+
+    @Test
+    public void testRegistrationOrderIsKept()
+    {
+        final AITarget global1 = new AITarget(() -> false, IDLE);
+        final AITarget idle = new AITarget(IDLE, START_WORKING);
+        final AITarget global2 = new AITarget(() -> false, IDLE);
+        final AITarget working = new AITarget(START_WORKING, IDLE);
+        final AITarget idle2 = new AITarget(IDLE, PREPARING);
+        final AITargetTable table = new AITargetTable(Arrays.asList(global1, idle, global2, working, idle2));
+
+        assertArrayEquals(new AITarget[] {global1, idle, global2, idle2}, table.getTargets(IDLE));
+        assertArrayEquals(new AITarget[] {global1, global2, working}, table.getTargets(START_WORKING));
+        assertArrayEquals(new AITarget[] {global1, global2}, table.getTargets(PREPARING));
+        assertSame(table.getTargets(PREPARING), table.getTargets(INVENTORY_FULL));
+    }
+
+    @Test
+    public void testTargetsOfEveryStateMatchRegistration()
+    {
+        final List<AITarget> targets = createTargets(new Random(SEED));
+        final AITargetTable table = new AITargetTable(targets);
+
+        for (final AIState state : AIState.values())
+        {
+            final List<AITarget> expected = new ArrayList<>();
+            for (final AITarget target : targets)
+            {
+                if (target.getState() == null || target.getState() == state)
+                {
+                    expected.add(target);
+                }
+            }
+            assertEquals(state.toString(), expected, Arrays.asList(table.getTargets(state)));
+        }
+    }
+
+    @Test
+    public void testDispatchFiresSameTargetAsLinearScan()
+    {
+        final Random random = new Random(SEED);
+        for (int layout = 0; layout < LAYOUTS; layout++)
+        {
+            final List<AITarget> targets = createTargets(random);
+            final AITargetTable table = new AITargetTable(targets);
+            for (final AIState state : AIState.values())
+            {
+                assertSame(layout + " " + state, fireStream(targets, state), fireTable(table, state));
+            }
+        }
+    }
+
+    /**
+     * Create a layout of targets for random states, some state independent, some which do not fire and some which
+     * fire without a result, like the targets the ais register.
+     *
+     * @param random the random to create it with.
+     * @return the targets in the order of registration.
+     */
+    private static List<AITarget> createTargets(final Random random)
+    {
+        final AIState[] states = AIState.values();
+        final List<AITarget> targets = new ArrayList<>();
+        for (int i = 0; i < TARGETS; i++)
+        {
+            final AIState state = random.nextInt(4) == 0 ? null : states[random.nextInt(states.length)];
+            final boolean fires = random.nextBoolean();
+            final AIState result = random.nextInt(3) == 0 ? null : states[random.nextInt(states.length)];
+            targets.add(new AITarget(state, () -> fires, () -> result));
+        }
+        return targets;
+    }
+
+    private static AITarget fireStream(final List<AITarget> targets, final AIState state)
+    {
+        return targets.stream()
+                 .filter(target -> (target.getState() == null || target.getState() == state) && target.test() && target.apply() != null)
+                 .findFirst()
+                 .orElse(null);
+    }
+
+    private static AITarget fireTable(final AITargetTable table, final AIState state)
+    {
+        for (final AITarget target : table.getTargets(state))
+        {
+            if (target.test() && target.apply() != null)
+            {
+                return target;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests around {@link NavigationGraph}, with a probe which blocks the links crossing a wall at x 100.
+ */
+public class NavigationGraphTest
+{
+    private static final int WALL_X = 100;
+
+    private final Set<BlockPos> roads = new HashSet<>();
+    private       boolean       wall  = false;
+    private       int           walks = 0;
+
+    private NavigationGraph       graph;
+    private NavigationGraph.Probe probe;
+
+    @Before
+    public void setup()
+    {
+        graph = new NavigationGraph();
+        probe = new NavigationGraph.Probe()
+        {
+            @Override
+            public boolean isOnRoad(@NotNull final BlockPos pos)
+            {
+                return roads.contains(pos);
+            }
+
+            @Override
+            public boolean canWalk(@NotNull final BlockPos from, @NotNull final BlockPos to)
+            {
+                walks++;
+                return !wall || (from.getX() < WALL_X) == (to.getX() < WALL_X);
+            }
+        };
+    }
+
+    private static BlockPos pos(final int x, final int z)
+    {
+        return new BlockPos(x, 64, z);
+    }
+
+    @Test
+    public void testRouteFollowsChain()
+    {
+        for (int x = 0; x <= 120; x += 20)
+        {
+            graph.addNode(pos(x, 0));
+        }
+
+        final List<BlockPos> route = graph.findRoute(pos(0, 0), pos(120, 0), probe, 0);
+        assertEquals(Arrays.asList(pos(0, 0), pos(20, 0), pos(40, 0), pos(60, 0), pos(80, 0), pos(100, 0), pos(120, 0)), route);
+    }
+
+    @Test
+    public void testNoLinkBeyondMaxDistance()
+    {
+        graph.addNode(pos(0, 0));
+        graph.addNode(pos(33, 0));
+
+        assertTrue(graph.findRoute(pos(0, 0), pos(33, 0), probe, 0).isEmpty());
+        assertEquals(0, walks);
+    }
+
+    @Test
+    public void testWallBlocksLinks()
+    {
+        wall = true;
+        graph.addNode(pos(80, 0));
+        graph.addNode(pos(95, 0));
+        graph.addNode(pos(110, 0));
+
+        assertTrue(graph.findRoute(pos(80, 0), pos(110, 0), probe, 0).isEmpty());
+    }
+
+    @Test
+    public void testRoadIsPreferred()
+    {
+        //  A straight line and a detour on a road
+        graph.addNode(pos(0, 0));
+        graph.addNode(pos(30, 0));
+        graph.addNode(pos(60, 0));
+        graph.addNode(pos(15, 10));
+        graph.addNode(pos(45, 10));
+        roads.addAll(Arrays.asList(pos(0, 0), pos(15, 10), pos(45, 10), pos(60, 0)));
+
+        final List<BlockPos> route = graph.findRoute(pos(0, 0), pos(60, 0), probe, 0);
+        assertTrue(route.contains(pos(15, 10)));
+        assertFalse(route.contains(pos(30, 0)));
+    }
+
+    @Test
+    public void testRemovedNodeBreaksRoute()
+    {
+        graph.addNode(pos(0, 0));
+        graph.addNode(pos(30, 0));
+        graph.addNode(pos(60, 0));
+        assertFalse(graph.findRoute(pos(0, 0), pos(60, 0), probe, 0).isEmpty());
+
+        graph.removeNode(pos(30, 0));
+        assertFalse(graph.hasNode(pos(30, 0)));
+        assertTrue(graph.findRoute(pos(0, 0), pos(60, 0), probe, 0).isEmpty());
+    }
+
+    @Test
+    public void testLinksAreProbedOncePerRefresh()
+    {
+        graph.addNode(pos(0, 0));
+        graph.addNode(pos(30, 0));
+        graph.addNode(pos(60, 0));
+
+        assertFalse(graph.findRoute(pos(0, 0), pos(60, 0), probe, 0).isEmpty());
+        final int firstWalks = walks;
+        assertTrue(firstWalks > 0);
+
+        //  Within the refresh window the known links are used, nodes far away do not matter
+        graph.addNode(pos(200, 0));
+        assertFalse(graph.findRoute(pos(0, 0), pos(60, 0), probe, NavigationGraph.LINK_REFRESH_TICKS - 1).isEmpty());
+        assertEquals(firstWalks, walks);
+
+        //  After it the links are probed again
+        assertFalse(graph.findRoute(pos(0, 0), pos(60, 0), probe, NavigationGraph.LINK_REFRESH_TICKS).isEmpty());
+        assertTrue(walks > firstWalks);
+    }
+
+    @Test
+    public void testChangedWorldIsSeenAfterRefresh()
+    {
+        graph.addNode(pos(80, 0));
+        graph.addNode(pos(110, 0));
+        assertFalse(graph.findRoute(pos(80, 0), pos(110, 0), probe, 0).isEmpty());
+
+        wall = true;
+        assertFalse(graph.findRoute(pos(80, 0), pos(110, 0), probe, 1).isEmpty());
+        assertTrue(graph.findRoute(pos(80, 0), pos(110, 0), probe, NavigationGraph.LINK_REFRESH_TICKS).isEmpty());
+    }
+
+    @Test
+    public void testAddedNodeIsLinkedWithinRefreshWindow()
+    {
+        graph.addNode(pos(0, 0));
+        graph.addNode(pos(60, 0));
+        assertTrue(graph.findRoute(pos(0, 0), pos(60, 0), probe, 0).isEmpty());
+
+        graph.addNode(pos(30, 0));
+        assertFalse(graph.findRoute(pos(0, 0), pos(60, 0), probe, 1).isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import net.minecraft.util.math.BlockPos;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests around {@link NodeHeap} and {@link NodeTable}.
+ */
+public class NodeHeapTest
+{
+    private static final int NODE_COUNT = 2000;
+
+    private NodeHeap  heap;
+    private NodeTable table;
+
+    @Before
+    public void setup()
+    {
+        heap = new NodeHeap();
+        table = new NodeTable();
+    }
+
+    private static Node createNode(final int i, final double score)
+    {
+        final Node node = new Node(null, new BlockPos(i, i % 256, -i), score, 0, score);
+        node.setCounterAdded(i);
+        return node;
+    }
+
+    @Test
+    public void testPollInScoreOrder()
+    {
+        for (int i = 0; i < NODE_COUNT; i++)
+        {
+            heap.offer(createNode(i, (i * 7919) % NODE_COUNT));
+        }
+
+        assertEquals(NODE_COUNT, heap.size());
+
+        double last = -1;
+        while (!heap.isEmpty())
+        {
+            final Node node = heap.poll();
+            assertTrue(node.getScore() >= last);
+            assertFalse(heap.contains(node));
+            last = node.getScore();
+        }
+        assertNull(heap.poll());
+    }
+
+    @Test
+    public void testDecreaseKey()
+    {
+        final Node[] nodes = new Node[NODE_COUNT];
+        for (int i = 0; i < NODE_COUNT; i++)
+        {
+            nodes[i] = createNode(i, i + 1D);
+            heap.offer(nodes[i]);
+        }
+
+        final Node last = nodes[NODE_COUNT - 1];
+        last.setScore(0);
+        heap.decreaseKey(last);
+
+        assertSame(last, heap.poll());
+        assertSame(nodes[0], heap.poll());
+    }
+
+    @Test
+    public void testClearReleasesNodes()
+    {
+        final Node node = createNode(1, 1);
+        heap.offer(node);
+        heap.clear();
+
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(node));
+    }
+
+    @Test
+    public void testTablePutAndGet()
+    {
+        final Node[] nodes = new Node[NODE_COUNT];
+        for (int i = 0; i < NODE_COUNT; i++)
+        {
+            nodes[i] = createNode(i, i);
+            table.put(nodes[i].pos.toLong(), nodes[i]);
+        }
+
+        assertEquals(NODE_COUNT, table.size());
+        for (final Node node : nodes)
+        {
+            assertSame(node, table.get(node.pos.toLong()));
+        }
+        assertNull(table.get(new BlockPos(-1, 0, 1).toLong()));
+
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertNull(table.get(nodes[0].pos.toLong()));
+    }
+}
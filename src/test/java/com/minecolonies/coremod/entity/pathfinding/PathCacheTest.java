@@ -0,0 +1,122 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import net.minecraft.pathfinding.Path;
+import net.minecraft.pathfinding.PathPoint;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests around {@link PathCache}, with a path along the top of a chunk section.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PathCacheTest
+{
+    /**
+     * The feet of the path are at the top of section 0, the head is in section 1.
+     */
+    private static final int      FEET_Y      = 15;
+    private static final BlockPos START       = new BlockPos(0, FEET_Y, 0);
+    private static final BlockPos DESTINATION = new BlockPos(5, FEET_Y, 0);
+
+    @Mock
+    private PassabilityCache passabilityCache;
+
+    private final Map<Long, Integer> versions = new HashMap<>();
+
+    private PathCache pathCache;
+
+    @Before
+    public void setup()
+    {
+        when(passabilityCache.isUnchangedSince(any(BlockPos.class), anyInt())).thenReturn(true);
+        when(passabilityCache.getVersion(any(BlockPos.class)))
+          .thenAnswer(invocation -> versions.getOrDefault(PassabilityCache.getSectionKey((BlockPos) invocation.getArguments()[0]), 1));
+
+        pathCache = new PathCache();
+        pathCache.put(passabilityCache, START, DESTINATION, createPoints(), 100, 0);
+    }
+
+    private static PathPoint[] createPoints()
+    {
+        final PathPoint[] points = new PathPoint[DESTINATION.getX()];
+        for (int i = 0; i < points.length; i++)
+        {
+            final PathPointExtended point = new PathPointExtended(START.east(i + 1));
+            point.setOnLadder(i == 2);
+            point.setLadderFacing(EnumFacing.NORTH);
+            points[i] = point;
+        }
+        return points;
+    }
+
+    @Test
+    public void testPathIsHandedOut()
+    {
+        final Path path = pathCache.get(passabilityCache, START, DESTINATION);
+        assertNotNull(path);
+        assertEquals(DESTINATION.getX(), path.getCurrentPathLength());
+
+        final PathPointExtended ladder = (PathPointExtended) path.getPathPointFromIndex(2);
+        assertTrue(ladder.isOnLadder());
+        assertEquals(EnumFacing.NORTH, ladder.getLadderFacing());
+    }
+
+    @Test
+    public void testChangedHeadSectionInvalidatesPath()
+    {
+        versions.put(PassabilityCache.getSectionKey(START.up()), 2);
+        assertNull(pathCache.get(passabilityCache, START, DESTINATION));
+    }
+
+    @Test
+    public void testChangedGroundSectionInvalidatesPath()
+    {
+        versions.put(PassabilityCache.getSectionKey(START.down()), 2);
+        assertNull(pathCache.get(passabilityCache, START, DESTINATION));
+    }
+
+    @Test
+    public void testHandedOutPointsAreCopies()
+    {
+        final Path first = pathCache.get(passabilityCache, START, DESTINATION);
+        assertNotNull(first);
+
+        //  Following a path changes its points
+        final PathPoint point = first.getPathPointFromIndex(0);
+        point.visited = true;
+        point.index = 7;
+
+        final Path second = pathCache.get(passabilityCache, START, DESTINATION);
+        assertNotNull(second);
+        assertNotSame(point, second.getPathPointFromIndex(0));
+        assertFalse(second.getPathPointFromIndex(0).visited);
+        assertEquals(-1, second.getPathPointFromIndex(0).index);
+        assertTrue(point.isAssigned());
+    }
+
+    @Test
+    public void testStoredPointsAreCopies()
+    {
+        final PathPoint[] points = createPoints();
+        pathCache.put(passabilityCache, START, DESTINATION, points, 100, 0);
+        points[0].visited = true;
+
+        final Path path = pathCache.get(passabilityCache, START, DESTINATION);
+        assertNotNull(path);
+        assertNotSame(points[0], path.getPathPointFromIndex(0));
+        assertFalse(path.getPathPointFromIndex(0).visited);
+    }
+}
@@ -0,0 +1,19 @@
+package com.minecolonies.coremod.entity.pathfinding;
+
+import com.minecolonies.coremod.configuration.Configurations;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests around the thread pool of {@link Pathfinding}.
+ */
+public class PathfindingTest
+{
+    @Test
+    public void testConfiguredThreadCountIsUsed()
+    {
+        //  The default is more than one thread, a pool stuck at a single thread would fail here
+        assertEquals(Configurations.pathfindingMaxThreadCount, Pathfinding.getThreadCount());
+    }
+}
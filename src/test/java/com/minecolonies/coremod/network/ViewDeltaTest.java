@@ -0,0 +1,145 @@
+package com.minecolonies.coremod.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests around {@link ViewDelta}, with a view of three int sections and a client which mirrors it.
+ */
+public class ViewDeltaTest
+{
+    private static final int  SECTIONS = 3;
+    private static final UUID PLAYER   = UUID.randomUUID();
+
+    private ViewDelta delta;
+
+    private int[] clientValues;
+    private int   clientRevision;
+
+    @Before
+    public void setup()
+    {
+        delta = new ViewDelta(SECTIONS);
+        clientValues = new int[SECTIONS];
+        clientRevision = ViewDelta.NO_REVISION;
+    }
+
+    private boolean update(final int... values)
+    {
+        final ByteBuf[] buffers = new ByteBuf[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            buffers[i] = Unpooled.buffer().writeInt(values[i]);
+        }
+        return delta.update(buffers);
+    }
+
+    private ByteBuf send()
+    {
+        final ByteBuf buf = Unpooled.buffer();
+        delta.write(buf, delta.getRevision(PLAYER));
+        delta.setSent(PLAYER);
+        return buf;
+    }
+
+    /**
+     * Apply a message like the client views do.
+     *
+     * @return the bit mask of the applied sections, or null if the message did not apply.
+     */
+    private Integer apply(final ByteBuf buf)
+    {
+        final int newRevision = ViewDelta.readRevision(buf, clientRevision);
+        if (newRevision == ViewDelta.MISMATCH)
+        {
+            return null;
+        }
+        clientRevision = newRevision;
+
+        final int mask = buf.readInt();
+        for (int i = 0; i < SECTIONS; i++)
+        {
+            if (ViewDelta.hasSection(mask, i))
+            {
+                clientValues[i] = buf.readInt();
+            }
+        }
+        assertEquals(0, buf.readableBytes());
+        return mask;
+    }
+
+    @Test
+    public void testFirstMessageHasAllSections()
+    {
+        assertTrue(update(1, 2, 3));
+        assertEquals(Integer.valueOf(0b111), apply(send()));
+        assertArrayEquals(new int[] {1, 2, 3}, clientValues);
+        assertEquals(delta.getRevision(), clientRevision);
+    }
+
+    @Test
+    public void testOnlyChangedSectionsAreSent()
+    {
+        update(1, 2, 3);
+        apply(send());
+
+        assertFalse(update(1, 2, 3));
+
+        assertTrue(update(1, 5, 3));
+        assertEquals(Integer.valueOf(0b010), apply(send()));
+        assertArrayEquals(new int[] {1, 5, 3}, clientValues);
+    }
+
+    @Test
+    public void testChangesOfSkippedRevisionsAreSentTogether()
+    {
+        update(1, 2, 3);
+        apply(send());
+
+        update(4, 2, 3);
+        update(4, 2, 6);
+        assertEquals(Integer.valueOf(0b101), apply(send()));
+        assertArrayEquals(new int[] {4, 2, 6}, clientValues);
+    }
+
+    @Test
+    public void testDeltaForOtherRevisionIsNotApplied()
+    {
+        update(1, 2, 3);
+        apply(send());
+
+        //  The client lost its view, the server does not know
+        clientValues = new int[SECTIONS];
+        clientRevision = ViewDelta.NO_REVISION;
+
+        update(1, 7, 3);
+        assertNull(apply(send()));
+        assertArrayEquals(new int[SECTIONS], clientValues);
+
+        //  The server forgets the player and sends the whole view
+        delta.removeSubscriber(PLAYER);
+        assertEquals(Integer.valueOf(0b111), apply(send()));
+        assertArrayEquals(new int[] {1, 7, 3}, clientValues);
+    }
+
+    @Test
+    public void testFullViewAppliesToAnyRevision()
+    {
+        update(1, 2, 3);
+        clientRevision = 42;
+        assertEquals(Integer.valueOf(0b111), apply(send()));
+        assertEquals(delta.getRevision(), clientRevision);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSectionCountIsChecked()
+    {
+        update(1, 2);
+    }
+}
@@ -0,0 +1,281 @@
+package com.minecolonies.coremod.tileentities;
+
+import com.minecolonies.coremod.test.AbstractTest;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntityChest;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.items.IItemHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests around {@link WareHouseIndex}, with three mocked chests of four slots.
+ */
+public class WareHouseIndexTest extends AbstractTest
+{
+    private static final int SLOTS = 4;
+
+    private static final BlockPos       FIRST     = new BlockPos(0, 64, 0);
+    private static final BlockPos       SECOND    = new BlockPos(2, 64, 0);
+    private static final BlockPos       THIRD     = new BlockPos(4, 64, 0);
+    private static final List<BlockPos> POSITIONS = Arrays.asList(FIRST, SECOND, THIRD);
+
+    private final Map<BlockPos, ItemStack[]> slots = new HashMap<>();
+
+    private World          world;
+    private Item           item;
+    private WareHouseIndex index;
+
+    @Before
+    public void setup()
+    {
+        world = mock(World.class);
+        item = mock(Item.class);
+        when(item.getHarvestLevel(any(), anyString(), any(), any())).thenReturn(-1);
+
+        for (final BlockPos pos : POSITIONS)
+        {
+            final ItemStack[] content = new ItemStack[SLOTS];
+            Arrays.fill(content, ItemStack.EMPTY);
+            slots.put(pos, content);
+
+            final IItemHandler handler = mock(IItemHandler.class);
+            when(handler.getSlots()).thenReturn(SLOTS);
+            when(handler.getStackInSlot(anyInt())).thenAnswer(invocation -> content[(Integer) invocation.getArguments()[0]]);
+
+            final TileEntityChest chest = mock(TileEntityChest.class);
+            when(chest.hasCapability(any(), any())).thenReturn(true);
+            doReturn(handler).when(chest).getCapability(any(), any());
+            when(world.getTileEntity(pos)).thenReturn(chest);
+        }
+
+        index = new WareHouseIndex();
+        index.sync(world, POSITIONS);
+    }
+
+    /**
+     * Create a stack of the test item which copies to itself.
+     *
+     * @param damage the damage of the stack.
+     * @param name   the display name, to tell stacks with the same item and damage apart.
+     * @return the stack.
+     */
+    private ItemStack createStack(final int damage, final String name)
+    {
+        final ItemStack stack = mock(ItemStack.class);
+        when(stack.getItem()).thenReturn(item);
+        when(stack.getItemDamage()).thenReturn(damage);
+        when(stack.getCount()).thenReturn(1);
+        when(stack.getDisplayName()).thenReturn(name);
+        when(stack.copy()).thenReturn(stack);
+        return stack;
+    }
+
+    private BlockPos find(final ItemStack stack)
+    {
+        index.sync(world, POSITIONS);
+        return index.findItem(stack, FIRST);
+    }
+
+    @Test
+    public void testInsertedStackIsFoundAfterMarkDirty()
+    {
+        final ItemStack stack = createStack(0, "a");
+        slots.get(SECOND)[1] = stack;
+        assertNull(find(stack));
+
+        index.markDirty(SECOND);
+        assertEquals(SECOND, find(stack));
+        assertNull(find(createStack(1, "a")));
+    }
+
+    @Test
+    public void testRemovedStackIsDroppedAfterMarkDirty()
+    {
+        final ItemStack stack = createStack(0, "a");
+        slots.get(SECOND)[1] = stack;
+        slots.get(THIRD)[3] = stack;
+        index.markDirty(SECOND);
+        index.markDirty(THIRD);
+        assertNotNull(find(stack));
+
+        slots.get(SECOND)[1] = ItemStack.EMPTY;
+        index.markDirty(SECOND);
+        assertEquals(THIRD, find(stack));
+
+        slots.get(THIRD)[3] = ItemStack.EMPTY;
+        index.markDirty(THIRD);
+        assertNull(find(stack));
+    }
+
+    @Test
+    public void testCountsFollowContent()
+    {
+        final ItemStack stack = createStack(0, "a");
+        final ItemStack bigStack = createStack(0, "a");
+        when(bigStack.getCount()).thenReturn(16);
+        slots.get(FIRST)[0] = stack;
+        slots.get(SECOND)[1] = bigStack;
+        slots.get(SECOND)[2] = stack;
+        index.markDirty(FIRST);
+        index.markDirty(SECOND);
+        index.sync(world, POSITIONS);
+
+        assertEquals(18, index.getCount(stack));
+        assertEquals(0, index.getCount(createStack(1, "a")));
+
+        slots.get(SECOND)[1] = ItemStack.EMPTY;
+        index.markDirty(SECOND);
+        index.sync(world, POSITIONS);
+        assertEquals(2, index.getCount(stack));
+
+        //  A chest which is gone takes its items with it
+        index.sync(world, Arrays.asList(SECOND, THIRD));
+        assertEquals(1, index.getCount(stack));
+        index.sync(world, Collections.singletonList(THIRD));
+        assertEquals(0, index.getCount(stack));
+    }
+
+    @Test
+    public void testNewChestIsScannedOnNextLookup()
+    {
+        final ItemStack stack = createStack(0, "a");
+        slots.get(THIRD)[0] = stack;
+        index.sync(world, Arrays.asList(FIRST, SECOND));
+
+        index.setPositions(POSITIONS);
+        assertEquals(0, index.getCount(stack));
+        index.scanDirty(world);
+        assertEquals(1, index.getCount(stack));
+    }
+
+    @Test
+    public void testPreferredChestComesFirst()
+    {
+        final ItemStack stack = createStack(0, "a");
+        slots.get(FIRST)[0] = stack;
+        slots.get(THIRD)[0] = stack;
+        index.markDirty(FIRST);
+        index.markDirty(THIRD);
+        index.sync(world, POSITIONS);
+
+        assertEquals(THIRD, index.findItem(stack, THIRD));
+        assertEquals(FIRST, index.findItem(stack, SECOND));
+    }
+
+    @Test
+    public void testPredicateIsTestedAgainstEveryStack()
+    {
+        //  Same item and damage, only the second stack matches
+        slots.get(SECOND)[0] = createStack(0, "plain");
+        slots.get(SECOND)[2] = createStack(0, "named");
+        index.markDirty(SECOND);
+        index.sync(world, POSITIONS);
+
+        assertEquals(SECOND, index.findItem(stack -> "named".equals(stack.getDisplayName()), FIRST));
+        assertNull(index.findItem(stack -> "other".equals(stack.getDisplayName()), FIRST));
+    }
+
+    @Test
+    public void testClosedChestIsRescanned()
+    {
+        //  A player changed a chest, closing it marks it dirty
+        final ItemStack stack = createStack(0, "a");
+        slots.get(FIRST)[0] = stack;
+        index.markDirty(FIRST);
+        assertEquals(FIRST, find(stack));
+
+        slots.get(FIRST)[0] = ItemStack.EMPTY;
+        slots.get(THIRD)[0] = stack;
+        assertEquals(FIRST, find(stack));
+
+        index.markDirty(FIRST);
+        index.markDirty(THIRD);
+        assertEquals(THIRD, find(stack));
+    }
+
+    @Test
+    public void testRemovedChestIsDropped()
+    {
+        final ItemStack stack = createStack(0, "a");
+        slots.get(SECOND)[0] = stack;
+        index.markDirty(SECOND);
+        assertEquals(SECOND, find(stack));
+
+        index.sync(world, Arrays.asList(FIRST, THIRD));
+        assertEquals(new HashSet<>(Arrays.asList(FIRST, THIRD)), index.getPositions());
+        assertNull(index.findItem(stack, FIRST));
+        assertNull(index.findItem(s -> true, FIRST));
+    }
+
+    @Test
+    public void testFreeSlotsFollowContent()
+    {
+        final ItemStack stack = createStack(0, "a");
+        for (int i = 0; i < SLOTS; i++)
+        {
+            slots.get(SECOND)[i] = stack;
+        }
+        index.markDirty(SECOND);
+        index.sync(world, POSITIONS);
+
+        //  The chest holding the item is full, another one is used
+        assertNotEquals(SECOND, index.findChestForStack(stack, SECOND));
+
+        slots.get(SECOND)[0] = ItemStack.EMPTY;
+        index.markDirty(SECOND);
+        index.sync(world, POSITIONS);
+        assertEquals(SECOND, index.findChestForStack(stack, FIRST));
+    }
+
+    @Test
+    public void testVerificationVisitsEveryChestInTurn()
+    {
+        final ItemStack stack = createStack(0, "a");
+        for (final BlockPos pos : POSITIONS)
+        {
+            slots.get(pos)[0] = stack;
+        }
+
+        final Set<BlockPos> found = new HashSet<>();
+        for (int i = 0; i < POSITIONS.size(); i++)
+        {
+            index.verifyNext();
+            index.sync(world, POSITIONS);
+            for (final BlockPos pos : POSITIONS)
+            {
+                if (pos.equals(index.findItem(stack, pos)))
+                {
+                    found.add(pos);
+                }
+            }
+            assertEquals(i + 1, found.size());
+        }
+        assertEquals(new HashSet<>(POSITIONS), found);
+    }
+
+    @Test
+    public void testVerificationContinuesAfterRemovedChest()
+    {
+        index.verifyNext();
+        index.sync(world, Arrays.asList(SECOND, THIRD));
+
+        //  The first chest is gone, the second one is next in turn
+        final ItemStack stack = createStack(0, "a");
+        slots.get(SECOND)[0] = stack;
+        slots.get(THIRD)[0] = stack;
+        index.verifyNext();
+        index.sync(world, Arrays.asList(SECOND, THIRD));
+        assertEquals(SECOND, index.findItem(stack, THIRD));
+    }
+}
@@ -0,0 +1,299 @@
+package com.minecolonies.structures.helpers;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.BlockRenderLayer;
+import net.minecraft.util.EnumBlockRenderType;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.template.PlacementSettings;
+import net.minecraft.world.gen.structure.template.Template;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests around {@link GhostMesh}, headless with mocked models, including the culling over the bundled schematics.
+ */
+public class GhostMeshTest
+{
+    private static final String SCHEMATICS = "/assets/minecolonies/schematics";
+    private static final int    NBT_LIST   = 10;
+    private static final int    NBT_INT    = 3;
+
+    /**
+     * Blocks of the bundled schematics which do not hide the faces behind them.
+     */
+    private static final String[] SEE_THROUGH = {"glass", "pane", "leaves", "fence", "door", "torch", "slab", "stairs", "ladder", "carpet", "sign", "wall", "bars", "flower"};
+
+    private static final VertexFormat FORMAT = DefaultVertexFormats.BLOCK;
+
+    @Test
+    public void testHiddenFacesAreCulled()
+    {
+        final IBlockState stone = mockState(true);
+        final List<Template.BlockInfo> blocks = new ArrayList<>();
+        for (int x = 0; x < 3; x++)
+        {
+            for (int y = 0; y < 3; y++)
+            {
+                for (int z = 0; z < 3; z++)
+                {
+                    blocks.add(new Template.BlockInfo(new BlockPos(x, y, z), stone, null));
+                }
+            }
+        }
+
+        final GhostMesh mesh = build(BlockPos.ORIGIN, blocks, new CubeSource());
+
+        //  Only the 9 faces on every side of the cube stay
+        assertEquals(54, mesh.getQuadCount());
+        assertEquals(27 * 6 - 54, mesh.getCulledQuadCount());
+        assertEquals(54 * FORMAT.getIntegerSize(), mesh.getVertexData().get(BlockRenderLayer.SOLID).get(FORMAT).length);
+    }
+
+    @Test
+    public void testSeeThroughNeighborsDoNotCull()
+    {
+        final IBlockState glass = mockState(false);
+        final GhostMesh mesh = build(BlockPos.ORIGIN,
+          Arrays.asList(new Template.BlockInfo(BlockPos.ORIGIN, glass, null), new Template.BlockInfo(new BlockPos(1, 0, 0), glass, null)),
+          new CubeSource());
+
+        assertEquals(12, mesh.getQuadCount());
+        assertEquals(0, mesh.getCulledQuadCount());
+    }
+
+    @Test
+    public void testQuadsAreMovedScaledAndTinted()
+    {
+        final CubeSource source = new CubeSource();
+        source.tint = 0x808080;
+        source.occupied = true;
+        final BlockPos origin = new BlockPos(100, 64, -20);
+        final GhostMesh mesh = build(origin, Collections.singletonList(new Template.BlockInfo(new BlockPos(2, 3, 4), mockState(true), null)), source);
+
+        final int[] data = mesh.getVertexData().get(BlockRenderLayer.SOLID).get(FORMAT);
+        final int stride = FORMAT.getIntegerSize();
+
+        //  The first quad is the bottom face, its second vertex is at 1, 0, 0 of the block
+        assertEquals(2F + 1.001F, Float.intBitsToFloat(data[stride]), 1E-5F);
+        assertEquals(3F, Float.intBitsToFloat(data[stride + 1]), 1E-5F);
+        assertEquals(4F, Float.intBitsToFloat(data[stride + 2]), 1E-5F);
+
+        final int color = data[FORMAT.getColorOffset() / Integer.BYTES];
+        assertEquals(0xFF808080, ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? color : Integer.reverseBytes(color));
+        assertEquals(origin, mesh.getOrigin());
+    }
+
+    @Test
+    public void testIsForSettings()
+    {
+        final IBlockState substitute = mockState(true);
+        final PlacementSettings settings = new PlacementSettings().setRotation(Rotation.CLOCKWISE_90);
+        final GhostMesh mesh = GhostMesh.build(BlockPos.ORIGIN, settings, substitute, new Template.BlockInfo[0], new CubeSource());
+
+        assertTrue(mesh.isFor(BlockPos.ORIGIN, new PlacementSettings().setRotation(Rotation.CLOCKWISE_90), substitute));
+        assertFalse(mesh.isFor(new BlockPos(1, 0, 0), settings, substitute));
+        assertFalse(mesh.isFor(BlockPos.ORIGIN, new PlacementSettings().setRotation(Rotation.CLOCKWISE_180), substitute));
+        assertFalse(mesh.isFor(BlockPos.ORIGIN, new PlacementSettings().setRotation(Rotation.CLOCKWISE_90).setMirror(Mirror.FRONT_BACK), substitute));
+        assertFalse(mesh.isFor(BlockPos.ORIGIN, settings, mockState(true)));
+    }
+
+    @Test
+    public void testBundledSchematicsCullFacesBehindOpaqueBlocks() throws IOException, URISyntaxException
+    {
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(Paths.get(GhostMeshTest.class.getResource(SCHEMATICS).toURI())))
+        {
+            files = paths.filter(path -> path.toString().endsWith(".nbt")).sorted().collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty());
+
+        final CubeSource source = new CubeSource();
+        for (final Path file : files)
+        {
+            final List<Template.BlockInfo> blocks = readBlocks(file);
+            final GhostMesh mesh = build(BlockPos.ORIGIN, blocks, source);
+
+            final Map<BlockPos, IBlockState> states = new HashMap<>();
+            for (final Template.BlockInfo block : blocks)
+            {
+                states.put(block.pos, block.blockState);
+            }
+            int hidden = 0;
+            for (final Template.BlockInfo block : blocks)
+            {
+                for (final EnumFacing facing : EnumFacing.values())
+                {
+                    final IBlockState neighbor = states.get(block.pos.offset(facing));
+                    if (neighbor != null && neighbor.isOpaqueCube())
+                    {
+                        hidden++;
+                    }
+                }
+            }
+
+            final String name = file.getFileName().toString();
+            assertEquals(name, hidden, mesh.getCulledQuadCount());
+            assertEquals(name, blocks.size() * EnumFacing.values().length - hidden, mesh.getQuadCount());
+            if (mesh.getQuadCount() > 0)
+            {
+                assertEquals(name, mesh.getQuadCount() * FORMAT.getIntegerSize(), mesh.getVertexData().get(BlockRenderLayer.SOLID).get(FORMAT).length);
+            }
+        }
+    }
+
+    private static GhostMesh build(final BlockPos origin, final List<Template.BlockInfo> blocks, final GhostMesh.ModelSource source)
+    {
+        return GhostMesh.build(origin, new PlacementSettings(), null, blocks.toArray(new Template.BlockInfo[blocks.size()]), source);
+    }
+
+    private static IBlockState mockState(final boolean opaque)
+    {
+        final IBlockState state = mock(IBlockState.class);
+        when(state.getRenderType()).thenReturn(EnumBlockRenderType.MODEL);
+        when(state.isOpaqueCube()).thenReturn(opaque);
+        return state;
+    }
+
+    /**
+     * Read the blocks of a schematic, every palette entry gets its own state, air is left out.
+     */
+    private static List<Template.BlockInfo> readBlocks(final Path file) throws IOException
+    {
+        final NBTTagCompound compound;
+        try (InputStream stream = Files.newInputStream(file))
+        {
+            compound = CompressedStreamTools.readCompressed(stream);
+        }
+
+        final NBTTagList paletteList = compound.getTagList("palette", NBT_LIST);
+        final IBlockState[] palette = new IBlockState[paletteList.tagCount()];
+        for (int i = 0; i < palette.length; i++)
+        {
+            final String name = paletteList.getCompoundTagAt(i).getString("Name");
+            if (!name.endsWith(":air"))
+            {
+                palette[i] = mockState(Arrays.stream(SEE_THROUGH).noneMatch(name::contains));
+            }
+        }
+
+        final NBTTagList blockList = compound.getTagList("blocks", NBT_LIST);
+        final List<Template.BlockInfo> blocks = new ArrayList<>(blockList.tagCount());
+        for (int i = 0; i < blockList.tagCount(); i++)
+        {
+            final NBTTagCompound block = blockList.getCompoundTagAt(i);
+            final IBlockState state = palette[block.getInteger("state")];
+            if (state != null)
+            {
+                final NBTTagList pos = block.getTagList("pos", NBT_INT);
+                blocks.add(new Template.BlockInfo(new BlockPos(pos.getIntAt(0), pos.getIntAt(1), pos.getIntAt(2)), state, null));
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Every block is a full cube in the solid layer, one quad per side.
+     */
+    private static final class CubeSource implements GhostMesh.ModelSource
+    {
+        private final Map<EnumFacing, List<BakedQuad>> quads = new EnumMap<>(EnumFacing.class);
+        private int     tint     = -1;
+        private boolean occupied = false;
+
+        private CubeSource()
+        {
+            for (final EnumFacing facing : EnumFacing.values())
+            {
+                quads.put(facing, Collections.singletonList(createQuad(facing)));
+            }
+        }
+
+        private static BakedQuad createQuad(final EnumFacing facing)
+        {
+            //  Corners of the face, the exact winding does not matter here
+            final float[][] corners = new float[4][];
+            final int axis = facing.getAxis().ordinal();
+            final float side = facing.getAxisDirection() == EnumFacing.AxisDirection.POSITIVE ? 1F : 0F;
+            final int[][] uv = {{0, 0}, {1, 0}, {1, 1}, {0, 1}};
+            for (int i = 0; i < corners.length; i++)
+            {
+                final float[] corner = new float[3];
+                corner[axis] = side;
+                corner[(axis + 1) % 3] = uv[i][0];
+                corner[(axis + 2) % 3] = uv[i][1];
+                corners[i] = corner;
+            }
+            //  The bottom face starts at 0, 0, 0 and goes along x first
+            if (facing == EnumFacing.DOWN)
+            {
+                corners[1] = new float[] {1F, 0F, 0F};
+                corners[3] = new float[] {0F, 0F, 1F};
+            }
+
+            final int stride = FORMAT.getIntegerSize();
+            final int[] data = new int[stride * 4];
+            for (int i = 0; i < 4; i++)
+            {
+                data[i * stride] = Float.floatToRawIntBits(corners[i][0]);
+                data[i * stride + 1] = Float.floatToRawIntBits(corners[i][1]);
+                data[i * stride + 2] = Float.floatToRawIntBits(corners[i][2]);
+                data[i * stride + FORMAT.getColorOffset() / Integer.BYTES] = -1;
+            }
+            return new BakedQuad(data, 0, facing, null, true, FORMAT);
+        }
+
+        @Override
+        public boolean canRenderInLayer(@NotNull final IBlockState state, @NotNull final BlockRenderLayer layer)
+        {
+            return layer == BlockRenderLayer.SOLID;
+        }
+
+        @NotNull
+        @Override
+        public List<BakedQuad> getQuads(
+                                         @NotNull final IBlockState state,
+                                         @NotNull final BlockPos pos,
+                                         @NotNull final BlockRenderLayer layer,
+                                         @Nullable final EnumFacing facing)
+        {
+            return facing == null ? Collections.emptyList() : quads.get(facing);
+        }
+
+        @Override
+        public int getTint(@NotNull final IBlockState state, @NotNull final BlockPos pos, final int tintIndex)
+        {
+            return tint;
+        }
+
+        @Override
+        public boolean isOccupied(@NotNull final BlockPos pos)
+        {
+            return occupied;
+        }
+    }
+}
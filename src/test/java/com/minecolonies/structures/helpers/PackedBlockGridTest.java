@@ -0,0 +1,144 @@
+package com.minecolonies.structures.helpers;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests around {@link PackedBlockGrid}, including a round trip of the bundled schematics.
+ */
+public class PackedBlockGridTest
+{
+    private static final String SCHEMATICS = "/assets/minecolonies/schematics";
+    private static final int    NBT_LIST   = 10;
+    private static final int    NBT_INT    = 3;
+
+    @Test
+    public void testIndexRoundTrip()
+    {
+        final IBlockState stone = mock(IBlockState.class);
+        final IBlockState dirt = mock(IBlockState.class);
+        final PackedBlockGrid.Builder builder = new PackedBlockGrid.Builder(new BlockPos(3, 4, 5));
+        final NBTTagCompound data = new NBTTagCompound();
+        builder.set(new BlockPos(0, 0, 0), stone, null);
+        builder.set(new BlockPos(2, 3, 4), dirt, data);
+        builder.set(new BlockPos(1, 2, 3), stone, null);
+        final PackedBlockGrid grid = builder.build();
+
+        assertEquals(60, grid.getVolume());
+        assertEquals(2, grid.getPaletteSize());
+        for (int index = 0; index < grid.getVolume(); index++)
+        {
+            assertEquals(index, grid.getIndex(grid.getX(index), grid.getY(index), grid.getZ(index)));
+        }
+
+        assertSame(stone, grid.getBlockState(grid.getIndex(0, 0, 0)));
+        assertSame(stone, grid.getBlockState(grid.getIndex(1, 2, 3)));
+        assertSame(dirt, grid.getBlockState(grid.getIndex(2, 3, 4)));
+        assertNull(grid.getBlockState(grid.getIndex(1, 1, 1)));
+        assertSame(data, grid.getTileEntityData(grid.getIndex(2, 3, 4)));
+        assertNull(grid.getTileEntityData(grid.getIndex(0, 0, 0)));
+
+        //  The builder walks x first, then z, then y
+        assertEquals(1, grid.getIndex(1, 0, 0));
+        assertEquals(3, grid.getIndex(0, 0, 1));
+        assertEquals(15, grid.getIndex(0, 1, 0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutsideOfGridThrows()
+    {
+        final PackedBlockGrid grid = new PackedBlockGrid.Builder(new BlockPos(3, 4, 5)).build();
+        grid.getIndex(3, 0, 0);
+    }
+
+    @Test
+    public void testIndexBoundsOnEveryAxis()
+    {
+        final PackedBlockGrid grid = new PackedBlockGrid.Builder(new BlockPos(3, 4, 5)).build();
+        for (final BlockPos pos : new BlockPos[] {new BlockPos(-1, 0, 0), new BlockPos(0, 4, 0), new BlockPos(0, 0, 5), new BlockPos(0, -1, 0), new BlockPos(0, 0, -1)})
+        {
+            try
+            {
+                grid.getIndex(pos);
+                fail("No exception for " + pos);
+            }
+            catch (final IndexOutOfBoundsException expected)
+            {
+                //  Expected, the grid would have wrapped into another row
+            }
+        }
+        assertEquals(grid.getVolume() - 1, grid.getIndex(2, 3, 4));
+    }
+
+    @Test
+    public void testBundledSchematicsRoundTrip() throws IOException, URISyntaxException
+    {
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(Paths.get(PackedBlockGridTest.class.getResource(SCHEMATICS).toURI())))
+        {
+            files = paths.filter(path -> path.toString().endsWith(".nbt")).collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty());
+
+        for (final Path file : files)
+        {
+            final NBTTagCompound compound;
+            try (InputStream stream = Files.newInputStream(file))
+            {
+                compound = CompressedStreamTools.readCompressed(stream);
+            }
+
+            final NBTTagList sizeList = compound.getTagList("size", NBT_INT);
+            final BlockPos size = new BlockPos(sizeList.getIntAt(0), sizeList.getIntAt(1), sizeList.getIntAt(2));
+            final NBTTagList paletteList = compound.getTagList("palette", NBT_LIST);
+            final IBlockState[] palette = new IBlockState[paletteList.tagCount()];
+            for (int i = 0; i < palette.length; i++)
+            {
+                palette[i] = mock(IBlockState.class);
+            }
+
+            final NBTTagList blockList = compound.getTagList("blocks", NBT_LIST);
+            final PackedBlockGrid.Builder builder = new PackedBlockGrid.Builder(size);
+            for (int i = 0; i < blockList.tagCount(); i++)
+            {
+                final NBTTagCompound block = blockList.getCompoundTagAt(i);
+                builder.set(getPos(block), palette[block.getInteger("state")], block.hasKey("nbt") ? block.getCompoundTag("nbt") : null);
+            }
+            final PackedBlockGrid grid = builder.build();
+
+            for (int i = 0; i < blockList.tagCount(); i++)
+            {
+                final NBTTagCompound block = blockList.getCompoundTagAt(i);
+                final int index = grid.getIndex(getPos(block));
+                assertSame(file.getFileName().toString(), palette[block.getInteger("state")], grid.getBlockState(index));
+                if (block.hasKey("nbt"))
+                {
+                    assertEquals(file.getFileName().toString(), block.getCompoundTag("nbt"), grid.getTileEntityData(index));
+                }
+            }
+        }
+    }
+
+    private static BlockPos getPos(final NBTTagCompound block)
+    {
+        final NBTTagList pos = block.getTagList("pos", NBT_INT);
+        return new BlockPos(pos.getIntAt(0), pos.getIntAt(1), pos.getIntAt(2));
+    }
+}
@@ -0,0 +1,118 @@
+package com.minecolonies.structures.helpers;
+
+import com.minecolonies.coremod.configuration.Configurations;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.template.Template;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests around {@link StructureCache}.
+ */
+public class StructureCacheTest
+{
+    private int maxCachedSchematics;
+
+    @Before
+    public void setup()
+    {
+        maxCachedSchematics = Configurations.maxCachedSchematics;
+        StructureCache.clear();
+    }
+
+    @After
+    public void tearDown()
+    {
+        Configurations.maxCachedSchematics = maxCachedSchematics;
+        StructureCache.clear();
+    }
+
+    private static Template createTemplate(final int blocks)
+    {
+        final Template template = new Template();
+        for (int i = 0; i < blocks; i++)
+        {
+            template.blocks.add(new Template.BlockInfo(new BlockPos(i, 0, 0), mock(IBlockState.class), null));
+        }
+        return template;
+    }
+
+    private static StructureProxy.Layout createLayout()
+    {
+        return new StructureProxy.Layout(new PackedBlockGrid.Builder(new BlockPos(1, 1, 1)).build(), null, BlockPos.ORIGIN);
+    }
+
+    @Test
+    public void testTemplatesAreKeyedByMd5()
+    {
+        final Template template = createTemplate(1);
+        assertNull(StructureCache.getTemplate("a"));
+
+        StructureCache.putTemplate("a", template);
+        assertSame(template, StructureCache.getTemplate("a"));
+        assertNull(StructureCache.getTemplate("b"));
+
+        //  The first template of a MD5 is kept
+        StructureCache.putTemplate("a", createTemplate(1));
+        assertSame(template, StructureCache.getTemplate("a"));
+        assertTrue(StructureCache.getStatistics().startsWith("1 templates, 1 blocks"));
+    }
+
+    @Test
+    public void testLayoutsAreKeyedByRotationAndMirror()
+    {
+        final StructureProxy.Layout loaded = createLayout();
+        final StructureProxy.Layout rotated = createLayout();
+
+        //  Layouts are only kept for cached templates
+        StructureCache.putLayout("a", null, Mirror.NONE, loaded);
+        assertNull(StructureCache.getLayout("a", null, Mirror.NONE));
+
+        StructureCache.putTemplate("a", createTemplate(2));
+        StructureCache.putLayout("a", null, Mirror.NONE, loaded);
+        StructureCache.putLayout("a", Rotation.CLOCKWISE_90, Mirror.NONE, rotated);
+
+        assertSame(loaded, StructureCache.getLayout("a", null, Mirror.NONE));
+        assertSame(rotated, StructureCache.getLayout("a", Rotation.CLOCKWISE_90, Mirror.NONE));
+        assertNull(StructureCache.getLayout("a", Rotation.CLOCKWISE_90, Mirror.LEFT_RIGHT));
+        assertNull(StructureCache.getLayout("a", Rotation.CLOCKWISE_180, Mirror.NONE));
+
+        //  The template and each layout count with the blocks of the template
+        assertTrue(StructureCache.getStatistics().startsWith("1 templates, 6 blocks"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted()
+    {
+        Configurations.maxCachedSchematics = 2;
+        StructureCache.putTemplate("a", createTemplate(1));
+        StructureCache.putTemplate("b", createTemplate(1));
+
+        //  Using a makes b the least recently used one
+        assertNotNull(StructureCache.getTemplate("a"));
+        StructureCache.putTemplate("c", createTemplate(1));
+
+        assertNotNull(StructureCache.getTemplate("a"));
+        assertNull(StructureCache.getTemplate("b"));
+        assertNotNull(StructureCache.getTemplate("c"));
+    }
+
+    @Test
+    public void testClearDropsEverything()
+    {
+        StructureCache.putTemplate("a", createTemplate(1));
+        StructureCache.putLayout("a", null, Mirror.NONE, createLayout());
+        StructureCache.clear();
+
+        assertNull(StructureCache.getTemplate("a"));
+        assertNull(StructureCache.getLayout("a", null, Mirror.NONE));
+        assertTrue(StructureCache.getStatistics().startsWith("0 templates, 0 blocks"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.minecolonies.structures.helpers;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.Mirror;
+import net.minecraft.util.Rotation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.template.PlacementSettings;
+import net.minecraft.world.gen.structure.template.Template;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests around the rotated layouts of {@link StructureProxy}.
+ */
+public class StructureProxyTest
+{
+    private static final BlockPos SIZE = new BlockPos(3, 2, 5);
+
+    /**
+     * The rotations by the times the structure is rotated.
+     */
+    private static final Rotation[] ROTATIONS = {Rotation.NONE, Rotation.CLOCKWISE_90, Rotation.CLOCKWISE_180, Rotation.COUNTERCLOCKWISE_90};
+
+    @Test
+    public void testRotatedAndMirroredRoundTrip()
+    {
+        final Map<BlockPos, IBlockState> blocks = new HashMap<>();
+        for (int x = 0; x < SIZE.getX(); x++)
+        {
+            for (int y = 0; y < SIZE.getY(); y++)
+            {
+                for (int z = 0; z < SIZE.getZ(); z++)
+                {
+                    blocks.put(new BlockPos(x, y, z), mock(IBlockState.class));
+                }
+            }
+        }
+
+        for (int times = 0; times < ROTATIONS.length; times++)
+        {
+            final Rotation rotation = ROTATIONS[times];
+            final boolean turned = rotation == Rotation.CLOCKWISE_90 || rotation == Rotation.COUNTERCLOCKWISE_90;
+            final BlockPos size = turned ? new BlockPos(SIZE.getZ(), SIZE.getY(), SIZE.getX()) : SIZE;
+
+            for (final Mirror mirror : Mirror.values())
+            {
+                //  The blocks as the structure hands them out with these settings
+                final PlacementSettings settings = new PlacementSettings().setRotation(rotation).setMirror(mirror);
+                final Template.BlockInfo[] infos = new Template.BlockInfo[blocks.size()];
+                int i = 0;
+                for (final Map.Entry<BlockPos, IBlockState> entry : blocks.entrySet())
+                {
+                    infos[i++] = new Template.BlockInfo(Template.transformedBlockPos(settings, entry.getKey()), entry.getValue(), null);
+                }
+
+                final StructureProxy.Layout layout = StructureProxy.createRotatedLayout(size, infos, times);
+                final PackedBlockGrid grid = layout.getBlocks();
+                final String name = rotation + " " + mirror;
+                assertEquals(name, blocks.size(), grid.getVolume());
+                assertEquals(name, blocks.size(), grid.getPaletteSize());
+                for (final Template.BlockInfo info : infos)
+                {
+                    final BlockPos pos = info.pos.add(layout.getMin());
+                    final int index = grid.getIndex(pos);
+                    assertSame(name, info.blockState, grid.getBlockState(index));
+                    assertEquals(name, pos, new BlockPos(grid.getX(index), grid.getY(index), grid.getZ(index)));
+                }
+            }
+        }
+    }
+}